@@ -2,10 +2,14 @@ package dev.mars.apex.core.api;
 
 import dev.mars.apex.core.engine.config.RulesEngine;
 import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
 import dev.mars.apex.core.engine.model.Rule;
 import dev.mars.apex.core.engine.model.RuleResult;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -122,6 +126,20 @@ public class RulesService {
         return check(condition, facts);
     }
     
+    /**
+     * Evaluate a condition against each fact map in a batch.
+     * The condition is parsed once and the fact maps are evaluated in parallel.
+     *
+     * @param condition The SpEL condition to evaluate
+     * @param factsList The fact maps to evaluate against
+     * @return One result per fact map, in input order; false where evaluation failed
+     */
+    public List<Boolean> checkAll(String condition, Collection<? extends Map<String, Object>> factsList) {
+        String ruleId = "check-" + Math.abs(condition.hashCode());
+        Rule rule = createSimpleRule(ruleId, "Check", condition, "Condition met");
+        return toBooleans(engine.executeRuleBatch(rule, factsList));
+    }
+
     /**
      * Define a named rule for reuse.
      * Named rules can be tested multiple times without recompilation.
@@ -180,6 +198,21 @@ public class RulesService {
         return test(ruleName, facts);
     }
     
+    /**
+     * Test a previously defined named rule against each fact map in a batch.
+     *
+     * @param ruleName The name of the rule to test
+     * @param factsList The fact maps to evaluate against
+     * @return One result per fact map, in input order; false where evaluation failed
+     */
+    public List<Boolean> testAll(String ruleName, Collection<? extends Map<String, Object>> factsList) {
+        Rule rule = namedRules.get(ruleName);
+        if (rule == null) {
+            throw new IllegalArgumentException("Rule '" + ruleName + "' not found. Use define() first.");
+        }
+        return toBooleans(engine.executeRuleBatch(rule, factsList));
+    }
+
     /**
      * Start a fluent validation chain for an object.
      * This provides a readable way to validate multiple conditions.
@@ -238,6 +271,14 @@ public class RulesService {
         return namedRules.containsKey(ruleName);
     }
     
+    private static List<Boolean> toBooleans(BatchRuleResult batchResult) {
+        List<Boolean> triggered = new ArrayList<>(batchResult.size());
+        for (RuleResult result : batchResult.getResults()) {
+            triggered.add(result.isTriggered());
+        }
+        return triggered;
+    }
+
     // Helper method to create simple rules
     private Rule createSimpleRule(String id, String name, String condition, String message) {
         RulesEngineConfiguration config = engine.getConfiguration();
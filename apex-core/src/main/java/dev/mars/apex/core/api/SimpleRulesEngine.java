@@ -2,9 +2,11 @@ package dev.mars.apex.core.api;
 
 import dev.mars.apex.core.engine.config.RulesEngine;
 import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
 import dev.mars.apex.core.engine.model.Rule;
 import dev.mars.apex.core.engine.model.RuleResult;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -170,6 +172,21 @@ public class SimpleRulesEngine {
         return evaluate(condition, facts);
     }
     
+    /**
+     * Execute a simple condition against each data map in a batch.
+     * The data maps are evaluated in parallel and the results are returned in input order.
+     *
+     * @param condition The SpEL condition to evaluate
+     * @param dataList The data maps to evaluate against
+     * @return The batch result with one entry per data map and aggregate metrics
+     */
+    public BatchRuleResult evaluateBatch(String condition, Collection<? extends Map<String, Object>> dataList) {
+        String ruleId = "simple-condition-" + condition.hashCode();
+        Rule rule = getOrCreateSimpleRule(ruleId, condition);
+
+        return engine.executeRuleBatch(rule, dataList);
+    }
+
     /**
      * Get access to the underlying rules engine for advanced operations.
      * 
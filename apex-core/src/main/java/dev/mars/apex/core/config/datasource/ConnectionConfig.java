@@ -49,12 +49,16 @@ public class ConnectionConfig {
     private Integer timeout = 30000; // 30 seconds default
     private Integer retryAttempts = 3;
     private Integer retryDelay = 1000; // 1 second default
+    private Integer maxConcurrentRequests = 64; // requests kept in flight by asynchronous batch queries
     private Map<String, String> headers;
     
     // Message queue connection properties
     private String bootstrapServers;
     private String securityProtocol;
     private String saslMechanism;
+    private String consumerGroup;
+    private Integer maxPollRecords = 500; // messages drained per batch
+    private Integer consumerThreads; // workers processing partitions, null for one per processor
     
     // File system connection properties
     private String basePath;
@@ -184,6 +188,14 @@ public class ConnectionConfig {
         this.retryDelay = retryDelay;
     }
     
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+    
+    public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+    
     public Map<String, String> getHeaders() {
         return headers;
     }
@@ -222,6 +234,30 @@ public class ConnectionConfig {
         this.saslMechanism = saslMechanism;
     }
     
+    public String getConsumerGroup() {
+        return consumerGroup;
+    }
+    
+    public void setConsumerGroup(String consumerGroup) {
+        this.consumerGroup = consumerGroup;
+    }
+    
+    public Integer getMaxPollRecords() {
+        return maxPollRecords;
+    }
+    
+    public void setMaxPollRecords(Integer maxPollRecords) {
+        this.maxPollRecords = maxPollRecords;
+    }
+    
+    public Integer getConsumerThreads() {
+        return consumerThreads;
+    }
+    
+    public void setConsumerThreads(Integer consumerThreads) {
+        this.consumerThreads = consumerThreads;
+    }
+    
     // File system connection properties
     
     public String getBasePath() {
@@ -305,6 +341,18 @@ public class ConnectionConfig {
             throw new IllegalArgumentException("Retry delay cannot be negative");
         }
         
+        if (maxConcurrentRequests != null && maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
+        
+        if (maxPollRecords != null && maxPollRecords <= 0) {
+            throw new IllegalArgumentException("Max poll records must be positive");
+        }
+        
+        if (consumerThreads != null && consumerThreads <= 0) {
+            throw new IllegalArgumentException("Consumer threads must be positive");
+        }
+        
         if (connectionPool != null) {
             connectionPool.validate();
         }
@@ -334,12 +382,16 @@ public class ConnectionConfig {
         copy.timeout = this.timeout;
         copy.retryAttempts = this.retryAttempts;
         copy.retryDelay = this.retryDelay;
+        copy.maxConcurrentRequests = this.maxConcurrentRequests;
         copy.headers = new HashMap<>(this.headers);
         
         // Message queue properties
         copy.bootstrapServers = this.bootstrapServers;
         copy.securityProtocol = this.securityProtocol;
         copy.saslMechanism = this.saslMechanism;
+        copy.consumerGroup = this.consumerGroup;
+        copy.maxPollRecords = this.maxPollRecords;
+        copy.consumerThreads = this.consumerThreads;
         
         // File system properties
         copy.basePath = this.basePath;
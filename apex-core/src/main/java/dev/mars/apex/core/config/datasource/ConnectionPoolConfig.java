@@ -45,6 +45,7 @@ public class ConnectionPoolConfig {
     private Long validationInterval = 30000L; // 30 seconds
     private Integer maxRetries = 3;
     private Long retryDelay = 1000L; // 1 second
+    private Integer statementCacheSize = 250; // Prepared statements cached per connection, 0 disables
     
     /**
      * Default constructor with sensible defaults.
@@ -185,6 +186,16 @@ public class ConnectionPoolConfig {
         this.retryDelay = retryDelay;
     }
     
+    // Statement cache configuration
+
+    public Integer getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(Integer statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
     // Validation methods
     
     /**
@@ -236,6 +247,10 @@ public class ConnectionPoolConfig {
         if (retryDelay != null && retryDelay < 0) {
             throw new IllegalArgumentException("Retry delay cannot be negative");
         }
+
+        if (statementCacheSize != null && statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative");
+        }
     }
     
     /**
@@ -258,6 +273,15 @@ public class ConnectionPoolConfig {
         return leakDetectionThreshold != null && leakDetectionThreshold > 0;
     }
     
+    /**
+     * Check if prepared statement caching is enabled.
+     *
+     * @return true if connections should cache prepared statements
+     */
+    public boolean isStatementCacheEnabled() {
+        return statementCacheSize != null && statementCacheSize > 0;
+    }
+
     /**
      * Create a copy of this connection pool configuration.
      * 
@@ -279,6 +303,7 @@ public class ConnectionPoolConfig {
         copy.validationInterval = this.validationInterval;
         copy.maxRetries = this.maxRetries;
         copy.retryDelay = this.retryDelay;
+        copy.statementCacheSize = this.statementCacheSize;
         return copy;
     }
     
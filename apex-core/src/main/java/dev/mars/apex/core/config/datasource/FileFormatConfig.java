@@ -106,6 +106,10 @@ public class FileFormatConfig {
     private String customParser;
     private Map<String, Object> customProperties;
     
+    // Parallel loading configuration for large CSV and JSON lines files
+    private Boolean parallelLoading = false;
+    private Integer parallelism;
+    
     /**
      * Default constructor.
      */
@@ -309,6 +313,28 @@ public class FileFormatConfig {
         this.customProperties = customProperties != null ? customProperties : new HashMap<>();
     }
     
+    // Parallel loading configuration
+    
+    public Boolean getParallelLoading() {
+        return parallelLoading;
+    }
+    
+    public void setParallelLoading(Boolean parallelLoading) {
+        this.parallelLoading = parallelLoading;
+    }
+    
+    public boolean isParallelLoading() {
+        return parallelLoading != null && parallelLoading;
+    }
+    
+    public Integer getParallelism() {
+        return parallelism;
+    }
+    
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+    
     // Validation
     
     /**
@@ -327,6 +353,10 @@ public class FileFormatConfig {
             throw new IllegalArgumentException("Skip lines cannot be negative");
         }
         
+        if (parallelism != null && parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        
         switch (fileType) {
             case CSV:
                 if (delimiter == null || delimiter.isEmpty()) {
@@ -385,6 +415,8 @@ public class FileFormatConfig {
         copy.keyColumn = this.keyColumn;
         copy.customParser = this.customParser;
         copy.customProperties = new HashMap<>(this.customProperties);
+        copy.parallelLoading = this.parallelLoading;
+        copy.parallelism = this.parallelism;
         return copy;
     }
     
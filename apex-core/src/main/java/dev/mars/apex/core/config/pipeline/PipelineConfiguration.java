@@ -104,6 +104,18 @@ public class PipelineConfiguration {
         @JsonProperty("retry-delay-ms")
         private long retryDelayMs = 1000;
         
+        @JsonProperty("max-concurrency")
+        private int maxConcurrency = 0; // steps run at once in parallel mode, 0 for the number of processors
+        
+        @JsonProperty("streaming")
+        private boolean streaming = false; // stream records from extract steps through the steps depending on them
+        
+        @JsonProperty("chunk-size")
+        private int chunkSize = 1000; // records per chunk passed between steps
+        
+        @JsonProperty("buffer-chunks")
+        private int bufferChunks = 4; // chunks buffered ahead of each streaming step
+        
         // Getters and Setters
         public String getMode() { return mode; }
         public void setMode(String mode) { this.mode = mode; }
@@ -116,6 +128,18 @@ public class PipelineConfiguration {
         
         public long getRetryDelayMs() { return retryDelayMs; }
         public void setRetryDelayMs(long retryDelayMs) { this.retryDelayMs = retryDelayMs; }
+        
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+        
+        public boolean isStreaming() { return streaming; }
+        public void setStreaming(boolean streaming) { this.streaming = streaming; }
+        
+        public int getChunkSize() { return chunkSize; }
+        public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+        
+        public int getBufferChunks() { return bufferChunks; }
+        public void setBufferChunks(int bufferChunks) { this.bufferChunks = bufferChunks; }
     }
     
     /**
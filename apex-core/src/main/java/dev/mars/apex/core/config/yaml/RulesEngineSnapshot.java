@@ -0,0 +1,194 @@
+package dev.mars.apex.core.config.yaml;
+
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
+import dev.mars.apex.core.engine.model.RuleBase;
+import dev.mars.apex.core.engine.model.RuleGroup;
+import dev.mars.apex.core.engine.model.RuleResult;
+import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * A rules engine compiled once from a YAML configuration and never changed afterwards.
+ *
+ * Building a snapshot parses every rule condition, including the rules inside rule groups,
+ * and indexes the rules by category, so evaluations do no parsing or category resolution.
+ * The snapshot also carries the configuration's enrichments and the enrichment processor,
+ * with its lookup services, that applies them. Because nothing in a snapshot changes, any
+ * number of threads can evaluate against it while a {@link RulesEngineSnapshotHolder}
+ * publishes a replacement built from a newer configuration.
+ *
+ * Snapshots are created by {@link YamlRulesEngineService#createSnapshot(YamlRuleConfiguration)}.
+ * The YAML configuration and engine they hold must not be modified.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class RulesEngineSnapshot {
+
+    private final long version;
+    private final Instant createdAt;
+    private final YamlRuleConfiguration yamlConfiguration;
+    private final RulesEngine engine;
+    private final Map<String, List<RuleBase>> rulesByCategory;
+    private final List<YamlEnrichment> enrichments;
+    private final YamlEnrichmentProcessor enrichmentProcessor;
+
+    RulesEngineSnapshot(long version, YamlRuleConfiguration yamlConfiguration, RulesEngine engine,
+                        YamlEnrichmentProcessor enrichmentProcessor) {
+        this.version = version;
+        this.createdAt = Instant.now();
+        this.yamlConfiguration = yamlConfiguration;
+        this.engine = engine;
+        this.enrichmentProcessor = enrichmentProcessor;
+
+        RulesEngineConfiguration configuration = engine.getConfiguration();
+        for (RuleGroup group : configuration.getAllRuleGroups()) {
+            engine.getExpressionCache().precompileAll(group.getRules());
+        }
+
+        Map<String, List<RuleBase>> index = new LinkedHashMap<>();
+        for (String category : configuration.getCategoryNames()) {
+            index.put(category, List.copyOf(configuration.getRulesForCategory(category)));
+        }
+        this.rulesByCategory = Collections.unmodifiableMap(index);
+
+        List<YamlEnrichment> configuredEnrichments = yamlConfiguration.getEnrichments();
+        this.enrichments = configuredEnrichments != null ? List.copyOf(configuredEnrichments) : List.of();
+    }
+
+    /**
+     * Get the version of this snapshot. Snapshots created later by the same service have
+     * higher versions.
+     *
+     * @return The snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the time this snapshot was built.
+     *
+     * @return The creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Get the YAML configuration this snapshot was built from.
+     *
+     * @return The YAML configuration
+     */
+    public YamlRuleConfiguration getYamlConfiguration() {
+        return yamlConfiguration;
+    }
+
+    /**
+     * Get the compiled rules engine.
+     *
+     * @return The rules engine
+     */
+    public RulesEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the names of the categories that have rules.
+     *
+     * @return The category names
+     */
+    public Set<String> getCategoryNames() {
+        return rulesByCategory.keySet();
+    }
+
+    /**
+     * Get the rules and rule groups of a category.
+     *
+     * @param category The category name
+     * @return The rules of the category, empty if the category has none
+     */
+    public List<RuleBase> getRulesForCategory(String category) {
+        return rulesByCategory.getOrDefault(category, List.of());
+    }
+
+    /**
+     * Execute the rules of a category against the provided facts.
+     *
+     * @param category The category of rules to execute
+     * @param facts The facts to evaluate the rules against
+     * @return The result of the first rule that matches, or a default result if no rules match
+     */
+    public RuleResult executeRulesForCategory(String category, Map<String, Object> facts) {
+        return engine.executeRules(getRulesForCategory(category), facts);
+    }
+
+    /**
+     * Execute the rules of a category against each fact map in a batch.
+     *
+     * @param category The category of rules to execute
+     * @param factsList The fact maps to evaluate the rules against
+     * @return The results in input order
+     */
+    public BatchRuleResult executeRulesForCategoryBatch(String category, Collection<? extends Map<String, Object>> factsList) {
+        return engine.executeRulesBatch(getRulesForCategory(category), factsList);
+    }
+
+    /**
+     * Get the enrichments of the configuration.
+     *
+     * @return The enrichments, empty if the configuration has none
+     */
+    public List<YamlEnrichment> getEnrichments() {
+        return enrichments;
+    }
+
+    /**
+     * Apply the configuration's enrichments to an object.
+     *
+     * @param target The object to enrich
+     * @return The enriched object, or the object itself if there is nothing to apply
+     */
+    public Object processEnrichments(Object target) {
+        if (enrichments.isEmpty() || enrichmentProcessor == null) {
+            return target;
+        }
+        return enrichmentProcessor.processEnrichments(enrichments, target);
+    }
+
+    @Override
+    public String toString() {
+        return "RulesEngineSnapshot{" +
+               "version=" + version +
+               ", createdAt=" + createdAt +
+               ", categories=" + rulesByCategory.keySet() +
+               ", enrichments=" + enrichments.size() +
+               '}';
+    }
+}
@@ -443,8 +443,22 @@ public class YamlDataSink {
     }
     
     private OutputFormatConfig convertToOutputFormatConfig(Map<String, Object> map) {
-        // TODO: Implement conversion logic for OutputFormatConfig
-        return new OutputFormatConfig();
+        OutputFormatConfig config = new OutputFormatConfig();
+
+        // Unset keys keep the OutputFormatConfig defaults
+        config.setFormat(getStringValue(map, "format", config.getFormat()));
+        config.setEncoding(getStringValue(map, "encoding", config.getEncoding()));
+        config.setPrettyPrint(getBooleanValue(map, "pretty-print", config.getPrettyPrint()));
+        config.setDateFormat(getStringValue(map, "date-format", config.getDateFormat()));
+
+        // CSV settings
+        config.setDelimiter(getStringValue(map, "delimiter", config.getDelimiter()));
+        config.setQuoteCharacter(getStringValue(map, "quote-character", config.getQuoteCharacter()));
+        config.setEscapeCharacter(getStringValue(map, "escape-character", config.getEscapeCharacter()));
+        config.setIncludeHeader(getBooleanValue(map, "include-header", config.getIncludeHeader()));
+        config.setLineEnding(getStringValue(map, "line-ending", config.getLineEnding()));
+
+        return config;
     }
     
     private ErrorHandlingConfig convertToErrorHandlingConfig(Map<String, Object> map) {
@@ -453,8 +467,43 @@ public class YamlDataSink {
     }
     
     private BatchConfig convertToBatchConfig(Map<String, Object> map) {
-        // TODO: Implement conversion logic for BatchConfig
-        return new BatchConfig();
+        BatchConfig config = new BatchConfig();
+
+        // Batch sizing; unset keys keep the BatchConfig defaults
+        config.setEnabled(getBooleanValue(map, "enabled", config.getEnabled()));
+        config.setMode(getStringValue(map, "mode", config.getMode()));
+        config.setBatchSize(getIntegerValue(map, "batch-size", config.getBatchSize()));
+        config.setMaxBatchSize(getIntegerValue(map, "max-batch-size", config.getMaxBatchSize()));
+        config.setMinBatchSize(getIntegerValue(map, "min-batch-size", config.getMinBatchSize()));
+
+        // Time-based batching
+        config.setBatchTimeoutMs(getLongValue(map, "timeout-ms", config.getBatchTimeoutMs()));
+        config.setMaxBatchTimeoutMs(getLongValue(map, "max-timeout-ms", config.getMaxBatchTimeoutMs()));
+        config.setFlushIntervalMs(getLongValue(map, "flush-interval-ms", config.getFlushIntervalMs()));
+
+        // Transaction management
+        config.setTransactionMode(getStringValue(map, "transaction-mode", config.getTransactionMode()));
+        config.setTransactionTimeoutMs(getLongValue(map, "transaction-timeout-ms", config.getTransactionTimeoutMs()));
+        config.setIsolationLevel(getStringValue(map, "isolation-level", config.getIsolationLevel()));
+
+        // Memory management
+        config.setMaxMemoryUsageMB(getLongValue(map, "max-memory-usage-mb", config.getMaxMemoryUsageMB()));
+        config.setEnableMemoryMonitoring(getBooleanValue(map, "enable-memory-monitoring",
+                                                         config.getEnableMemoryMonitoring()));
+
+        // Performance tuning
+        config.setParallelBatches(getIntegerValue(map, "parallel-batches", config.getParallelBatches()));
+        config.setEnableCompression(getBooleanValue(map, "enable-compression", config.getEnableCompression()));
+        config.setCompressionAlgorithm(getStringValue(map, "compression-algorithm", config.getCompressionAlgorithm()));
+        config.setBufferSize(getIntegerValue(map, "buffer-size", config.getBufferSize()));
+        config.setEnableBuffering(getBooleanValue(map, "enable-buffering", config.getEnableBuffering()));
+        config.setMaintainOrder(getBooleanValue(map, "maintain-order", config.getMaintainOrder()));
+
+        // Monitoring
+        config.setEnableMetrics(getBooleanValue(map, "enable-metrics", config.getEnableMetrics()));
+        config.setLogBatchStatistics(getBooleanValue(map, "log-batch-statistics", config.getLogBatchStatistics()));
+
+        return config;
     }
     
     private SchemaConfig convertToSchemaConfig(Map<String, Object> map) {
@@ -527,6 +576,21 @@ public class YamlDataSink {
         return value != null ? value : defaultValue;
     }
 
+    private Long getLongValue(Map<String, Object> map, String key, Long defaultValue) {
+        Object value = map.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
     private Boolean getBooleanValue(Map<String, Object> map, String key, Boolean defaultValue) {
         Object value = map.get(key);
         if (value instanceof Boolean) {
@@ -392,6 +392,7 @@ public class YamlDataSource {
         config.setTimeout(getIntegerValue(map, "timeout"));
         config.setRetryAttempts(getIntegerValue(map, "retry-attempts"));
         config.setRetryDelay(getIntegerValue(map, "retry-delay"));
+        config.setMaxConcurrentRequests(getIntegerValue(map, "max-concurrent-requests"));
         
         // Headers
         @SuppressWarnings("unchecked")
@@ -404,6 +405,9 @@ public class YamlDataSource {
         config.setBootstrapServers(getStringValue(map, "bootstrap-servers"));
         config.setSecurityProtocol(getStringValue(map, "security-protocol"));
         config.setSaslMechanism(getStringValue(map, "sasl-mechanism"));
+        config.setConsumerGroup(getStringValue(map, "consumer-group"));
+        config.setMaxPollRecords(getIntegerValue(map, "max-poll-records"));
+        config.setConsumerThreads(getIntegerValue(map, "consumer-threads"));
         
         // File system properties
         config.setBasePath(getStringValue(map, "base-path"));
@@ -440,6 +444,10 @@ public class YamlDataSource {
         config.setValidationInterval(getLongValue(map, "validation-interval"));
         config.setMaxRetries(getIntegerValue(map, "max-retries"));
         config.setRetryDelay(getLongValue(map, "retry-delay"));
+        Integer statementCacheSize = getIntegerValue(map, "statement-cache-size");
+        if (statementCacheSize != null) {
+            config.setStatementCacheSize(statementCacheSize);
+        }
         return config;
     }
     
@@ -627,6 +635,8 @@ public class YamlDataSource {
 
         config.setKeyColumn(getStringValue(map, "key-column"));
         config.setCustomParser(getStringValue(map, "custom-parser"));
+        config.setParallelLoading(getBooleanValue(map, "parallel-loading", false));
+        config.setParallelism(getIntegerValue(map, "parallelism"));
 
         @SuppressWarnings("unchecked")
         Map<String, Object> customProps = (Map<String, Object>) map.get("custom-properties");
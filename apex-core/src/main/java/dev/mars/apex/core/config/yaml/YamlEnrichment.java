@@ -270,11 +270,15 @@ public class YamlEnrichment {
 
         @JsonProperty("cache-ttl-seconds")
         private Integer cacheTtlSeconds;
+
+        @JsonProperty("cache-max-size")
+        private Integer cacheMaxSize; // Maximum cached results for the lookup service
         
         // Default constructor
         public LookupConfig() {
             this.cacheEnabled = true;
             this.cacheTtlSeconds = 300; // 5 minutes default
+            this.cacheMaxSize = 10000;
         }
         
         // Getters and setters
@@ -310,6 +314,14 @@ public class YamlEnrichment {
             this.cacheTtlSeconds = cacheTtlSeconds;
         }
 
+        public Integer getCacheMaxSize() {
+            return cacheMaxSize;
+        }
+
+        public void setCacheMaxSize(Integer cacheMaxSize) {
+            this.cacheMaxSize = cacheMaxSize;
+        }
+
         public LookupDataset getLookupDataset() {
             return lookupDataset;
         }
@@ -2,8 +2,10 @@ package dev.mars.apex.core.config.yaml;
 
 import dev.mars.apex.core.engine.config.RulesEngine;
 import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
 import java.io.File;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /*
@@ -37,6 +39,7 @@ public class YamlRulesEngineService {
     
     private final YamlConfigurationLoader configLoader;
     private final YamlRuleFactory ruleFactory;
+    private final AtomicLong snapshotVersions = new AtomicLong();
     
     /**
      * Constructor with default configuration loader and rule factory.
@@ -89,6 +92,39 @@ public class YamlRulesEngineService {
         }
     }
 
+    /**
+     * Compile a YAML configuration into an immutable rules engine snapshot, without
+     * enrichment support.
+     *
+     * @param yamlConfig The YAML configuration
+     * @return The compiled snapshot
+     * @throws YamlConfigurationException if configuration processing fails
+     * @see RulesEngineSnapshotHolder
+     */
+    public RulesEngineSnapshot createSnapshot(YamlRuleConfiguration yamlConfig) throws YamlConfigurationException {
+        return createSnapshot(yamlConfig, null);
+    }
+
+    /**
+     * Compile a YAML configuration into an immutable rules engine snapshot.
+     *
+     * @param yamlConfig The YAML configuration
+     * @param enrichmentProcessor The processor, with its lookup services, that applies the
+     *                            configuration's enrichments, or null for none
+     * @return The compiled snapshot
+     * @throws YamlConfigurationException if configuration processing fails
+     * @see RulesEngineSnapshotHolder
+     */
+    public RulesEngineSnapshot createSnapshot(YamlRuleConfiguration yamlConfig,
+                                              YamlEnrichmentProcessor enrichmentProcessor) throws YamlConfigurationException {
+        RulesEngine engine = createRulesEngineFromYamlConfig(yamlConfig);
+        try {
+            return new RulesEngineSnapshot(snapshotVersions.incrementAndGet(), yamlConfig, engine, enrichmentProcessor);
+        } catch (RuntimeException e) {
+            throw new YamlConfigurationException("Failed to compile rules engine snapshot", e);
+        }
+    }
+
     /**
      * Create a rules engine from a YAML configuration file (legacy method).
      *
@@ -215,6 +251,9 @@ public class YamlRulesEngineService {
     
     /**
      * Update an existing rules engine with new YAML configuration.
+     * The engine's configuration is changed in place, so evaluations running on other threads
+     * may see a partial update; {@link RulesEngineSnapshotHolder} replaces configurations
+     * without affecting running evaluations.
      * 
      * @param engine The existing rules engine
      * @param filePath The path to the new YAML configuration file
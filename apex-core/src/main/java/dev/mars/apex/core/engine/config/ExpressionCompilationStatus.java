@@ -0,0 +1,67 @@
+package dev.mars.apex.core.engine.config;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Whether a cached SpEL expression runs as generated bytecode or through the interpreter.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public enum ExpressionCompilationStatus {
+    /**
+     * The SpEL compiler is not enabled for the parser that produced the expression.
+     */
+    DISABLED("Disabled", "SpEL compilation is not enabled"),
+
+    /**
+     * The expression has not been evaluated yet, so the compiler has no type information for it.
+     */
+    NOT_EVALUATED("Not Evaluated", "Expression has not been evaluated yet"),
+
+    /**
+     * The expression has been compiled to bytecode.
+     */
+    COMPILED("Compiled", "Expression runs as compiled bytecode"),
+
+    /**
+     * The expression could not be compiled and stays on the interpreter.
+     */
+    INTERPRETED("Interpreted", "Expression could not be compiled and is interpreted");
+
+    private final String displayName;
+    private final String description;
+
+    ExpressionCompilationStatus(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
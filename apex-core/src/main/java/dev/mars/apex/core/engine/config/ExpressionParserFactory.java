@@ -0,0 +1,86 @@
+package dev.mars.apex.core.engine.config;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Factory for SpEL parsers with an optional compiler mode.
+ *
+ * With {@link SpelCompilerMode#MIXED} expressions start out interpreted, are compiled to
+ * bytecode once SpEL has seen enough evaluations to know their types, and fall back to the
+ * interpreter if compiled code fails. Expressions that cannot be compiled at all, such as
+ * property access through {@link MapPropertyAccessor}, simply stay interpreted.
+ * {@link SpelCompilerMode#IMMEDIATE} compiles after the first evaluation but propagates
+ * failures of compiled code instead of falling back, so MIXED is the safer choice for rules.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class ExpressionParserFactory {
+
+    private ExpressionParserFactory() {
+        // Utility class
+    }
+
+    /**
+     * Create a SpEL parser using the given compiler mode.
+     *
+     * @param compilerMode The compiler mode, or null for {@link SpelCompilerMode#OFF}
+     * @return A new SpEL parser
+     */
+    public static SpelExpressionParser createParser(SpelCompilerMode compilerMode) {
+        if (compilerMode == null || compilerMode == SpelCompilerMode.OFF) {
+            return new SpelExpressionParser();
+        }
+        SpelParserConfiguration parserConfiguration =
+            new SpelParserConfiguration(compilerMode, ExpressionParserFactory.class.getClassLoader());
+        return new SpelExpressionParser(parserConfiguration);
+    }
+
+    /**
+     * Determine the compilation status of an expression that has been evaluated at least once.
+     * If the expression is not compiled yet, compilation is attempted now; expressions that
+     * cannot be compiled report {@link ExpressionCompilationStatus#INTERPRETED}.
+     *
+     * @param expression The parsed expression
+     * @param compilerMode The compiler mode of the parser that produced the expression
+     * @return The compilation status
+     */
+    public static ExpressionCompilationStatus compilationStatus(Expression expression, SpelCompilerMode compilerMode) {
+        if (compilerMode == null || compilerMode == SpelCompilerMode.OFF) {
+            return ExpressionCompilationStatus.DISABLED;
+        }
+        if (!(expression instanceof SpelExpression)) {
+            return ExpressionCompilationStatus.INTERPRETED;
+        }
+
+        try {
+            return ((SpelExpression) expression).compileExpression()
+                ? ExpressionCompilationStatus.COMPILED
+                : ExpressionCompilationStatus.INTERPRETED;
+        } catch (Exception e) {
+            // IMMEDIATE mode reports compiler failures as exceptions
+            return ExpressionCompilationStatus.INTERPRETED;
+        }
+    }
+}
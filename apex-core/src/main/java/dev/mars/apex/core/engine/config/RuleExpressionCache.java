@@ -0,0 +1,321 @@
+package dev.mars.apex.core.engine.config;
+
+import dev.mars.apex.core.engine.model.Rule;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Cache of parsed SpEL expressions for rule conditions.
+ *
+ * Expressions are keyed by their condition string, so a rule that is replaced through
+ * {@link Rule#withMetadata} or {@link Rule#withStatus} keeps reusing the already parsed
+ * expression, while a rule re-registered with a different condition gets a fresh entry.
+ * Registered rules are parsed up front by {@link RulesEngineConfiguration}; conditions
+ * that are only seen at evaluation time are parsed on first use and cached until the
+ * cache reaches its maximum size, after which they are parsed per call but never evict
+ * the registered rules.
+ *
+ * Parsed SpEL expressions are safe to evaluate concurrently, so a single cache can be
+ * shared by every engine that uses the same parser. When the parser was created with a
+ * SpEL compiler mode (see {@link ExpressionParserFactory}), the cache also reports which
+ * conditions were compiled to bytecode and which remain interpreted.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class RuleExpressionCache {
+    private static final Logger LOGGER = Logger.getLogger(RuleExpressionCache.class.getName());
+
+    /** Default maximum number of cached expressions. */
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final ExpressionParser parser;
+    private final int maxSize;
+    private final SpelCompilerMode compilerMode;
+    private final ConcurrentHashMap<String, CachedExpression> expressionsByCondition = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Create a new cache with the default maximum size.
+     *
+     * @param parser The parser used to parse conditions on a cache miss
+     */
+    public RuleExpressionCache(ExpressionParser parser) {
+        this(parser, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param parser The parser used to parse conditions on a cache miss
+     * @param maxSize The maximum number of expressions to keep
+     */
+    public RuleExpressionCache(ExpressionParser parser, int maxSize) {
+        this(parser, maxSize, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * Create a new cache for a parser that was configured with a SpEL compiler mode.
+     *
+     * @param parser The parser used to parse conditions on a cache miss
+     * @param maxSize The maximum number of expressions to keep
+     * @param compilerMode The compiler mode the parser was configured with
+     */
+    public RuleExpressionCache(ExpressionParser parser, int maxSize, SpelCompilerMode compilerMode) {
+        if (parser == null) {
+            throw new IllegalArgumentException("Expression parser cannot be null");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum cache size must be positive");
+        }
+        this.parser = parser;
+        this.maxSize = maxSize;
+        this.compilerMode = compilerMode != null ? compilerMode : SpelCompilerMode.OFF;
+    }
+
+    /**
+     * Get the parsed expression for a rule's condition, parsing it on a cache miss.
+     *
+     * @param rule The rule whose condition should be returned
+     * @return The parsed expression
+     */
+    public Expression getExpression(Rule rule) {
+        return getExpression(rule.getCondition());
+    }
+
+    /**
+     * Get the parsed expression for a condition, parsing it on a cache miss.
+     * Parse errors are propagated to the caller and nothing is cached for the condition.
+     *
+     * @param condition The SpEL condition
+     * @return The parsed expression
+     */
+    public Expression getExpression(String condition) {
+        CachedExpression cached = expressionsByCondition.get(condition);
+        if (cached != null) {
+            hitCount.increment();
+            return cached.use();
+        }
+
+        missCount.increment();
+        CachedExpression parsed = new CachedExpression(parser.parseExpression(condition));
+        if (expressionsByCondition.size() < maxSize) {
+            CachedExpression existing = expressionsByCondition.putIfAbsent(condition, parsed);
+            if (existing != null) {
+                return existing.use();
+            }
+        }
+        return parsed.use();
+    }
+
+    /**
+     * Parse and cache a rule's condition ahead of evaluation.
+     * Invalid conditions are logged and left uncached so that evaluation reports the error.
+     *
+     * @param rule The rule to precompile
+     * @return true if the condition is now cached, false otherwise
+     */
+    public boolean precompile(Rule rule) {
+        String condition = rule.getCondition();
+        if (condition == null) {
+            return false;
+        }
+        if (expressionsByCondition.containsKey(condition)) {
+            return true;
+        }
+
+        try {
+            expressionsByCondition.putIfAbsent(condition, new CachedExpression(parser.parseExpression(condition)));
+            return true;
+        } catch (Exception e) {
+            LOGGER.warning("Could not precompile condition for rule '" + rule.getName() + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parse and cache the conditions of several rules ahead of evaluation.
+     *
+     * @param rules The rules to precompile
+     */
+    public void precompileAll(Collection<Rule> rules) {
+        for (Rule rule : rules) {
+            precompile(rule);
+        }
+    }
+
+    /**
+     * Remove the cached expression for a condition.
+     *
+     * @param condition The condition to invalidate
+     */
+    public void invalidate(String condition) {
+        if (condition != null) {
+            expressionsByCondition.remove(condition);
+        }
+    }
+
+    /**
+     * Remove all cached expressions. Hit and miss counts are kept.
+     */
+    public void clear() {
+        expressionsByCondition.clear();
+    }
+
+    /**
+     * Check whether a condition currently has a cached expression.
+     *
+     * @param condition The condition to check
+     * @return true if the condition is cached
+     */
+    public boolean contains(String condition) {
+        return condition != null && expressionsByCondition.containsKey(condition);
+    }
+
+    /**
+     * Get the compilation status of a condition.
+     * Conditions that have been evaluated but are not compiled yet are compiled on demand,
+     * so the report also works before SpEL's own MIXED-mode threshold has been reached.
+     *
+     * @param condition The condition to check
+     * @return The compilation status, or {@link ExpressionCompilationStatus#NOT_EVALUATED}
+     *         if the condition is not cached or has not been evaluated yet
+     */
+    public ExpressionCompilationStatus getCompilationStatus(String condition) {
+        if (compilerMode == SpelCompilerMode.OFF) {
+            return ExpressionCompilationStatus.DISABLED;
+        }
+        CachedExpression cached = condition != null ? expressionsByCondition.get(condition) : null;
+        if (cached == null || !cached.used) {
+            return ExpressionCompilationStatus.NOT_EVALUATED;
+        }
+        return ExpressionParserFactory.compilationStatus(cached.expression, compilerMode);
+    }
+
+    /**
+     * Get the SpEL compiler mode of the parser used by this cache.
+     *
+     * @return The compiler mode
+     */
+    public SpelCompilerMode getCompilerMode() {
+        return compilerMode;
+    }
+
+    /**
+     * Get the parser used by this cache.
+     *
+     * @return The expression parser
+     */
+    public ExpressionParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Get the number of cached expressions.
+     *
+     * @return The cache size
+     */
+    public int size() {
+        return expressionsByCondition.size();
+    }
+
+    /**
+     * Get the maximum number of cached expressions.
+     *
+     * @return The maximum cache size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return The hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the number of lookups that required parsing the condition.
+     *
+     * @return The miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get the ratio of hits to total lookups.
+     *
+     * @return The hit rate between 0.0 and 1.0, or 0.0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "RuleExpressionCache{" +
+                "size=" + size() +
+                ", maxSize=" + maxSize +
+                ", compilerMode=" + compilerMode +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                '}';
+    }
+
+    /**
+     * A parsed expression together with whether it has been handed out for evaluation.
+     */
+    private static final class CachedExpression {
+        private final Expression expression;
+        private volatile boolean used;
+
+        private CachedExpression(Expression expression) {
+            this.expression = expression;
+        }
+
+        private Expression use() {
+            if (!used) {
+                used = true;
+            }
+            return expression;
+        }
+    }
+}
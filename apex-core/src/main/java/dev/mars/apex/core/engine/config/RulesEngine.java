@@ -1,5 +1,7 @@
 package dev.mars.apex.core.engine.config;
 
+import dev.mars.apex.core.engine.context.EvaluationContextTemplate;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
 import dev.mars.apex.core.engine.model.Rule;
 import dev.mars.apex.core.engine.model.RuleBase;
 import dev.mars.apex.core.engine.model.RuleGroup;
@@ -14,10 +16,15 @@ import dev.mars.apex.core.util.RulesEngineLogger;
 import dev.mars.apex.core.util.TestAwareLogger;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /*
  * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
@@ -53,12 +60,18 @@ import java.util.*;
  * Configuration is handled by the RulesEngineConfiguration class.
  */
 public class RulesEngine {
+    /** Default number of fact maps a batch task evaluates before splitting stops. */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 256;
+
     private static final RulesEngineLogger logger = new RulesEngineLogger(RulesEngine.class);
+    private static final EvaluationContextTemplate CONTEXT_TEMPLATE = EvaluationContextTemplate.builder()
+        .withPropertyAccessor(new MapPropertyAccessor())
+        .build();
     private final ExpressionParser parser;
     private final RulesEngineConfiguration configuration;
     private final ErrorRecoveryService errorRecoveryService;
     private final RulePerformanceMonitor performanceMonitor;
-
+    private final RuleExpressionCache expressionCache;
 
     /**
      * Create a new RulesEngine with the given configuration.
@@ -66,7 +79,20 @@ public class RulesEngine {
      * @param configuration The configuration for this rules engine
      */
     public RulesEngine(RulesEngineConfiguration configuration) {
-        this(configuration, new SpelExpressionParser(), new ErrorRecoveryService(), new RulePerformanceMonitor());
+        this(configuration, configuration.getExpressionParser(), new ErrorRecoveryService(), new RulePerformanceMonitor());
+    }
+
+    /**
+     * Create a new RulesEngine whose expressions are compiled to bytecode by the SpEL compiler.
+     * Rules that cannot be compiled keep running through the interpreter; use
+     * {@link #getCompilationReport()} to see which rules were compiled.
+     *
+     * @param configuration The configuration for this rules engine
+     * @param compilerMode The SpEL compiler mode, typically {@link SpelCompilerMode#MIXED}
+     */
+    public RulesEngine(RulesEngineConfiguration configuration, SpelCompilerMode compilerMode) {
+        this(configuration, ExpressionParserFactory.createParser(compilerMode), compilerMode,
+             new ErrorRecoveryService(), new RulePerformanceMonitor());
     }
 
     /**
@@ -92,6 +118,8 @@ public class RulesEngine {
 
     /**
      * Create a new RulesEngine with the given configuration, expression parser, error recovery service, and performance monitor.
+     * When the parser is the configuration's own parser, the configuration's expression cache is shared;
+     * otherwise the engine keeps its own cache, seeded with the configuration's registered rules.
      *
      * @param configuration The configuration for this rules engine
      * @param parser The expression parser to use
@@ -100,16 +128,25 @@ public class RulesEngine {
      */
     public RulesEngine(RulesEngineConfiguration configuration, ExpressionParser parser,
                       ErrorRecoveryService errorRecoveryService, RulePerformanceMonitor performanceMonitor) {
+        this(configuration, parser, SpelCompilerMode.OFF, errorRecoveryService, performanceMonitor);
+    }
+
+    private RulesEngine(RulesEngineConfiguration configuration, ExpressionParser parser, SpelCompilerMode compilerMode,
+                        ErrorRecoveryService errorRecoveryService, RulePerformanceMonitor performanceMonitor) {
         this.configuration = configuration;
         this.parser = parser;
         this.errorRecoveryService = errorRecoveryService;
         this.performanceMonitor = performanceMonitor;
+        this.expressionCache = createExpressionCache(configuration, parser, compilerMode);
+        for (Rule rule : configuration.getAllRules()) {
+            performanceMonitor.registerRule(rule.getName(), rule.getCondition());
+        }
 
         // Initialize logging context
         LoggingContext.initializeContext();
 
         logger.configuration("RulesEngine", "Initialized with configuration: " + configuration.getClass().getSimpleName());
-        logger.debug("Using parser: {}", parser.getClass().getSimpleName());
+        logger.debug("Using parser: {} (compiler mode: {})", parser.getClass().getSimpleName(), compilerMode);
         logger.debug("Using error recovery service: {}", errorRecoveryService.getClass().getSimpleName());
         logger.debug("Using performance monitor: {}", performanceMonitor.getClass().getSimpleName());
     }
@@ -132,41 +169,83 @@ public class RulesEngine {
         return performanceMonitor;
     }
 
-    // Rule Execution Methods
-
     /**
-     * Create an evaluation context with the provided facts.
+     * Get the cache of parsed rule conditions used by this rules engine.
+     * Its hit and miss counts show how often conditions are reused rather than re-parsed.
      *
-     * @param facts The facts to add to the context
-     * @return A new StandardEvaluationContext with the facts added as variables
+     * @return The expression cache
      */
-    private StandardEvaluationContext createContext(Map<String, Object> facts) {
-        logger.debug("Creating evaluation context");
-        StandardEvaluationContext context = new StandardEvaluationContext();
+    public RuleExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
 
-        // Add custom property accessor for Maps
-        context.addPropertyAccessor(new MapPropertyAccessor());
+    /**
+     * Get the compilation status of a rule's condition.
+     *
+     * @param rule The rule to check
+     * @return The compilation status of the rule's condition
+     */
+    public ExpressionCompilationStatus getCompilationStatus(Rule rule) {
+        return expressionCache.getCompilationStatus(rule.getCondition());
+    }
 
-        // Add all facts to the evaluation context
-        if (facts != null) {
-            logger.debug("Adding {} facts to context", facts.size());
+    /**
+     * Report, per rule ID, whether each registered rule (including rules inside rule groups)
+     * has been compiled to bytecode or stays on the interpreter.
+     * Rules that have not been evaluated yet are reported as
+     * {@link ExpressionCompilationStatus#NOT_EVALUATED}.
+     *
+     * @return Compilation status by rule ID, sorted by rule ID
+     */
+    public Map<String, ExpressionCompilationStatus> getCompilationReport() {
+        Map<String, ExpressionCompilationStatus> report = new TreeMap<>();
+        for (Rule rule : configuration.getAllRules()) {
+            report.put(rule.getId(), getCompilationStatus(rule));
+        }
+        for (RuleGroup group : configuration.getAllRuleGroups()) {
+            for (Rule rule : group.getRules()) {
+                report.putIfAbsent(rule.getId(), getCompilationStatus(rule));
+            }
+        }
+        return report;
+    }
 
-            // Set the facts map as the root object so properties can be accessed directly
-            context.setRootObject(facts);
+    /**
+     * Select the expression cache for an engine: the configuration's cache when it was
+     * built with the same parser, or a private cache seeded with the registered rules.
+     */
+    private static RuleExpressionCache createExpressionCache(RulesEngineConfiguration configuration,
+                                                             ExpressionParser parser, SpelCompilerMode compilerMode) {
+        RuleExpressionCache sharedCache = configuration.getExpressionCache();
+        if (sharedCache.getParser() == parser) {
+            return sharedCache;
+        }
 
-            // Also add facts as variables for backward compatibility (accessed with #variableName)
-            for (Map.Entry<String, Object> fact : facts.entrySet()) {
-                context.setVariable(fact.getKey(), fact.getValue());
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Added fact: {} = {}", fact.getKey(),
-                        fact.getValue() != null ? fact.getValue().getClass().getSimpleName() : "null");
-                }
-            }
-        } else {
-            logger.debug("No facts provided to context");
+        RuleExpressionCache engineCache =
+            new RuleExpressionCache(parser, RuleExpressionCache.DEFAULT_MAX_SIZE, compilerMode);
+        engineCache.precompileAll(configuration.getAllRules());
+        for (RuleGroup group : configuration.getAllRuleGroups()) {
+            engineCache.precompileAll(group.getRules());
         }
+        return engineCache;
+    }
 
-        return context;
+    // Rule Execution Methods
+
+    /**
+     * Create an evaluation context with the provided facts.
+     * The facts map is both the root object, so properties can be accessed directly, and the
+     * source of variables (accessed with #variableName) for backward compatibility. It is bound
+     * by reference rather than copied into the context.
+     *
+     * @param facts The facts to add to the context
+     * @return A new evaluation context backed by the facts
+     */
+    private StandardEvaluationContext createContext(Map<String, Object> facts) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Creating evaluation context with {} facts", facts != null ? facts.size() : 0);
+        }
+        return CONTEXT_TEMPLATE.createContext(facts);
     }
 
     /**
@@ -205,7 +284,7 @@ public class RulesEngine {
 
         // Evaluate the rule
         try {
-            Expression exp = parser.parseExpression(rule.getCondition());
+            Expression exp = expressionCache.getExpression(rule);
             Boolean result = exp.getValue(context, Boolean.class);
 
             // Complete performance monitoring for successful evaluation
@@ -290,7 +369,7 @@ public class RulesEngine {
         for (Rule rule : rules) {
             logger.debug("Evaluating rule: {}", rule.getName());
             try {
-                Expression exp = parser.parseExpression(rule.getCondition());
+                Expression exp = expressionCache.getExpression(rule);
                 Boolean result = exp.getValue(context, Boolean.class);
                 logger.debug("Rule '{}' evaluated to: {}", rule.getName(), result);
 
@@ -329,7 +408,7 @@ public class RulesEngine {
         for (RuleGroup group : ruleGroups) {
             logger.debug("Evaluating rule group: {}", group.getName());
             try {
-                boolean result = group.evaluate(context);
+                boolean result = group.evaluate(context, expressionCache::getExpression, configuration.getParallelExecutor());
                 logger.debug("Rule group '{}' evaluated to: {}", group.getName(), result);
 
                 if (result) {
@@ -399,7 +478,7 @@ public class RulesEngine {
             try {
                 if (ruleObj instanceof Rule) {
                     Rule rule = (Rule) ruleObj;
-                    Expression exp = parser.parseExpression(rule.getCondition());
+                    Expression exp = expressionCache.getExpression(rule);
                     Boolean result = exp.getValue(context, Boolean.class);
                     logger.debug("Rule '{}' evaluated to: {}", rule.getName(), result);
 
@@ -409,7 +488,7 @@ public class RulesEngine {
                     }
                 } else if (ruleObj instanceof RuleGroup) {
                     RuleGroup group = (RuleGroup) ruleObj;
-                    boolean result = group.evaluate(context);
+                    boolean result = group.evaluate(context, expressionCache::getExpression, configuration.getParallelExecutor());
                     logger.debug("Rule group '{}' evaluated to: {}", group.getName(), result);
 
                     if (result) {
@@ -441,6 +520,140 @@ public class RulesEngine {
         return executeRules(rules, facts);
     }
 
+    /**
+     * Execute rules for a specific category against each fact map in a batch.
+     * The category is resolved once and the fact maps are evaluated in parallel chunks on the
+     * common fork-join pool. Each fact map gets the same result that
+     * {@link #executeRulesForCategory(String, Map)} would return for it.
+     *
+     * @param category The category of rules to execute
+     * @param factsList The fact maps to evaluate the rules against
+     * @return The results in input order, with aggregate counts and timing
+     */
+    public BatchRuleResult executeRulesForCategoryBatch(String category, Collection<? extends Map<String, Object>> factsList) {
+        logger.info("Executing rules for category {} against a batch of {} fact maps", category,
+            factsList != null ? factsList.size() : 0);
+        return executeRulesBatch(configuration.getRulesForCategory(category), factsList);
+    }
+
+    /**
+     * Execute rules for a specific category against each fact map of a stream.
+     * The stream is consumed before evaluation starts so that results can be returned in
+     * encounter order.
+     *
+     * @param category The category of rules to execute
+     * @param facts The fact maps to evaluate the rules against
+     * @return The results in encounter order, with aggregate counts and timing
+     */
+    public BatchRuleResult executeRulesForCategoryBatch(String category, Stream<? extends Map<String, Object>> facts) {
+        return executeRulesForCategoryBatch(category, facts.collect(Collectors.toList()));
+    }
+
+    /**
+     * Execute a list of rules against each fact map in a batch, using the default chunk size.
+     *
+     * @param rules The rules to execute (can be a mix of Rule and RuleGroup objects)
+     * @param factsList The fact maps to evaluate the rules against
+     * @return The results in input order, with aggregate counts and timing
+     */
+    public BatchRuleResult executeRulesBatch(List<RuleBase> rules, Collection<? extends Map<String, Object>> factsList) {
+        return executeRulesBatch(rules, factsList, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    /**
+     * Execute a list of rules against each fact map in a batch.
+     * Each fact map gets the same result that {@link #executeRules(List, Map)} would return
+     * for it; a failure for one fact map is reported as an error result and does not affect
+     * the others.
+     *
+     * @param rules The rules to execute (can be a mix of Rule and RuleGroup objects)
+     * @param factsList The fact maps to evaluate the rules against
+     * @param chunkSize The number of fact maps a single fork-join task evaluates
+     * @return The results in input order, with aggregate counts and timing
+     */
+    public BatchRuleResult executeRulesBatch(List<RuleBase> rules, Collection<? extends Map<String, Object>> factsList,
+                                             int chunkSize) {
+        List<RuleBase> resolvedRules = rules != null ? new ArrayList<>(rules) : Collections.emptyList();
+        return executeBatch(factsList, chunkSize, facts -> executeRules(resolvedRules, facts));
+    }
+
+    /**
+     * Execute a single rule against each fact map in a batch.
+     *
+     * @param rule The rule to execute
+     * @param factsList The fact maps to evaluate the rule against
+     * @return The results in input order, with aggregate counts and timing
+     */
+    public BatchRuleResult executeRuleBatch(Rule rule, Collection<? extends Map<String, Object>> factsList) {
+        return executeBatch(factsList, DEFAULT_BATCH_CHUNK_SIZE, facts -> executeRule(rule, facts));
+    }
+
+    private BatchRuleResult executeBatch(Collection<? extends Map<String, Object>> factsList, int chunkSize,
+                                         Function<Map<String, Object>, RuleResult> evaluator) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Batch chunk size must be positive");
+        }
+        List<Map<String, Object>> inputs = factsList != null ? new ArrayList<>(factsList) : Collections.emptyList();
+        RuleResult[] results = new RuleResult[inputs.size()];
+
+        long start = System.nanoTime();
+        if (!inputs.isEmpty()) {
+            ForkJoinPool.commonPool().invoke(new BatchEvaluationTask(inputs, results, 0, inputs.size(), chunkSize, evaluator));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        BatchRuleResult batchResult = new BatchRuleResult(Arrays.asList(results), elapsed);
+        logger.info("Batch evaluation complete: {}", batchResult);
+        return batchResult;
+    }
+
+    /**
+     * Fork-join task that evaluates a range of a batch, writing each result into the slot of
+     * its input so that the batch keeps input order regardless of scheduling.
+     */
+    private static final class BatchEvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Map<String, Object>> inputs;
+        private final transient RuleResult[] results;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final transient Function<Map<String, Object>, RuleResult> evaluator;
+
+        private BatchEvaluationTask(List<Map<String, Object>> inputs, RuleResult[] results, int from, int to,
+                                    int chunkSize, Function<Map<String, Object>, RuleResult> evaluator) {
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = evaluate(inputs.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchEvaluationTask(inputs, results, from, mid, chunkSize, evaluator),
+                      new BatchEvaluationTask(inputs, results, mid, to, chunkSize, evaluator));
+        }
+
+        private RuleResult evaluate(Map<String, Object> facts) {
+            try {
+                return evaluator.apply(facts);
+            } catch (Exception e) {
+                logger.warn("Error evaluating batch entry: {}", e.getMessage(), e);
+                return RuleResult.error("batch", e.getMessage());
+            }
+        }
+    }
+
     /**
      * Simple evaluation method that returns only a boolean indicating whether a rule was triggered.
      * This method is provided for simplicity when only the boolean result is needed.
@@ -8,6 +8,7 @@ import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /*
@@ -43,6 +44,9 @@ import java.util.logging.Logger;
  * 1. Rules by category - for quick lookup of rules by their category
  * 2. Rules by ID - for quick lookup of individual rules
  * 3. Rule groups by ID - for quick lookup of rule groups
+ *
+ * Rule conditions are parsed once at registration time and kept in a
+ * {@link RuleExpressionCache} that engines built on this configuration reuse.
  */
 public class RulesEngineConfiguration {
     private static final Logger LOGGER = Logger.getLogger(RulesEngineConfiguration.class.getName());
@@ -55,6 +59,12 @@ public class RulesEngineConfiguration {
     // Map to store categories by name for quick lookup
     private final Map<String, Category> categoriesByName = new HashMap<>();
 
+    // Parsed rule conditions, populated as rules are registered
+    private final RuleExpressionCache expressionCache = new RuleExpressionCache(parser);
+
+    // Executor for rule groups with parallel execution enabled
+    private volatile ExecutorService parallelExecutor = RuleGroup.getDefaultParallelExecutor();
+
     /**
      * Create a new rule builder with a generated ID.
      * This is the recommended way to create and register rules.
@@ -78,18 +88,96 @@ public class RulesEngineConfiguration {
 
     /**
      * Register a rule that has already been created.
+     * If a rule with the same ID is already registered (for example a copy created with
+     * {@link Rule#withMetadata} or {@link Rule#withStatus}), it is replaced.
      * 
      * @param rule The rule to register
      * @return The registered rule for method chaining
      */
     public Rule registerRule(Rule rule) {
-        rulesById.put(rule.getId(), rule);
+        Rule previous = rulesById.put(rule.getId(), rule);
+        if (previous != null) {
+            removeRuleFromCategories(previous);
+            invalidateUnusedCondition(previous.getCondition());
+        }
         for (Category category : rule.getCategories()) {
             addRuleToCategory(rule, category);
         }
+        expressionCache.precompile(rule);
         return rule;
     }
 
+    /**
+     * Remove a rule instance from all of its category lists.
+     *
+     * @param rule The rule to remove
+     */
+    private void removeRuleFromCategories(RuleBase rule) {
+        for (Category category : rule.getCategories()) {
+            List<RuleBase> rules = rulesByCategory.get(category);
+            if (rules != null) {
+                rules.removeIf(existing -> existing == rule);
+            }
+        }
+    }
+
+    /**
+     * Drop a cached condition once no registered rule uses it anymore.
+     *
+     * @param condition The condition of a rule that has been replaced
+     */
+    private void invalidateUnusedCondition(String condition) {
+        if (condition == null) {
+            return;
+        }
+        for (Rule rule : rulesById.values()) {
+            if (condition.equals(rule.getCondition())) {
+                return;
+            }
+        }
+        expressionCache.invalidate(condition);
+    }
+
+    /**
+     * Get the cache of parsed rule conditions for this configuration.
+     *
+     * @return The expression cache
+     */
+    public RuleExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
+    /**
+     * Get the executor that engines using this configuration run parallel rule groups on.
+     *
+     * @return The parallel executor
+     */
+    public ExecutorService getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    /**
+     * Set the executor that engines using this configuration run parallel rule groups on.
+     * By default a shared virtual-thread executor is used. A bounded pool can be supplied to cap
+     * the number of concurrent rule evaluations; its lifecycle remains the caller's responsibility.
+     * A bounded pool must not also run the callers of the engine, since group evaluation blocks
+     * the calling thread until the outcome is decided.
+     *
+     * @param parallelExecutor The executor to use, or null to restore the default
+     */
+    public void setParallelExecutor(ExecutorService parallelExecutor) {
+        this.parallelExecutor = parallelExecutor != null ? parallelExecutor : RuleGroup.getDefaultParallelExecutor();
+    }
+
+    /**
+     * Get the expression parser used to populate the expression cache.
+     *
+     * @return The expression parser
+     */
+    public ExpressionParser getExpressionParser() {
+        return parser;
+    }
+
 
     /**
      * Add a rule to a category.
@@ -138,6 +226,7 @@ public class RulesEngineConfiguration {
         }
 
         group.addRule(rule, sequenceNumber);
+        expressionCache.precompile(rule);
         return true;
     }
 
@@ -299,6 +388,7 @@ public class RulesEngineConfiguration {
             rulesByCategory.computeIfAbsent(category, k -> new ArrayList<>()).add(group);
             sortRulesByPriority(category);
         }
+        expressionCache.precompileAll(group.getRules());
         return group;
     }
 
@@ -325,6 +415,19 @@ public class RulesEngineConfiguration {
         return getRulesForCategory(category);
     }
 
+    /**
+     * Get the names of the categories that have rules or rule groups registered.
+     *
+     * @return The category names
+     */
+    public Set<String> getCategoryNames() {
+        Set<String> names = new TreeSet<>();
+        for (Category category : rulesByCategory.keySet()) {
+            names.add(category.getName());
+        }
+        return names;
+    }
+
     /**
      * Get a rule by its ID.
      *
@@ -0,0 +1,162 @@
+package dev.mars.apex.core.engine.context;
+
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.StandardTypeLocator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Immutable, pre-configured template for SpEL evaluation contexts.
+ *
+ * A template is built once with its property accessors, method resolvers, type locator
+ * and default variables, all of which are shared by the contexts it creates. Creating a
+ * context then only allocates the {@link FactsEvaluationContext} itself, which binds the
+ * per-request facts by reference instead of copying them into context variables.
+ * The shared accessors and resolvers are thread-safe and keep their reflection caches
+ * warm across evaluations.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class EvaluationContextTemplate {
+
+    private final List<PropertyAccessor> propertyAccessors;
+    private final List<MethodResolver> methodResolvers;
+    private final TypeLocator typeLocator;
+    private final Map<String, Object> defaultVariables;
+
+    private EvaluationContextTemplate(Builder builder) {
+        List<PropertyAccessor> accessors = new ArrayList<>(builder.propertyAccessors);
+        accessors.add(new ReflectivePropertyAccessor());
+        this.propertyAccessors = Collections.unmodifiableList(accessors);
+        this.methodResolvers = Collections.singletonList(new ReflectiveMethodResolver());
+        this.typeLocator = new StandardTypeLocator();
+        this.defaultVariables = Collections.unmodifiableMap(new HashMap<>(builder.defaultVariables));
+    }
+
+    /**
+     * Create a new template builder.
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a context whose root object is the facts map itself.
+     *
+     * @param facts The facts to evaluate against, may be null
+     * @return A new evaluation context
+     */
+    public FactsEvaluationContext createContext(Map<?, ?> facts) {
+        return createContext(facts, facts);
+    }
+
+    /**
+     * Create a context with the given root object and facts.
+     *
+     * @param rootObject The root object for property access, may be null
+     * @param facts The facts to expose as variables, may be null
+     * @return A new evaluation context
+     */
+    public FactsEvaluationContext createContext(Object rootObject, Map<?, ?> facts) {
+        FactsEvaluationContext context = new FactsEvaluationContext(rootObject, facts, defaultVariables);
+        context.setPropertyAccessors(propertyAccessors);
+        context.setMethodResolvers(methodResolvers);
+        context.setTypeLocator(typeLocator);
+        return context;
+    }
+
+    /**
+     * Get the property accessors shared by all contexts of this template.
+     *
+     * @return An unmodifiable list of property accessors
+     */
+    public List<PropertyAccessor> getPropertyAccessors() {
+        return propertyAccessors;
+    }
+
+    /**
+     * Get the default variables shared by all contexts of this template.
+     *
+     * @return An unmodifiable map of default variables
+     */
+    public Map<String, Object> getDefaultVariables() {
+        return defaultVariables;
+    }
+
+    /**
+     * Builder for {@link EvaluationContextTemplate}.
+     */
+    public static final class Builder {
+        private final List<PropertyAccessor> propertyAccessors = new ArrayList<>();
+        private final Map<String, Object> defaultVariables = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a property accessor. Accessors are consulted in the order they are added,
+         * before the standard reflective accessor.
+         *
+         * @param accessor The property accessor to add
+         * @return This builder
+         */
+        public Builder withPropertyAccessor(PropertyAccessor accessor) {
+            if (accessor != null) {
+                propertyAccessors.add(accessor);
+            }
+            return this;
+        }
+
+        /**
+         * Add a variable available in every context created from the template.
+         * Facts and variables set on an individual context take precedence.
+         *
+         * @param name The variable name
+         * @param value The variable value
+         * @return This builder
+         */
+        public Builder withVariable(String name, Object value) {
+            if (name != null && value != null) {
+                defaultVariables.put(name, value);
+            }
+            return this;
+        }
+
+        /**
+         * Build the template.
+         *
+         * @return A new immutable template
+         */
+        public EvaluationContextTemplate build() {
+            return new EvaluationContextTemplate(this);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.mars.apex.core.engine.context;
+
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Evaluation context that exposes a facts map as SpEL variables without copying it.
+ *
+ * Variable lookups check, in order, variables set directly on this context, the facts
+ * map, and the default variables of the {@link EvaluationContextTemplate} that created it.
+ * The facts map is bound by reference, so building a context costs the same regardless
+ * of how many facts it holds. Property accessors, method resolvers and the type locator
+ * are shared with the template and must not be modified through this context.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class FactsEvaluationContext extends StandardEvaluationContext {
+
+    private final Map<?, ?> facts;
+    private final Map<String, Object> defaultVariables;
+
+    /**
+     * Create a new facts context. Use {@link EvaluationContextTemplate#createContext} instead
+     * of calling this constructor directly.
+     *
+     * @param rootObject The root object for property access
+     * @param facts The facts to expose as variables, may be null
+     * @param defaultVariables Variables shared by all contexts of a template
+     */
+    FactsEvaluationContext(Object rootObject, Map<?, ?> facts, Map<String, Object> defaultVariables) {
+        super(rootObject);
+        this.facts = facts != null ? facts : Collections.emptyMap();
+        this.defaultVariables = defaultVariables;
+    }
+
+    @Override
+    public Object lookupVariable(String name) {
+        Object value = super.lookupVariable(name);
+        if (value != null) {
+            return value;
+        }
+        value = facts.get(name);
+        if (value != null || facts.containsKey(name)) {
+            return value;
+        }
+        return defaultVariables.get(name);
+    }
+
+    /**
+     * Get the facts bound to this context.
+     *
+     * @return The facts map (never null)
+     */
+    public Map<?, ?> getFacts() {
+        return facts;
+    }
+}
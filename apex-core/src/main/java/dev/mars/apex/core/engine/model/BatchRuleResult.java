@@ -0,0 +1,174 @@
+package dev.mars.apex.core.engine.model;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Result of evaluating the same rules against a batch of fact maps.
+ *
+ * The individual results are kept in the same order as the fact maps that were supplied,
+ * so {@code getResult(i)} is the result for the i-th input. Aggregate counts are computed
+ * once when the batch completes.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class BatchRuleResult {
+
+    private final List<RuleResult> results;
+    private final long elapsedNanos;
+    private final int matchCount;
+    private final int errorCount;
+
+    /**
+     * Create a new batch result.
+     *
+     * @param results The individual results, in input order
+     * @param elapsedNanos The wall-clock time taken to evaluate the batch, in nanoseconds
+     */
+    public BatchRuleResult(List<RuleResult> results, long elapsedNanos) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsedNanos = elapsedNanos;
+
+        int matches = 0;
+        int errors = 0;
+        for (RuleResult result : results) {
+            if (result.isTriggered()) {
+                matches++;
+            }
+            if (result.getResultType() == RuleResult.ResultType.ERROR) {
+                errors++;
+            }
+        }
+        this.matchCount = matches;
+        this.errorCount = errors;
+    }
+
+    /**
+     * Get the individual results in input order.
+     *
+     * @return An unmodifiable list of results
+     */
+    public List<RuleResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the result for the fact map at the given input position.
+     *
+     * @param index The position of the fact map in the input
+     * @return The result for that fact map
+     */
+    public RuleResult getResult(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Get the number of fact maps that were evaluated.
+     *
+     * @return The batch size
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Get the number of fact maps for which a rule matched.
+     *
+     * @return The match count
+     */
+    public int getMatchCount() {
+        return matchCount;
+    }
+
+    /**
+     * Get the number of fact maps for which evaluation failed.
+     *
+     * @return The error count
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Get the number of fact maps that evaluated without a match or an error.
+     *
+     * @return The no-match count
+     */
+    public int getNoMatchCount() {
+        return results.size() - matchCount - errorCount;
+    }
+
+    /**
+     * Get the wall-clock time taken to evaluate the batch.
+     *
+     * @return The elapsed time
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Get the wall-clock time taken to evaluate the batch in milliseconds.
+     *
+     * @return The elapsed time in milliseconds
+     */
+    public long getElapsedTimeMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Get the number of fact maps evaluated per second.
+     *
+     * @return The throughput, or 0.0 if no time was recorded
+     */
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : results.size() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Check whether a rule matched for at least one fact map.
+     *
+     * @return true if any result was triggered
+     */
+    public boolean hasMatches() {
+        return matchCount > 0;
+    }
+
+    /**
+     * Check whether evaluation failed for at least one fact map.
+     *
+     * @return true if any result is an error
+     */
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchRuleResult{" +
+                "size=" + size() +
+                ", matches=" + matchCount +
+                ", errors=" + errorCount +
+                ", elapsedMillis=" + getElapsedTimeMillis() +
+                '}';
+    }
+}
@@ -6,6 +6,14 @@ import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /*
@@ -36,6 +44,10 @@ import java.util.stream.Collectors;
 public class RuleGroup implements RuleBase {
     private static final ExpressionParser parser = new SpelExpressionParser();
 
+    // Shared by all parallel groups unless an engine supplies its own executor.
+    // Virtual threads keep per-evaluation cost low while CPU work stays bounded by the carrier pool.
+    private static final ExecutorService DEFAULT_PARALLEL_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
     private final UUID uuid;
     private final String id;
     private final Set<Category> categories;
@@ -174,6 +186,15 @@ public class RuleGroup implements RuleBase {
         rulesBySequence.put(sequenceNumber, rule);
     }
 
+    /**
+     * Get the executor shared by parallel rule groups when no engine-specific executor is configured.
+     *
+     * @return The default parallel executor
+     */
+    public static ExecutorService getDefaultParallelExecutor() {
+        return DEFAULT_PARALLEL_EXECUTOR;
+    }
+
     /**
      * Check if this rule group stops on first failure (AND) or success (OR).
      *
@@ -220,6 +241,32 @@ public class RuleGroup implements RuleBase {
      * @return True if the rule group condition is satisfied, false otherwise
      */
     public boolean evaluate(StandardEvaluationContext context) {
+        return evaluate(context, rule -> parser.parseExpression(rule.getCondition()));
+    }
+
+    /**
+     * Evaluate this rule group against the provided context, obtaining each rule's
+     * parsed condition from the given resolver (typically an expression cache).
+     *
+     * @param context The evaluation context
+     * @param expressionResolver Function returning the parsed condition for a rule
+     * @return True if the rule group condition is satisfied, false otherwise
+     */
+    public boolean evaluate(StandardEvaluationContext context, Function<Rule, Expression> expressionResolver) {
+        return evaluate(context, expressionResolver, DEFAULT_PARALLEL_EXECUTOR);
+    }
+
+    /**
+     * Evaluate this rule group against the provided context, running parallel groups on
+     * the given executor instead of the shared default executor.
+     *
+     * @param context The evaluation context
+     * @param expressionResolver Function returning the parsed condition for a rule
+     * @param parallelExecutor The executor used when parallel execution is enabled
+     * @return True if the rule group condition is satisfied, false otherwise
+     */
+    public boolean evaluate(StandardEvaluationContext context, Function<Rule, Expression> expressionResolver,
+                            ExecutorService parallelExecutor) {
         if (rulesBySequence.isEmpty()) {
             return false;
         }
@@ -227,9 +274,10 @@ public class RuleGroup implements RuleBase {
         // Choose evaluation strategy based on configuration
         boolean result;
         if (parallelExecution && rulesBySequence.size() > 1) {
-            result = evaluateParallel(context);
+            result = evaluateParallel(context, expressionResolver,
+                parallelExecutor != null ? parallelExecutor : DEFAULT_PARALLEL_EXECUTOR);
         } else {
-            result = evaluateSequential(context);
+            result = evaluateSequential(context, expressionResolver);
         }
 
         // If the group evaluated to true, update the message
@@ -244,9 +292,10 @@ public class RuleGroup implements RuleBase {
      * Evaluate rules sequentially with configurable short-circuiting.
      *
      * @param context The evaluation context
+     * @param expressionResolver Function returning the parsed condition for a rule
      * @return True if the rule group condition is satisfied, false otherwise
      */
-    private boolean evaluateSequential(StandardEvaluationContext context) {
+    private boolean evaluateSequential(StandardEvaluationContext context, Function<Rule, Expression> expressionResolver) {
         // Sort rules by sequence number
         List<Integer> sequenceNumbers = new ArrayList<>(rulesBySequence.keySet());
         sequenceNumbers.sort(Integer::compareTo);
@@ -268,7 +317,7 @@ public class RuleGroup implements RuleBase {
             }
 
             try {
-                Expression exp = parser.parseExpression(rule.getCondition());
+                Expression exp = expressionResolver.apply(rule);
                 Boolean ruleResult = exp.getValue(context, Boolean.class);
 
                 if (ruleResult == null) {
@@ -331,80 +380,61 @@ public class RuleGroup implements RuleBase {
     }
 
     /**
-     * Evaluate rules in parallel when possible.
-     * Note: Parallel execution disables short-circuiting to ensure all rules are evaluated.
+     * Evaluate rules in parallel on the given executor.
+     * Short-circuiting follows the same settings as sequential evaluation: once the outcome
+     * of an AND group (first failure) or OR group (first success) is decided, the remaining
+     * evaluations are cancelled. If the executor rejects the work, the group is evaluated
+     * sequentially on the calling thread.
      *
      * @param context The evaluation context
+     * @param expressionResolver Function returning the parsed condition for a rule
+     * @param executor The executor to run rule evaluations on
      * @return True if the rule group condition is satisfied, false otherwise
      */
-    private boolean evaluateParallel(StandardEvaluationContext context) {
-        // Sort rules by sequence number
-        List<Integer> sequenceNumbers = new ArrayList<>(rulesBySequence.keySet());
-        sequenceNumbers.sort(Integer::compareTo);
-
-        // Create a list of evaluation tasks
-        List<java.util.concurrent.Callable<Boolean>> tasks = new ArrayList<>();
-        List<String> ruleNames = new ArrayList<>();
-
-        for (Integer seq : sequenceNumbers) {
-            Rule rule = rulesBySequence.get(seq);
+    private boolean evaluateParallel(StandardEvaluationContext context, Function<Rule, Expression> expressionResolver,
+                                     ExecutorService executor) {
+        List<Rule> rules = new ArrayList<>();
+        for (Rule rule : getRules()) {
             if (rule == null) {
-                System.err.println("Null rule found at sequence " + seq + " in group '" + name + "', skipping");
+                System.err.println("Null rule found in group '" + name + "', skipping");
                 continue;
             }
-
-            ruleNames.add(rule.getName());
-            tasks.add(() -> {
-                try {
-                    Expression exp = parser.parseExpression(rule.getCondition());
-                    Boolean ruleResult = exp.getValue(context, Boolean.class);
-
-                    if (ruleResult == null) {
-                        ruleResult = false;
-                    }
-
-                    if (debugMode) {
-                        System.out.println("DEBUG: Rule '" + rule.getName() + "' in group '" + name + "' (parallel) evaluated to: " + ruleResult);
-                    }
-
-                    return ruleResult;
-                } catch (Exception e) {
-                    System.err.println("Error evaluating rule '" + rule.getName() + "' in group '" + name + "' (parallel): " + e.getMessage());
-                    return false; // Treat exceptions as false
-                }
-            });
+            rules.add(rule);
         }
 
-        if (tasks.isEmpty()) {
+        if (rules.isEmpty()) {
             return false;
         }
 
-        // Execute tasks in parallel
-        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(
-            Math.min(tasks.size(), Runtime.getRuntime().availableProcessors())
-        );
+        // Determine if short-circuiting should be used
+        boolean useShortCircuit = stopOnFirstFailure && !debugMode;
 
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(rules.size());
         try {
-            List<java.util.concurrent.Future<Boolean>> futures = executor.invokeAll(tasks);
+            for (Rule rule : rules) {
+                futures.add(completionService.submit(() -> evaluateRuleInParallel(rule, context, expressionResolver)));
+            }
+        } catch (RejectedExecutionException e) {
+            cancelAll(futures);
+            System.err.println("Parallel executor rejected evaluation for group '" + name + "', evaluating sequentially");
+            return evaluateSequential(context, expressionResolver);
+        }
+
+        boolean finalResult = isAndOperator; // Start with true for AND, false for OR
+        int passedCount = 0;
+        int failedCount = 0;
 
-            // Collect results
-            List<Boolean> results = new ArrayList<>();
+        try {
             for (int i = 0; i < futures.size(); i++) {
+                Boolean result;
                 try {
-                    Boolean result = futures.get(i).get();
-                    results.add(result);
-                } catch (Exception e) {
-                    System.err.println("Error getting result for rule '" + ruleNames.get(i) + "' in group '" + name + "': " + e.getMessage());
-                    results.add(false);
+                    result = completionService.take().get();
+                } catch (ExecutionException e) {
+                    System.err.println("Error getting result for a rule in group '" + name + "': " + e.getMessage());
+                    result = false;
                 }
-            }
 
-            // Apply AND/OR logic to results
-            boolean finalResult = isAndOperator;
-            int passedCount = 0;
-            int failedCount = 0;
-
-            for (Boolean result : results) {
                 if (result) {
                     passedCount++;
                 } else {
@@ -416,22 +446,62 @@ public class RuleGroup implements RuleBase {
                 } else {
                     finalResult = finalResult || result;
                 }
-            }
 
-            if (debugMode) {
-                System.out.println("DEBUG: Group '" + name + "' parallel evaluation complete. " +
-                                 "Total: " + results.size() + ", Passed: " + passedCount +
-                                 ", Failed: " + failedCount + ", Final result: " + finalResult);
+                if (useShortCircuit && (isAndOperator != finalResult)) {
+                    if (debugMode) {
+                        System.out.println("DEBUG: " + (isAndOperator ? "AND" : "OR") + " group '" + name +
+                                         "' short-circuited after " + (passedCount + failedCount) + " rules (parallel)");
+                    }
+                    break;
+                }
             }
-
-            return finalResult;
-
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             System.err.println("Parallel evaluation interrupted for group '" + name + "': " + e.getMessage());
             return false;
         } finally {
-            executor.shutdown();
+            // Cancel evaluations whose results are no longer needed
+            cancelAll(futures);
+        }
+
+        if (debugMode) {
+            System.out.println("DEBUG: Group '" + name + "' parallel evaluation complete. " +
+                             "Total: " + rules.size() + ", Passed: " + passedCount +
+                             ", Failed: " + failedCount + ", Final result: " + finalResult);
+        }
+
+        return finalResult;
+    }
+
+    /**
+     * Evaluate a single rule as part of parallel group evaluation, treating errors as false.
+     */
+    private Boolean evaluateRuleInParallel(Rule rule, StandardEvaluationContext context,
+                                           Function<Rule, Expression> expressionResolver) {
+        try {
+            Expression exp = expressionResolver.apply(rule);
+            Boolean ruleResult = exp.getValue(context, Boolean.class);
+
+            if (ruleResult == null) {
+                ruleResult = false;
+            }
+
+            if (debugMode) {
+                System.out.println("DEBUG: Rule '" + rule.getName() + "' in group '" + name + "' (parallel) evaluated to: " + ruleResult);
+            }
+
+            return ruleResult;
+        } catch (Exception e) {
+            System.err.println("Error evaluating rule '" + rule.getName() + "' in group '" + name + "' (parallel): " + e.getMessage());
+            return false; // Treat exceptions as false
+        }
+    }
+
+    private static void cancelAll(List<Future<Boolean>> futures) {
+        for (Future<Boolean> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
         }
     }
 
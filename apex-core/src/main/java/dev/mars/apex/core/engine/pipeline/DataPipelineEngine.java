@@ -25,13 +25,18 @@ import dev.mars.apex.core.service.data.external.factory.DataSourceFactory;
 import dev.mars.apex.core.service.data.external.factory.DataSinkFactory;
 import dev.mars.apex.core.service.data.external.DataSourceException;
 import dev.mars.apex.core.service.data.external.DataSinkException;
+import dev.mars.apex.core.service.engine.ExpressionEvaluatorService;
+import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
+import dev.mars.apex.core.service.lookup.LookupServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Data Pipeline Engine for APEX.
@@ -55,6 +60,13 @@ public class DataPipelineEngine {
     private final Map<String, DataSink> dataSinks = new HashMap<>();
 
     private YamlRuleConfiguration configuration;
+
+    // Named lookup services available to the configuration's lookup enrichments
+    private final LookupServiceRegistry lookupServiceRegistry = new LookupServiceRegistry();
+
+    // Applies the configuration's enrichments to each batch in executeBatch; created by
+    // initialize when the configuration has enrichments, unless one was set explicitly
+    private YamlEnrichmentProcessor enrichmentProcessor;
     
     /**
      * Constructor.
@@ -83,6 +95,9 @@ public class DataPipelineEngine {
             // Initialize data sinks
             initializeDataSinks(yamlConfig);
 
+            // Initialize the enrichment processor for batch pipelines
+            initializeEnrichmentProcessor(yamlConfig);
+
             LOGGER.info("Data Pipeline Engine initialized successfully with {} sources and {} sinks",
                        dataSources.size(), dataSinks.size());
 
@@ -118,33 +133,33 @@ public class DataPipelineEngine {
             ExternalDataSource dataSource = getDataSource(sourceName);
             DataSink dataSink = getDataSink(sinkName);
             
-            // Read data from source
+            // Stream data from source to sink so that records are not all held in memory
             LOGGER.debug("Reading data from source: {}", sourceName);
             LOGGER.debug("Executing query: {}", sourceQuery);
-            List<Object> sourceData = dataSource.query(sourceQuery, new HashMap<>());
-            LOGGER.info("Read {} records from source: {}", sourceData.size(), sourceName);
-
-            // Debug: Log first few records if any
-            if (!sourceData.isEmpty()) {
-                LOGGER.debug("Sample record from source: {}", sourceData.get(0));
-            } else {
-                LOGGER.warn("No data returned from source query - this indicates a problem with data loading or query execution");
-            }
-            
-            // Write data to sink
             LOGGER.debug("Writing data to sink: {}", sinkName);
             int processedRecords = 0;
             int failedRecords = 0;
             
-            for (Object record : sourceData) {
-                try {
-                    dataSink.write(sinkOperation, record);
-                    processedRecords++;
-                } catch (DataSinkException e) {
-                    LOGGER.warn("Failed to write record to sink: {}", e.getMessage());
-                    failedRecords++;
+            try (Stream<Object> sourceData = dataSource.stream(sourceQuery, new HashMap<>())) {
+                Iterator<Object> records = sourceData.iterator();
+                while (records.hasNext()) {
+                    Object record = records.next();
+                    if (processedRecords + failedRecords == 0) {
+                        LOGGER.debug("Sample record from source: {}", record);
+                    }
+                    try {
+                        dataSink.write(sinkOperation, record);
+                        processedRecords++;
+                    } catch (DataSinkException e) {
+                        LOGGER.warn("Failed to write record to sink: {}", e.getMessage());
+                        failedRecords++;
+                    }
                 }
             }
+            LOGGER.info("Read {} records from source: {}", processedRecords + failedRecords, sourceName);
+            if (processedRecords + failedRecords == 0) {
+                LOGGER.warn("No data returned from source query - this indicates a problem with data loading or query execution");
+            }
             
             // Flush any pending operations
             dataSink.flush();
@@ -200,31 +215,44 @@ public class DataPipelineEngine {
             ExternalDataSource dataSource = getDataSource(sourceName);
             DataSink dataSink = getDataSink(sinkName);
             
-            // Read data from source
+            boolean enrich = enrichmentProcessor != null && configuration != null &&
+                           configuration.getEnrichments() != null && !configuration.getEnrichments().isEmpty();
+
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+
+            // Process in batches, reading only one batch from the source at a time
             LOGGER.debug("Reading data from source: {}", sourceName);
-            List<Object> sourceData = dataSource.query(sourceQuery, new HashMap<>());
-            LOGGER.info("Read {} records from source: {}", sourceData.size(), sourceName);
-            
-            // Process in batches
             int totalProcessed = 0;
             int totalFailed = 0;
             int batchCount = 0;
             
-            for (int i = 0; i < sourceData.size(); i += batchSize) {
-                int endIndex = Math.min(i + batchSize, sourceData.size());
-                List<Object> batch = sourceData.subList(i, endIndex);
-                batchCount++;
-                
-                try {
-                    LOGGER.debug("Processing batch {} with {} records", batchCount, batch.size());
-                    dataSink.writeBatch(sinkOperation, batch);
-                    totalProcessed += batch.size();
-                    LOGGER.debug("Batch {} completed successfully", batchCount);
-                } catch (DataSinkException e) {
-                    LOGGER.warn("Batch {} failed: {}", batchCount, e.getMessage());
-                    totalFailed += batch.size();
+            try (Stream<Object> sourceData = dataSource.stream(sourceQuery, new HashMap<>())) {
+                Iterator<Object> records = sourceData.iterator();
+                while (records.hasNext()) {
+                    List<Object> batch = new ArrayList<>(Math.min(batchSize, 1024));
+                    while (batch.size() < batchSize && records.hasNext()) {
+                        batch.add(records.next());
+                    }
+                    batchCount++;
+                    
+                    try {
+                        LOGGER.debug("Processing batch {} with {} records", batchCount, batch.size());
+                        if (enrich) {
+                            batch = enrichmentProcessor.processEnrichmentsBatch(
+                                configuration.getEnrichments(), batch, configuration);
+                        }
+                        dataSink.writeBatch(sinkOperation, batch);
+                        totalProcessed += batch.size();
+                        LOGGER.debug("Batch {} completed successfully", batchCount);
+                    } catch (DataSinkException e) {
+                        LOGGER.warn("Batch {} failed: {}", batchCount, e.getMessage());
+                        totalFailed += batch.size();
+                    }
                 }
             }
+            LOGGER.info("Read {} records from source: {}", totalProcessed + totalFailed, sourceName);
             
             // Flush any pending operations
             dataSink.flush();
@@ -254,6 +282,39 @@ public class DataPipelineEngine {
         }
     }
 
+    /**
+     * Set the processor used to enrich records in {@link #executeBatch}.
+     * Every batch read from the source is enriched with the enrichments of the YAML
+     * configuration before it is written, so lookup enrichments are resolved once per
+     * batch rather than once per record. {@link #initialize} creates a processor over
+     * {@link #getLookupServiceRegistry()} when the configuration has enrichments; this
+     * replaces it, for example with one sharing an application's lookup services.
+     *
+     * @param enrichmentProcessor The enrichment processor, or null to write records unchanged
+     */
+    public void setEnrichmentProcessor(YamlEnrichmentProcessor enrichmentProcessor) {
+        this.enrichmentProcessor = enrichmentProcessor;
+    }
+
+    /**
+     * Get the processor used to enrich records in {@link #executeBatch}.
+     *
+     * @return The enrichment processor, or null if records are written unchanged
+     */
+    public YamlEnrichmentProcessor getEnrichmentProcessor() {
+        return enrichmentProcessor;
+    }
+
+    /**
+     * Get the registry of named lookup services used by the enrichment processor that
+     * {@link #initialize} creates. Register services before executing batch pipelines.
+     *
+     * @return The lookup service registry
+     */
+    public LookupServiceRegistry getLookupServiceRegistry() {
+        return lookupServiceRegistry;
+    }
+
     /**
      * Execute a pipeline by name from YAML configuration.
      * This method implements the core APEX principle of YAML-driven processing.
@@ -396,6 +457,13 @@ public class DataPipelineEngine {
         }
     }
     
+    private void initializeEnrichmentProcessor(YamlRuleConfiguration yamlConfig) {
+        if (enrichmentProcessor == null && yamlConfig.getEnrichments() != null && !yamlConfig.getEnrichments().isEmpty()) {
+            enrichmentProcessor = new YamlEnrichmentProcessor(lookupServiceRegistry, new ExpressionEvaluatorService());
+            LOGGER.debug("Initialized enrichment processor for {} enrichments", yamlConfig.getEnrichments().size());
+        }
+    }
+
     private String generatePipelineId(String sourceName, String sinkName) {
         return String.format("pipeline_%s_to_%s_%d", sourceName, sinkName, System.currentTimeMillis());
     }
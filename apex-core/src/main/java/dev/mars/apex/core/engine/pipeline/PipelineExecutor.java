@@ -1,10 +1,13 @@
 package dev.mars.apex.core.engine.pipeline;
 
+import dev.mars.apex.core.config.datasink.BatchConfig;
 import dev.mars.apex.core.config.pipeline.PipelineConfiguration;
 import dev.mars.apex.core.config.pipeline.PipelineStep;
+import dev.mars.apex.core.service.data.external.BufferedBatchWriter;
 import dev.mars.apex.core.service.data.external.ExternalDataSource;
 import dev.mars.apex.core.service.data.external.DataSink;
 import dev.mars.apex.core.service.data.external.DataSinkException;
+import dev.mars.apex.core.service.data.external.DataSourceException;
 import dev.mars.apex.core.service.data.external.manager.ExternalDataSourceManager;
 import dev.mars.apex.core.service.data.external.factory.DataSinkFactory;
 import org.slf4j.Logger;
@@ -12,8 +15,18 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Executes APEX pipelines based on YAML configuration.
@@ -26,16 +39,23 @@ public class PipelineExecutor {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(PipelineExecutor.class);
     
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    
     private final ExternalDataSourceManager dataSourceManager;
     private final Map<String, DataSink> dataSinks;
     private final Map<String, Object> pipelineContext;
     private final Map<String, PipelineStepResult> stepResults;
+    private final Map<String, StreamingFlow> streamingFlows;
+    private volatile String pipelineName;
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile int bufferChunks = 4;
     
     public PipelineExecutor(ExternalDataSourceManager dataSourceManager) {
         this.dataSourceManager = dataSourceManager;
         this.dataSinks = new ConcurrentHashMap<>();
         this.pipelineContext = new ConcurrentHashMap<>();
         this.stepResults = new ConcurrentHashMap<>();
+        this.streamingFlows = new ConcurrentHashMap<>();
     }
 
     /**
@@ -62,14 +82,18 @@ public class PipelineExecutor {
             // Validate pipeline configuration
             validatePipeline(pipeline);
             
+            pipelineName = pipeline.getName();
+            chunkSize = pipeline.getExecution().getChunkSize() > 0 ? pipeline.getExecution().getChunkSize() : DEFAULT_CHUNK_SIZE;
+            bufferChunks = Math.max(1, pipeline.getExecution().getBufferChunks());
+            
             // Initialize data sinks
             initializeDataSinks(pipeline);
             
             // Execute pipeline steps
             if ("parallel".equalsIgnoreCase(pipeline.getExecution().getMode())) {
-                executeStepsInParallel(pipeline.getSteps(), result);
+                executeStepsInParallel(pipeline, result);
             } else {
-                executeStepsSequentially(pipeline.getSteps(), result);
+                executeStepsSequentially(pipeline, result);
             }
             
             result.setSuccess(true);
@@ -208,35 +232,493 @@ public class PipelineExecutor {
     /**
      * Execute steps sequentially.
      */
-    private void executeStepsSequentially(List<PipelineStep> steps, YamlPipelineExecutionResult result)
+    private void executeStepsSequentially(PipelineConfiguration pipeline, YamlPipelineExecutionResult result)
             throws DataPipelineException {
 
+        Map<String, List<String>> dependencies = buildSchedulingDependencies(pipeline.getSteps());
+        List<PipelineStep> steps = planStreamingFlows(pipeline, dependencies);
+
         // Sort steps by dependencies
-        List<PipelineStep> sortedSteps = topologicalSort(steps);
+        List<PipelineStep> sortedSteps = topologicalSort(steps, dependencies);
 
         for (PipelineStep step : sortedSteps) {
-            executeStep(step, result);
+            runStep(step, dependencies, result);
         }
     }
 
     /**
      * Execute steps in parallel where possible.
+     *
+     * A step is started as soon as every step it depends on has finished, on a pool of at most
+     * max-concurrency threads. When a required step fails, no further steps are started with
+     * stop-on-error, and the steps already running are allowed to finish; with continue-on-error
+     * the remaining steps still run, and steps depending on the failed step fail their
+     * dependency check as they would in sequential mode. The first failure is rethrown once
+     * every started step has finished.
      */
-    private void executeStepsInParallel(List<PipelineStep> steps, YamlPipelineExecutionResult result)
+    private void executeStepsInParallel(PipelineConfiguration pipeline, YamlPipelineExecutionResult result)
             throws DataPipelineException {
 
-        // For now, implement as sequential - parallel execution would require more complex dependency management
-        executeStepsSequentially(steps, result);
+        Map<String, List<String>> dependencies = buildSchedulingDependencies(pipeline.getSteps());
+        List<PipelineStep> steps = planStreamingFlows(pipeline, dependencies);
+        boolean continueOnError = "continue-on-error".equals(pipeline.getExecution().getErrorHandling());
+        int maxConcurrency = pipeline.getExecution().getMaxConcurrency() > 0 ?
+            pipeline.getExecution().getMaxConcurrency() : Runtime.getRuntime().availableProcessors();
+        int threads = Math.min(maxConcurrency, steps.size());
+
+        // Count the unfinished dependencies of each step and find the steps waiting on it
+        Map<String, Integer> pendingDependencies = new HashMap<>();
+        Map<String, List<PipelineStep>> dependents = new HashMap<>();
+        for (PipelineStep step : steps) {
+            List<String> stepDependencies = dependencies.get(step.getName());
+            pendingDependencies.put(step.getName(), stepDependencies.size());
+            for (String dependency : stepDependencies) {
+                dependents.computeIfAbsent(dependency, name -> new ArrayList<>()).add(step);
+            }
+        }
+
+        LOGGER.info("Executing {} steps of pipeline '{}' in parallel, up to {} at a time",
+            steps.size(), pipeline.getName(), threads);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "apex-pipeline-" + pipeline.getName() + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<StepOutcome> completionService = new ExecutorCompletionService<>(executor);
+
+        DataPipelineException failure = null;
+        int running = 0;
+        int started = 0;
+        try {
+            for (PipelineStep step : steps) {
+                if (pendingDependencies.get(step.getName()) == 0) {
+                    submitStep(completionService, step, dependencies, result);
+                    running++;
+                    started++;
+                }
+            }
+
+            while (running > 0) {
+                StepOutcome outcome = completionService.take().get();
+                running--;
+
+                if (outcome.failure != null && failure == null) {
+                    failure = outcome.failure;
+                }
+                if (failure != null && !continueOnError) {
+                    // Let the running steps finish, but start no more
+                    continue;
+                }
+
+                for (PipelineStep dependent : dependents.getOrDefault(outcome.step.getName(), Collections.emptyList())) {
+                    int pending = pendingDependencies.merge(dependent.getName(), -1, Integer::sum);
+                    if (pending == 0) {
+                        submitStep(completionService, dependent, dependencies, result);
+                        running++;
+                        started++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new DataPipelineException("Pipeline execution interrupted: " + pipeline.getName(), e);
+        } catch (ExecutionException e) {
+            // Step tasks catch their own failures
+            throw new DataPipelineException("Pipeline step execution failed unexpectedly", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        if (started < steps.size()) {
+            LOGGER.info("{} steps of pipeline '{}' were not started", steps.size() - started, pipeline.getName());
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Submit a step to run on the parallel step pool.
+     */
+    private void submitStep(CompletionService<StepOutcome> completionService, PipelineStep step,
+                            Map<String, List<String>> dependencies, YamlPipelineExecutionResult result) {
+        completionService.submit(() -> {
+            try {
+                runStep(step, dependencies, result);
+                return new StepOutcome(step, null);
+            } catch (DataPipelineException e) {
+                return new StepOutcome(step, e);
+            } catch (RuntimeException e) {
+                return new StepOutcome(step, new DataPipelineException("Step failed: " + step.getName(), e));
+            }
+        });
+    }
+
+    /**
+     * A finished step of a parallel pipeline, and the failure that stops the pipeline, if any.
+     */
+    private static final class StepOutcome {
+        private final PipelineStep step;
+        private final DataPipelineException failure;
+
+        private StepOutcome(PipelineStep step, DataPipelineException failure) {
+            this.step = step;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Execute a step, or the streaming flow of an extract step.
+     */
+    private void runStep(PipelineStep step, Map<String, List<String>> dependencies,
+                         YamlPipelineExecutionResult result) throws DataPipelineException {
+        StreamingFlow flow = streamingFlows.get(step.getName());
+        if (flow != null) {
+            executeStreamingFlow(flow, dependencies, result);
+        } else {
+            executeStep(step, dependencies, result);
+        }
+    }
+
+    /**
+     * Find the extract steps whose records can be streamed, and return the steps left to schedule.
+     *
+     * An extract step is streamed when every step depending on it, directly or through other
+     * steps, is a load, audit or transform step that depends on that one step only; those steps
+     * then run as stages of the extract step's flow instead of being scheduled on their own.
+     * Other extract steps still pass their data as a whole list.
+     */
+    private List<PipelineStep> planStreamingFlows(PipelineConfiguration pipeline, Map<String, List<String>> dependencies) {
+        streamingFlows.clear();
+        List<PipelineStep> steps = pipeline.getSteps();
+        if (!pipeline.getExecution().isStreaming()) {
+            return steps;
+        }
+
+        Map<String, List<PipelineStep>> dependents = new HashMap<>();
+        for (PipelineStep step : steps) {
+            for (String dependency : dependencies.get(step.getName())) {
+                dependents.computeIfAbsent(dependency, name -> new ArrayList<>()).add(step);
+            }
+        }
+
+        Set<String> stageNames = new HashSet<>();
+        for (PipelineStep step : steps) {
+            if (!step.isExtractStep()) {
+                continue;
+            }
+            List<PipelineStep> stages = new ArrayList<>();
+            if (collectStreamingStages(step, dependents, dependencies, stages) && !stages.isEmpty()) {
+                streamingFlows.put(step.getName(), new StreamingFlow(step, stages));
+                for (PipelineStep stage : stages) {
+                    stageNames.add(stage.getName());
+                }
+                LOGGER.info("Streaming records of step '{}' through {}", step.getName(),
+                    stages.stream().map(PipelineStep::getName).collect(Collectors.toList()));
+            }
+        }
+
+        List<PipelineStep> scheduled = new ArrayList<>();
+        for (PipelineStep step : steps) {
+            if (!stageNames.contains(step.getName())) {
+                scheduled.add(step);
+            }
+        }
+        return scheduled;
+    }
+
+    /**
+     * Collect the steps downstream of an extract step, breadth first so that each step comes
+     * after the step it depends on. Returns false if any of them cannot be streamed.
+     */
+    private boolean collectStreamingStages(PipelineStep extractStep, Map<String, List<PipelineStep>> dependents,
+                                           Map<String, List<String>> dependencies, List<PipelineStep> stages) {
+        Deque<PipelineStep> pending = new ArrayDeque<>();
+        pending.add(extractStep);
+        while (!pending.isEmpty()) {
+            PipelineStep current = pending.poll();
+            for (PipelineStep dependent : dependents.getOrDefault(current.getName(), Collections.emptyList())) {
+                boolean streamable = dependent.isLoadStep() || dependent.isAuditStep() || dependent.isTransformStep();
+                if (!streamable || dependencies.get(dependent.getName()).size() != 1) {
+                    return false;
+                }
+                stages.add(dependent);
+                pending.add(dependent);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Execute an extract step and the stages streaming its records.
+     *
+     * The extract step reads its source through {@link ExternalDataSource#stream} on the
+     * scheduling thread and publishes the records in chunks of chunk-size; each stage runs on
+     * its own thread and buffers at most buffer-chunks chunks, so extract, transform, load and
+     * audit overlap while no more than a few chunks per stage are held in memory. Stage results
+     * are recorded once every stage has finished, with the same optional-step handling as
+     * {@link #executeStep}.
+     */
+    private void executeStreamingFlow(StreamingFlow flow, Map<String, List<String>> dependencies,
+                                      YamlPipelineExecutionResult result) throws DataPipelineException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(flow.stages.size(), r -> {
+            Thread thread = new Thread(r, "apex-pipeline-stream-" + flow.extractStep.getName() + "-" +
+                threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        DataPipelineException failure = null;
+        Map<String, PipelineStage> stages = new LinkedHashMap<>();
+        try {
+            failure = publishStreamingFlow(flow, dependencies, stages, executor, result);
+            for (PipelineStage stage : stages.values()) {
+                try {
+                    stage.getCompletion().get();
+                } catch (ExecutionException e) {
+                    // Recorded below
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new DataPipelineException("Streaming step interrupted: " + flow.extractStep.getName(), e);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (PipelineStage stage : stages.values()) {
+            DataPipelineException stageFailure = recordStageResult(stage, result);
+            if (failure == null) {
+                failure = stageFailure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Subscribe the stages of a flow and run its extract step, returning the extract step's
+     * failure if it was required.
+     */
+    private DataPipelineException publishStreamingFlow(StreamingFlow flow, Map<String, List<String>> dependencies,
+                                                       Map<String, PipelineStage> stages, ExecutorService executor,
+                                                       YamlPipelineExecutionResult result) {
+        DataPipelineException failure = null;
+        try (SubmissionPublisher<List<Object>> source = new SubmissionPublisher<>(executor, bufferChunks)) {
+            for (PipelineStep step : flow.stages) {
+                PipelineStage stage = new PipelineStage(step, createChunkHandler(step));
+                String upstream = dependencies.get(step.getName()).get(0);
+                if (upstream.equals(flow.extractStep.getName())) {
+                    source.subscribe(stage);
+                } else {
+                    stages.get(upstream).getDownstream(executor, bufferChunks).subscribe(stage);
+                }
+                stages.put(step.getName(), stage);
+            }
+
+            flow.source = source;
+            try {
+                executeStep(flow.extractStep, dependencies, result);
+            } catch (DataPipelineException e) {
+                failure = e;
+            } finally {
+                flow.source = null;
+            }
+
+            PipelineStepResult extractResult = stepResults.get(flow.extractStep.getName());
+            if (extractResult == null || !extractResult.isSuccess()) {
+                source.closeExceptionally(new DataPipelineException("Step failed: " + flow.extractStep.getName()));
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Record the result of a finished streaming stage, returning the failure that stops the
+     * pipeline if a required stage failed.
+     */
+    private DataPipelineException recordStageResult(PipelineStage stage, YamlPipelineExecutionResult result) {
+        PipelineStep step = stage.getStep();
+        PipelineStepResult stepResult = new PipelineStepResult(step.getName());
+        stepResult.setStartTimeMs(stage.getStartTimeMs());
+        stepResult.setEndTimeMs(stage.getEndTimeMs());
+        stepResult.setDurationMs(stage.getEndTimeMs() - stage.getStartTimeMs());
+        stepResult.setThreadName(stage.getThreadName());
+        stepResult.setRecordsProcessed((int) Math.min(Integer.MAX_VALUE, stage.getRecordsProcessed()));
+
+        Throwable error = null;
+        try {
+            stage.getCompletion().join();
+            stepResult.setSuccess(true);
+        } catch (CompletionException e) {
+            error = e.getCause() != null ? e.getCause() : e;
+            stepResult.setSuccess(false);
+            stepResult.setError(error.getMessage());
+        }
+
+        stepResults.put(step.getName(), stepResult);
+        result.addStepResult(stepResult);
+
+        if (error == null) {
+            LOGGER.info("Step '{}' streamed {} records successfully in {}ms",
+                step.getName(), stage.getRecordsProcessed(), stepResult.getDurationMs());
+            return null;
+        }
+        LOGGER.error("Step '{}' failed after {}ms: {}", step.getName(), stepResult.getDurationMs(), error.getMessage());
+        return step.isOptional() ? null : new DataPipelineException("Required step failed: " + step.getName(), error);
+    }
+
+    /**
+     * Create the chunk handler of a streaming stage. Transform steps pass records through
+     * unchanged, as they do when not streaming.
+     */
+    private PipelineStage.ChunkHandler createChunkHandler(PipelineStep step) {
+        if (step.isLoadStep()) {
+            return new LoadChunkHandler(step);
+        }
+        if (step.isAuditStep()) {
+            return new AuditChunkHandler(step);
+        }
+        return chunk -> { };
+    }
+
+    /**
+     * Load stage writing chunks through a batch writer configured by the sink's batch settings.
+     */
+    private final class LoadChunkHandler implements PipelineStage.ChunkHandler {
+        private final PipelineStep step;
+        private final LoadCounts counts = new LoadCounts();
+        private DataSink dataSink;
+        private BufferedBatchWriter writer;
+
+        private LoadChunkHandler(PipelineStep step) {
+            this.step = step;
+        }
+
+        @Override
+        public void open() throws DataPipelineException {
+            dataSink = dataSinks.get(step.getSink());
+            if (dataSink == null) {
+                throw new DataPipelineException("Data sink not found: " + step.getSink());
+            }
+            BatchConfig batchConfig = dataSink.getConfiguration() != null ? dataSink.getConfiguration().getBatch() : null;
+            writer = new BufferedBatchWriter(step.getName(), batchConfig,
+                batch -> loadBatch(dataSink, step.getOperation(), batch, counts));
+        }
+
+        @Override
+        public void handle(List<Object> chunk) throws DataSinkException {
+            writer.addAll(chunk);
+        }
+
+        @Override
+        public void close() throws DataSinkException {
+            if (writer == null || writer.isClosed()) {
+                return;
+            }
+            writer.close();
+            dataSink.flush();
+            LOGGER.info("Load step '{}' completed: {} records loaded successfully, {} records skipped due to data integrity issues",
+                       step.getName(), counts.loaded.sum(), counts.skipped.sum());
+        }
+    }
+
+    /**
+     * Audit stage writing one batch of audit records per chunk.
+     */
+    private final class AuditChunkHandler implements PipelineStage.ChunkHandler {
+        private final PipelineStep step;
+        private DataSink dataSink;
+
+        private AuditChunkHandler(PipelineStep step) {
+            this.step = step;
+        }
+
+        @Override
+        public void open() throws DataPipelineException {
+            dataSink = dataSinks.get(step.getSink());
+            if (dataSink == null) {
+                throw new DataPipelineException("Data sink not found for audit step: " + step.getSink());
+            }
+        }
+
+        @Override
+        public void handle(List<Object> chunk) throws DataSinkException {
+            dataSink.writeBatch(step.getOperation(), createAuditRecords(step, chunk));
+        }
+
+        @Override
+        public void close() throws DataSinkException {
+            if (dataSink != null) {
+                dataSink.flush();
+            }
+        }
+    }
+
+    /**
+     * An extract step whose records are streamed through the steps depending on it.
+     */
+    private static final class StreamingFlow {
+        private final PipelineStep extractStep;
+        private final List<PipelineStep> stages;
+        private volatile SubmissionPublisher<List<Object>> source;
+
+        private StreamingFlow(PipelineStep extractStep, List<PipelineStep> stages) {
+            this.extractStep = extractStep;
+            this.stages = stages;
+        }
+    }
+
+    /**
+     * Build the steps each step has to wait for: its depends-on steps, or for a load or audit step
+     * without depends-on, the extract steps declared before it, whose data it would receive when
+     * running sequentially. Dependencies on unknown steps are left to the dependency check.
+     */
+    private Map<String, List<String>> buildSchedulingDependencies(List<PipelineStep> steps) {
+        Set<String> stepNames = new HashSet<>();
+        for (PipelineStep step : steps) {
+            stepNames.add(step.getName());
+        }
+
+        Map<String, List<String>> dependencies = new HashMap<>();
+        List<String> extractSteps = new ArrayList<>();
+        for (PipelineStep step : steps) {
+            List<String> stepDependencies = new ArrayList<>();
+            if (step.hasDependencies()) {
+                for (String dependency : step.getDependsOn()) {
+                    if (stepNames.contains(dependency) && !stepDependencies.contains(dependency)) {
+                        stepDependencies.add(dependency);
+                    }
+                }
+            } else if (step.isLoadStep() || step.isAuditStep()) {
+                stepDependencies.addAll(extractSteps);
+            }
+            dependencies.put(step.getName(), stepDependencies);
+
+            if (step.isExtractStep()) {
+                extractSteps.add(step.getName());
+            }
+        }
+        return dependencies;
     }
     
     /**
      * Execute a single pipeline step.
      */
-    private void executeStep(PipelineStep step, YamlPipelineExecutionResult result) throws DataPipelineException {
+    private void executeStep(PipelineStep step, Map<String, List<String>> dependencies,
+                             YamlPipelineExecutionResult result) throws DataPipelineException {
         LOGGER.info("Executing step: {} ({})", step.getName(), step.getType());
         
         long stepStartTime = System.currentTimeMillis();
         PipelineStepResult stepResult = new PipelineStepResult(step.getName());
+        stepResult.setStartTimeMs(stepStartTime);
+        stepResult.setThreadName(Thread.currentThread().getName());
         
         try {
             // Check dependencies
@@ -254,20 +736,23 @@ public class PipelineExecutor {
             if (step.isExtractStep()) {
                 stepData = executeExtractStep(step);
                 // Store extracted data for subsequent steps
-                pipelineContext.put("extractedData", stepData);
+                if (stepData != null) {
+                    pipelineContext.put("extractedData", stepData);
+                }
             } else if (step.isLoadStep()) {
                 // Get data from previous extract step
-                Object dataToLoad = pipelineContext.get("extractedData");
+                Object dataToLoad = resolveStepInput(step.getName(), dependencies);
                 executeLoadStep(step, dataToLoad);
             } else if (step.isAuditStep()) {
                 // Get data from previous steps for auditing
-                Object dataToAudit = pipelineContext.get("extractedData");
+                Object dataToAudit = resolveStepInput(step.getName(), dependencies);
                 executeAuditStep(step, dataToAudit);
             }
             
             stepResult.setSuccess(true);
             stepResult.setData(stepData);
-            stepResult.setDurationMs(System.currentTimeMillis() - stepStartTime);
+            stepResult.setEndTimeMs(System.currentTimeMillis());
+            stepResult.setDurationMs(stepResult.getEndTimeMs() - stepStartTime);
             
             stepResults.put(step.getName(), stepResult);
             result.addStepResult(stepResult);
@@ -278,7 +763,8 @@ public class PipelineExecutor {
         } catch (Exception e) {
             stepResult.setSuccess(false);
             stepResult.setError(e.getMessage());
-            stepResult.setDurationMs(System.currentTimeMillis() - stepStartTime);
+            stepResult.setEndTimeMs(System.currentTimeMillis());
+            stepResult.setDurationMs(stepResult.getEndTimeMs() - stepStartTime);
             
             stepResults.put(step.getName(), stepResult);
             result.addStepResult(stepResult);
@@ -292,6 +778,34 @@ public class PipelineExecutor {
         }
     }
     
+    /**
+     * Find the data a load or audit step works on: the data of the nearest extract step it
+     * depends on, directly or through other steps, preferring later dependencies. Without one,
+     * the data of the last extract step to finish is used.
+     */
+    private Object resolveStepInput(String stepName, Map<String, List<String>> dependencies) {
+        Object data = findDependencyData(stepName, dependencies, new HashSet<>());
+        return data != null ? data : pipelineContext.get("extractedData");
+    }
+
+    private Object findDependencyData(String stepName, Map<String, List<String>> dependencies, Set<String> visited) {
+        List<String> stepDependencies = dependencies.getOrDefault(stepName, Collections.emptyList());
+        for (int i = stepDependencies.size() - 1; i >= 0; i--) {
+            String dependency = stepDependencies.get(i);
+            PipelineStepResult dependencyResult = stepResults.get(dependency);
+            if (dependencyResult != null && dependencyResult.getData() != null) {
+                return dependencyResult.getData();
+            }
+            if (visited.add(dependency)) {
+                Object data = findDependencyData(dependency, dependencies, visited);
+                if (data != null) {
+                    return data;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Execute an extract step.
      */
@@ -302,11 +816,46 @@ public class PipelineExecutor {
         }
         
         try {
+            StreamingFlow flow = streamingFlows.get(step.getName());
+            if (flow != null && flow.source != null) {
+                long count = streamRecords(dataSource, step, flow.source);
+                LOGGER.info("Extract step '{}' streamed {} records", step.getName(), count);
+                return null;
+            }
             return dataSource.query(step.getOperation(), step.getParameters());
         } catch (Exception e) {
             throw new DataPipelineException("Extract step failed: " + step.getName(), e);
         }
     }
+
+    /**
+     * Publish the records of an extract step in chunks. Publishing blocks while a stage's
+     * buffer is full, and stops early once every stage has failed.
+     */
+    private long streamRecords(ExternalDataSource dataSource, PipelineStep step,
+                               SubmissionPublisher<List<Object>> publisher) throws DataSourceException {
+        long count = 0;
+        try (Stream<Object> records = dataSource.stream(step.getOperation(), step.getParameters())) {
+            Iterator<Object> iterator = records.iterator();
+            List<Object> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                count++;
+                if (chunk.size() == chunkSize) {
+                    if (publisher.getNumberOfSubscribers() == 0) {
+                        LOGGER.warn("Every step reading from '{}' has stopped, no more records are read", step.getName());
+                        return count;
+                    }
+                    publisher.submit(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                publisher.submit(chunk);
+            }
+        }
+        return count;
+    }
     
     /**
      * Execute a load step.
@@ -331,26 +880,9 @@ public class PipelineExecutor {
                 List<Object> dataList = (List<Object>) data;
                 LOGGER.info("Processing {} records for load step '{}'", dataList.size(), step.getName());
 
-                int successCount = 0;
-                int skippedCount = 0;
-
-                // Process each record with graceful error handling
-                for (Object record : dataList) {
-                    try {
-                        dataSink.write(step.getOperation(), record);
-                        successCount++;
-                    } catch (DataSinkException e) {
-                        if (e.getErrorType() == DataSinkException.ErrorType.DATA_INTEGRITY_ERROR) {
-                            // Log and skip data integrity violations
-                            LOGGER.warn("Skipping record due to data integrity violation: {} - Record: {}",
-                                       e.getMessage(), record);
-                            skippedCount++;
-                        } else {
-                            // Re-throw other types of errors
-                            throw e;
-                        }
-                    }
-                }
+                LoadCounts counts = loadRecords(dataSink, step, dataList);
+                long successCount = counts.loaded.sum();
+                long skippedCount = counts.skipped.sum();
 
                 LOGGER.info("Load step '{}' completed: {} records loaded successfully, {} records skipped due to data integrity issues",
                            step.getName(), successCount, skippedCount);
@@ -363,6 +895,7 @@ public class PipelineExecutor {
                 // Single record
                 try {
                     dataSink.write(step.getOperation(), data);
+                    dataSink.flush();
                     LOGGER.info("Successfully loaded single record to sink '{}'", step.getSink());
                 } catch (DataSinkException e) {
                     if (e.getErrorType() == DataSinkException.ErrorType.DATA_INTEGRITY_ERROR) {
@@ -380,6 +913,78 @@ public class PipelineExecutor {
         }
     }
     
+    /**
+     * Write records to a sink in batches, using the sink's batch configuration for the batch size,
+     * flush interval, parallel batches and memory budget.
+     */
+    private LoadCounts loadRecords(DataSink dataSink, PipelineStep step, List<Object> records)
+            throws DataSinkException {
+        BatchConfig batchConfig = dataSink.getConfiguration() != null ? dataSink.getConfiguration().getBatch() : null;
+        LoadCounts counts = new LoadCounts();
+
+        BufferedBatchWriter writer = new BufferedBatchWriter(step.getName(), batchConfig,
+            batch -> loadBatch(dataSink, step.getOperation(), batch, counts));
+        try {
+            writer.addAll(records);
+        } finally {
+            writer.close();
+        }
+        dataSink.flush();
+
+        LOGGER.debug("Load step '{}' wrote {} batches, flush latency p99: {}ms", step.getName(),
+                     writer.getFlushCount(), writer.getFlushLatency().getValueAtPercentile(99.0) / 1_000_000);
+        return counts;
+    }
+
+    /**
+     * Write one batch of a load step. A batch that fails is retried record by record, so that
+     * records violating data integrity constraints are skipped while other errors fail the step.
+     * The retry writes single-record batches because a sink that buffers writes, such as the
+     * database sink, would otherwise only buffer the records and report their errors later.
+     */
+    private void loadBatch(DataSink dataSink, String operation, List<Object> batch, LoadCounts counts)
+            throws DataSinkException {
+        try {
+            dataSink.writeBatch(operation, batch);
+            counts.loaded.add(batch.size());
+            return;
+        } catch (DataSinkException e) {
+            if (e.getErrorType() == DataSinkException.ErrorType.DATA_INTEGRITY_ERROR) {
+                // The sink already tried every record of the batch
+                LOGGER.warn("Skipping batch of {} records due to data integrity violations: {}",
+                           batch.size(), e.getMessage());
+                counts.skipped.add(batch.size());
+                return;
+            }
+            LOGGER.debug("Batch of {} records failed, retrying record by record: {}", batch.size(), e.getMessage());
+        }
+
+        for (Object record : batch) {
+            try {
+                dataSink.writeBatch(operation, Collections.singletonList(record));
+                counts.loaded.increment();
+            } catch (DataSinkException e) {
+                if (e.getErrorType() == DataSinkException.ErrorType.DATA_INTEGRITY_ERROR) {
+                    // Log and skip data integrity violations
+                    LOGGER.warn("Skipping record due to data integrity violation: {} - Record: {}",
+                               e.getMessage(), record);
+                    counts.skipped.increment();
+                } else {
+                    // Re-throw other types of errors
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loaded and skipped record counts of a load step; batches may be written concurrently.
+     */
+    private static final class LoadCounts {
+        private final LongAdder loaded = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+    }
+
     /**
      * Execute an audit step.
      */
@@ -404,30 +1009,21 @@ public class PipelineExecutor {
                 List<Object> dataList = (List<Object>) data;
                 LOGGER.info("Auditing {} records for step '{}'", dataList.size(), step.getName());
 
-                // Create audit records for each data record
-                for (Object record : dataList) {
-                    // Create audit record with metadata
-                    Map<String, Object> auditRecord = new HashMap<>();
-                    auditRecord.put("original_data", record);
-                    auditRecord.put("pipeline_name", "customer-etl-pipeline");
-                    auditRecord.put("step_name", step.getName());
-                    auditRecord.put("timestamp", System.currentTimeMillis());
-                    auditRecord.put("status", "processed");
-
-                    dataSink.write(step.getOperation(), auditRecord);
+                // Create audit records for each data record, written a chunk at a time
+                for (int from = 0; from < dataList.size(); from += chunkSize) {
+                    List<Object> chunk = dataList.subList(from, Math.min(from + chunkSize, dataList.size()));
+                    dataSink.writeBatch(step.getOperation(), createAuditRecords(step, chunk));
                 }
+                // Sinks with buffering enabled hold the records until flushed
+                dataSink.flush();
 
                 LOGGER.info("Successfully wrote {} audit records to sink '{}'", dataList.size(), step.getSink());
             } else {
                 // Single record audit
-                Map<String, Object> auditRecord = new HashMap<>();
-                auditRecord.put("original_data", data);
-                auditRecord.put("pipeline_name", "customer-etl-pipeline");
-                auditRecord.put("step_name", step.getName());
-                auditRecord.put("timestamp", System.currentTimeMillis());
-                auditRecord.put("status", "processed");
+                Map<String, Object> auditRecord = createAuditRecord(step, data, System.currentTimeMillis());
 
                 dataSink.write(step.getOperation(), auditRecord);
+                dataSink.flush();
                 LOGGER.info("Successfully wrote single audit record to sink '{}'", step.getSink());
             }
         } catch (Exception e) {
@@ -436,17 +1032,57 @@ public class PipelineExecutor {
     }
     
     /**
-     * Topological sort of pipeline steps based on dependencies.
-     */
-    private List<PipelineStep> topologicalSort(List<PipelineStep> steps) {
-        // Simple implementation - in practice would need proper topological sorting
-        return steps.stream()
-            .sorted((a, b) -> {
-                if (a.hasDependencies() && !b.hasDependencies()) return 1;
-                if (!a.hasDependencies() && b.hasDependencies()) return -1;
-                return 0;
-            })
-            .collect(Collectors.toList());
+     * Create the audit records of a chunk of data records, sharing one timestamp.
+     */
+    private List<Object> createAuditRecords(PipelineStep step, List<Object> records) {
+        long timestamp = System.currentTimeMillis();
+        List<Object> auditRecords = new ArrayList<>(records.size());
+        for (Object record : records) {
+            auditRecords.add(createAuditRecord(step, record, timestamp));
+        }
+        return auditRecords;
+    }
+
+    /**
+     * Create an audit record with metadata for a data record.
+     */
+    private Map<String, Object> createAuditRecord(PipelineStep step, Object record, long timestamp) {
+        Map<String, Object> auditRecord = new HashMap<>(8);
+        auditRecord.put("original_data", record);
+        auditRecord.put("pipeline_name", pipelineName);
+        auditRecord.put("step_name", step.getName());
+        auditRecord.put("timestamp", timestamp);
+        auditRecord.put("status", "processed");
+        return auditRecord;
+    }
+
+    /**
+     * Topological sort of pipeline steps based on dependencies, keeping the declared order
+     * between steps that do not depend on each other.
+     */
+    private List<PipelineStep> topologicalSort(List<PipelineStep> steps, Map<String, List<String>> dependencies) {
+        List<PipelineStep> sorted = new ArrayList<>(steps.size());
+        Set<String> sortedNames = new HashSet<>();
+        List<PipelineStep> remaining = new ArrayList<>(steps);
+
+        while (!remaining.isEmpty()) {
+            PipelineStep next = null;
+            for (PipelineStep step : remaining) {
+                if (sortedNames.containsAll(dependencies.get(step.getName()))) {
+                    next = step;
+                    break;
+                }
+            }
+            if (next == null) {
+                // Cycles are rejected by validation; keep the declared order if one slips through
+                sorted.addAll(remaining);
+                break;
+            }
+            sorted.add(next);
+            sortedNames.add(next.getName());
+            remaining.remove(next);
+        }
+        return sorted;
     }
     
     /**
@@ -0,0 +1,196 @@
+package dev.mars.apex.core.engine.pipeline;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.pipeline.PipelineStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * One step of a streaming pipeline, receiving chunks of records from the step it depends on.
+ *
+ * The stage requests one chunk at a time, hands it to its {@link ChunkHandler} and then
+ * publishes it to the stages depending on it. Publishers buffer a bounded number of chunks
+ * per subscriber and block when a buffer is full, so a slow stage holds back the stages
+ * feeding it instead of letting records pile up in memory.
+ *
+ * A stage that fails cancels its subscription and fails the stages depending on it; stages
+ * depending on the same upstream step are unaffected.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class PipelineStage implements Flow.Subscriber<List<Object>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelineStage.class);
+
+    /**
+     * The work a stage does with its chunks.
+     */
+    interface ChunkHandler {
+
+        /**
+         * Prepare the stage before the first chunk.
+         */
+        default void open() throws Exception {
+        }
+
+        /**
+         * Process one chunk of records.
+         */
+        void handle(List<Object> chunk) throws Exception;
+
+        /**
+         * Finish the stage after the last chunk, such as by flushing a sink.
+         */
+        default void close() throws Exception {
+        }
+    }
+
+    private final PipelineStep step;
+    private final ChunkHandler handler;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile SubmissionPublisher<List<Object>> downstream;
+    private Flow.Subscription subscription;
+
+    // Written by the delivering thread only; read once the stage has completed
+    private volatile long startTimeMs;
+    private volatile long endTimeMs;
+    private volatile String threadName;
+    private long recordsProcessed;
+
+    PipelineStage(PipelineStep step, ChunkHandler handler) {
+        this.step = step;
+        this.handler = handler;
+    }
+
+    /**
+     * Get the publisher that stages depending on this one subscribe to.
+     */
+    synchronized SubmissionPublisher<List<Object>> getDownstream(Executor executor, int bufferChunks) {
+        if (downstream == null) {
+            downstream = new SubmissionPublisher<>(executor, bufferChunks);
+        }
+        return downstream;
+    }
+
+    PipelineStep getStep() {
+        return step;
+    }
+
+    CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    long getEndTimeMs() {
+        return endTimeMs;
+    }
+
+    String getThreadName() {
+        return threadName;
+    }
+
+    long getRecordsProcessed() {
+        return recordsProcessed;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        this.startTimeMs = System.currentTimeMillis();
+        this.threadName = Thread.currentThread().getName();
+        try {
+            handler.open();
+        } catch (Exception e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<Object> chunk) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            handler.handle(chunk);
+            recordsProcessed += chunk.size();
+            if (downstream != null) {
+                // Blocks while a stage depending on this one has a full buffer
+                downstream.submit(chunk);
+            }
+        } catch (Exception e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(new DataPipelineException("Dependency step failed: " + throwable.getMessage(), throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            handler.close();
+        } catch (Exception e) {
+            fail(e);
+            return;
+        }
+        if (downstream != null) {
+            downstream.close();
+        }
+        endTimeMs = System.currentTimeMillis();
+        completion.complete(null);
+    }
+
+    private void fail(Throwable throwable) {
+        if (completion.isDone()) {
+            return;
+        }
+        LOGGER.debug("Streaming step '{}' failed: {}", step.getName(), throwable.getMessage());
+        try {
+            handler.close();
+        } catch (Exception e) {
+            LOGGER.debug("Failed to close streaming step '{}': {}", step.getName(), e.getMessage());
+        }
+        if (downstream != null) {
+            downstream.closeExceptionally(throwable);
+        }
+        endTimeMs = System.currentTimeMillis();
+        completion.completeExceptionally(throwable);
+    }
+}
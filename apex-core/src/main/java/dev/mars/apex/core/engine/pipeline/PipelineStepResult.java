@@ -13,6 +13,9 @@ public class PipelineStepResult {
     private boolean skipped;
     private String error;
     private long durationMs;
+    private long startTimeMs;
+    private long endTimeMs;
+    private String threadName;
     private Object data;
     private int recordsProcessed;
     private int recordsFailed;
@@ -60,6 +63,39 @@ public class PipelineStepResult {
         this.durationMs = durationMs;
     }
     
+    /**
+     * Get the time the step started, in milliseconds since the epoch.
+     */
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+    
+    public void setStartTimeMs(long startTimeMs) {
+        this.startTimeMs = startTimeMs;
+    }
+    
+    /**
+     * Get the time the step finished, in milliseconds since the epoch.
+     */
+    public long getEndTimeMs() {
+        return endTimeMs;
+    }
+    
+    public void setEndTimeMs(long endTimeMs) {
+        this.endTimeMs = endTimeMs;
+    }
+    
+    /**
+     * Get the name of the thread the step ran on.
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+    
+    public void setThreadName(String threadName) {
+        this.threadName = threadName;
+    }
+    
     public Object getData() {
         return data;
     }
@@ -1,7 +1,9 @@
 package dev.mars.apex.core.engine.pipeline;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Result of YAML-defined pipeline execution containing overall status and individual step results.
@@ -28,9 +30,10 @@ public class YamlPipelineExecutionResult {
     }
     
     /**
-     * Add a step result and update counters.
+     * Add a step result and update counters. Steps of a parallel pipeline add their
+     * results concurrently, in the order they finish.
      */
-    public void addStepResult(PipelineStepResult stepResult) {
+    public synchronized void addStepResult(PipelineStepResult stepResult) {
         stepResults.add(stepResult);
         totalSteps++;
         
@@ -76,6 +79,47 @@ public class YamlPipelineExecutionResult {
         return stepResults;
     }
     
+    /**
+     * Get the result of a step by name.
+     */
+    public synchronized PipelineStepResult getStepResult(String stepName) {
+        for (PipelineStepResult stepResult : stepResults) {
+            if (stepResult.getStepName().equals(stepName)) {
+                return stepResult;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the duration of each step in milliseconds, in the order the steps finished.
+     */
+    public synchronized Map<String, Long> getStepDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (PipelineStepResult stepResult : stepResults) {
+            durations.put(stepResult.getStepName(), stepResult.getDurationMs());
+        }
+        return durations;
+    }
+    
+    /**
+     * Get the largest number of steps that were running at the same time.
+     */
+    public synchronized int getMaxConcurrentSteps() {
+        int max = 0;
+        for (PipelineStepResult stepResult : stepResults) {
+            int running = 0;
+            for (PipelineStepResult other : stepResults) {
+                if (other == stepResult || (other.getStartTimeMs() <= stepResult.getStartTimeMs() &&
+                    other.getEndTimeMs() > stepResult.getStartTimeMs())) {
+                    running++;
+                }
+            }
+            max = Math.max(max, running);
+        }
+        return max;
+    }
+    
     public int getTotalSteps() {
         return totalSteps;
     }
@@ -0,0 +1,623 @@
+package dev.mars.apex.core.service.data.external;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasink.BatchConfig;
+import dev.mars.apex.core.service.monitoring.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffered write stage that groups records into batches for a data sink.
+ *
+ * Records are accumulated and handed to a {@link BatchHandler} when the buffer reaches the
+ * configured batch size or when the flush interval elapses, whichever comes first. The stage is
+ * driven by a {@link BatchConfig}:
+ * - batchSize: number of records per batch
+ * - flushIntervalMs: interval of the time-triggered flush of a partially filled buffer
+ * - parallelBatches: number of batches that may be written concurrently; with 1 (the default)
+ *   batches are written one at a time in the order they were filled
+ * - maxMemoryUsageMB: budget for the estimated size of buffered and in-flight records; a writer
+ *   that exceeds it blocks until earlier batches have been written
+ * - batchTimeoutMs: how long {@link #flush()} waits for in-flight batches to complete
+ *
+ * A batch that fails is not retried here; the first failure is reported by the next call to
+ * {@link #add(Object)}, {@link #flush()} or {@link #close()}, so handlers that can skip bad
+ * records (such as the database sink's batch write) should do so themselves. The latency of
+ * every flush is recorded in a {@link LatencyHistogram}.
+ *
+ * Writers must be closed, which flushes the remaining records and stops the interval flush.
+ * The interval flush only references its writer weakly, so a writer that is dropped without
+ * being closed stops flushing and releases its threads once it has been garbage collected;
+ * records still buffered in it are lost.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class BufferedBatchWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferedBatchWriter.class);
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    // A single daemon thread triggers the interval flushes of all writers. The flush itself never
+    // runs on it: with parallel batches it runs on the writer's own executor, otherwise on a
+    // virtual thread of the writer, so that one slow sink cannot delay the flushes of the others
+    private static final ScheduledExecutorService FLUSH_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "apex-batch-flush-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Callback that writes one batch of records.
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+
+        /**
+         * Write a batch of records.
+         *
+         * @param batch The records to write, in the order they were added
+         * @throws DataSinkException if the batch could not be written
+         */
+        void writeBatch(List<Object> batch) throws DataSinkException;
+    }
+
+    private final String name;
+    private final BatchHandler handler;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long batchTimeoutMs;
+    private final long maxMemoryBytes;
+    private final int parallelBatches;
+
+    // Parallel mode: flushes run on the executor, limited to parallelBatches by the permits.
+    // Sequential mode: flushes run on the calling thread, serialised by the flush lock.
+    private final ExecutorService flushExecutor;
+    private final Semaphore flushPermits;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledFuture<?> intervalFlush;
+
+    // Guards the buffer and the byte/in-flight accounting; waiters are notified when a batch completes
+    private final Object lock = new Object();
+    private List<Object> buffer;
+    private long bufferedBytes;
+    private long pendingBytes;
+    private int inFlight;
+    private DataSinkException failure;
+    private volatile boolean closed;
+
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder failedFlushCount = new LongAdder();
+    private final LongAdder recordsWritten = new LongAdder();
+    private final LongAdder recordsFailed = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    /**
+     * Create a new writer.
+     *
+     * @param name The name used in thread names and log messages, typically the sink or step name
+     * @param config The batch configuration, or null for the defaults
+     * @param handler The callback that writes each batch
+     */
+    public BufferedBatchWriter(String name, BatchConfig config, BatchHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Batch handler cannot be null");
+        }
+        BatchConfig batchConfig = config != null ? config : new BatchConfig();
+
+        this.name = name != null ? name : "batch-writer";
+        this.handler = handler;
+        this.batchSize = positiveOrDefault(batchConfig.getBatchSize(), 100);
+        this.flushIntervalMs = batchConfig.getFlushIntervalMs() != null ? batchConfig.getFlushIntervalMs() : 0L;
+        this.batchTimeoutMs = positiveOrDefault(batchConfig.getBatchTimeoutMs(), 5000L);
+        this.maxMemoryBytes = positiveOrDefault(batchConfig.getMaxMemoryUsageMB(), 100L) * BYTES_PER_MB;
+        this.parallelBatches = positiveOrDefault(batchConfig.getParallelBatches(), 1);
+        this.buffer = new ArrayList<>(batchSize);
+
+        if (parallelBatches > 1) {
+            // The thread factory must not capture the writer, which the executor would then keep reachable
+            String threadPrefix = "apex-batch-" + this.name + "-";
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.flushExecutor = Executors.newFixedThreadPool(parallelBatches, r -> {
+                Thread thread = new Thread(r, threadPrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flushPermits = new Semaphore(parallelBatches);
+        } else {
+            this.flushExecutor = null;
+            this.flushPermits = null;
+        }
+
+        this.intervalFlush = flushIntervalMs > 0 ? IntervalFlush.schedule(this) : null;
+    }
+
+    /**
+     * Add a record to the buffer, flushing the buffer when it reaches the batch size.
+     * Blocks while the memory budget is exhausted by records that are still being written.
+     *
+     * @param record The record to add
+     * @throws DataSinkException if the writer is closed or an earlier batch failed
+     */
+    public void add(Object record) throws DataSinkException {
+        ensureOpen();
+        checkFailure();
+
+        long size = estimateSize(record);
+        awaitMemory(size);
+
+        boolean full;
+        synchronized (lock) {
+            buffer.add(record);
+            bufferedBytes += size;
+            pendingBytes += size;
+            full = buffer.size() >= batchSize;
+        }
+
+        if (full) {
+            flushBuffer(true);
+            checkFailure();
+        }
+    }
+
+    /**
+     * Add several records to the buffer.
+     *
+     * @param records The records to add
+     * @throws DataSinkException if the writer is closed or an earlier batch failed
+     */
+    public void addAll(Collection<?> records) throws DataSinkException {
+        if (records == null) {
+            return;
+        }
+        for (Object record : records) {
+            add(record);
+        }
+    }
+
+    /**
+     * Write the buffered records and wait for all in-flight batches to complete.
+     *
+     * @throws DataSinkException if a batch failed or did not complete within the batch timeout
+     */
+    public void flush() throws DataSinkException {
+        flushBuffer(true);
+        awaitInFlight();
+        checkFailure();
+    }
+
+    /**
+     * Flush the remaining records and release the writer's threads.
+     *
+     * @throws DataSinkException if a batch failed or did not complete within the batch timeout
+     */
+    @Override
+    public void close() throws DataSinkException {
+        if (closed) {
+            return;
+        }
+        if (intervalFlush != null) {
+            intervalFlush.cancel(false);
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            if (flushExecutor != null) {
+                flushExecutor.shutdown();
+            }
+        }
+    }
+
+    private void ensureOpen() throws DataSinkException {
+        if (closed) {
+            throw DataSinkException.configurationError("Batch writer '" + name + "' is closed");
+        }
+    }
+
+    private void checkFailure() throws DataSinkException {
+        DataSinkException error;
+        synchronized (lock) {
+            error = failure;
+            failure = null;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Block while the records already buffered or in flight use up the memory budget.
+     * The buffer is flushed first so that its records can be written and released.
+     */
+    private void awaitMemory(long size) throws DataSinkException {
+        synchronized (lock) {
+            if (pendingBytes == 0 || pendingBytes + size <= maxMemoryBytes) {
+                return;
+            }
+        }
+
+        backpressureWaits.increment();
+        LOGGER.debug("Batch writer '{}' exceeded its memory budget of {} bytes, waiting for pending batches",
+                     name, maxMemoryBytes);
+        flushBuffer(true);
+
+        synchronized (lock) {
+            while (inFlight > 0 && pendingBytes + size > maxMemoryBytes && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw DataSinkException.writeError("Interrupted while waiting for batch writer '" + name + "'",
+                                                       e, null);
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    private void awaitInFlight() throws DataSinkException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        synchronized (lock) {
+            while (inFlight > 0) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    throw DataSinkException.timeoutError("Timed out waiting for " + inFlight +
+                                                         " in-flight batches of '" + name + "'", batchTimeoutMs);
+                }
+                try {
+                    lock.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw DataSinkException.writeError("Interrupted while flushing batch writer '" + name + "'",
+                                                       e, null);
+                }
+            }
+        }
+    }
+
+    private void triggerIntervalFlush() {
+        if (flushExecutor != null) {
+            // Only takes the buffer and hands it to the executor
+            flushOnInterval();
+        } else if (!flushLock.isLocked()) {
+            // Skip the turn while a flush is running rather than starting threads that would skip it
+            Thread.ofVirtual().name("apex-batch-" + name + "-flush").start(this::flushOnInterval);
+        }
+    }
+
+    private void flushOnInterval() {
+        try {
+            flushBuffer(false);
+        } catch (Exception e) {
+            LOGGER.debug("Interval flush of batch writer '{}' failed", name, e);
+        }
+    }
+
+    /**
+     * Hand the buffered records to the handler.
+     *
+     * @param wait Whether to wait for a free flush slot; the interval flush skips its turn instead
+     */
+    private void flushBuffer(boolean wait) throws DataSinkException {
+        if (flushExecutor == null) {
+            if (wait) {
+                flushLock.lock();
+            } else if (!flushLock.tryLock()) {
+                return;
+            }
+            try {
+                Batch batch = takeBuffer();
+                if (batch != null) {
+                    runBatch(batch);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+            return;
+        }
+
+        if (wait) {
+            try {
+                flushPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw DataSinkException.writeError("Interrupted while flushing batch writer '" + name + "'", e, null);
+            }
+        } else if (!flushPermits.tryAcquire()) {
+            return;
+        }
+
+        Batch batch = takeBuffer();
+        if (batch == null) {
+            flushPermits.release();
+            return;
+        }
+        flushExecutor.execute(() -> {
+            try {
+                runBatch(batch);
+            } finally {
+                flushPermits.release();
+            }
+        });
+    }
+
+    private Batch takeBuffer() {
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                return null;
+            }
+            Batch batch = new Batch(buffer, bufferedBytes);
+            buffer = new ArrayList<>(batchSize);
+            bufferedBytes = 0;
+            inFlight++;
+            return batch;
+        }
+    }
+
+    private void runBatch(Batch batch) {
+        long start = System.nanoTime();
+        DataSinkException error = null;
+        try {
+            handler.writeBatch(batch.records);
+            recordsWritten.add(batch.records.size());
+        } catch (DataSinkException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = DataSinkException.writeError("Batch of " + batch.records.size() + " records failed", e,
+                                                 "Writer: " + name);
+        } finally {
+            flushLatency.record(System.nanoTime() - start);
+            flushCount.increment();
+        }
+
+        if (error != null) {
+            failedFlushCount.increment();
+            recordsFailed.add(batch.records.size());
+            LOGGER.warn("Batch writer '{}' failed to write {} records: {}", name, batch.records.size(),
+                        error.getMessage());
+        }
+
+        synchronized (lock) {
+            if (error != null && failure == null) {
+                failure = error;
+            }
+            pendingBytes -= batch.bytes;
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Estimate the heap size of a record for the memory budget.
+     * The estimate only needs to be proportionate, so it uses fixed per-object overheads.
+     *
+     * @param record The record
+     * @return The estimated size in bytes
+     */
+    static long estimateSize(Object record) {
+        if (record == null) {
+            return 16;
+        }
+        if (record instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) record).length();
+        }
+        if (record instanceof Number || record instanceof Boolean || record instanceof Character) {
+            return 16;
+        }
+        if (record instanceof byte[]) {
+            return 16 + ((byte[]) record).length;
+        }
+        if (record instanceof Map) {
+            long size = 64;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) record).entrySet()) {
+                size += 32 + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (record instanceof Collection) {
+            long size = 40;
+            for (Object element : (Collection<?>) record) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        return 64;
+    }
+
+    private static int positiveOrDefault(Integer value, int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    private static long positiveOrDefault(Long value, long defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getParallelBatches() {
+        return parallelBatches;
+    }
+
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Get the number of records waiting in the buffer.
+     *
+     * @return The buffered record count
+     */
+    public int getBufferedCount() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    /**
+     * Get the estimated size of the buffered and in-flight records.
+     *
+     * @return The pending size in bytes
+     */
+    public long getPendingBytes() {
+        synchronized (lock) {
+            return pendingBytes;
+        }
+    }
+
+    /**
+     * Get the number of batches currently being written.
+     *
+     * @return The in-flight batch count
+     */
+    public int getInFlightBatches() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushCount.sum();
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.sum();
+    }
+
+    public long getRecordsFailed() {
+        return recordsFailed.sum();
+    }
+
+    /**
+     * Get the number of times a writer blocked because the memory budget was exhausted.
+     *
+     * @return The backpressure wait count
+     */
+    public long getBackpressureWaits() {
+        return backpressureWaits.sum();
+    }
+
+    /**
+     * Get the latency histogram of batch flushes.
+     *
+     * @return The flush latency histogram
+     */
+    public LatencyHistogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedBatchWriter{" +
+                "name='" + name + '\'' +
+                ", batchSize=" + batchSize +
+                ", parallelBatches=" + parallelBatches +
+                ", buffered=" + getBufferedCount() +
+                ", flushes=" + getFlushCount() +
+                ", failedFlushes=" + getFailedFlushCount() +
+                ", flushLatency=" + flushLatency +
+                '}';
+    }
+
+    /**
+     * Interval flush task of a writer on the shared timer.
+     * It holds the writer through a weak reference, as a task that referenced the writer would keep
+     * every writer that was never closed reachable and flushing for the life of the timer. Once the
+     * writer has been collected or closed the task cancels itself and shuts down the writer's executor.
+     */
+    private static final class IntervalFlush implements Runnable {
+        private final WeakReference<BufferedBatchWriter> writer;
+        private final ExecutorService flushExecutor;
+        private volatile ScheduledFuture<?> future;
+
+        private IntervalFlush(BufferedBatchWriter writer) {
+            this.writer = new WeakReference<>(writer);
+            this.flushExecutor = writer.flushExecutor;
+        }
+
+        static ScheduledFuture<?> schedule(BufferedBatchWriter writer) {
+            IntervalFlush task = new IntervalFlush(writer);
+            task.future = FLUSH_TIMER.scheduleWithFixedDelay(task, writer.flushIntervalMs, writer.flushIntervalMs,
+                                                             TimeUnit.MILLISECONDS);
+            return task.future;
+        }
+
+        @Override
+        public void run() {
+            BufferedBatchWriter target = writer.get();
+            if (target != null && !target.closed) {
+                target.triggerIntervalFlush();
+                return;
+            }
+
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            if (target == null && flushExecutor != null) {
+                LOGGER.debug("Batch writer was garbage collected without being closed, stopping its interval flush");
+                flushExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Records taken from the buffer together with their estimated size.
+     */
+    private static final class Batch {
+        private final List<Object> records;
+        private final long bytes;
+
+        private Batch(List<Object> records, long bytes) {
+            this.records = records;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -64,6 +64,11 @@ public class DataSinkMetrics {
     // Retry metrics
     private final AtomicLong retryAttempts = new AtomicLong(0);
     private final AtomicLong retrySuccesses = new AtomicLong(0);
+
+    // Batch throughput metrics, timed in nanoseconds so that fast batches are not rounded to zero
+    private final AtomicLong batchRowsWritten = new AtomicLong(0);
+    private final AtomicLong batchWriteNanos = new AtomicLong(0);
+    private volatile double lastBatchRowsPerSecond = 0.0;
     
     /**
      * Record a successful write operation.
@@ -138,6 +143,21 @@ public class DataSinkMetrics {
         lastErrorTime.set(LocalDateTime.now());
     }
     
+    /**
+     * Record the throughput of a batch write.
+     *
+     * @param elapsedNanos The time taken to write the batch in nanoseconds
+     * @param rowCount The number of rows written
+     */
+    public void recordBatchThroughput(long elapsedNanos, int rowCount) {
+        if (elapsedNanos <= 0) {
+            return;
+        }
+        batchRowsWritten.addAndGet(rowCount);
+        batchWriteNanos.addAndGet(elapsedNanos);
+        lastBatchRowsPerSecond = rowCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
     /**
      * Record a connection attempt.
      * 
@@ -269,6 +289,25 @@ public class DataSinkMetrics {
         return 0.0;
     }
     
+    /**
+     * Get the rows per second achieved over all recorded batch writes.
+     *
+     * @return The batch write throughput in rows per second
+     */
+    public double getBatchRowsPerSecond() {
+        long nanos = batchWriteNanos.get();
+        return nanos > 0 ? batchRowsWritten.get() * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    /**
+     * Get the rows per second achieved by the most recent batch write.
+     *
+     * @return The throughput of the last batch in rows per second
+     */
+    public double getLastBatchRowsPerSecond() {
+        return lastBatchRowsPerSecond;
+    }
+    
     public long getConnectionAttempts() {
         return connectionAttempts.get();
     }
@@ -345,6 +384,9 @@ public class DataSinkMetrics {
         healthCheckFailures.set(0);
         retryAttempts.set(0);
         retrySuccesses.set(0);
+        batchRowsWritten.set(0);
+        batchWriteNanos.set(0);
+        lastBatchRowsPerSecond = 0.0;
         lastConnectionTime.set(null);
         lastWriteTime.set(null);
         lastErrorTime.set(null);
@@ -22,6 +22,8 @@ import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Enhanced interface for external data sources that extends the basic DataSource interface
@@ -97,7 +99,47 @@ public interface ExternalDataSource extends DataSource {
      * @throws DataSourceException if query execution fails
      */
     <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException;
-    
+
+    /**
+     * Execute a query against the data source and return the results as a stream.
+     * Sources that can read their data incrementally override this method so that results are
+     * produced one at a time instead of being collected into a list first; the default
+     * implementation streams the list returned by {@link #query(String, Map)}.
+     *
+     * The returned stream may hold open resources such as file handles, so callers should
+     * close it, preferably with try-with-resources. Read failures that occur while the stream
+     * is consumed are thrown as unchecked exceptions.
+     *
+     * @param <T> The type of objects to return
+     * @param query The query to execute (format depends on data source type)
+     * @param parameters Parameters to bind to the query
+     * @return Stream of results, empty if no results found
+     * @throws DataSourceException if query execution fails
+     */
+    default <T> Stream<T> stream(String query, Map<String, Object> parameters) throws DataSourceException {
+        List<T> results = query(query, parameters);
+        return results.stream();
+    }
+
+    /**
+     * Execute a query against the data source without blocking the calling thread.
+     * Sources with a non-blocking client override this method; the default implementation
+     * runs {@link #query(String, Map)} on the calling thread and returns its outcome as a
+     * completed future.
+     *
+     * @param <T> The type of objects to return
+     * @param query The query to execute (format depends on data source type)
+     * @param parameters Parameters to bind to the query
+     * @return Future of the results, failed with a DataSourceException if the query fails
+     */
+    default <T> CompletableFuture<List<T>> queryAsync(String query, Map<String, Object> parameters) {
+        try {
+            return CompletableFuture.completedFuture(query(query, parameters));
+        } catch (DataSourceException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Execute a query against the data source and return a single result.
      * This method is useful for queries that return a single record.
@@ -0,0 +1,147 @@
+package dev.mars.apex.core.service.data.external;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deadline and cancellation state of a query running on the current thread.
+ *
+ * Callers that bound a query, such as the bulkheads of
+ * {@link dev.mars.apex.core.service.data.external.manager.DataSourceManager}, run it inside a
+ * context. Data sources read the remaining time from {@link #current()} to bound their own
+ * blocking calls, and register a cancel action, such as cancelling a JDBC statement, that runs
+ * when the caller gives up on the query. Cancelling also interrupts the thread running the
+ * query. Queries run outside a context have no deadline.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class QueryContext {
+
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+    private volatile Thread thread;
+    private volatile Runnable cancelAction;
+
+    /**
+     * Create a context for a query.
+     *
+     * @param timeoutMs The time the query may take, or 0 for no deadline
+     */
+    public QueryContext(long timeoutMs) {
+        this.hasDeadline = timeoutMs > 0;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMs));
+    }
+
+    /**
+     * Get the context of the query running on the current thread.
+     *
+     * @return The context, or null if the query has no context
+     */
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task inside a context on the current thread.
+     *
+     * @param context The context
+     * @param task The task
+     * @return The result of the task
+     * @throws Exception if the task fails
+     */
+    public static <T> T run(QueryContext context, Callable<T> task) throws Exception {
+        QueryContext previous = CURRENT.get();
+        CURRENT.set(context);
+        context.thread = Thread.currentThread();
+        try {
+            if (context.cancelled) {
+                throw new InterruptedException("Query cancelled");
+            }
+            return task.call();
+        } finally {
+            context.thread = null;
+            context.cancelAction = null;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Check whether the query has a deadline.
+     */
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * Get the time left before the deadline.
+     *
+     * @return The remaining time in milliseconds, 0 once the deadline has passed, or
+     *         {@link Long#MAX_VALUE} if there is no deadline
+     */
+    public long getRemainingMillis() {
+        if (!hasDeadline) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Check whether the caller has given up on the query.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Set the action that aborts the blocking call the query is making. The action is cleared
+     * when the query finishes.
+     *
+     * @param action The action, or null to clear it
+     */
+    public void setCancelAction(Runnable action) {
+        this.cancelAction = action;
+        if (action != null && cancelled) {
+            action.run();
+        }
+    }
+
+    /**
+     * Give up on the query: run its cancel action and interrupt the thread running it.
+     */
+    public void cancel() {
+        cancelled = true;
+        Runnable action = cancelAction;
+        if (action != null) {
+            action.run();
+        }
+        Thread running = thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+}
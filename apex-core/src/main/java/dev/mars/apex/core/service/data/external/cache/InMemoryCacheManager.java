@@ -17,15 +17,15 @@ package dev.mars.apex.core.service.data.external.cache;
  */
 
 
+import dev.mars.apex.core.config.datasource.CacheConfig;
 import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -37,12 +37,21 @@ import java.util.stream.Collectors;
  * 
  * Features:
  * - Thread-safe operations using ConcurrentHashMap
- * - TTL support with background cleanup
- * - LRU eviction policy
+ * - TTL and max-idle support with background cleanup
+ * - LRU, LFU and FIFO eviction policies
  * - Pattern-based key matching
  * - Cache statistics tracking
  * - Configurable maximum size
  * 
+ * Eviction uses a CLOCK-style sweep over a lock-free queue of entries rather than a scan of
+ * the whole map, so a put into a full cache costs amortised O(1). Reads only set a reference
+ * bit (LRU) or bump a small saturating counter (LFU) on the entry; the sweep gives referenced
+ * entries a second chance (LRU) or ages their counters (LFU) and evicts the first entry that
+ * has not been used since it was last passed. FIFO evicts in insertion order. The RANDOM and
+ * TTL_BASED policies fall back to FIFO order. Expired entries are always evicted first when
+ * the sweep reaches them. Concurrent puts into a full cache may briefly exceed the maximum
+ * size by at most the number of writers.
+ * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
  * @version 1.0
@@ -50,6 +59,9 @@ import java.util.stream.Collectors;
 public class InMemoryCacheManager implements CacheManager {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryCacheManager.class);
+
+    /** Maximum access count tracked per entry for LFU eviction. */
+    private static final int MAX_FREQUENCY = 15;
     
     private final DataSourceConfiguration configuration;
     private final ConcurrentHashMap<String, CacheEntry> cache;
@@ -59,13 +71,17 @@ public class InMemoryCacheManager implements CacheManager {
     private ScheduledExecutorService cleanupExecutor;
     private volatile boolean running = false;
 
-    // Thread safety for eviction operations
-    private final ReadWriteLock evictionLock = new ReentrantReadWriteLock();
+    // Eviction order: every live entry is in the queue once; removed entries are skipped lazily
+    private final ConcurrentLinkedQueue<CacheEntry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger retiredInQueue = new AtomicInteger(0);
+    private final AtomicBoolean purging = new AtomicBoolean(false);
     private final AtomicInteger currentSize = new AtomicInteger(0);
 
     // Configuration
     private final int maxSize;
     private final long defaultTtlSeconds;
+    private final long maxIdleMillis;
+    private final CacheConfig.EvictionPolicy evictionPolicy;
     private final boolean enableCleanup;
     
     /**
@@ -79,11 +95,15 @@ public class InMemoryCacheManager implements CacheManager {
         this.statistics = new CacheStatistics();
         
         // Extract configuration
-        this.maxSize = configuration.getCache() != null && configuration.getCache().getMaxSize() != null ?
-            configuration.getCache().getMaxSize() : 10000;
-        this.defaultTtlSeconds = configuration.getCache() != null && configuration.getCache().getTtlSeconds() != null ?
-            configuration.getCache().getTtlSeconds() : 3600; // 1 hour default
-        this.enableCleanup = configuration.getCache() != null && configuration.getCache().isEnabled();
+        CacheConfig cacheConfig = configuration.getCache();
+        this.maxSize = cacheConfig != null && cacheConfig.getMaxSize() != null ?
+            cacheConfig.getMaxSize() : 10000;
+        this.defaultTtlSeconds = cacheConfig != null && cacheConfig.getTtlSeconds() != null ?
+            cacheConfig.getTtlSeconds() : 3600; // 1 hour default
+        this.maxIdleMillis = cacheConfig != null ? cacheConfig.getMaxIdleMilliseconds() : 0;
+        this.evictionPolicy = cacheConfig != null && cacheConfig.getEvictionPolicy() != null ?
+            cacheConfig.getEvictionPolicy() : CacheConfig.EvictionPolicy.LRU;
+        this.enableCleanup = cacheConfig != null && cacheConfig.isEnabled();
         
         // Start background cleanup if enabled
         if (enableCleanup) {
@@ -91,8 +111,8 @@ public class InMemoryCacheManager implements CacheManager {
         }
         
         this.running = true;
-        LOGGER.info("In-memory cache manager initialized with maxSize={}, defaultTTL={}s", 
-            maxSize, defaultTtlSeconds);
+        LOGGER.info("In-memory cache manager initialized with maxSize={}, defaultTTL={}s, maxIdle={}ms, evictionPolicy={}",
+            maxSize, defaultTtlSeconds, maxIdleMillis, evictionPolicy);
     }
     
     @Override
@@ -109,45 +129,32 @@ public class InMemoryCacheManager implements CacheManager {
         long startTime = System.nanoTime();
 
         try {
-            // Use read lock for normal operations, upgrade to write lock for eviction
-            evictionLock.readLock().lock();
-            try {
-                // Check if we need to evict entries to make room
-                while (currentSize.get() >= maxSize) {
-                    // Upgrade to write lock for eviction
-                    evictionLock.readLock().unlock();
-                    evictionLock.writeLock().lock();
-                    try {
-                        // Double-check condition after acquiring write lock
-                        if (currentSize.get() >= maxSize) {
-                            evictLRUInternal();
-                        }
-                        // Downgrade to read lock
-                        evictionLock.readLock().lock();
-                    } finally {
-                        evictionLock.writeLock().unlock();
-                    }
+            // Make room first so that the new entry is never its own eviction candidate
+            if (!cache.containsKey(key)) {
+                while (currentSize.get() >= maxSize && evictOne()) {
+                    // keep sweeping until there is room
                 }
+            }
 
-                long expiryTime = ttlSeconds > 0 ?
-                    System.currentTimeMillis() + (ttlSeconds * 1000) :
-                    Long.MAX_VALUE;
-
-                CacheEntry entry = new CacheEntry(value, expiryTime, System.currentTimeMillis());
-                CacheEntry previous = cache.put(key, entry);
-
-                // Update size counter atomically
-                if (previous == null) {
-                    currentSize.incrementAndGet();
-                }
+            long now = System.currentTimeMillis();
+            long expiryTime = ttlSeconds > 0 ?
+                now + (ttlSeconds * 1000) :
+                Long.MAX_VALUE;
 
-                statistics.recordPut();
-                statistics.recordLoadTime(System.nanoTime() - startTime);
+            CacheEntry entry = new CacheEntry(key, value, expiryTime, now);
+            CacheEntry previous = cache.put(key, entry);
+            evictionQueue.offer(entry);
 
-            } finally {
-                evictionLock.readLock().unlock();
+            // Update size counter atomically
+            if (previous == null) {
+                currentSize.incrementAndGet();
+            } else {
+                retire(previous);
             }
 
+            statistics.recordPut();
+            statistics.recordLoadTime(System.nanoTime() - startTime);
+
         } catch (Exception e) {
             LOGGER.error("Failed to put value in cache for key: {}", key, e);
         }
@@ -170,18 +177,16 @@ public class InMemoryCacheManager implements CacheManager {
             }
             
             // Check if expired
-            if (entry.isExpired()) {
-                // Only decrement if we actually removed the entry
-                if (cache.remove(key, entry)) {
-                    currentSize.decrementAndGet();
-                }
+            long now = System.currentTimeMillis();
+            if (isExpired(entry, now)) {
+                removeEntry(key, entry);
                 statistics.recordMiss();
                 statistics.recordEviction();
                 return null;
             }
             
-            // Update access time for LRU
-            entry.updateAccessTime();
+            // Record the access for idle tracking and eviction
+            entry.recordAccess(now, evictionPolicy);
             
             statistics.recordHit();
             statistics.recordLoadTime(System.nanoTime() - startTime);
@@ -205,6 +210,7 @@ public class InMemoryCacheManager implements CacheManager {
             CacheEntry removed = cache.remove(key);
             if (removed != null) {
                 currentSize.decrementAndGet();
+                retire(removed);
                 statistics.recordRemoval();
                 return true;
             }
@@ -229,11 +235,8 @@ public class InMemoryCacheManager implements CacheManager {
             }
             
             // Check if expired
-            if (entry.isExpired()) {
-                // Only decrement if we actually removed the entry
-                if (cache.remove(key, entry)) {
-                    currentSize.decrementAndGet();
-                }
+            if (isExpired(entry, System.currentTimeMillis())) {
+                removeEntry(key, entry);
                 statistics.recordEviction();
                 return false;
             }
@@ -260,11 +263,12 @@ public class InMemoryCacheManager implements CacheManager {
             
             Pattern compiledPattern = Pattern.compile(regexPattern);
             
+            long now = System.currentTimeMillis();
             return cache.keySet().stream()
                 .filter(key -> compiledPattern.matcher(key).matches())
                 .filter(key -> {
                     CacheEntry entry = cache.get(key);
-                    return entry != null && !entry.isExpired();
+                    return entry != null && !isExpired(entry, now);
                 })
                 .collect(Collectors.toList());
                 
@@ -277,10 +281,11 @@ public class InMemoryCacheManager implements CacheManager {
     @Override
     public List<String> getAllKeys() {
         try {
+            long now = System.currentTimeMillis();
             return cache.keySet().stream()
                 .filter(key -> {
                     CacheEntry entry = cache.get(key);
-                    return entry != null && !entry.isExpired();
+                    return entry != null && !isExpired(entry, now);
                 })
                 .collect(Collectors.toList());
                 
@@ -299,6 +304,8 @@ public class InMemoryCacheManager implements CacheManager {
     public void clear() {
         try {
             cache.clear();
+            evictionQueue.clear();
+            retiredInQueue.set(0);
             currentSize.set(0);
             LOGGER.info("Cache cleared for '{}'", configuration.getName());
 
@@ -309,17 +316,12 @@ public class InMemoryCacheManager implements CacheManager {
     
     @Override
     public void evictExpired() {
-        evictionLock.writeLock().lock();
         try {
             long currentTime = System.currentTimeMillis();
             int evictedCount = 0;
 
-            Iterator<Map.Entry<String, CacheEntry>> iterator = cache.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Map.Entry<String, CacheEntry> entry = iterator.next();
-                if (entry.getValue().isExpired(currentTime)) {
-                    iterator.remove();
-                    currentSize.decrementAndGet();
+            for (Map.Entry<String, CacheEntry> entry : cache.entrySet()) {
+                if (isExpired(entry.getValue(), currentTime) && removeEntry(entry.getKey(), entry.getValue())) {
                     evictedCount++;
                     statistics.recordEviction();
                 }
@@ -332,8 +334,6 @@ public class InMemoryCacheManager implements CacheManager {
 
         } catch (Exception e) {
             LOGGER.error("Failed to evict expired entries", e);
-        } finally {
-            evictionLock.writeLock().unlock();
         }
     }
     
@@ -364,6 +364,8 @@ public class InMemoryCacheManager implements CacheManager {
         }
         
         cache.clear();
+        evictionQueue.clear();
+        retiredInQueue.set(0);
         currentSize.set(0);
         LOGGER.info("In-memory cache manager shut down for '{}'", configuration.getName());
     }
@@ -390,48 +392,102 @@ public class InMemoryCacheManager implements CacheManager {
     }
 
     /**
-     * Evict least recently used entries to make room for new entries.
-     * This method should only be called when holding the write lock.
+     * Get the eviction policy in effect for this cache.
+     *
+     * @return The eviction policy
      */
-    private void evictLRUInternal() {
-        if (currentSize.get() < maxSize) {
-            return;
-        }
-
-        try {
-            // Find the least recently used entry
-            String lruKey = null;
-            long oldestAccessTime = Long.MAX_VALUE;
+    public CacheConfig.EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
 
-            for (Map.Entry<String, CacheEntry> entry : cache.entrySet()) {
-                long accessTime = entry.getValue().getLastAccessTime();
-                if (accessTime < oldestAccessTime) {
-                    oldestAccessTime = accessTime;
-                    lruKey = entry.getKey();
-                }
+    /**
+     * Evict one entry according to the eviction policy.
+     * Sweeps the eviction queue from its head: removed entries are dropped, expired entries are
+     * evicted, and recently or frequently used entries are moved to the tail with their usage
+     * decayed. Each entry can be passed over at most {@value #MAX_FREQUENCY} times before it
+     * becomes a candidate, so a sweep is amortised O(1) per eviction.
+     *
+     * @return true if an entry was evicted, false if the cache is empty
+     */
+    private boolean evictOne() {
+        long now = System.currentTimeMillis();
+        CacheEntry candidate;
+        while ((candidate = evictionQueue.poll()) != null) {
+            if (candidate.retired) {
+                retiredInQueue.decrementAndGet();
+                continue;
             }
-
-            if (lruKey != null) {
-                cache.remove(lruKey);
+            if (!isExpired(candidate, now) && candidate.survivesSweep(evictionPolicy)) {
+                evictionQueue.offer(candidate);
+                continue;
+            }
+            // The candidate has left the queue, so it must not be counted as retired in it
+            if (cache.remove(candidate.key, candidate)) {
                 currentSize.decrementAndGet();
+                candidate.retired = true;
                 statistics.recordEviction();
-                LOGGER.debug("Evicted LRU entry with key: {}", lruKey);
+                LOGGER.debug("Evicted {} entry with key: {}", evictionPolicy, candidate.key);
+                return true;
             }
+            // Removed concurrently and counted by that removal while out of the queue
+            retiredInQueue.decrementAndGet();
+        }
+        return false;
+    }
 
-        } catch (Exception e) {
-            LOGGER.error("Failed to evict LRU entry", e);
+    private boolean isExpired(CacheEntry entry, long currentTime) {
+        return entry.isExpired(currentTime)
+            || (maxIdleMillis > 0 && currentTime - entry.lastAccessTime > maxIdleMillis);
+    }
+
+    /**
+     * Remove an entry if it is still mapped to its key.
+     */
+    private boolean removeEntry(String key, CacheEntry entry) {
+        if (cache.remove(key, entry)) {
+            currentSize.decrementAndGet();
+            retire(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Mark an entry that is no longer in the map so the eviction sweep skips it, and compact
+     * the eviction queue once removed entries outnumber the cache capacity.
+     */
+    private void retire(CacheEntry entry) {
+        entry.retired = true;
+        if (retiredInQueue.incrementAndGet() > maxSize && purging.compareAndSet(false, true)) {
+            try {
+                int purged = 0;
+                Iterator<CacheEntry> iterator = evictionQueue.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().retired) {
+                        iterator.remove();
+                        purged++;
+                    }
+                }
+                retiredInQueue.addAndGet(-purged);
+            } finally {
+                purging.set(false);
+            }
         }
     }
 
     /**
-     * Cache entry holder with TTL and access time tracking.
+     * Cache entry holder with TTL, access time and usage tracking.
      */
     private static class CacheEntry {
+        private final String key;
         private final Object value;
         private final long expiryTime;
         private volatile long lastAccessTime;
+        private volatile int usage;
+        private volatile boolean retired;
 
-        public CacheEntry(Object value, long expiryTime, long creationTime) {
+        public CacheEntry(String key, Object value, long expiryTime, long creationTime) {
+            this.key = key;
             this.value = value;
             this.expiryTime = expiryTime;
             this.lastAccessTime = creationTime;
@@ -441,20 +497,39 @@ public class InMemoryCacheManager implements CacheManager {
             return value;
         }
 
-        public boolean isExpired() {
-            return isExpired(System.currentTimeMillis());
-        }
-
         public boolean isExpired(long currentTime) {
             return expiryTime != Long.MAX_VALUE && currentTime > expiryTime;
         }
 
-        public long getLastAccessTime() {
-            return lastAccessTime;
+        /**
+         * Record a read. LRU only needs a reference bit; LFU keeps a saturating count.
+         * Updates are racy by design: an occasional lost increment does not matter for eviction.
+         */
+        public void recordAccess(long currentTime, CacheConfig.EvictionPolicy policy) {
+            this.lastAccessTime = currentTime;
+            int current = usage;
+            if (policy == CacheConfig.EvictionPolicy.LFU) {
+                if (current < MAX_FREQUENCY) {
+                    usage = current + 1;
+                }
+            } else if (current == 0) {
+                usage = 1;
+            }
         }
 
-        public void updateAccessTime() {
-            this.lastAccessTime = System.currentTimeMillis();
+        /**
+         * Decide whether the entry is spared by the eviction sweep, decaying its usage if so.
+         */
+        public boolean survivesSweep(CacheConfig.EvictionPolicy policy) {
+            if (policy != CacheConfig.EvictionPolicy.LRU && policy != CacheConfig.EvictionPolicy.LFU) {
+                return false;
+            }
+            int current = usage;
+            if (current == 0) {
+                return false;
+            }
+            usage = current - 1;
+            return true;
         }
     }
 }
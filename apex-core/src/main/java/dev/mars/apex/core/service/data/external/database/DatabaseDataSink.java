@@ -16,6 +16,7 @@ package dev.mars.apex.core.service.data.external.database;
  * limitations under the License.
  */
 
+import dev.mars.apex.core.config.datasink.BatchConfig;
 import dev.mars.apex.core.config.datasink.DataSinkConfiguration;
 import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
 import dev.mars.apex.core.service.data.external.*;
@@ -26,6 +27,7 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Database implementation of DataSink.
@@ -41,6 +43,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * - SQL Server
  * - H2 (for testing)
  * 
+ * When the batch configuration enables batching and buffering (the defaults), write() only
+ * adds update statements to a buffer, which is written with writeBatch when it is full, when
+ * the flush interval elapses and on flush(). Rows that the batch write skips or cannot write
+ * are not reported by write(); instead the next flush(), and so execute() and the pipeline
+ * engine, fails with a batch error giving the number of rows that were not written.
+ * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
  * @version 1.0
@@ -56,8 +64,18 @@ public class DatabaseDataSink implements DataSink {
     private volatile boolean initialized = false;
     private volatile boolean shutdown = false;
     
-    // Operation cache for prepared statements
-    private final Map<String, String> operationCache = new ConcurrentHashMap<>();
+    // Operation cache of parsed named-parameter SQL
+    private final Map<String, ParsedSql> operationCache = new ConcurrentHashMap<>();
+
+    /** Number of rows sent per executeBatch call when no batch configuration is set. */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    // Buffered writers per operation, used by write() when the batch configuration enables buffering
+    private final Map<String, BufferedBatchWriter> bufferedWriters = new ConcurrentHashMap<>();
+
+    // Rows handed to and not written by the buffered writers since the last flush()
+    private final AtomicInteger bufferedRows = new AtomicInteger();
+    private final AtomicInteger unwrittenBufferedRows = new AtomicInteger();
     
     // Supported operations
     private static final List<String> SUPPORTED_OPERATIONS = Arrays.asList(
@@ -152,6 +170,8 @@ public class DatabaseDataSink implements DataSink {
         LOGGER.info("Shutting down database sink: {}", getName());
         
         try {
+            closeBufferedWriters();
+
             // Close data source if it's closeable
             if (dataSource instanceof AutoCloseable) {
                 ((AutoCloseable) dataSource).close();
@@ -201,12 +221,21 @@ public class DatabaseDataSink implements DataSink {
             throw DataSinkException.configurationError("Database sink is shutdown");
         }
         
+        if (isBufferingEnabled()) {
+            ParsedSql bufferedSql = resolveOperation(operation);
+            if (bufferedSql.isUpdateStatement()) {
+                // Written later with writeBatch; rows it skips are reported by the next flush()
+                getBufferedWriter(operation).add(mergeParameters(data, parameters));
+                return;
+            }
+        }
+
         long startTime = System.currentTimeMillis();
         LOGGER.debug("Starting write operation '{}' on database sink '{}'", operation, getName());
 
         try {
-            String sql = resolveOperation(operation);
-            LOGGER.debug("Resolved operation '{}' to SQL: {}", operation, sql);
+            ParsedSql sql = resolveOperation(operation);
+            LOGGER.debug("Resolved operation '{}' to SQL: {}", operation, sql.getOriginalSql());
 
             Map<String, Object> allParameters = mergeParameters(data, parameters);
             LOGGER.debug("Merged parameters for write operation: {}", allParameters);
@@ -282,6 +311,17 @@ public class DatabaseDataSink implements DataSink {
     
     @Override
     public void writeBatch(String operation, List<Object> data, Map<String, Object> parameters) throws DataSinkException {
+        writeRows(operation, data, parameters);
+    }
+
+    /**
+     * Write the rows of a batch, skipping the rows that fail.
+     *
+     * @return The progress of the batch, with the number of rows written and skipped
+     * @throws DataSinkException if the transaction failed or no row could be written
+     */
+    private BatchProgress writeRows(String operation, List<Object> data, Map<String, Object> parameters)
+            throws DataSinkException {
         if (!initialized) {
             throw DataSinkException.configurationError("Database sink not initialized");
         }
@@ -290,81 +330,250 @@ public class DatabaseDataSink implements DataSink {
             throw DataSinkException.configurationError("Database sink is shutdown");
         }
         
+        BatchProgress progress = new BatchProgress();
         if (data == null || data.isEmpty()) {
             LOGGER.debug("No data to write in batch operation");
-            return;
+            return progress;
         }
         
         long startTime = System.currentTimeMillis();
-        int successCount = 0;
-        int failureCount = 0;
+        long startNanos = System.nanoTime();
 
         LOGGER.debug("Starting batch write operation '{}' on database sink '{}' with {} items",
             operation, getName(), data.size());
 
         try {
-            String sql = resolveOperation(operation);
-            LOGGER.debug("Resolved batch operation '{}' to SQL: {}", operation, sql);
+            ParsedSql sql = resolveOperation(operation);
+            LOGGER.debug("Resolved batch operation '{}' to SQL: {}", operation, sql.getOriginalSql());
 
             try (Connection connection = dataSource.getConnection()) {
                 connection.setAutoCommit(false);
                 LOGGER.debug("Started transaction for batch write operation");
 
-                // For batch operations, we need to prepare each statement individually
-                // because named parameter processing needs to happen for each item
-                for (Object item : data) {
-                    try {
+                // Items are bound to a single statement and sent with executeBatch every batchSize
+                // rows; only a chunk that fails is retried row by row to find and skip the bad rows
+                int batchSize = getBatchSize();
+                List<Object> chunk = new ArrayList<>(Math.min(batchSize, data.size()));
+                try (PreparedStatement statement = connection.prepareStatement(sql.getJdbcSql())) {
+                    for (Object item : data) {
                         Map<String, Object> allParameters = mergeParameters(item, parameters);
-                        try (PreparedStatement statement = prepareStatement(connection, sql, allParameters)) {
-                            statement.executeUpdate();
-                            successCount++;
+                        if (!JdbcParameterUtils.isDirectlyBindable(sql, allParameters)) {
+                            // Collection or missing parameters change the SQL, so this item is written on its own
+                            executeChunk(connection, statement, sql, chunk, parameters, progress);
+                            writeBatchItem(connection, null, sql, item, parameters, progress);
+                            continue;
                         }
-                    } catch (SQLException e) {
-                        failureCount++;
-
-                        // Classify the SQL error to provide better logging
-                        SqlErrorClassifier.SqlErrorType errorType = SqlErrorClassifier.classifyError(e);
-                        String errorDescription = SqlErrorClassifier.getErrorDescription(errorType);
-
-                        if (errorType == SqlErrorClassifier.SqlErrorType.DATA_INTEGRITY_VIOLATION) {
-                            LOGGER.warn("Skipping batch item due to data integrity violation: {} - Item: {}",
-                                       e.getMessage(), item);
-                        } else {
-                            LOGGER.warn("Failed to execute batch item due to {}: {} - Item: {}",
-                                       errorDescription, e.getMessage(), item);
+
+                        JdbcParameterUtils.bindParameters(statement, sql, allParameters);
+                        statement.addBatch();
+                        chunk.add(item);
+                        if (chunk.size() >= batchSize) {
+                            executeChunk(connection, statement, sql, chunk, parameters, progress);
                         }
                     }
+                    executeChunk(connection, statement, sql, chunk, parameters, progress);
                 }
 
-                if (successCount > 0) {
+                if (progress.successCount > 0) {
                     connection.commit();
                     long executionTime = System.currentTimeMillis() - startTime;
-                    metrics.recordSuccessfulBatch(executionTime, successCount);
+                    metrics.recordSuccessfulBatch(executionTime, progress.successCount);
+                    metrics.recordBatchThroughput(System.nanoTime() - startNanos, progress.successCount);
 
-                    LOGGER.debug("Successfully wrote batch using operation '{}', items: {} in {}ms",
-                               operation, successCount, executionTime);
+                    LOGGER.debug("Successfully wrote batch using operation '{}', items: {} in {}ms ({} rows/sec)",
+                               operation, progress.successCount, executionTime,
+                               String.format("%.0f", metrics.getLastBatchRowsPerSecond()));
                 } else {
                     LOGGER.debug("No items could be processed in batch, rolling back transaction");
                     connection.rollback();
+                    metrics.recordFailedBatch(System.currentTimeMillis() - startTime);
+                    if (progress.integrityFailureCount == progress.failureCount) {
+                        // Every row violated a constraint; callers may skip such batches like single rows
+                        throw DataSinkException.dataIntegrityError(
+                            "No items could be processed in batch: all " + data.size() +
+                            " rows violate data integrity constraints", null, "Operation: " + operation);
+                    }
                     throw DataSinkException.batchError("No items could be processed in batch", 0, data.size());
                 }
 
             } catch (SQLException e) {
                 metrics.recordFailedBatch(System.currentTimeMillis() - startTime);
                 throw DataSinkException.batchError("Failed to write batch using operation: " + operation,
-                                                 successCount, data.size());
+                                                 progress.successCount, data.size());
             }
 
-            if (failureCount > 0) {
-                metrics.recordPartialBatch(System.currentTimeMillis() - startTime, successCount, failureCount);
+            if (progress.failureCount > 0) {
+                metrics.recordPartialBatch(System.currentTimeMillis() - startTime, progress.successCount,
+                                           progress.failureCount);
             }
+            return progress;
 
+        } catch (DataSinkException e) {
+            throw e;
         } catch (Exception e) {
             metrics.recordFailedBatch(System.currentTimeMillis() - startTime);
             throw DataSinkException.batchError("Failed to write batch using operation: " + operation,
-                                             successCount, data.size());
+                                             progress.successCount, data.size());
+        }
+    }
+
+    /**
+     * Send the rows added to the statement with executeBatch.
+     * If the batch fails, its effects are rolled back to a savepoint and the rows are retried
+     * one at a time, so that rows violating constraints are skipped while the rest are written.
+     * Without savepoints the rows the driver applied cannot be undone, so only the rows that its
+     * BatchUpdateException reports as not applied are retried; when it does not report them the
+     * transaction is rolled back and the whole batch fails.
+     */
+    private void executeChunk(Connection connection, PreparedStatement statement, ParsedSql sql,
+                              List<Object> chunk, Map<String, Object> parameters,
+                              BatchProgress progress) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Savepoint savepoint = setSavepoint(connection);
+        try {
+            statement.executeBatch();
+            progress.successCount += chunk.size();
+            releaseSavepoint(connection, savepoint);
+        } catch (SQLException e) {
+            statement.clearBatch();
+            List<Object> retry = chunk;
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            } else {
+                List<Integer> unapplied = unappliedRows(e, chunk.size());
+                if (unapplied == null) {
+                    connection.rollback();
+                    progress.successCount = 0;
+                    throw e;
+                }
+                progress.successCount += chunk.size() - unapplied.size();
+                retry = new ArrayList<>(unapplied.size());
+                for (int index : unapplied) {
+                    retry.add(chunk.get(index));
+                }
+            }
+            LOGGER.debug("Batch of {} items failed, retrying {} items individually: {}",
+                         chunk.size(), retry.size(), e.getMessage());
+            for (Object item : retry) {
+                writeBatchItem(connection, statement, sql, item, parameters, progress);
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Get the positions of the rows of a failed batch that the driver did not apply.
+     * Drivers that stop at the first failing row report update counts for the rows before it;
+     * drivers that continue report a count for every row, with EXECUTE_FAILED for failed rows.
+     *
+     * @param e The exception thrown by executeBatch
+     * @param batchSize The number of rows in the batch
+     * @return The positions of the rows not applied, or null if the driver did not report update counts
+     */
+    static List<Integer> unappliedRows(SQLException e, int batchSize) {
+        if (!(e instanceof BatchUpdateException)) {
+            return null;
+        }
+        int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+        if (updateCounts == null) {
+            return null;
+        }
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                rows.add(i);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Write a single item of a batch, skipping it if it fails.
+     *
+     * @param statement A statement prepared from the parsed SQL, or null to prepare one for this item
+     */
+    private void writeBatchItem(Connection connection, PreparedStatement statement, ParsedSql sql,
+                                Object item, Map<String, Object> parameters,
+                                BatchProgress progress) throws SQLException {
+        Savepoint savepoint = setSavepoint(connection);
+        try {
+            Map<String, Object> allParameters = mergeParameters(item, parameters);
+            if (statement != null) {
+                JdbcParameterUtils.bindParameters(statement, sql, allParameters);
+                statement.executeUpdate();
+            } else {
+                try (PreparedStatement itemStatement = prepareStatement(connection, sql, allParameters)) {
+                    itemStatement.executeUpdate();
+                }
+            }
+            progress.successCount++;
+            releaseSavepoint(connection, savepoint);
+        } catch (SQLException e) {
+            progress.failureCount++;
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+
+            // Classify the SQL error to provide better logging
+            SqlErrorClassifier.SqlErrorType errorType = SqlErrorClassifier.classifyError(e);
+            String errorDescription = SqlErrorClassifier.getErrorDescription(errorType);
+
+            if (errorType == SqlErrorClassifier.SqlErrorType.DATA_INTEGRITY_VIOLATION) {
+                progress.integrityFailureCount++;
+                LOGGER.warn("Skipping batch item due to data integrity violation: {} - Item: {}",
+                           e.getMessage(), item);
+            } else {
+                LOGGER.warn("Failed to execute batch item due to {}: {} - Item: {}",
+                           errorDescription, e.getMessage(), item);
+            }
+        }
+    }
+
+    /**
+     * Set a savepoint so that a failed statement does not abort the whole transaction,
+     * as it would on PostgreSQL. Returns null if the driver does not support savepoints.
+     */
+    private Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            return null;
         }
     }
+
+    private void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // Not all drivers support releasing savepoints; they are released on commit
+        }
+    }
+
+    /**
+     * Get the number of rows sent per executeBatch call.
+     */
+    private int getBatchSize() {
+        BatchConfig batchConfig = configuration != null ? configuration.getBatch() : null;
+        if (batchConfig == null || batchConfig.getBatchSize() == null || batchConfig.getBatchSize() <= 0) {
+            return DEFAULT_BATCH_SIZE;
+        }
+        return batchConfig.getBatchSize();
+    }
+
+    /**
+     * Success and failure counts of a batch write in progress.
+     */
+    private static final class BatchProgress {
+        private int successCount;
+        private int failureCount;
+        private int integrityFailureCount;
+    }
     
     @Override
     public Object execute(String operation, Map<String, Object> parameters) throws DataSinkException {
@@ -372,12 +581,15 @@ public class DatabaseDataSink implements DataSink {
             throw DataSinkException.configurationError("Database sink not initialized");
         }
 
+        // Buffered rows must be visible to the statement
+        flush();
+
         LOGGER.debug("Executing operation '{}' on database sink '{}' with parameters: {}",
             operation, getName(), parameters);
 
         try {
-            String sql = resolveOperation(operation);
-            LOGGER.debug("Resolved operation '{}' to SQL: {}", operation, sql);
+            ParsedSql sql = resolveOperation(operation);
+            LOGGER.debug("Resolved operation '{}' to SQL: {}", operation, sql.getOriginalSql());
 
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement statement = prepareStatement(connection, sql, parameters)) {
@@ -434,9 +646,67 @@ public class DatabaseDataSink implements DataSink {
     
     @Override
     public void flush() throws DataSinkException {
-        // For database sinks, flush is typically handled by connection commit
-        // This is a no-op unless we implement buffering
         LOGGER.debug("Flush called on database sink: {}", getName());
+        for (BufferedBatchWriter writer : bufferedWriters.values()) {
+            writer.flush();
+        }
+
+        int total = bufferedRows.getAndSet(0);
+        int unwritten = unwrittenBufferedRows.getAndSet(0);
+        if (unwritten > 0) {
+            throw DataSinkException.batchError(unwritten + " of " + total + " buffered rows of database sink '" +
+                                               getName() + "' were not written", total - unwritten, total);
+        }
+    }
+
+    /**
+     * Check whether write() buffers rows into batches.
+     * Buffering is used when the sink has a batch configuration with batching and buffering enabled.
+     */
+    private boolean isBufferingEnabled() {
+        BatchConfig batchConfig = configuration != null ? configuration.getBatch() : null;
+        return batchConfig != null
+            && !Boolean.FALSE.equals(batchConfig.getEnabled())
+            && !Boolean.FALSE.equals(batchConfig.getEnableBuffering());
+    }
+
+    private BufferedBatchWriter getBufferedWriter(String operation) {
+        return bufferedWriters.computeIfAbsent(operation, op ->
+            new BufferedBatchWriter(getName() + "-" + op, configuration.getBatch(),
+                                    batch -> writeBufferedBatch(op, batch)));
+    }
+
+    /**
+     * Write a batch taken from a buffered writer, counting the rows that were not written
+     * so that flush() can report them.
+     */
+    private void writeBufferedBatch(String operation, List<Object> batch) {
+        bufferedRows.addAndGet(batch.size());
+        try {
+            BatchProgress progress = writeRows(operation, batch, null);
+            unwrittenBufferedRows.addAndGet(progress.failureCount);
+        } catch (DataSinkException e) {
+            LOGGER.warn("Buffered batch of {} rows for operation '{}' was not written: {}",
+                        batch.size(), operation, e.getMessage());
+            unwrittenBufferedRows.addAndGet(batch.size());
+        }
+    }
+
+    private void closeBufferedWriters() {
+        for (BufferedBatchWriter writer : bufferedWriters.values()) {
+            try {
+                writer.close();
+            } catch (DataSinkException e) {
+                LOGGER.error("Failed to flush buffered rows of database sink '{}': {}", getName(), e.getMessage());
+            }
+        }
+        bufferedWriters.clear();
+
+        int unwritten = unwrittenBufferedRows.getAndSet(0);
+        if (unwritten > 0) {
+            LOGGER.error("{} of {} buffered rows of database sink '{}' were not written",
+                         unwritten, bufferedRows.getAndSet(0), getName());
+        }
     }
     
     @Override
@@ -596,7 +866,11 @@ public class DatabaseDataSink implements DataSink {
         operationCache.clear();
         
         if (configuration.getOperations() != null) {
-            operationCache.putAll(configuration.getOperations());
+            for (Map.Entry<String, String> entry : configuration.getOperations().entrySet()) {
+                if (entry.getValue() != null) {
+                    operationCache.put(entry.getKey(), ParsedSql.parse(entry.getValue()));
+                }
+            }
         }
         
         LOGGER.debug("Cached {} operations for database sink: {}", operationCache.size(), getName());
@@ -768,8 +1042,8 @@ public class DatabaseDataSink implements DataSink {
         }
     }
 
-    private String resolveOperation(String operation) throws DataSinkException {
-        String sql = operationCache.get(operation);
+    private ParsedSql resolveOperation(String operation) throws DataSinkException {
+        ParsedSql sql = operationCache.get(operation);
         if (sql == null) {
             throw DataSinkException.configurationError("Unknown operation: " + operation);
         }
@@ -798,9 +1072,9 @@ public class DatabaseDataSink implements DataSink {
         return merged;
     }
     
-    private PreparedStatement prepareStatement(Connection connection, String sql, Map<String, Object> parameters)
+    private PreparedStatement prepareStatement(Connection connection, ParsedSql sql, Map<String, Object> parameters)
             throws SQLException {
-        return JdbcParameterUtils.prepareStatement(connection, sql, parameters);
+        return JdbcParameterUtils.prepareParsedStatement(connection, sql, parameters);
     }
     
     private List<Map<String, Object>> extractResultSet(ResultSet resultSet) throws SQLException {
@@ -54,8 +54,11 @@ public class DatabaseDataSource implements ExternalDataSource {
     private DataSourceMetrics metrics;
     private DatabaseHealthIndicator healthIndicator;
     
-    // Cache for prepared statements
-    private final Map<String, String> preparedQueries = new ConcurrentHashMap<>();
+    /** Maximum number of distinct query strings whose parsed form is cached. */
+    public static final int MAX_PARSED_QUERIES = 1_000;
+
+    // Parsed named-parameter SQL (placeholder positions, statement kind) by query string
+    private final Map<String, ParsedSql> parsedQueries = new ConcurrentHashMap<>();
     
     // Simple in-memory cache for query results
     private final Map<String, CachedResult> resultCache = new ConcurrentHashMap<>();
@@ -166,7 +169,6 @@ public class DatabaseDataSource implements ExternalDataSource {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getData(String dataType, Object... parameters) {
-        LOGGER.info("TRACE: DatabaseDataSource.getData called - dataType: {}, parameters: {}", dataType, java.util.Arrays.toString(parameters));
         long startTime = System.currentTimeMillis();
         
         try {
@@ -213,7 +215,6 @@ public class DatabaseDataSource implements ExternalDataSource {
     
     @Override
     public <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException {
-        LOGGER.info("TRACE: DatabaseDataSource.query called - query: {}, parameters: {}", query, parameters);
         // Validate inputs
         if (query == null) {
             throw DataSourceException.configurationError("Query cannot be null");
@@ -227,18 +228,19 @@ public class DatabaseDataSource implements ExternalDataSource {
         LOGGER.debug("Query: {}", query);
         LOGGER.debug("Parameters: {}", parameters);
 
+        ParsedSql parsedQuery = getParsedQuery(query);
+
+        QueryContext context = QueryContext.current();
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = prepareStatement(connection, query, parameters)) {
+             PreparedStatement statement = prepareStatement(connection, parsedQuery, parameters)) {
 
-            // Check if this is an UPDATE, INSERT, DELETE statement
-            // But exclude INSERT/UPDATE/DELETE with RETURNING clause as they return results
-            String trimmedQuery = query.trim().toUpperCase();
-            boolean isModifyingStatement = trimmedQuery.startsWith("UPDATE") || trimmedQuery.startsWith("INSERT") ||
-                                         trimmedQuery.startsWith("DELETE") || trimmedQuery.startsWith("CREATE") ||
-                                         trimmedQuery.startsWith("DROP") || trimmedQuery.startsWith("ALTER");
-            boolean hasReturningClause = trimmedQuery.contains("RETURNING");
+            if (context != null) {
+                bindToContext(statement, context);
+            }
 
-            if (isModifyingStatement && !hasReturningClause) {
+            // UPDATE, INSERT, DELETE and DDL statements use executeUpdate, except
+            // INSERT/UPDATE/DELETE with a RETURNING clause as they return results
+            if (parsedQuery.isUpdateStatement()) {
 
                 // Use executeUpdate for DML/DDL statements
                 LOGGER.debug("Executing DML/DDL statement (executeUpdate)");
@@ -257,10 +259,11 @@ public class DatabaseDataSource implements ExternalDataSource {
                 LOGGER.debug("Executing SELECT statement (executeQuery)");
                 ResultSet resultSet = statement.executeQuery();
                 List<T> results = new ArrayList<>();
+                String[] columnLabels = getColumnLabels(resultSet);
 
                 while (resultSet.next()) {
                     @SuppressWarnings("unchecked")
-                    T result = (T) mapResultSetToObject(resultSet);
+                    T result = (T) mapRow(resultSet, columnLabels);
                     results.add(result);
                 }
                 long executionTime = System.currentTimeMillis() - startTime;
@@ -275,6 +278,11 @@ public class DatabaseDataSource implements ExternalDataSource {
         } catch (SQLException e) {
             metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
 
+            if (context != null && context.isCancelled()) {
+                throw new DataSourceException(DataSourceException.ErrorType.TIMEOUT_ERROR,
+                                             "Database query cancelled", e, configuration.getName(), "query", true);
+            }
+
             // Classify the SQL error to provide better error handling
             SqlErrorClassifier.SqlErrorType errorType = SqlErrorClassifier.classifyError(e);
             String errorDescription = SqlErrorClassifier.getErrorDescription(errorType);
@@ -303,7 +311,6 @@ public class DatabaseDataSource implements ExternalDataSource {
     
     @Override
     public <T> T queryForObject(String query, Map<String, Object> parameters) throws DataSourceException {
-        LOGGER.info("TRACE: DatabaseDataSource.queryForObject called - query: {}, parameters: {}", query, parameters);
         LOGGER.debug("Executing queryForObject on '{}' - expecting single result", getName());
         LOGGER.debug("QueryForObject query: {}", query);
         LOGGER.debug("QueryForObject parameters: {}", parameters);
@@ -418,7 +425,7 @@ public class DatabaseDataSource implements ExternalDataSource {
     @Override
     public void shutdown() {
         resultCache.clear();
-        preparedQueries.clear();
+        parsedQueries.clear();
         connectionStatus = ConnectionStatus.shutdown();
         LOGGER.info("Database data source '{}' shut down", getName());
     }
@@ -427,13 +434,14 @@ public class DatabaseDataSource implements ExternalDataSource {
      * Execute a query based on data type and parameters.
      */
     private Object executeQuery(String dataType, Object... parameters) throws SQLException {
-        LOGGER.info("TRACE: DatabaseDataSource.executeQuery called - dataType: {}, parameters: {}", dataType, java.util.Arrays.toString(parameters));
         String query = getQueryForDataType(dataType);
         if (query == null) {
             throw new SQLException("No query defined for data type: " + dataType);
         }
-        LOGGER.debug("Resolved query for data type '{}': {}", dataType, query);
-        LOGGER.debug("Parameters: {}", java.util.Arrays.toString(parameters));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Resolved query for data type '{}': {}", dataType, query);
+            LOGGER.debug("Parameters: {}", java.util.Arrays.toString(parameters));
+        }
 
         try (Connection connection = dataSource.getConnection()) {
             if (parameters.length == 0) {
@@ -446,7 +454,7 @@ public class DatabaseDataSource implements ExternalDataSource {
             } else {
                 // Parameterized query
                 Map<String, Object> paramMap = buildParameterMap(parameters);
-                try (PreparedStatement statement = prepareStatement(connection, query, paramMap)) {
+                try (PreparedStatement statement = prepareStatement(connection, getParsedQuery(query), paramMap)) {
                     ResultSet resultSet = statement.executeQuery();
                     return resultSet.next() ? mapResultSetToObject(resultSet) : null;
                 }
@@ -471,29 +479,87 @@ public class DatabaseDataSource implements ExternalDataSource {
         return JdbcParameterUtils.buildParameterMap(configuration.getParameterNames(), parameters);
     }
     
+    /**
+     * Get the parsed form of a query, parsing it on first use.
+     * Once the cache is full, further distinct queries are parsed per call.
+     */
+    private ParsedSql getParsedQuery(String query) {
+        ParsedSql parsed = parsedQueries.get(query);
+        if (parsed == null) {
+            parsed = ParsedSql.parse(query);
+            if (parsedQueries.size() < MAX_PARSED_QUERIES) {
+                ParsedSql existing = parsedQueries.putIfAbsent(query, parsed);
+                if (existing != null) {
+                    parsed = existing;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Get the number of query strings whose parsed form is cached.
+     *
+     * @return The number of cached parsed queries
+     */
+    public int getParsedQueryCount() {
+        return parsedQueries.size();
+    }
+
+    /**
+     * Bound a statement by the deadline of the query running it, and cancel the statement
+     * when the caller gives up on the query.
+     */
+    private void bindToContext(PreparedStatement statement, QueryContext context) throws SQLException {
+        if (context.hasDeadline()) {
+            // JDBC timeouts are in whole seconds, and 0 means no timeout
+            long remainingMs = context.getRemainingMillis();
+            statement.setQueryTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, (remainingMs + 999) / 1000)));
+        }
+        context.setCancelAction(() -> {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                LOGGER.debug("Failed to cancel query on '{}': {}", getName(), e.getMessage());
+            }
+        });
+    }
+
     /**
      * Prepare a SQL statement with named parameters.
      */
-    private PreparedStatement prepareStatement(Connection connection, String query,
+    private PreparedStatement prepareStatement(Connection connection, ParsedSql query,
                                              Map<String, Object> parameters) throws SQLException {
-        LOGGER.info("TRACE: DatabaseDataSource.prepareStatement called - query: {}, parameters: {}", query, parameters);
-        LOGGER.debug("DatabaseDataSource.prepareStatement parameters: {}", parameters);
-        return JdbcParameterUtils.prepareStatement(connection, query, parameters);
+        return JdbcParameterUtils.prepareParsedStatement(connection, query, parameters);
     }
     
     /**
      * Map ResultSet to a generic object (Map).
      */
     private Object mapResultSetToObject(ResultSet resultSet) throws SQLException {
+        return mapRow(resultSet, getColumnLabels(resultSet));
+    }
+
+    /**
+     * Read the column labels of a result set once, so rows can be mapped without metadata calls.
+     */
+    private String[] getColumnLabels(ResultSet resultSet) throws SQLException {
         ResultSetMetaData metaData = resultSet.getMetaData();
-        Map<String, Object> result = new HashMap<>();
-        
-        for (int i = 1; i <= metaData.getColumnCount(); i++) {
-            String columnName = metaData.getColumnLabel(i);
-            Object value = resultSet.getObject(i);
-            result.put(columnName, value);
+        String[] columnLabels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnLabels.length; i++) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columnLabels;
+    }
+
+    /**
+     * Map the current row of a ResultSet to a Map keyed by column label.
+     */
+    private Map<String, Object> mapRow(ResultSet resultSet, String[] columnLabels) throws SQLException {
+        Map<String, Object> result = new HashMap<>((int) (columnLabels.length / 0.75f) + 1);
+        for (int i = 0; i < columnLabels.length; i++) {
+            result.put(columnLabels[i], resultSet.getObject(i + 1));
         }
-        
         return result;
     }
     
@@ -23,6 +23,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,8 @@ public final class JdbcParameterUtils {
      * 
      * This method processes named parameters in the format :paramName and replaces them
      * with ? placeholders, then binds the parameter values to the PreparedStatement.
+     * A parameter whose value is a {@link Collection} is expanded to one placeholder per
+     * element, so "WHERE id IN (:ids)" can be bound to a list of keys.
      * 
      * @param connection the database connection
      * @param sql the SQL statement with named parameters (e.g., "SELECT * FROM users WHERE id = :userId")
@@ -57,58 +61,54 @@ public final class JdbcParameterUtils {
      */
     public static PreparedStatement prepareStatement(Connection connection, String sql, 
                                                    Map<String, Object> parameters) throws SQLException {
-        // Validate inputs
         if (connection == null) {
             throw new SQLException("Connection cannot be null");
         }
         if (sql == null) {
             throw new SQLException("SQL cannot be null");
         }
+        return prepareParsedStatement(connection, ParsedSql.parse(sql), parameters);
+    }
+
+    /**
+     * Prepare a previously parsed SQL statement with named parameters.
+     *
+     * Callers that run the same statement repeatedly should parse it once with
+     * {@link ParsedSql#parse(String)} and reuse the result, so that only binding
+     * happens per call. Parameters missing from the map are left in the SQL as-is.
+     *
+     * @param connection the database connection
+     * @param parsedSql the parsed SQL statement
+     * @param parameters map of parameter names to values
+     * @return PreparedStatement with parameters bound
+     * @throws SQLException if there's an error preparing the statement or binding parameters
+     */
+    public static PreparedStatement prepareParsedStatement(Connection connection, ParsedSql parsedSql,
+                                                         Map<String, Object> parameters) throws SQLException {
+        // Validate inputs
+        if (connection == null) {
+            throw new SQLException("Connection cannot be null");
+        }
+        if (parsedSql == null) {
+            throw new SQLException("SQL cannot be null");
+        }
         if (parameters == null) {
             parameters = new HashMap<>();
         }
 
-        // Process named parameters in order they appear in SQL
-        String processedSql = sql;
-        List<Object> paramValues = new ArrayList<>();
-
-        LOGGER.debug("Preparing statement with SQL: {}", sql);
+        LOGGER.debug("Preparing statement with SQL: {}", parsedSql.getOriginalSql());
         LOGGER.debug("Parameters: {}", parameters);
 
-        // Find and replace named parameters (:paramName) with ? placeholders
-        int searchIndex = 0;
-        while (searchIndex < processedSql.length()) {
-            int colonIndex = processedSql.indexOf(':', searchIndex);
-            if (colonIndex == -1) {
-                break;
-            }
-
-            // Find the end of the parameter name
-            int endIndex = colonIndex + 1;
-            while (endIndex < processedSql.length() && 
-                   (Character.isLetterOrDigit(processedSql.charAt(endIndex)) || 
-                    processedSql.charAt(endIndex) == '_')) {
-                endIndex++;
-            }
-
-            String paramName = processedSql.substring(colonIndex + 1, endIndex);
-            LOGGER.debug("Found parameter: {} at position {}-{}", paramName, colonIndex, endIndex);
-
-            if (parameters.containsKey(paramName)) {
-                Object paramValue = parameters.get(paramName);
-                LOGGER.debug("Replacing parameter {} with value: {}", paramName, paramValue);
-
-                // Replace this occurrence with ?
-                processedSql = processedSql.substring(0, colonIndex) + "?" +
-                             processedSql.substring(endIndex);
-                paramValues.add(paramValue);
-                searchIndex = colonIndex + 1;
-            } else {
-                LOGGER.warn("Parameter {} not found in parameters map: {}", paramName, parameters.keySet());
-                searchIndex = endIndex;
-            }
+        // Use the precomputed JDBC SQL unless a parameter is missing or has to be expanded
+        if (isDirectlyBindable(parsedSql, parameters)) {
+            PreparedStatement statement = connection.prepareStatement(parsedSql.getJdbcSql());
+            bindParameters(statement, parsedSql, parameters);
+            return statement;
         }
 
+        List<Object> paramValues = new ArrayList<>(parsedSql.getParameterCount());
+        String processedSql = expandParameters(parsedSql, parameters, paramValues);
+
         LOGGER.debug("Processed SQL: {}", processedSql);
         LOGGER.debug("Parameter values: {}", paramValues);
 
@@ -116,13 +116,83 @@ public final class JdbcParameterUtils {
 
         // Set parameter values
         for (int i = 0; i < paramValues.size(); i++) {
-            Object value = paramValues.get(i);
-            LOGGER.debug("Setting parameter {} to value: {}", i + 1, value);
-            statement.setObject(i + 1, value);
+            statement.setObject(i + 1, paramValues.get(i));
         }
 
         return statement;
     }
+
+    /**
+     * Check whether parameters can be bound to a statement prepared from {@link ParsedSql#getJdbcSql()},
+     * that is whether every named parameter is present and none of them holds a collection.
+     *
+     * @param parsedSql the parsed SQL statement
+     * @param parameters map of parameter names to values
+     * @return true if {@link #bindParameters} can be used for these parameters
+     */
+    public static boolean isDirectlyBindable(ParsedSql parsedSql, Map<String, Object> parameters) {
+        for (int i = 0; i < parsedSql.getParameterCount(); i++) {
+            String paramName = parsedSql.getParameterName(i);
+            if (!parameters.containsKey(paramName) || parameters.get(paramName) instanceof Collection) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bind parameters to a statement prepared from {@link ParsedSql#getJdbcSql()}.
+     * This lets callers prepare a statement once and bind it repeatedly, for example with addBatch.
+     *
+     * @param statement the statement prepared from the parsed SQL
+     * @param parsedSql the parsed SQL statement
+     * @param parameters map of parameter names to values; see {@link #isDirectlyBindable}
+     * @throws SQLException if a parameter cannot be bound
+     */
+    public static void bindParameters(PreparedStatement statement, ParsedSql parsedSql,
+                                      Map<String, Object> parameters) throws SQLException {
+        for (int i = 0; i < parsedSql.getParameterCount(); i++) {
+            statement.setObject(i + 1, parameters.get(parsedSql.getParameterName(i)));
+        }
+    }
+
+    /**
+     * Build the JDBC SQL for parameters that are missing or hold collections.
+     * A collection value is expanded to one placeholder per element, so "WHERE id IN (:ids)"
+     * can be bound to a list of keys; a missing parameter is left in the SQL as :paramName.
+     */
+    private static String expandParameters(ParsedSql parsedSql, Map<String, Object> parameters,
+                                           List<Object> paramValues) {
+        StringBuilder processedSql = new StringBuilder(parsedSql.getOriginalSql().length() + 16);
+        for (int i = 0; i < parsedSql.getParameterCount(); i++) {
+            processedSql.append(parsedSql.getSegment(i));
+            String paramName = parsedSql.getParameterName(i);
+
+            if (!parameters.containsKey(paramName)) {
+                LOGGER.warn("Parameter {} not found in parameters map: {}", paramName, parameters.keySet());
+                processedSql.append(':').append(paramName);
+                continue;
+            }
+
+            Object paramValue = parameters.get(paramName);
+            if (paramValue instanceof Collection) {
+                Collection<?> values = (Collection<?>) paramValue;
+                if (values.isEmpty()) {
+                    // An empty IN list is not valid SQL; bind NULL so that nothing matches
+                    processedSql.append('?');
+                    paramValues.add(null);
+                } else {
+                    processedSql.append(String.join(", ", Collections.nCopies(values.size(), "?")));
+                    paramValues.addAll(values);
+                }
+            } else {
+                processedSql.append('?');
+                paramValues.add(paramValue);
+            }
+        }
+        processedSql.append(parsedSql.getSegment(parsedSql.getParameterCount()));
+        return processedSql.toString();
+    }
     
     /**
      * Build parameter map from array of parameters using parameter names.
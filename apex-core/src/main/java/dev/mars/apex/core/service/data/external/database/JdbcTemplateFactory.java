@@ -192,6 +192,12 @@ public class JdbcTemplateFactory {
                 }
             }
             
+            // Enable the driver's per-connection prepared statement cache
+            for (Map.Entry<String, String> property : getStatementCacheProperties(config).entrySet()) {
+                hikariConfigClass.getMethod("addDataSourceProperty", String.class, Object.class)
+                    .invoke(hikariConfig, property.getKey(), property.getValue());
+            }
+
             // Set pool name
             hikariConfigClass.getMethod("setPoolName", String.class)
                 .invoke(hikariConfig, "SpELRulesEngine-" + config.getName());
@@ -206,6 +212,48 @@ public class JdbcTemplateFactory {
         }
     }
     
+    /**
+     * Get the driver properties that enable per-connection prepared statement caching.
+     * Statements are cached by SQL text, so repeated lookups reuse the server-side statement
+     * instead of re-parsing it. H2 caches parsed statements per session on its own.
+     *
+     * @param config The data source configuration
+     * @return The driver properties, empty if caching is disabled or the driver needs none
+     */
+    static Map<String, String> getStatementCacheProperties(DataSourceConfiguration config) {
+        Map<String, String> properties = new HashMap<>();
+        ConnectionPoolConfig poolConfig = config.getConnection() != null ? config.getConnection().getConnectionPool() : null;
+        if (poolConfig == null) {
+            poolConfig = new ConnectionPoolConfig();
+        }
+        if (!poolConfig.isStatementCacheEnabled() || config.getSourceType() == null) {
+            return properties;
+        }
+
+        String size = String.valueOf(poolConfig.getStatementCacheSize());
+        switch (config.getSourceType().toLowerCase()) {
+            case "postgresql":
+                properties.put("preparedStatementCacheQueries", size);
+                break;
+            case "mysql":
+                properties.put("cachePrepStmts", "true");
+                properties.put("useServerPrepStmts", "true");
+                properties.put("prepStmtCacheSize", size);
+                properties.put("prepStmtCacheSqlLimit", "2048");
+                break;
+            case "oracle":
+                properties.put("oracle.jdbc.implicitStatementCacheSize", size);
+                break;
+            case "sqlserver":
+                properties.put("disableStatementPooling", "false");
+                properties.put("statementPoolingCacheSize", size);
+                break;
+            default:
+                break;
+        }
+        return properties;
+    }
+
     /**
      * Create simple DataSource (fallback when HikariCP is not available).
      */
@@ -494,6 +542,7 @@ public class JdbcTemplateFactory {
             
             if (username != null) properties.setProperty("user", username);
             if (password != null) properties.setProperty("password", password);
+            properties.putAll(getStatementCacheProperties(config));
         }
         
         @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 APEX Development Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mars.apex.core.service.data.external.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A SQL statement with named parameters, parsed once so that it can be bound repeatedly.
+ *
+ * Parsing finds every :paramName placeholder, precomputes the JDBC form of the statement
+ * with each placeholder replaced by a single ?, and classifies the statement as a query or
+ * an update. Instances are immutable and can be cached and shared between threads; see
+ * {@link JdbcParameterUtils#prepareParsedStatement(java.sql.Connection, ParsedSql, java.util.Map)}.
+ */
+public final class ParsedSql {
+
+    private static final String[] UPDATE_KEYWORDS = {"UPDATE", "INSERT", "DELETE", "CREATE", "DROP", "ALTER"};
+
+    private final String originalSql;
+    // Literal SQL around the placeholders: segments[i] precedes parameterNames[i], the last segment ends the SQL
+    private final String[] segments;
+    private final String[] parameterNames;
+    private final String jdbcSql;
+    private final boolean updateStatement;
+
+    private ParsedSql(String originalSql, String[] segments, String[] parameterNames, boolean updateStatement) {
+        this.originalSql = originalSql;
+        this.segments = segments;
+        this.parameterNames = parameterNames;
+        this.updateStatement = updateStatement;
+
+        StringBuilder jdbc = new StringBuilder(originalSql.length());
+        for (int i = 0; i < parameterNames.length; i++) {
+            jdbc.append(segments[i]).append('?');
+        }
+        jdbc.append(segments[parameterNames.length]);
+        this.jdbcSql = jdbc.toString();
+    }
+
+    /**
+     * Parse a SQL statement with named parameters in the format :paramName.
+     *
+     * @param sql the SQL statement
+     * @return the parsed statement
+     */
+    public static ParsedSql parse(String sql) {
+        if (sql == null) {
+            throw new IllegalArgumentException("SQL cannot be null");
+        }
+
+        List<String> segments = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int segmentStart = 0;
+        int searchIndex = 0;
+
+        while (searchIndex < sql.length()) {
+            int colonIndex = sql.indexOf(':', searchIndex);
+            if (colonIndex == -1) {
+                break;
+            }
+
+            // Find the end of the parameter name
+            int endIndex = colonIndex + 1;
+            while (endIndex < sql.length() &&
+                   (Character.isLetterOrDigit(sql.charAt(endIndex)) || sql.charAt(endIndex) == '_')) {
+                endIndex++;
+            }
+
+            if (endIndex > colonIndex + 1) {
+                segments.add(sql.substring(segmentStart, colonIndex));
+                names.add(sql.substring(colonIndex + 1, endIndex));
+                segmentStart = endIndex;
+            }
+            searchIndex = endIndex;
+        }
+        segments.add(sql.substring(segmentStart));
+
+        return new ParsedSql(sql, segments.toArray(new String[0]), names.toArray(new String[0]),
+                             isUpdate(sql));
+    }
+
+    /**
+     * Check whether a statement modifies data and should be run with executeUpdate.
+     * INSERT/UPDATE/DELETE statements with a RETURNING clause produce rows and count as queries.
+     */
+    private static boolean isUpdate(String sql) {
+        String trimmed = sql.trim();
+        for (String keyword : UPDATE_KEYWORDS) {
+            if (trimmed.regionMatches(true, 0, keyword, 0, keyword.length())) {
+                return !trimmed.toUpperCase(Locale.ROOT).contains("RETURNING");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the SQL statement as it was parsed.
+     *
+     * @return the original SQL
+     */
+    public String getOriginalSql() {
+        return originalSql;
+    }
+
+    /**
+     * Get the JDBC form of the statement, with every named parameter replaced by a single ?.
+     *
+     * @return the JDBC SQL
+     */
+    public String getJdbcSql() {
+        return jdbcSql;
+    }
+
+    /**
+     * Get the parameter names in the order they appear; repeated parameters appear once per use.
+     *
+     * @return the parameter names
+     */
+    public List<String> getParameterNames() {
+        return Collections.unmodifiableList(Arrays.asList(parameterNames));
+    }
+
+    /**
+     * Get the number of parameter placeholders.
+     *
+     * @return the placeholder count
+     */
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    /**
+     * Check whether the statement is DML/DDL without a RETURNING clause.
+     *
+     * @return true if the statement should be run with executeUpdate
+     */
+    public boolean isUpdateStatement() {
+        return updateStatement;
+    }
+
+    String getParameterName(int index) {
+        return parameterNames[index];
+    }
+
+    String getSegment(int index) {
+        return segments[index];
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedSql{" +
+               "sql='" + originalSql + '\'' +
+               ", parameters=" + Arrays.toString(parameterNames) +
+               ", update=" + updateStatement +
+               '}';
+    }
+}
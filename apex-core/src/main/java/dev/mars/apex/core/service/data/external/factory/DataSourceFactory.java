@@ -25,6 +25,7 @@ import dev.mars.apex.core.service.data.external.database.JdbcTemplateFactory;
 import dev.mars.apex.core.service.data.external.file.FileSystemDataSource;
 import dev.mars.apex.core.service.data.external.rest.RestApiDataSource;
 import dev.mars.apex.core.service.data.external.rest.RestTemplateFactory;
+import dev.mars.apex.core.service.data.external.messagequeue.MessageConsumerFactory;
 import dev.mars.apex.core.service.data.external.messagequeue.MessageQueueDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,9 @@ public class DataSourceFactory {
 
     // Custom data source providers
     private final Map<String, DataSourceProvider> customProviders = new ConcurrentHashMap<>();
+    
+    // Message queue consumer factories by source type
+    private final Map<String, MessageConsumerFactory> messageConsumerFactories = new ConcurrentHashMap<>();
 
     // Concurrent creation deduplication
     private final Map<String, CompletableFuture<ExternalDataSource>> pendingCreations = new ConcurrentHashMap<>();
@@ -244,6 +248,35 @@ public class DataSourceFactory {
         }
     }
     
+    /**
+     * Register the consumer factory for a message queue type, such as "kafka". Message queue
+     * data sources of that source type consume through it; types without a factory use an
+     * in-process broker.
+     * 
+     * @param sourceType The message queue source type
+     * @param factory The consumer factory
+     */
+    public void registerMessageConsumerFactory(String sourceType, MessageConsumerFactory factory) {
+        if (sourceType != null && factory != null) {
+            messageConsumerFactories.put(sourceType.toLowerCase(), factory);
+            LOGGER.info("Registered message consumer factory for type: {}", sourceType);
+        }
+    }
+    
+    /**
+     * Unregister the consumer factory for a message queue type.
+     * 
+     * @param sourceType The message queue source type
+     */
+    public void unregisterMessageConsumerFactory(String sourceType) {
+        if (sourceType != null) {
+            MessageConsumerFactory removed = messageConsumerFactories.remove(sourceType.toLowerCase());
+            if (removed != null) {
+                LOGGER.info("Unregistered message consumer factory for type: {}", sourceType);
+            }
+        }
+    }
+    
     /**
      * Check if a data source type is supported.
      * 
@@ -430,7 +463,9 @@ public class DataSourceFactory {
             throws DataSourceException {
 
         try {
-            MessageQueueDataSource dataSource = new MessageQueueDataSource();
+            String sourceType = configuration.getSourceType() != null ? configuration.getSourceType() : "kafka";
+            MessageQueueDataSource dataSource = new MessageQueueDataSource(
+                messageConsumerFactories.get(sourceType.toLowerCase()));
             dataSource.initialize(configuration);
 
             LOGGER.info("Created message queue data source: {}", configuration.getName());
@@ -23,10 +23,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CSV data loader implementation.
@@ -41,6 +44,7 @@ import java.util.*;
  * - Custom encoding support
  * - Data type conversion
  * - Column mapping
+ * - Streaming reads with constant memory use
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
@@ -54,68 +58,44 @@ public class CsvDataLoader implements DataLoader {
     public List<Object> loadData(Path filePath, FileFormatConfig formatConfig) throws IOException {
         List<Object> results = new ArrayList<>();
         
-        // Determine encoding
-        String encoding = formatConfig != null && formatConfig.getEncoding() != null ? 
-            formatConfig.getEncoding() : "UTF-8";
+        try (Stream<Object> rows = streamData(filePath, formatConfig)) {
+            rows.forEach(results::add);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Failed to load CSV file: {}", filePath, e.getCause());
+            throw e.getCause();
+        }
         
-        try (BufferedReader reader = Files.newBufferedReader(filePath, Charset.forName(encoding))) {
-            
-            // Skip lines if configured
-            int skipLines = formatConfig != null && formatConfig.getSkipLines() != null ? 
-                formatConfig.getSkipLines() : 0;
-            
-            for (int i = 0; i < skipLines; i++) {
-                reader.readLine();
-            }
-            
-            // Read header row if present
-            String[] headers = null;
-            if (formatConfig != null && formatConfig.hasHeaderRow()) {
-                String headerLine = reader.readLine();
-                if (headerLine != null) {
-                    headers = parseCsvLine(headerLine, formatConfig);
-                    LOGGER.debug("CSV headers parsed: {}", java.util.Arrays.toString(headers));
-                } else {
-                    LOGGER.warn("Expected header row but got null from file: {}", filePath);
-                }
-            }
-            
-            // Read data rows
-            String line;
-            int rowNumber = skipLines + (headers != null ? 1 : 0);
-            
-            while ((line = reader.readLine()) != null) {
-                rowNumber++;
-                
-                if (line.trim().isEmpty()) {
-                    continue; // Skip empty lines
-                }
-                
-                try {
-                    String[] values = parseCsvLine(line, formatConfig);
-                    Object rowData = createRowObject(values, headers, formatConfig);
-                    results.add(rowData);
-                    
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to parse CSV line {} in file {}: {}", 
-                        rowNumber, filePath, e.getMessage());
-                    // Continue processing other lines
-                }
-            }
-            
-            LOGGER.info("Loaded {} rows from CSV file: {}", results.size(), filePath);
-            if (results.isEmpty()) {
-                LOGGER.warn("CSV file loaded but contains no data rows: {}", filePath);
-            } else {
-                LOGGER.debug("Sample CSV row: {}", results.get(0));
-            }
-            
+        LOGGER.info("Loaded {} rows from CSV file: {}", results.size(), filePath);
+        if (results.isEmpty()) {
+            LOGGER.warn("CSV file loaded but contains no data rows: {}", filePath);
+        } else {
+            LOGGER.debug("Sample CSV row: {}", results.get(0));
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Stream the rows of a CSV file.
+     * 
+     * The file is read one line at a time, so memory use does not depend on the size of the
+     * file. All rows share the same interned column name strings, and the parse buffers are
+     * reused from row to row. The file is closed when the last row has been read or when the
+     * stream is closed, whichever comes first.
+     */
+    @Override
+    public Stream<Object> streamData(Path filePath, FileFormatConfig formatConfig) throws IOException {
+        CsvRowReader rowReader;
+        try {
+            rowReader = new CsvRowReader(filePath, formatConfig);
         } catch (IOException e) {
             LOGGER.error("Failed to load CSV file: {}", filePath, e);
             throw e;
         }
         
-        return results;
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(rowReader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(rowReader::close);
     }
     
     @Override
@@ -130,80 +110,6 @@ public class CsvDataLoader implements DataLoader {
         return new String[]{"csv", "tsv", "txt"};
     }
     
-    /**
-     * Parse a CSV line into an array of values.
-     */
-    private String[] parseCsvLine(String line, FileFormatConfig formatConfig) {
-        if (line == null || line.isEmpty()) {
-            return new String[0];
-        }
-        
-        String delimiter = getDelimiter(formatConfig);
-        String quoteChar = getQuoteCharacter(formatConfig);
-        String escapeChar = getEscapeCharacter(formatConfig);
-        
-        List<String> values = new ArrayList<>();
-        StringBuilder currentValue = new StringBuilder();
-        boolean inQuotes = false;
-        boolean escapeNext = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            String charStr = String.valueOf(c);
-            
-            if (escapeNext) {
-                currentValue.append(c);
-                escapeNext = false;
-            } else if (charStr.equals(escapeChar)) {
-                escapeNext = true;
-            } else if (charStr.equals(quoteChar)) {
-                inQuotes = !inQuotes;
-            } else if (charStr.equals(delimiter) && !inQuotes) {
-                values.add(currentValue.toString());
-                currentValue = new StringBuilder();
-            } else {
-                currentValue.append(c);
-            }
-        }
-        
-        // Add the last value
-        values.add(currentValue.toString());
-        
-        return values.toArray(new String[0]);
-    }
-    
-    /**
-     * Create a row object from parsed values.
-     */
-    private Object createRowObject(String[] values, String[] headers, FileFormatConfig formatConfig) {
-        if (headers != null && headers.length > 0) {
-            // Create a Map with column names as keys
-            Map<String, Object> rowMap = new LinkedHashMap<>();
-            
-            for (int i = 0; i < values.length; i++) {
-                String columnName = i < headers.length ? headers[i] : "column_" + (i + 1);
-                Object convertedValue = convertValue(values[i], columnName, formatConfig);
-                
-                // Apply column mapping if configured
-                String mappedColumnName = getMappedColumnName(columnName, formatConfig);
-                rowMap.put(mappedColumnName, convertedValue);
-            }
-            
-            return rowMap;
-        } else {
-            // Create a Map with generic column names
-            Map<String, Object> rowMap = new LinkedHashMap<>();
-            
-            for (int i = 0; i < values.length; i++) {
-                String columnName = "column_" + (i + 1);
-                Object convertedValue = convertValue(values[i], columnName, formatConfig);
-                rowMap.put(columnName, convertedValue);
-            }
-            
-            return rowMap;
-        }
-    }
-    
     /**
      * Convert a string value to the appropriate data type.
      */
@@ -269,6 +175,14 @@ public class CsvDataLoader implements DataLoader {
         return value;
     }
     
+    /**
+     * Get a configured control character, or -1 if it is not a single character and so
+     * can never match a character of the input.
+     */
+    private static int singleChar(String value) {
+        return value != null && value.length() == 1 ? value.charAt(0) : -1;
+    }
+    
     /**
      * Get the delimiter character.
      */
@@ -351,4 +265,230 @@ public class CsvDataLoader implements DataLoader {
             return value; // Return as string if parsing fails
         }
     }
+    
+    /**
+     * Create a parser for the data rows of a CSV file.
+     * A parser reuses its buffers between lines, so each thread needs its own.
+     * 
+     * @param formatConfig The file format configuration
+     * @param headers The parsed header row, or null if the file has no header
+     * @return A new row parser
+     */
+    RowParser rowParser(FileFormatConfig formatConfig, String[] headers) {
+        return new RowParser(formatConfig, headers);
+    }
+    
+    /**
+     * Parses CSV lines into row maps, reusing its buffers from line to line.
+     */
+    final class RowParser {
+        
+        private final FileFormatConfig formatConfig;
+        private final int delimiter;
+        private final int quoteChar;
+        private final int escapeChar;
+        
+        // Reused for every line so that parsing allocates only the value strings
+        private final StringBuilder currentValue = new StringBuilder(64);
+        private final List<String> values = new ArrayList<>();
+        
+        private final String[] headers;
+        private String[] columnKeys;
+        
+        private RowParser(FileFormatConfig formatConfig, String[] headers) {
+            this.formatConfig = formatConfig;
+            this.delimiter = singleChar(getDelimiter(formatConfig));
+            this.quoteChar = singleChar(getQuoteCharacter(formatConfig));
+            this.escapeChar = singleChar(getEscapeCharacter(formatConfig));
+            this.headers = headers != null && headers.length > 0 ? headers : null;
+            this.columnKeys = new String[this.headers != null ? this.headers.length : 0];
+        }
+        
+        /**
+         * Parse a CSV line into its values.
+         * 
+         * @param line The line to parse
+         * @return The values, in a list that is reused by the next call
+         */
+        List<String> parseValues(CharSequence line) {
+            values.clear();
+            if (line.length() == 0) {
+                return values;
+            }
+            
+            currentValue.setLength(0);
+            boolean inQuotes = false;
+            boolean escapeNext = false;
+            
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                
+                if (escapeNext) {
+                    currentValue.append(c);
+                    escapeNext = false;
+                } else if (c == escapeChar) {
+                    escapeNext = true;
+                } else if (c == quoteChar) {
+                    inQuotes = !inQuotes;
+                } else if (c == delimiter && !inQuotes) {
+                    values.add(currentValue.toString());
+                    currentValue.setLength(0);
+                } else {
+                    currentValue.append(c);
+                }
+            }
+            
+            // Add the last value
+            values.add(currentValue.toString());
+            return values;
+        }
+        
+        /**
+         * Parse a CSV line into a row map keyed by column name.
+         * 
+         * @param line The line to parse
+         * @return The row, with values converted to their inferred types
+         */
+        Map<String, Object> parseRow(CharSequence line) {
+            parseValues(line);
+            int size = values.size();
+            Map<String, Object> rowMap = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+            
+            for (int i = 0; i < size; i++) {
+                String columnKey = columnKey(i);
+                rowMap.put(columnKey, convertValue(values.get(i), columnKey, formatConfig));
+            }
+            
+            return rowMap;
+        }
+        
+        /**
+         * Get the key for a column, computed once per parser and interned so that rows share it.
+         * Header names have the column mappings applied; columns without a header are
+         * named column_N, and are only mapped when the file has a header row.
+         */
+        private String columnKey(int index) {
+            if (index >= columnKeys.length) {
+                columnKeys = Arrays.copyOf(columnKeys, Math.max(index + 1, columnKeys.length * 2));
+            }
+            String key = columnKeys[index];
+            if (key == null) {
+                if (headers == null) {
+                    key = "column_" + (index + 1);
+                } else {
+                    String columnName = index < headers.length ? headers[index] : "column_" + (index + 1);
+                    key = getMappedColumnName(columnName, formatConfig);
+                }
+                key = key.intern();
+                columnKeys[index] = key;
+            }
+            return key;
+        }
+    }
+    
+    /**
+     * Iterator over the rows of one CSV file, reading a line at a time.
+     */
+    private final class CsvRowReader implements Iterator<Object> {
+        
+        private final Path filePath;
+        private final BufferedReader reader;
+        private final RowParser parser;
+        private int rowNumber;
+        private Object nextRow;
+        private boolean closed;
+        
+        CsvRowReader(Path filePath, FileFormatConfig formatConfig) throws IOException {
+            this.filePath = filePath;
+            
+            // Determine encoding
+            String encoding = formatConfig != null && formatConfig.getEncoding() != null ? 
+                formatConfig.getEncoding() : "UTF-8";
+            this.reader = Files.newBufferedReader(filePath, Charset.forName(encoding));
+            
+            try {
+                // Skip lines if configured
+                int skipLines = formatConfig != null && formatConfig.getSkipLines() != null ? 
+                    formatConfig.getSkipLines() : 0;
+                
+                for (int i = 0; i < skipLines; i++) {
+                    reader.readLine();
+                }
+                rowNumber = skipLines;
+                
+                // Read header row if present
+                String[] headers = null;
+                if (formatConfig != null && formatConfig.hasHeaderRow()) {
+                    String headerLine = reader.readLine();
+                    rowNumber++;
+                    if (headerLine != null) {
+                        headers = rowParser(formatConfig, null).parseValues(headerLine).toArray(new String[0]);
+                        LOGGER.debug("CSV headers parsed: {}", Arrays.toString(headers));
+                    } else {
+                        LOGGER.warn("Expected header row but got null from file: {}", filePath);
+                    }
+                }
+                this.parser = rowParser(formatConfig, headers);
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !closed) {
+                nextRow = readRow();
+            }
+            return nextRow != null;
+        }
+        
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object row = nextRow;
+            nextRow = null;
+            return row;
+        }
+        
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close CSV file {}: {}", filePath, e.getMessage());
+            }
+        }
+        
+        private Object readRow() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    rowNumber++;
+                    
+                    if (line.trim().isEmpty()) {
+                        continue; // Skip empty lines
+                    }
+                    
+                    try {
+                        return parser.parseRow(line);
+                    } catch (Exception e) {
+                        LOGGER.warn("Failed to parse CSV line {} in file {}: {}", 
+                            rowNumber, filePath, e.getMessage());
+                        // Continue processing other lines
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Failed to read CSV file: " + filePath, e);
+            }
+            close();
+            return null;
+        }
+    }
 }
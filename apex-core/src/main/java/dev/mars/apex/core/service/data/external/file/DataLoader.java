@@ -22,6 +22,7 @@ import dev.mars.apex.core.config.datasource.FileFormatConfig;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface for loading data from different file formats.
@@ -44,7 +45,25 @@ public interface DataLoader {
      * @throws IOException if file loading fails
      */
     List<Object> loadData(Path filePath, FileFormatConfig formatConfig) throws IOException;
-    
+
+    /**
+     * Stream data from the specified file path.
+     * Loaders that can parse a file incrementally override this method so that only the
+     * current record is held in memory; the default implementation streams the list
+     * returned by {@link #loadData(Path, FileFormatConfig)}.
+     *
+     * The returned stream must be closed to release the file. Read failures that occur
+     * while the stream is consumed are thrown as {@link java.io.UncheckedIOException}.
+     *
+     * @param filePath The path to the file to load
+     * @param formatConfig The file format configuration
+     * @return Stream of data objects read from the file
+     * @throws IOException if the file cannot be opened
+     */
+    default Stream<Object> streamData(Path filePath, FileFormatConfig formatConfig) throws IOException {
+        return loadData(filePath, formatConfig).stream();
+    }
+
     /**
      * Check if this loader supports the given file format.
      * 
@@ -0,0 +1,259 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Caches the files of a directory that match glob patterns, for {@link FileSystemDataSource}.
+ *
+ * A {@link WatchService} on the directory invalidates every cached listing when a file is
+ * created, modified or deleted, and reports the changed path to a listener so that data loaded
+ * from it can be dropped as well. Listings are only cached while the watch is active; if the
+ * directory cannot be watched, every call lists the directory again. How quickly changes are
+ * seen depends on the platform's watch implementation, which polls on some systems.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class FileListingCache implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileListingCache.class);
+
+    private final Path directory;
+    private final Consumer<Path> changeListener;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+
+    // Incremented on every change, so that listings computed during a change are not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private final WatchService watchService;
+    private final Thread watchThread;
+    private volatile boolean watching;
+    private volatile boolean closed;
+
+    /**
+     * Create a listing cache and start watching the directory.
+     *
+     * @param directory The directory to list
+     * @param name The name used for the watch thread
+     * @param changeListener Called with the path of every changed file, or with null when
+     *                       changes were lost and every file should be treated as changed
+     */
+    FileListingCache(Path directory, String name, Consumer<Path> changeListener) {
+        this.directory = directory;
+        this.changeListener = changeListener;
+
+        WatchService service = null;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                               StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watching = true;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.warn("Cannot watch directory {}, file listings will not be cached: {}", directory, e.getMessage());
+            closeQuietly(service);
+            service = null;
+        }
+        this.watchService = service;
+
+        if (service != null) {
+            watchThread = new Thread(this::watch, "apex-file-watch-" + name);
+            watchThread.setDaemon(true);
+            watchThread.start();
+        } else {
+            watchThread = null;
+        }
+    }
+
+    /**
+     * Get the watched directory.
+     */
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the regular files in the directory whose names match a glob pattern.
+     *
+     * @param pattern The glob pattern
+     * @return The matching files
+     * @throws IOException if the directory cannot be listed
+     */
+    List<Path> getMatchingFiles(String pattern) throws IOException {
+        return getListing(pattern).files;
+    }
+
+    /**
+     * Get the most recently modified file matching a glob pattern.
+     *
+     * @param pattern The glob pattern
+     * @return The most recent file, or null if no file matches
+     * @throws IOException if the directory cannot be listed
+     */
+    Path getMostRecentFile(String pattern) throws IOException {
+        return getListing(pattern).mostRecent;
+    }
+
+    /**
+     * Check whether the directory is being watched, so that cached data can be trusted until
+     * a change is reported.
+     */
+    boolean isWatching() {
+        return watching;
+    }
+
+    /**
+     * Drop every cached listing.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        listings.clear();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watching = false;
+        invalidate();
+        closeQuietly(watchService);
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+
+    private Listing getListing(String pattern) throws IOException {
+        long currentGeneration = generation.get();
+        Listing listing = listings.get(pattern);
+        if (listing != null && listing.generation == currentGeneration) {
+            return listing;
+        }
+
+        listing = new Listing(listFiles(pattern), currentGeneration);
+        if (watching && generation.get() == currentGeneration) {
+            listings.put(pattern, listing);
+        }
+        return listing;
+    }
+
+    private List<Path> listFiles(String pattern) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (matcher.matches(path.getFileName()) && Files.isRegularFile(path)) {
+                    files.add(path);
+                }
+            }
+        }
+        return Collections.unmodifiableList(files);
+    }
+
+    private void watch() {
+        try {
+            while (watching) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    invalidate();
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changeListener.accept(null);
+                    } else {
+                        changeListener.accept(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    LOGGER.warn("Directory {} can no longer be watched, file listings will not be cached", directory);
+                    break;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        } catch (RuntimeException e) {
+            LOGGER.error("File watch for directory {} failed", directory, e);
+        }
+        watching = false;
+        invalidate();
+        if (!closed) {
+            // Changes are no longer reported, so nothing loaded so far can be trusted
+            changeListener.accept(null);
+        }
+    }
+
+    private static void closeQuietly(WatchService service) {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close watch service: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The files matching one pattern, with the most recent computed once per listing.
+     */
+    private static final class Listing {
+        private final List<Path> files;
+        private final Path mostRecent;
+        private final long generation;
+
+        Listing(List<Path> files, long generation) {
+            this.files = files;
+            this.generation = generation;
+
+            Path latest = null;
+            FileTime latestTime = null;
+            for (Path file : files) {
+                FileTime modified;
+                try {
+                    modified = Files.getLastModifiedTime(file);
+                } catch (IOException e) {
+                    modified = FileTime.fromMillis(0);
+                }
+                if (latestTime == null || modified.compareTo(latestTime) > 0) {
+                    latest = file;
+                    latestTime = modified;
+                }
+            }
+            this.mostRecent = latest;
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes encoded records to a file through a FileChannel, owned by a single writer thread.
+ *
+ * Callers hand complete chunks of bytes to the writer and wait for them to be written; the
+ * writer thread takes every request that is queued at that moment, copies the chunks into a
+ * direct buffer that is drained to the channel when full, and completes the whole group with a
+ * single flush and, depending on the {@link FsyncPolicy}, a single fsync. Concurrent callers
+ * therefore share one fsync instead of serialising on a lock.
+ *
+ * Files are named from a pattern in which {timestamp} and {sequence} are replaced when a file
+ * is opened; a pattern without placeholders names a single file that is appended to and is
+ * renamed with a timestamp when it is rotated. Rotation happens before a write that would take
+ * the file past the maximum size, or once the rotation interval has passed since the file was
+ * opened. With gzip enabled the file is a gzip stream and sizes count bytes before compression.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class FileOutputWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileOutputWriter.class);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    /**
+     * When written data is forced to the storage device.
+     */
+    enum FsyncPolicy {
+        /** Only when a file is rotated or closed. */
+        NONE,
+        /** After every group of writes (group commit). */
+        BATCH,
+        /** After a group of writes, at most once per fsync interval. */
+        INTERVAL;
+
+        static FsyncPolicy fromCode(String code) {
+            if (code == null) {
+                return NONE;
+            }
+            for (FsyncPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(code.trim())) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown fsync policy: " + code);
+        }
+    }
+
+    /**
+     * Settings of a file writer.
+     */
+    static final class Settings {
+        private Path directory;
+        private String fileNamePattern = "output_{timestamp}.jsonl";
+        private boolean gzip;
+        private long maxFileSizeBytes;
+        private long rotationIntervalMs;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.NONE;
+        private long fsyncIntervalMs = 1000;
+        private int bufferSize = 1024 * 1024;
+        private Path archiveDirectory;
+
+        Settings directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        Settings fileNamePattern(String fileNamePattern) {
+            this.fileNamePattern = fileNamePattern;
+            return this;
+        }
+
+        Settings gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        Settings maxFileSizeBytes(long maxFileSizeBytes) {
+            this.maxFileSizeBytes = maxFileSizeBytes;
+            return this;
+        }
+
+        Settings rotationIntervalMs(long rotationIntervalMs) {
+            this.rotationIntervalMs = rotationIntervalMs;
+            return this;
+        }
+
+        Settings fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        Settings fsyncIntervalMs(long fsyncIntervalMs) {
+            this.fsyncIntervalMs = fsyncIntervalMs;
+            return this;
+        }
+
+        Settings bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        Settings archiveDirectory(Path archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+            return this;
+        }
+    }
+
+    private enum RequestType { WRITE, OVERWRITE, FLUSH, ROTATE, ARCHIVE, CLOSE }
+
+    private static final class Request {
+        private final RequestType type;
+        private final byte[] data;
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+
+        private Request(RequestType type, byte[] data) {
+            this.type = type;
+            this.data = data;
+        }
+    }
+
+    private final Settings settings;
+    private final Supplier<byte[]> headerSupplier;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    // Owned by the writer thread
+    private final ByteBuffer buffer;
+    private final List<Request> pendingWrites = new ArrayList<>();
+    private FileChannel channel;
+    private OutputStream gzipStream;
+    private volatile Path currentFile;
+    private long currentFileBytes;
+    private long currentFileOpenedAt;
+    private long lastForceAt;
+    private long sequence;
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong filesOpened = new AtomicLong();
+    private final AtomicLong forceCount = new AtomicLong();
+    private final AtomicLong groupCount = new AtomicLong();
+
+    /**
+     * Create a writer and start its thread. No file is opened until the first write.
+     *
+     * @param name The name used for the writer thread
+     * @param settings The writer settings
+     * @param headerSupplier Supplies the bytes written at the start of every new file, or null
+     */
+    FileOutputWriter(String name, Settings settings, Supplier<byte[]> headerSupplier) {
+        if (settings.directory == null) {
+            throw new IllegalArgumentException("Output directory cannot be null");
+        }
+        this.settings = settings;
+        this.headerSupplier = headerSupplier;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(8192, settings.bufferSize));
+        this.writerThread = new Thread(this::run, "apex-file-writer-" + name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Append data to the current file, rotating it first if required.
+     * Returns once the data has been handed to the file system and forced per the fsync policy.
+     *
+     * @param data The encoded records
+     * @throws IOException if the data could not be written
+     */
+    void write(byte[] data) throws IOException {
+        submit(new Request(RequestType.WRITE, data));
+    }
+
+    /**
+     * Replace the contents of the current file with the given data.
+     *
+     * @param data The encoded records
+     * @throws IOException if the data could not be written
+     */
+    void overwrite(byte[] data) throws IOException {
+        submit(new Request(RequestType.OVERWRITE, data));
+    }
+
+    /**
+     * Write buffered data to the file and force it to storage unless the fsync policy is NONE.
+     *
+     * @throws IOException if the data could not be written
+     */
+    void flush() throws IOException {
+        submit(new Request(RequestType.FLUSH, null));
+    }
+
+    /**
+     * Close the current file; the next write opens a new one.
+     *
+     * @return The closed file, or null if no file was open
+     * @throws IOException if the file could not be closed
+     */
+    Path rotate() throws IOException {
+        return submit(new Request(RequestType.ROTATE, null));
+    }
+
+    /**
+     * Close the current file and move it to the archive directory.
+     *
+     * @return The archived file, or null if no file was open
+     * @throws IOException if the file could not be closed or moved
+     */
+    Path archive() throws IOException {
+        return submit(new Request(RequestType.ARCHIVE, null));
+    }
+
+    /**
+     * Flush and close the current file and stop the writer thread.
+     *
+     * @throws IOException if the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            submit(new Request(RequestType.CLOSE, null));
+        } finally {
+            closed = true;
+            try {
+                writerThread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Fail requests queued after the writer thread had already failed the remaining ones
+            failQueuedRequests();
+        }
+    }
+
+    private Path submit(Request request) throws IOException {
+        if (closed) {
+            throw new IOException("File writer is closed");
+        }
+        queue.add(request);
+        if (closed && queue.remove(request)) {
+            // The writer thread may have stopped before the request was queued
+            throw new IOException("File writer is closed");
+        }
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // Writer thread
+
+    private void run() {
+        List<Request> group = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(group);
+            groupCount.incrementAndGet();
+
+            for (Request request : group) {
+                if (!running) {
+                    request.result.completeExceptionally(new IOException("File writer is closed"));
+                } else if (!process(request)) {
+                    running = false;
+                }
+            }
+            commitPendingWrites();
+            group.clear();
+        }
+
+        // Fail anything submitted after the close request
+        failQueuedRequests();
+    }
+
+    private void failQueuedRequests() {
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.result.completeExceptionally(new IOException("File writer is closed"));
+        }
+    }
+
+    /**
+     * Process one request; writes are completed later by {@link #commitPendingWrites()}.
+     *
+     * @return false if the writer should stop
+     */
+    private boolean process(Request request) {
+        if (request.type == RequestType.WRITE) {
+            try {
+                writeData(request.data);
+                pendingWrites.add(request);
+            } catch (IOException | RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
+            return true;
+        }
+
+        // Every other request acts on the file as it is after the writes queued before it
+        commitPendingWrites();
+        try {
+            switch (request.type) {
+                case OVERWRITE:
+                    reopenTruncated();
+                    writeData(request.data);
+                    flushOutput();
+                    forceIfRequired(true);
+                    request.result.complete(currentFile);
+                    return true;
+                case FLUSH:
+                    flushOutput();
+                    forceIfRequired(true);
+                    request.result.complete(currentFile);
+                    return true;
+                case ROTATE:
+                    request.result.complete(rotateFile());
+                    return true;
+                case ARCHIVE:
+                    request.result.complete(archiveFile());
+                    return true;
+                case CLOSE:
+                default:
+                    closeFile();
+                    request.result.complete(null);
+                    return false;
+            }
+        } catch (IOException | RuntimeException e) {
+            request.result.completeExceptionally(e);
+            return request.type != RequestType.CLOSE;
+        }
+    }
+
+    /**
+     * Flush the writes of the current group, force them per the fsync policy and complete them.
+     */
+    private void commitPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        try {
+            flushOutput();
+            forceIfRequired(false);
+            for (Request request : pendingWrites) {
+                request.result.complete(currentFile);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Request request : pendingWrites) {
+                request.result.completeExceptionally(e);
+            }
+        }
+        pendingWrites.clear();
+    }
+
+    private void writeData(byte[] data) throws IOException {
+        if (channel != null && shouldRotate(data.length)) {
+            rotateFile();
+        }
+        if (channel == null) {
+            openFile(false);
+        }
+        writeBytes(data);
+    }
+
+    private boolean shouldRotate(int nextWriteBytes) {
+        if (settings.maxFileSizeBytes > 0 && currentFileBytes > 0
+                && currentFileBytes + nextWriteBytes > settings.maxFileSizeBytes) {
+            return true;
+        }
+        return settings.rotationIntervalMs > 0
+            && System.currentTimeMillis() - currentFileOpenedAt >= settings.rotationIntervalMs;
+    }
+
+    private void openFile(boolean truncate) throws IOException {
+        Files.createDirectories(settings.directory);
+        Path path = truncate && currentFile != null ? currentFile : resolveNewFile();
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   truncate ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+        boolean empty = channel.size() == 0;
+        if (settings.gzip) {
+            gzipStream = new GZIPOutputStream(Channels.newOutputStream(channel), buffer.capacity(), true);
+        }
+        currentFile = path;
+        currentFileBytes = settings.gzip ? 0 : channel.size();
+        currentFileOpenedAt = System.currentTimeMillis();
+        filesOpened.incrementAndGet();
+        LOGGER.debug("Opened output file {}", path);
+
+        byte[] header = empty && headerSupplier != null ? headerSupplier.get() : null;
+        if (header != null && header.length > 0) {
+            writeBytes(header);
+        }
+    }
+
+    private void reopenTruncated() throws IOException {
+        closeChannel();
+        openFile(true);
+    }
+
+    private Path resolveNewFile() {
+        String pattern = settings.fileNamePattern;
+        boolean hasPlaceholders = pattern.contains("{timestamp}") || pattern.contains("{sequence}");
+        String name = expand(pattern);
+        if (settings.gzip && !name.endsWith(".gz")) {
+            name = name + ".gz";
+        }
+
+        Path path = settings.directory.resolve(name);
+        if (!hasPlaceholders) {
+            return path;
+        }
+        // Two files opened within the same millisecond must not share a name
+        while (Files.exists(path)) {
+            path = settings.directory.resolve(withSuffix(name, "-" + (++sequence)));
+        }
+        return path;
+    }
+
+    private String expand(String pattern) {
+        return pattern
+            .replace("{timestamp}", LocalDateTime.now().format(TIMESTAMP_FORMAT))
+            .replace("{sequence}", String.valueOf(++sequence));
+    }
+
+    /**
+     * Insert a suffix before the file extension, treating everything after the first dot
+     * as the extension so that "out.csv.gz" becomes "out_suffix.csv.gz".
+     */
+    private static String withSuffix(String fileName, String suffix) {
+        int dot = fileName.indexOf('.');
+        if (dot <= 0) {
+            return fileName + suffix;
+        }
+        return fileName.substring(0, dot) + suffix + fileName.substring(dot);
+    }
+
+    private void writeBytes(byte[] data) throws IOException {
+        if (settings.gzip) {
+            gzipStream.write(data);
+        } else if (data.length > buffer.capacity()) {
+            drainBuffer();
+            ByteBuffer wrapped = ByteBuffer.wrap(data);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+        } else {
+            int offset = 0;
+            while (offset < data.length) {
+                if (!buffer.hasRemaining()) {
+                    drainBuffer();
+                }
+                int length = Math.min(buffer.remaining(), data.length - offset);
+                buffer.put(data, offset, length);
+                offset += length;
+            }
+        }
+        currentFileBytes += data.length;
+        bytesWritten.addAndGet(data.length);
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void flushOutput() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (settings.gzip) {
+            gzipStream.flush();
+        } else {
+            drainBuffer();
+        }
+    }
+
+    /**
+     * Force the file to storage according to the fsync policy.
+     *
+     * @param explicit Whether the caller asked for a flush, which forces with any policy but NONE
+     */
+    private void forceIfRequired(boolean explicit) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean force;
+        switch (settings.fsyncPolicy) {
+            case BATCH:
+                force = true;
+                break;
+            case INTERVAL:
+                force = explicit || now - lastForceAt >= settings.fsyncIntervalMs;
+                break;
+            case NONE:
+            default:
+                force = false;
+                break;
+        }
+        if (force) {
+            channel.force(false);
+            lastForceAt = now;
+            forceCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Close the current file, renaming it with a timestamp if it has a fixed name.
+     *
+     * @return The closed file, or null if no file was open
+     */
+    private Path rotateFile() throws IOException {
+        if (channel == null) {
+            return null;
+        }
+        Path closedFile = currentFile;
+        closeFile();
+        // The next write or overwrite opens a new file rather than reusing the rotated one
+        currentFile = null;
+
+        String pattern = settings.fileNamePattern;
+        if (!pattern.contains("{timestamp}") && !pattern.contains("{sequence}")) {
+            String fileName = closedFile.getFileName().toString();
+            Path rotated = closedFile.resolveSibling(
+                withSuffix(fileName, "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT)));
+            closedFile = Files.move(closedFile, rotated);
+        }
+        LOGGER.debug("Rotated output file {}", closedFile);
+        return closedFile;
+    }
+
+    private Path archiveFile() throws IOException {
+        Path rotated = rotateFile();
+        if (rotated == null) {
+            return null;
+        }
+        Path archiveDirectory = settings.archiveDirectory != null
+            ? settings.archiveDirectory : settings.directory.resolve("archive");
+        Files.createDirectories(archiveDirectory);
+        return Files.move(rotated, archiveDirectory.resolve(rotated.getFileName()),
+                          StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void closeFile() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        flushOutput();
+        if (settings.gzip) {
+            ((GZIPOutputStream) gzipStream).finish();
+        }
+        // A closed file is always durable, whatever the fsync policy
+        channel.force(false);
+        forceCount.incrementAndGet();
+        closeChannel();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.clear();
+        try {
+            channel.close();
+        } finally {
+            channel = null;
+            gzipStream = null;
+        }
+    }
+
+    // Statistics, safe to read from any thread
+
+    Path getCurrentFile() {
+        return currentFile;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    long getFilesOpened() {
+        return filesOpened.get();
+    }
+
+    long getForceCount() {
+        return forceCount.get();
+    }
+
+    long getGroupCount() {
+        return groupCount.get();
+    }
+}
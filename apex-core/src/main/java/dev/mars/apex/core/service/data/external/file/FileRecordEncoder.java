@@ -0,0 +1,218 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.mars.apex.core.config.datasink.OutputFormatConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes records as CSV rows or JSON lines for {@link FileSystemDataSink}.
+ *
+ * Records are encoded on the calling thread, so that only the finished bytes are handed to the
+ * file writer. CSV columns are taken from the keys of the first record and stay fixed for the
+ * life of the encoder; records that are not maps are written as a single "value" column. JSON
+ * output has one record per line, so pretty printing is not applied.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class FileRecordEncoder {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String VALUE_COLUMN = "value";
+
+    private final OutputFormatConfig.OutputFormat format;
+    private final Charset charset;
+    private final String delimiter;
+    private final String quote;
+    private final String lineEnding;
+    private final boolean includeHeader;
+
+    private volatile List<String> columns;
+
+    /**
+     * Create an encoder for an output format configuration.
+     *
+     * @param config The output format configuration, or null for JSON lines in UTF-8
+     * @throws IllegalArgumentException if the format is neither CSV nor JSON
+     */
+    FileRecordEncoder(OutputFormatConfig config) {
+        OutputFormatConfig formatConfig = config != null ? config : new OutputFormatConfig();
+        this.format = formatConfig.getOutputFormat();
+        if (format != OutputFormatConfig.OutputFormat.CSV && format != OutputFormatConfig.OutputFormat.JSON) {
+            throw new IllegalArgumentException("Output format not supported by file system sink: " + format.getCode());
+        }
+        this.charset = formatConfig.getEncoding() != null ? Charset.forName(formatConfig.getEncoding())
+                                                          : StandardCharsets.UTF_8;
+        this.delimiter = formatConfig.getDelimiter() != null ? formatConfig.getDelimiter() : ",";
+        this.quote = formatConfig.getQuoteCharacter() != null ? formatConfig.getQuoteCharacter() : "\"";
+        this.lineEnding = formatConfig.getLineEnding() != null ? formatConfig.getLineEnding() : "\n";
+        this.includeHeader = !Boolean.FALSE.equals(formatConfig.getIncludeHeader());
+    }
+
+    OutputFormatConfig.OutputFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Get the default file extension for the format.
+     *
+     * @return "csv" or "jsonl"
+     */
+    String getFileExtension() {
+        return format == OutputFormatConfig.OutputFormat.CSV ? "csv" : "jsonl";
+    }
+
+    /**
+     * Encode records into one chunk of bytes.
+     *
+     * @param records The records to encode
+     * @return The encoded records, each followed by the line ending
+     * @throws JsonProcessingException if a record cannot be written as JSON
+     */
+    byte[] encode(List<?> records) throws JsonProcessingException {
+        StringBuilder text = new StringBuilder(records.size() * 64);
+        if (format == OutputFormatConfig.OutputFormat.CSV) {
+            for (Object record : records) {
+                appendCsvRow(text, record);
+            }
+            return text.toString().getBytes(charset);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() * 64);
+        byte[] newline = lineEnding.getBytes(charset);
+        for (Object record : records) {
+            byte[] json = charset.equals(StandardCharsets.UTF_8)
+                ? OBJECT_MAPPER.writeValueAsBytes(toJsonValue(record))
+                : OBJECT_MAPPER.writeValueAsString(toJsonValue(record)).getBytes(charset);
+            bytes.write(json, 0, json.length);
+            bytes.write(newline, 0, newline.length);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Get the header written at the start of every CSV file.
+     *
+     * @return The header row, or null if there is no header or no record has been encoded yet
+     */
+    byte[] header() {
+        List<String> currentColumns = columns;
+        if (format != OutputFormatConfig.OutputFormat.CSV || !includeHeader || currentColumns == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < currentColumns.size(); i++) {
+            if (i > 0) {
+                text.append(delimiter);
+            }
+            text.append(escapeCsv(currentColumns.get(i)));
+        }
+        text.append(lineEnding);
+        return text.toString().getBytes(charset);
+    }
+
+    private void appendCsvRow(StringBuilder text, Object record) {
+        List<String> rowColumns = columnsFor(record);
+        if (record instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) record;
+            for (int i = 0; i < rowColumns.size(); i++) {
+                if (i > 0) {
+                    text.append(delimiter);
+                }
+                text.append(escapeCsv(formatValue(map.get(rowColumns.get(i)))));
+            }
+        } else {
+            text.append(escapeCsv(formatValue(record)));
+        }
+        text.append(lineEnding);
+    }
+
+    private List<String> columnsFor(Object record) {
+        List<String> current = columns;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (columns == null) {
+                List<String> names = new ArrayList<>();
+                if (record instanceof Map) {
+                    for (Object key : ((Map<?, ?>) record).keySet()) {
+                        names.add(String.valueOf(key));
+                    }
+                } else {
+                    names.add(VALUE_COLUMN);
+                }
+                columns = Collections.unmodifiableList(names);
+            }
+            return columns;
+        }
+    }
+
+    private String escapeCsv(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        boolean needsQuotes = value.contains(delimiter) || value.contains(quote)
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return value;
+        }
+        return quote + value.replace(quote, quote + quote) + quote;
+    }
+
+    private static String formatValue(Object value) {
+        return value == null ? "" : String.valueOf(value);
+    }
+
+    /**
+     * Convert values that Jackson cannot write without extra modules, such as java.time types,
+     * to their ISO string form.
+     */
+    private static Object toJsonValue(Object value) {
+        if (value instanceof TemporalAccessor) {
+            return String.valueOf(value);
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> converted = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                converted.put(entry.getKey(), toJsonValue(entry.getValue()));
+            }
+            return converted;
+        }
+        if (value instanceof List) {
+            List<Object> converted = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                converted.add(toJsonValue(element));
+            }
+            return converted;
+        }
+        return value;
+    }
+}
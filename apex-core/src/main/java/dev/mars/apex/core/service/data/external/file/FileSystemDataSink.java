@@ -16,25 +16,36 @@ package dev.mars.apex.core.service.data.external.file;
  * limitations under the License.
  */
 
+import dev.mars.apex.core.config.datasink.BatchConfig;
 import dev.mars.apex.core.config.datasink.DataSinkConfiguration;
 import dev.mars.apex.core.config.datasink.OutputFormatConfig;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
 import dev.mars.apex.core.service.data.external.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * File system implementation of DataSink.
  * 
- * This class provides file-based data output with support for multiple formats
- * including CSV, JSON, XML, and plain text.
+ * This class provides file-based data output as CSV rows or JSON lines, configured by the
+ * sink's output format. Records are buffered by a {@link BufferedBatchWriter}, encoded on the
+ * calling thread and written by a single {@link FileOutputWriter} thread through a FileChannel.
+ * 
+ * The connection's base-path and file-pattern select the output files; the following custom
+ * properties control rotation and durability:
+ * - max-file-size-mb: rotate before a file grows beyond this size
+ * - rotation-interval-ms: rotate files that have been open for this long
+ * - compression: "gzip" to compress output (also enabled by the batch enable-compression flag)
+ * - fsync-policy: "none" (default), "batch" to force every group of writes, or "interval"
+ * - fsync-interval-ms: minimum time between forces with the interval policy
+ * - write-buffer-kb: size of the direct write buffer
+ * - archive-directory: target of the archive operation, by default base-path/archive
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
@@ -54,12 +65,11 @@ public class FileSystemDataSink implements DataSink {
     private Path outputDirectory;
     private String fileNamePattern;
     private OutputFormatConfig.OutputFormat outputFormat;
-    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private FileRecordEncoder encoder;
+    private FileOutputWriter fileWriter;
     
     // Buffering
-    private final List<Object> writeBuffer = new ArrayList<>();
-    private int bufferSize = 100;
-    private long lastFlushTime = System.currentTimeMillis();
+    private BufferedBatchWriter bufferedWriter;
     
     // Supported operations
     private static final List<String> SUPPORTED_OPERATIONS = Arrays.asList(
@@ -151,8 +161,16 @@ public class FileSystemDataSink implements DataSink {
         LOGGER.info("Shutting down file system sink: {}", getName());
         
         try {
-            // Flush any remaining buffered data
-            flush();
+            // Flush any remaining buffered data and close the current file, even if the flush fails
+            try {
+                if (bufferedWriter != null) {
+                    bufferedWriter.close();
+                }
+            } finally {
+                if (fileWriter != null) {
+                    fileWriter.close();
+                }
+            }
             
             this.connectionStatus = ConnectionStatus.shutdown();
             this.shutdown = true;
@@ -201,24 +219,16 @@ public class FileSystemDataSink implements DataSink {
         long startTime = System.currentTimeMillis();
         
         try {
-            fileLock.writeLock().lock();
-            
             if ("write".equals(operation) || "append".equals(operation)) {
-                // Add to buffer for batch processing
-                writeBuffer.add(data);
-                
-                // Check if we should flush
-                if (shouldFlush()) {
-                    flushBuffer();
-                }
+                // Add to buffer for batch processing; the buffered writer flushes on size or interval
+                bufferedWriter.add(data);
                 
                 metrics.recordSuccessfulWrite(System.currentTimeMillis() - startTime, 1);
                 
             } else if ("overwrite".equals(operation)) {
-                // Clear buffer and write immediately
-                writeBuffer.clear();
-                writeBuffer.add(data);
-                flushBuffer();
+                // Write buffered data first, then replace the file contents
+                bufferedWriter.flush();
+                fileWriter.overwrite(encoder.encode(Collections.singletonList(data)));
                 
                 metrics.recordSuccessfulWrite(System.currentTimeMillis() - startTime, 1);
                 
@@ -230,8 +240,6 @@ public class FileSystemDataSink implements DataSink {
             metrics.recordFailedWrite(System.currentTimeMillis() - startTime);
             throw DataSinkException.writeError("Failed to write data using operation: " + operation, e, 
                 "Data: " + (data != null ? data.getClass().getSimpleName() : "null"));
-        } finally {
-            fileLock.writeLock().unlock();
         }
     }
     
@@ -263,16 +271,14 @@ public class FileSystemDataSink implements DataSink {
         long startTime = System.currentTimeMillis();
         
         try {
-            fileLock.writeLock().lock();
-            
             if ("write".equals(operation) || "append".equals(operation)) {
-                writeBuffer.addAll(data);
-                flushBuffer();
+                // Buffered records were written first, so the batch keeps its place in the output
+                bufferedWriter.flush();
+                writeRecords(data);
                 
             } else if ("overwrite".equals(operation)) {
-                writeBuffer.clear();
-                writeBuffer.addAll(data);
-                flushBuffer();
+                bufferedWriter.flush();
+                fileWriter.overwrite(encoder.encode(data));
                 
             } else {
                 throw DataSinkException.configurationError("Unsupported batch operation: " + operation);
@@ -285,8 +291,6 @@ public class FileSystemDataSink implements DataSink {
         } catch (Exception e) {
             metrics.recordFailedBatch(System.currentTimeMillis() - startTime);
             throw DataSinkException.batchError("Failed to write batch using operation: " + operation, 0, data.size());
-        } finally {
-            fileLock.writeLock().unlock();
         }
     }
     
@@ -322,12 +326,10 @@ public class FileSystemDataSink implements DataSink {
         }
         
         try {
-            fileLock.writeLock().lock();
-            flushBuffer();
+            bufferedWriter.flush();
+            fileWriter.flush();
         } catch (Exception e) {
             throw DataSinkException.writeError("Failed to flush file system sink", e, null);
-        } finally {
-            fileLock.writeLock().unlock();
         }
     }
     
@@ -373,52 +375,131 @@ public class FileSystemDataSink implements DataSink {
         info.put("supportedOperations", getSupportedOperations());
         info.put("outputDirectory", outputDirectory != null ? outputDirectory.toString() : null);
         info.put("outputFormat", outputFormat != null ? outputFormat.getCode() : null);
-        info.put("bufferSize", bufferSize);
-        info.put("bufferedItems", writeBuffer.size());
+        info.put("bufferSize", bufferedWriter != null ? bufferedWriter.getBatchSize() : 0);
+        info.put("bufferedItems", bufferedWriter != null ? bufferedWriter.getBufferedCount() : 0);
+        if (fileWriter != null) {
+            info.put("currentFile", fileWriter.getCurrentFile() != null ? fileWriter.getCurrentFile().toString() : null);
+            info.put("filesOpened", fileWriter.getFilesOpened());
+            info.put("bytesWritten", fileWriter.getBytesWritten());
+            info.put("fsyncCount", fileWriter.getForceCount());
+        }
         info.put("metrics", metrics.toString());
         
         return info;
     }
     
-    // Private helper methods (simplified for compilation)
+    // Private helper methods
     
     private void validateConfiguration() throws DataSinkException {
-        // Basic validation
+        try {
+            FileOutputWriter.FsyncPolicy.fromCode(getStringProperty("fsync-policy"));
+        } catch (IllegalArgumentException e) {
+            throw DataSinkException.configurationError(e.getMessage());
+        }
+        String compression = getStringProperty("compression");
+        if (compression != null && !"gzip".equalsIgnoreCase(compression) && !"none".equalsIgnoreCase(compression)) {
+            throw DataSinkException.configurationError("Unsupported compression: " + compression);
+        }
     }
     
     private void initializeFileSystem() throws DataSinkException {
-        // Basic initialization
-        this.outputDirectory = Paths.get("./target/test/output");
-        this.fileNamePattern = "output_{timestamp}.txt";
+        ConnectionConfig connection = configuration.getConnection();
+        String basePath = connection != null ? connection.getBasePath() : null;
+        this.outputDirectory = Paths.get(basePath != null && !basePath.isBlank() ? basePath : "./target/test/output");
+        this.fileNamePattern = connection != null ? connection.getFilePattern() : null;
+        
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw DataSinkException.configurationError("Cannot create output directory: " + outputDirectory, e);
+        }
     }
     
-    private void setupOutputFormat() {
-        this.outputFormat = OutputFormatConfig.OutputFormat.JSON;
+    private void setupOutputFormat() throws DataSinkException {
+        try {
+            this.encoder = new FileRecordEncoder(configuration.getOutputFormat());
+        } catch (IllegalArgumentException e) {
+            throw DataSinkException.configurationError(e.getMessage(), e);
+        }
+        this.outputFormat = encoder.getFormat();
+        if (fileNamePattern == null || fileNamePattern.isBlank()) {
+            this.fileNamePattern = "output_{timestamp}." + encoder.getFileExtension();
+        }
+        
+        String archiveDirectory = getStringProperty("archive-directory");
+        FileOutputWriter.Settings settings = new FileOutputWriter.Settings()
+            .directory(outputDirectory)
+            .fileNamePattern(fileNamePattern)
+            .gzip(isCompressionEnabled())
+            .maxFileSizeBytes(getLongProperty("max-file-size-mb", 0L) * 1024L * 1024L)
+            .rotationIntervalMs(getLongProperty("rotation-interval-ms", 0L))
+            .fsyncPolicy(FileOutputWriter.FsyncPolicy.fromCode(getStringProperty("fsync-policy")))
+            .fsyncIntervalMs(getLongProperty("fsync-interval-ms", 1000L))
+            .bufferSize((int) Math.min(Integer.MAX_VALUE, getLongProperty("write-buffer-kb", 1024L) * 1024L))
+            .archiveDirectory(archiveDirectory != null ? outputDirectory.resolve(archiveDirectory) : null);
+        this.fileWriter = new FileOutputWriter(getName(), settings, encoder::header);
     }
     
     private void configureBuffering() {
-        this.bufferSize = 100;
+        BatchConfig batchConfig = configuration.getBatch();
+        this.bufferedWriter = new BufferedBatchWriter(getName(), batchConfig, this::writeBufferedRecords);
+    }
+    
+    private boolean isCompressionEnabled() {
+        String compression = getStringProperty("compression");
+        if (compression != null) {
+            return "gzip".equalsIgnoreCase(compression);
+        }
+        BatchConfig batchConfig = configuration.getBatch();
+        return batchConfig != null && Boolean.TRUE.equals(batchConfig.getEnableCompression())
+            && "gzip".equalsIgnoreCase(batchConfig.getCompressionAlgorithm());
+    }
+    
+    private String getStringProperty(String key) {
+        Object value = configuration.getCustomProperty(key);
+        return value != null ? value.toString() : null;
     }
     
-    private boolean shouldFlush() {
-        return writeBuffer.size() >= bufferSize;
+    private long getLongProperty(String key, long defaultValue) {
+        Object value = configuration.getCustomProperty(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring invalid value '{}' for property '{}' of file system sink '{}'",
+                           value, key, getName());
+            }
+        }
+        return defaultValue;
+    }
+    
+    private void writeBufferedRecords(List<Object> records) throws DataSinkException {
+        try {
+            writeRecords(records);
+        } catch (IOException e) {
+            throw DataSinkException.writeError("Failed to write buffered records", e, "Records: " + records.size());
+        }
     }
     
-    private void flushBuffer() throws IOException {
-        if (writeBuffer.isEmpty()) {
+    private void writeRecords(List<Object> records) throws IOException {
+        if (records.isEmpty()) {
             return;
         }
-        
-        // Simple implementation for testing
-        writeBuffer.clear();
-        lastFlushTime = System.currentTimeMillis();
+        fileWriter.write(encoder.encode(records));
     }
     
-    private String rotateFile() {
-        return "File rotated";
+    private String rotateFile() throws DataSinkException, IOException {
+        bufferedWriter.flush();
+        Path rotated = fileWriter.rotate();
+        return rotated != null ? rotated.toString() : null;
     }
     
-    private String archiveFile() {
-        return "File archived";
+    private String archiveFile() throws DataSinkException, IOException {
+        bufferedWriter.flush();
+        Path archived = fileWriter.archive();
+        return archived != null ? archived.toString() : null;
     }
 }
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.nio.file.attribute.FileTime;
@@ -31,7 +32,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -68,10 +71,15 @@ public class FileSystemDataSource implements ExternalDataSource {
     
     // Data loaders for different file formats
     private final Map<String, DataLoader> dataLoaders = new HashMap<>();
+    private final MappedFileDataLoader mappedFileDataLoader = new MappedFileDataLoader();
     
     // Cache for loaded file data
     private final Map<String, CachedFileData> fileDataCache = new ConcurrentHashMap<>();
     
+    // Directory listings, invalidated together with the file cache when the base path changes
+    private volatile FileListingCache fileListingCache;
+    private final AtomicLong fileChangeCount = new AtomicLong();
+    
     // File monitoring
     private ScheduledExecutorService fileMonitorExecutor;
     private volatile boolean monitoring = false;
@@ -108,6 +116,14 @@ public class FileSystemDataSource implements ExternalDataSource {
                     "Base path is not a directory: " + basePath);
             }
             
+            // Watch the base path so that cached listings and query indexes stay valid until it changes;
+            // without caching there is nothing to invalidate, so no watch service or thread is needed
+            if (isCacheEnabled()) {
+                startDirectoryWatch(basePath);
+            } else {
+                stopDirectoryWatch();
+            }
+            
             // Initialize file watcher if polling is enabled
             if (config.getConnection().getPollingInterval() != null && 
                 config.getConnection().getPollingInterval() > 0) {
@@ -241,7 +257,41 @@ public class FileSystemDataSource implements ExternalDataSource {
             throw DataSourceException.executionError("File system query failed", e, "query");
         }
     }
-    
+
+    /**
+     * Stream the records of the files matching a file pattern query.
+     *
+     * Files are opened one at a time, in the order they are found, and read through
+     * {@link DataLoader#streamData}, so CSV files are parsed a line at a time and are never
+     * held in memory or in the file cache. JSONPath and SELECT queries still need the whole
+     * file and are answered by {@link #query(String, Map)}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(String query, Map<String, Object> parameters) throws DataSourceException {
+        String actualQuery = resolveNamedQuery(query);
+        if (actualQuery.startsWith("$.") || actualQuery.startsWith("$[") ||
+            actualQuery.toUpperCase().startsWith("SELECT")) {
+            return ExternalDataSource.super.stream(query, parameters);
+        }
+
+        try {
+            LOGGER.info("Streaming files matching '{}' from file system data source '{}'", actualQuery, getName());
+            Path basePath = Paths.get(configuration.getConnection().getBasePath());
+            List<Path> matchingFiles = findMatchingFiles(basePath, actualQuery);
+
+            // Not flatMap: its iterator buffers each inner stream completely before the first record
+            FileRecordIterator iterator = new FileRecordIterator(matchingFiles);
+            Stream<Object> records = StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+            return (Stream<T>) records.peek(record -> metrics.recordRecordsProcessed(1));
+
+        } catch (IOException e) {
+            throw DataSourceException.executionError("File system query failed", e, "query");
+        }
+    }
+
     @Override
     public <T> T queryForObject(String query, Map<String, Object> parameters) throws DataSourceException {
         List<T> results = query(query, parameters);
@@ -273,7 +323,7 @@ public class FileSystemDataSource implements ExternalDataSource {
             }
 
             // Clear cache after updates to ensure fresh data on next read
-            fileDataCache.clear();
+            invalidateFileData(null);
 
             metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
             LOGGER.info("Completed batch update of {} operations for file system data source '{}'",
@@ -293,7 +343,7 @@ public class FileSystemDataSource implements ExternalDataSource {
     @Override
     public void refresh() throws DataSourceException {
         // Clear cache
-        fileDataCache.clear();
+        invalidateFileData(null);
         
         // Reload initial data
         loadInitialData();
@@ -305,6 +355,7 @@ public class FileSystemDataSource implements ExternalDataSource {
     public void shutdown() {
         // Stop file monitoring
         stopFileMonitoring();
+        stopDirectoryWatch();
         
         // Clear cache
         fileDataCache.clear();
@@ -317,8 +368,11 @@ public class FileSystemDataSource implements ExternalDataSource {
      * Initialize data loaders for different file formats.
      */
     private void initializeDataLoaders() {
+        JsonDataLoader jsonDataLoader = new JsonDataLoader();
         dataLoaders.put("csv", new CsvDataLoader());
-        dataLoaders.put("json", new JsonDataLoader());
+        dataLoaders.put("json", jsonDataLoader);
+        dataLoaders.put("jsonl", jsonDataLoader);
+        dataLoaders.put("ndjson", jsonDataLoader);
         dataLoaders.put("xml", new XmlDataLoader());
         dataLoaders.put("txt", new TextDataLoader());
     }
@@ -350,6 +404,11 @@ public class FileSystemDataSource implements ExternalDataSource {
      * Find files matching the given pattern.
      */
     private List<Path> findMatchingFiles(Path basePath, String pattern) throws IOException {
+        FileListingCache listingCache = getListingCache(basePath);
+        if (listingCache != null) {
+            return listingCache.getMatchingFiles(pattern);
+        }
+        
         PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
         
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(basePath)) {
@@ -361,20 +420,15 @@ public class FileSystemDataSource implements ExternalDataSource {
     }
     
     /**
-     * Load data from a specific file.
+     * Find the most recently modified file matching the given pattern.
      */
-    private Object loadDataFromFile(String dataType, Object... parameters) throws IOException {
-        Path basePath = Paths.get(configuration.getConnection().getBasePath());
-        String filePattern = configuration.getConnection().getFilePattern();
-        
-        // Find the most recent file matching the pattern
-        List<Path> matchingFiles = findMatchingFiles(basePath, filePattern);
-        if (matchingFiles.isEmpty()) {
-            return null;
+    private Path findMostRecentFile(Path basePath, String pattern) throws IOException {
+        FileListingCache listingCache = getListingCache(basePath);
+        if (listingCache != null) {
+            return listingCache.getMostRecentFile(pattern);
         }
         
-        // Sort by last modified time and get the most recent
-        Path mostRecentFile = matchingFiles.stream()
+        return findMatchingFiles(basePath, pattern).stream()
             .max(Comparator.comparing(path -> {
                 try {
                     return Files.getLastModifiedTime(path);
@@ -383,24 +437,87 @@ public class FileSystemDataSource implements ExternalDataSource {
                 }
             }))
             .orElse(null);
+    }
+    
+    /**
+     * Get the listing cache if it watches the given directory.
+     */
+    private FileListingCache getListingCache(Path basePath) {
+        FileListingCache listingCache = fileListingCache;
+        return listingCache != null && listingCache.getDirectory().equals(basePath) ? listingCache : null;
+    }
+    
+    /**
+     * Load data from a specific file.
+     */
+    private Object loadDataFromFile(String dataType, Object... parameters) throws IOException {
+        Path basePath = Paths.get(configuration.getConnection().getBasePath());
+        String filePattern = configuration.getConnection().getFilePattern();
+        
+        // Find the most recent file matching the pattern
+        Path mostRecentFile = findMostRecentFile(basePath, filePattern);
         
         if (mostRecentFile != null) {
-            List<Object> fileData = loadDataFromFile(mostRecentFile);
+            CachedFileData fileData = getQueryData(mostRecentFile);
             
-            // Cache the data
+            // Cache the data, sharing its indexes with the file entry
             if (isCacheEnabled()) {
-                String cacheKey = generateCacheKey(dataType, parameters);
-                long ttl = configuration.getCache().getTtlSeconds() * 1000L;
-                fileDataCache.put(cacheKey, new CachedFileData(fileData, System.currentTimeMillis() + ttl));
+                fileDataCache.put(generateCacheKey(dataType, parameters), fileData);
             }
             
             // Find specific data based on parameters
-            return findDataInList(fileData, parameters);
+            return findDataInCache(fileData, parameters);
         }
         
         return null;
     }
     
+    /**
+     * Get the data of a file for a query, from the cache while the file is unchanged.
+     *
+     * With caching enabled the loaded data is kept under the file path, together with the
+     * field indexes built by {@link CachedFileData#lookup}. A cached entry is used until it
+     * expires or the directory watch reports a change to the file; when the directory cannot
+     * be watched, the file's modification time is checked instead.
+     */
+    private CachedFileData getQueryData(Path filePath) throws IOException {
+        if (!isCacheEnabled()) {
+            return new CachedFileData(loadDataFromFile(filePath), Long.MAX_VALUE, null, false);
+        }
+        
+        String cacheKey = filePath.toString();
+        FileListingCache listingCache = fileListingCache;
+        boolean watched = listingCache != null && listingCache.isWatching();
+        
+        CachedFileData cached = fileDataCache.get(cacheKey);
+        if (cached != null && !cached.isExpired() &&
+            (watched || Objects.equals(cached.getFileModified(), getLastModifiedTime(filePath)))) {
+            metrics.recordCacheHit();
+            return cached;
+        }
+        metrics.recordCacheMiss();
+        
+        long changeCount = fileChangeCount.get();
+        FileTime fileModified = getLastModifiedTime(filePath);
+        long ttl = configuration.getCache().getTtlSeconds() * 1000L;
+        cached = new CachedFileData(loadDataFromFile(filePath), System.currentTimeMillis() + ttl, fileModified, true);
+        
+        fileDataCache.put(cacheKey, cached);
+        if (fileChangeCount.get() != changeCount) {
+            // The file changed while it was loaded, so the data may already be out of date
+            fileDataCache.remove(cacheKey, cached);
+        }
+        return cached;
+    }
+    
+    private FileTime getLastModifiedTime(Path filePath) {
+        try {
+            return Files.getLastModifiedTime(filePath);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
     /**
      * Load data from a specific file path.
      */
@@ -409,6 +526,12 @@ public class FileSystemDataSource implements ExternalDataSource {
         String fileExtension = getFileExtension(filePath);
         DataLoader loader = dataLoaders.get(fileExtension.toLowerCase());
         
+        // Large CSV and JSON lines files are loaded in parallel when the file format asks for it
+        if (mappedFileDataLoader.supportsFormat(configuration.getFileFormat()) &&
+            Arrays.asList(mappedFileDataLoader.getSupportedExtensions()).contains(fileExtension.toLowerCase())) {
+            loader = mappedFileDataLoader;
+        }
+        
         if (loader == null) {
             throw new IOException("No data loader available for file type: " + fileExtension);
         }
@@ -416,6 +539,20 @@ public class FileSystemDataSource implements ExternalDataSource {
         return (List<T>) loader.loadData(filePath, configuration.getFileFormat());
     }
     
+    /**
+     * Stream data from a specific file path.
+     */
+    private Stream<Object> streamDataFromFile(Path filePath) throws IOException {
+        String fileExtension = getFileExtension(filePath);
+        DataLoader loader = dataLoaders.get(fileExtension.toLowerCase());
+        
+        if (loader == null) {
+            throw new IOException("No data loader available for file type: " + fileExtension);
+        }
+        
+        return loader.streamData(filePath, configuration.getFileFormat());
+    }
+    
     /**
      * Load and cache a file.
      */
@@ -426,7 +563,8 @@ public class FileSystemDataSource implements ExternalDataSource {
             if (isCacheEnabled()) {
                 String cacheKey = filePath.toString();
                 long ttl = configuration.getCache().getTtlSeconds() * 1000L;
-                fileDataCache.put(cacheKey, new CachedFileData(data, System.currentTimeMillis() + ttl));
+                fileDataCache.put(cacheKey, new CachedFileData(data, System.currentTimeMillis() + ttl,
+                    getLastModifiedTime(filePath), true));
             }
             
             LOGGER.debug("Loaded and cached file: {}", filePath);
@@ -488,6 +626,42 @@ public class FileSystemDataSource implements ExternalDataSource {
         LOGGER.info("Stopped file monitoring for '{}'", configuration.getName());
     }
     
+    /**
+     * Start watching the base path for changes.
+     */
+    private void startDirectoryWatch(Path basePath) {
+        stopDirectoryWatch();
+        fileListingCache = new FileListingCache(basePath, getName(), this::invalidateFileData);
+    }
+    
+    /**
+     * Stop watching the base path.
+     */
+    private void stopDirectoryWatch() {
+        FileListingCache listingCache = fileListingCache;
+        if (listingCache != null) {
+            fileListingCache = null;
+            listingCache.close();
+        }
+    }
+    
+    /**
+     * Drop the cached data of a changed file, or of every file when the path is null.
+     */
+    private void invalidateFileData(Path changedFile) {
+        fileChangeCount.incrementAndGet();
+        if (changedFile == null) {
+            fileDataCache.clear();
+        } else {
+            fileDataCache.remove(changedFile.toString());
+        }
+        
+        FileListingCache listingCache = fileListingCache;
+        if (listingCache != null && changedFile == null) {
+            listingCache.invalidate();
+        }
+    }
+    
     /**
      * Resolve named query from configuration.
      */
@@ -517,28 +691,15 @@ public class FileSystemDataSource implements ExternalDataSource {
                     "File pattern is required for JSONPath queries");
             }
 
-            List<Path> matchingFiles = findMatchingFiles(basePath, filePattern);
-            if (matchingFiles.isEmpty()) {
-                return new ArrayList<>();
-            }
-
             // For now, use the most recent file
-            Path mostRecentFile = matchingFiles.stream()
-                .max(Comparator.comparing(path -> {
-                    try {
-                        return Files.getLastModifiedTime(path);
-                    } catch (IOException e) {
-                        return FileTime.fromMillis(0);
-                    }
-                }))
-                .orElse(null);
+            Path mostRecentFile = findMostRecentFile(basePath, filePattern);
 
             if (mostRecentFile == null) {
                 return new ArrayList<>();
             }
 
             // Load and parse the file
-            List<Object> fileData = loadDataFromFile(mostRecentFile);
+            CachedFileData fileData = getQueryData(mostRecentFile);
 
             // Apply JSONPath query (simplified implementation)
             List<T> results = new ArrayList<>();
@@ -552,7 +713,7 @@ public class FileSystemDataSource implements ExternalDataSource {
                 results.addAll((List<T>) filterDataWithJsonPath(fileData, processedQuery, parameters));
             } else if (processedQuery.equals("$[*]") || processedQuery.equals("$.*") || processedQuery.equals("$.users[*]")) {
                 // Return all data
-                results.addAll((List<T>) fileData);
+                results.addAll((List<T>) fileData.detachAll(fileData.getData()));
             }
 
             return results;
@@ -579,7 +740,7 @@ public class FileSystemDataSource implements ExternalDataSource {
     /**
      * Filter data using JSONPath-like expression.
      */
-    private List<Object> filterDataWithJsonPath(List<Object> data, String jsonPath, Map<String, Object> parameters) {
+    private List<Object> filterDataWithJsonPath(CachedFileData data, String jsonPath, Map<String, Object> parameters) {
         List<Object> results = new ArrayList<>();
 
         // Simple implementation for queries like "$[?(@.id == '1')]" or "$.users[?(@.id == '1')]"
@@ -590,16 +751,7 @@ public class FileSystemDataSource implements ExternalDataSource {
                 String fieldName = parts[0].trim();
                 String expectedValue = parts[1].trim().replace("'", "").replace("\"", "");
 
-                for (Object item : data) {
-                    if (item instanceof Map) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> map = (Map<String, Object>) item;
-                        Object fieldValue = map.get(fieldName);
-                        if (fieldValue != null && fieldValue.toString().equals(expectedValue)) {
-                            results.add(item);
-                        }
-                    }
-                }
+                results.addAll(data.detachAll(data.lookup(fieldName, expectedValue)));
             }
         }
         return results;
@@ -620,21 +772,8 @@ public class FileSystemDataSource implements ExternalDataSource {
                     "File pattern is required for CSV queries");
             }
 
-            List<Path> matchingFiles = findMatchingFiles(basePath, filePattern);
-            if (matchingFiles.isEmpty()) {
-                return new ArrayList<>();
-            }
-
             // For now, use the most recent file
-            Path mostRecentFile = matchingFiles.stream()
-                .max(Comparator.comparing(path -> {
-                    try {
-                        return Files.getLastModifiedTime(path);
-                    } catch (IOException e) {
-                        return FileTime.fromMillis(0);
-                    }
-                }))
-                .orElse(null);
+            Path mostRecentFile = findMostRecentFile(basePath, filePattern);
 
             if (mostRecentFile == null) {
                 return new ArrayList<>();
@@ -642,8 +781,8 @@ public class FileSystemDataSource implements ExternalDataSource {
 
             // Load and parse the file
             LOGGER.debug("Loading data from file for CSV query: {}", mostRecentFile);
-            List<Object> fileData = loadDataFromFile(mostRecentFile);
-            LOGGER.debug("Loaded {} records from file for CSV query", fileData.size());
+            CachedFileData fileData = getQueryData(mostRecentFile);
+            LOGGER.debug("Loaded {} records from file for CSV query", fileData.getData().size());
 
             // Apply SQL-like filtering (simplified implementation)
             List<T> results = new ArrayList<>();
@@ -653,7 +792,7 @@ public class FileSystemDataSource implements ExternalDataSource {
                 results.addAll((List<T>) filterCsvDataWithSql(fileData, sqlQuery, parameters));
             } else {
                 // SELECT * - return all data
-                results.addAll((List<T>) fileData);
+                results.addAll((List<T>) fileData.detachAll(fileData.getData()));
             }
 
             // Record metrics
@@ -670,7 +809,7 @@ public class FileSystemDataSource implements ExternalDataSource {
     /**
      * Filter CSV data using SQL-like WHERE clause.
      */
-    private List<Object> filterCsvDataWithSql(List<Object> data, String sqlQuery, Map<String, Object> parameters) {
+    private List<Object> filterCsvDataWithSql(CachedFileData data, String sqlQuery, Map<String, Object> parameters) {
         List<Object> results = new ArrayList<>();
 
         // Simple implementation for queries like "SELECT * WHERE name = :name"
@@ -691,16 +830,7 @@ public class FileSystemDataSource implements ExternalDataSource {
 
                 Object expectedValue = parameters.get(parameterName);
                 if (expectedValue != null) {
-                    for (Object item : data) {
-                        if (item instanceof Map) {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> map = (Map<String, Object>) item;
-                            Object fieldValue = map.get(fieldName);
-                            if (fieldValue != null && fieldValue.toString().equals(expectedValue.toString())) {
-                                results.add(item);
-                            }
-                        }
-                    }
+                    results.addAll(data.detachAll(data.lookup(fieldName, expectedValue.toString())));
                 }
             }
         }
@@ -760,7 +890,23 @@ public class FileSystemDataSource implements ExternalDataSource {
     }
     
     private Object findDataInCache(CachedFileData cached, Object... parameters) {
-        return findDataInList(cached.getData(), parameters);
+        String keyColumn = configuration.getFileFormat() != null ?
+            configuration.getFileFormat().getKeyColumn() : null;
+        
+        if (keyColumn != null && parameters.length > 0 && parameters[0] != null) {
+            // The index matches on string values, so check the candidates for an exact match
+            Object searchValue = parameters[0];
+            for (Object item : cached.lookup(keyColumn, searchValue.toString())) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) item;
+                if (Objects.equals(map.get(keyColumn), searchValue)) {
+                    return cached.detach(item);
+                }
+            }
+            return cached.getData().isEmpty() ? null : cached.detach(cached.getData().get(0));
+        }
+        
+        return cached.detach(findDataInList(cached.getData(), parameters));
     }
     
     private Object findDataInList(List<Object> data, Object... parameters) {
@@ -892,23 +1038,157 @@ public class FileSystemDataSource implements ExternalDataSource {
         }
     }
 
+    /**
+     * Reads the records of several files in turn. Each file is only opened once the previous
+     * one has been read to the end, and is closed before the next is opened.
+     */
+    private final class FileRecordIterator implements Iterator<Object> {
+        private final Iterator<Path> files;
+        private Stream<Object> currentFile;
+        private Iterator<Object> records = Collections.emptyIterator();
+
+        FileRecordIterator(List<Path> files) {
+            this.files = files.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!records.hasNext()) {
+                closeCurrentFile();
+                if (!files.hasNext()) {
+                    return false;
+                }
+                try {
+                    currentFile = streamDataFromFile(files.next());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                records = currentFile.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return records.next();
+        }
+
+        void close() {
+            closeCurrentFile();
+            while (files.hasNext()) {
+                files.next();
+            }
+        }
+
+        private void closeCurrentFile() {
+            if (currentFile != null) {
+                currentFile.close();
+                currentFile = null;
+                records = Collections.emptyIterator();
+            }
+        }
+    }
+
     /**
      * Cached file data holder.
+     *
+     * Equality lookups on a field are answered from a hash index of the field's string
+     * values, built on the first lookup and kept for as long as the data is cached.
+     * Cached records are shared by every query, so they are copied with {@link #detach}
+     * before they are returned; callers that enrich or transform them must not change the
+     * cache or the values its indexes were built from.
      */
     private static class CachedFileData {
         private final List<Object> data;
         private final long expiryTime;
         private final java.time.Instant lastModified;
+        private final FileTime fileModified;
+        private final boolean indexed;
+        private final Map<String, Map<String, List<Object>>> indexes = new ConcurrentHashMap<>();
         
-        public CachedFileData(List<Object> data, long expiryTime) {
+        public CachedFileData(List<Object> data, long expiryTime, FileTime fileModified, boolean indexed) {
             this.data = data;
             this.expiryTime = expiryTime;
             this.lastModified = java.time.Instant.now();
+            this.fileModified = fileModified;
+            this.indexed = indexed;
         }
         
         public List<Object> getData() {
             return data;
         }
+
+        /**
+         * Get a record, or a list of records, that a caller may modify.
+         * Data loaded for a single query is not shared and is returned as it is.
+         */
+        public Object detach(Object value) {
+            return indexed ? copy(value) : value;
+        }
+
+        public List<Object> detachAll(List<Object> records) {
+            if (!indexed) {
+                return records;
+            }
+            List<Object> copies = new ArrayList<>(records.size());
+            for (Object record : records) {
+                copies.add(copy(record));
+            }
+            return copies;
+        }
+
+        private static Object copy(Object value) {
+            if (value instanceof Map) {
+                Map<Object, Object> copy = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    copy.put(entry.getKey(), copy(entry.getValue()));
+                }
+                return copy;
+            }
+            if (value instanceof List) {
+                List<Object> copy = new ArrayList<>(((List<?>) value).size());
+                for (Object element : (List<?>) value) {
+                    copy.add(copy(element));
+                }
+                return copy;
+            }
+            return value;
+        }
+        
+        /**
+         * Find the records whose field has the given string value, in file order.
+         */
+        public List<Object> lookup(String fieldName, String value) {
+            if (!indexed) {
+                // Data used for a single query is scanned rather than indexed
+                return buildIndex(fieldName, value).getOrDefault(value, Collections.emptyList());
+            }
+            return indexes.computeIfAbsent(fieldName, field -> buildIndex(field, null))
+                .getOrDefault(value, Collections.emptyList());
+        }
+        
+        private Map<String, List<Object>> buildIndex(String fieldName, String onlyValue) {
+            Map<String, List<Object>> index = new HashMap<>();
+            for (Object item : data) {
+                if (item instanceof Map) {
+                    Object fieldValue = ((Map<?, ?>) item).get(fieldName);
+                    if (fieldValue != null) {
+                        String key = fieldValue.toString();
+                        if (onlyValue == null || onlyValue.equals(key)) {
+                            index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(item);
+                        }
+                    }
+                }
+            }
+            return index;
+        }
+        
+        public FileTime getFileModified() {
+            return fileModified;
+        }
         
         public boolean isExpired() {
             return System.currentTimeMillis() > expiryTime;
@@ -17,31 +17,44 @@ package dev.mars.apex.core.service.data.external.file;
  */
 
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import dev.mars.apex.core.config.datasource.FileFormatConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * JSON data loader implementation.
  * 
- * This class loads data from JSON (JavaScript Object Notation) files with support for
- * nested objects, arrays, and configurable root paths.
+ * This class loads data from JSON (JavaScript Object Notation) and JSON lines files with
+ * support for nested objects, arrays, and configurable root paths.
  * 
  * Features:
- * - JSONPath-like root path selection
+ * - JSONPath-like root path selection ($.data.records)
+ * - JSON lines files (.jsonl, .ndjson) with one value per line
+ * - Streaming reads with the Jackson token parser
  * - Array flattening options
  * - Nested object handling
  * - Custom encoding support
  * - Field mapping and filtering
  * 
- * Note: This is a basic JSON parser implementation. In production, you would
- * typically use a library like Jackson or Gson for more robust JSON parsing.
+ * Records are read incrementally: when the root path selects an array, its elements are
+ * parsed one at a time, so a file never has to be held in memory as a whole. Integers are
+ * returned as Long (BigInteger if they do not fit) and decimals as Double.
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
@@ -51,53 +64,53 @@ public class JsonDataLoader implements DataLoader {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonDataLoader.class);
     
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
     @Override
     public List<Object> loadData(Path filePath, FileFormatConfig formatConfig) throws IOException {
         List<Object> results = new ArrayList<>();
         
-        // Determine encoding
-        String encoding = formatConfig != null && formatConfig.getEncoding() != null ? 
-            formatConfig.getEncoding() : "UTF-8";
+        try (Stream<Object> records = streamData(filePath, formatConfig)) {
+            records.forEach(results::add);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Failed to parse JSON file: {}", filePath, e.getCause());
+            throw e.getCause();
+        }
         
+        LOGGER.debug("Loaded {} objects from JSON file: {}", results.size(), filePath);
+        return results;
+    }
+    
+    /**
+     * Stream the records of a JSON or JSON lines file.
+     * 
+     * The file is closed when the last record has been read or when the stream is closed.
+     * Syntax errors in a JSON file end the stream with an {@link UncheckedIOException}; in a
+     * JSON lines file the invalid line is logged and skipped.
+     */
+    @Override
+    public Stream<Object> streamData(Path filePath, FileFormatConfig formatConfig) throws IOException {
+        JsonRecordReader recordReader;
         try {
-            // Read the entire file content
-            String jsonContent = Files.readString(filePath, Charset.forName(encoding));
-            
-            // Parse JSON content
-            Object parsedJson = parseJson(jsonContent);
-            
-            // Extract data based on root path
-            Object extractedData = extractDataFromRootPath(parsedJson, formatConfig);
-            
-            // Convert to list format
-            if (extractedData instanceof List) {
-                @SuppressWarnings("unchecked")
-                List<Object> dataList = (List<Object>) extractedData;
-                results.addAll(dataList);
-            } else if (extractedData != null) {
-                results.add(extractedData);
-            }
-            
-            // Apply field mappings and transformations
-            results = applyTransformations(results, formatConfig);
-            
-            LOGGER.debug("Loaded {} objects from JSON file: {}", results.size(), filePath);
-            
+            recordReader = new JsonRecordReader(filePath, formatConfig);
         } catch (IOException e) {
             LOGGER.error("Failed to load JSON file: {}", filePath, e);
             throw e;
         } catch (Exception e) {
-            LOGGER.error("Failed to parse JSON file: {}", filePath, e);
+            LOGGER.error("Failed to load JSON file: {}", filePath, e);
             throw new IOException("JSON parsing failed", e);
         }
         
-        return results;
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(recordReader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(recordReader::close);
     }
     
     @Override
     public boolean supportsFormat(FileFormatConfig formatConfig) {
         return formatConfig != null && 
                ("json".equalsIgnoreCase(formatConfig.getType()) || 
+                isJsonLinesType(formatConfig.getType()) ||
                 formatConfig.getFileType() == FileFormatConfig.FileType.JSON);
     }
     
@@ -107,253 +120,300 @@ public class JsonDataLoader implements DataLoader {
     }
     
     /**
-     * Parse JSON content into a Java object structure.
-     * This is a basic implementation - use Jackson or Gson in production.
+     * Check whether a file holds JSON lines, by its extension or the configured type.
      */
-    private Object parseJson(String jsonContent) {
-        jsonContent = jsonContent.trim();
-        
-        if (jsonContent.startsWith("{")) {
-            return parseJsonObject(jsonContent);
-        } else if (jsonContent.startsWith("[")) {
-            return parseJsonArray(jsonContent);
-        } else {
-            // Try to parse as a primitive value
-            return parseJsonValue(jsonContent);
-        }
+    static boolean isJsonLines(Path filePath, FileFormatConfig formatConfig) {
+        String fileName = filePath.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson") ||
+               (formatConfig != null && isJsonLinesType(formatConfig.getType()));
     }
     
     /**
-     * Parse a JSON object.
+     * Check whether a configured type names the JSON lines format.
      */
-    private Map<String, Object> parseJsonObject(String json) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        
-        // Remove outer braces
-        json = json.substring(1, json.length() - 1).trim();
-        
-        if (json.isEmpty()) {
-            return result;
-        }
-        
-        // Simple parsing - split by commas (not inside quotes or nested objects)
-        List<String> keyValuePairs = splitJsonElements(json);
-        
-        for (String pair : keyValuePairs) {
-            int colonIndex = findColonIndex(pair);
-            if (colonIndex > 0) {
-                String key = pair.substring(0, colonIndex).trim();
-                String value = pair.substring(colonIndex + 1).trim();
-                
-                // Remove quotes from key
-                if (key.startsWith("\"") && key.endsWith("\"")) {
-                    key = key.substring(1, key.length() - 1);
-                }
-                
-                // Parse the value
-                Object parsedValue = parseJson(value);
-                result.put(key, parsedValue);
-            }
-        }
-        
-        return result;
+    static boolean isJsonLinesType(String type) {
+        return "jsonl".equalsIgnoreCase(type) || "ndjson".equalsIgnoreCase(type) ||
+               "json-lines".equalsIgnoreCase(type);
     }
     
     /**
-     * Parse a JSON array.
+     * Split a root path such as $.data.records or $.data.records[*] into its field names.
+     * Any other path selects the whole document.
      */
-    private List<Object> parseJsonArray(String json) {
-        List<Object> result = new ArrayList<>();
-        
-        // Remove outer brackets
-        json = json.substring(1, json.length() - 1).trim();
-        
-        if (json.isEmpty()) {
-            return result;
+    private static String[] parseRootPath(FileFormatConfig formatConfig) {
+        if (formatConfig == null || formatConfig.getRootPath() == null) {
+            return new String[0];
         }
-        
-        // Split array elements
-        List<String> elements = splitJsonElements(json);
-        
-        for (String element : elements) {
-            Object parsedElement = parseJson(element.trim());
-            result.add(parsedElement);
+        String rootPath = formatConfig.getRootPath().trim();
+        if (rootPath.endsWith("[*]")) {
+            rootPath = rootPath.substring(0, rootPath.length() - 3);
         }
-        
-        return result;
+        if (!rootPath.startsWith("$.")) {
+            return new String[0];
+        }
+        return rootPath.substring(2).split("\\.");
     }
     
     /**
-     * Parse a JSON primitive value.
+     * Read a JSON value starting at the current token.
      */
-    private Object parseJsonValue(String value) {
-        value = value.trim();
-        
-        if ("null".equals(value)) {
-            return null;
-        } else if ("true".equals(value)) {
-            return true;
-        } else if ("false".equals(value)) {
-            return false;
-        } else if (value.startsWith("\"") && value.endsWith("\"")) {
-            // String value
-            return value.substring(1, value.length() - 1);
-        } else {
-            // Try to parse as number
-            try {
-                if (value.contains(".") || value.contains("e") || value.contains("E")) {
-                    return Double.parseDouble(value);
-                } else {
-                    return Long.parseLong(value);
+    private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    map.put(name, readValue(parser, parser.nextToken()));
                 }
-            } catch (NumberFormatException e) {
-                // Return as string if not a valid number
-                return value;
-            }
+                return map;
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                JsonToken element;
+                while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser, element));
+                }
+                return list;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ?
+                    parser.getBigIntegerValue() : (Object) parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + token);
         }
     }
     
     /**
-     * Split JSON elements (objects, arrays, or values) by commas.
+     * Iterator over the records of one JSON or JSON lines file.
+     * 
+     * Each top-level value of the input (one per line in a JSON lines file) is walked down to
+     * the root path, skipping fields that are not on the path. If the selected value is an
+     * array its elements are the records, otherwise the value itself is.
      */
-    private List<String> splitJsonElements(String json) {
-        List<String> elements = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        int braceLevel = 0;
-        int bracketLevel = 0;
-        boolean inQuotes = false;
-        boolean escapeNext = false;
+    private final class JsonRecordReader implements Iterator<Object> {
+        
+        private final Path filePath;
+        private final FileFormatConfig formatConfig;
+        private final String[] rootPath;
+        private final boolean jsonLines;
+        private final BufferedReader lineReader;
+        
+        private JsonParser parser;
+        private boolean inRecordArray;
+        private int lineNumber;
+        private Object nextRecord;
+        private boolean closed;
         
-        for (int i = 0; i < json.length(); i++) {
-            char c = json.charAt(i);
+        JsonRecordReader(Path filePath, FileFormatConfig formatConfig) throws IOException {
+            this.filePath = filePath;
+            this.formatConfig = formatConfig;
+            this.rootPath = parseRootPath(formatConfig);
+            this.jsonLines = isJsonLines(filePath, formatConfig);
             
-            if (escapeNext) {
-                current.append(c);
-                escapeNext = false;
-                continue;
-            }
+            // Determine encoding
+            Charset charset = Charset.forName(formatConfig != null && formatConfig.getEncoding() != null ? 
+                formatConfig.getEncoding() : "UTF-8");
             
-            if (c == '\\') {
-                escapeNext = true;
-                current.append(c);
-                continue;
+            if (jsonLines) {
+                this.lineReader = Files.newBufferedReader(filePath, charset);
+            } else {
+                this.lineReader = null;
+                this.parser = StandardCharsets.UTF_8.equals(charset) ?
+                    JSON_FACTORY.createParser(Files.newInputStream(filePath)) :
+                    JSON_FACTORY.createParser(Files.newBufferedReader(filePath, charset));
             }
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (!inQuotes) {
-                if (c == '{') {
-                    braceLevel++;
-                } else if (c == '}') {
-                    braceLevel--;
-                } else if (c == '[') {
-                    bracketLevel++;
-                } else if (c == ']') {
-                    bracketLevel--;
-                } else if (c == ',' && braceLevel == 0 && bracketLevel == 0) {
-                    elements.add(current.toString());
-                    current = new StringBuilder();
-                    continue;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (nextRecord == null && !closed) {
+                try {
+                    nextRecord = readRecord();
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException("JSON parsing failed for file: " + filePath, e);
                 }
             }
-            
-            current.append(c);
+            return nextRecord != null;
         }
         
-        if (current.length() > 0) {
-            elements.add(current.toString());
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object record = nextRecord;
+            nextRecord = null;
+            return record;
         }
         
-        return elements;
-    }
-    
-    /**
-     * Find the index of the colon that separates key and value in a JSON object property.
-     */
-    private int findColonIndex(String pair) {
-        boolean inQuotes = false;
-        boolean escapeNext = false;
-        
-        for (int i = 0; i < pair.length(); i++) {
-            char c = pair.charAt(i);
-            
-            if (escapeNext) {
-                escapeNext = false;
-                continue;
+        void close() {
+            if (closed) {
+                return;
             }
-            
-            if (c == '\\') {
-                escapeNext = true;
-                continue;
-            }
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ':' && !inQuotes) {
-                return i;
+            closed = true;
+            try {
+                if (parser != null) {
+                    parser.close();
+                }
+                if (lineReader != null) {
+                    lineReader.close();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close JSON file {}: {}", filePath, e.getMessage());
             }
         }
         
-        return -1;
-    }
-    
-    /**
-     * Extract data from the specified root path.
-     */
-    private Object extractDataFromRootPath(Object parsedJson, FileFormatConfig formatConfig) {
-        if (formatConfig == null || formatConfig.getRootPath() == null || 
-            "$".equals(formatConfig.getRootPath())) {
-            return parsedJson;
+        private Object readRecord() throws IOException {
+            while (true) {
+                try {
+                    Object record = readFromParser();
+                    if (record != null) {
+                        return record;
+                    }
+                    if (!jsonLines || !nextLine()) {
+                        close();
+                        return null;
+                    }
+                } catch (JsonProcessingException e) {
+                    if (!jsonLines) {
+                        throw e;
+                    }
+                    LOGGER.warn("Failed to parse JSON line {} in file {}: {}", 
+                        lineNumber, filePath, e.getOriginalMessage());
+                    // Continue with the next line
+                    parser.close();
+                    parser = null;
+                    inRecordArray = false;
+                }
+            }
         }
         
-        String rootPath = formatConfig.getRootPath();
-        
-        // Simple JSONPath-like implementation
-        if (rootPath.startsWith("$.")) {
-            String[] pathParts = rootPath.substring(2).split("\\.");
-            Object current = parsedJson;
-            
-            for (String part : pathParts) {
-                if (current instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> map = (Map<String, Object>) current;
-                    current = map.get(part);
-                } else {
-                    return null; // Path not found
+        /**
+         * Read the next record from the current parser, or return null when it is exhausted.
+         */
+        private Object readFromParser() throws IOException {
+            while (parser != null) {
+                if (inRecordArray) {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        inRecordArray = false;
+                        skipToRoot();
+                        continue;
+                    }
+                    Object record = readValue(parser, token);
+                    if (record != null) {
+                        return transformItem(record, formatConfig);
+                    }
+                    continue;
+                }
+                
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    return null;
+                }
+                if (!moveToRootPath()) {
+                    skipToRoot();
+                    continue;
+                }
+                if (parser.currentToken() == JsonToken.START_ARRAY) {
+                    inRecordArray = true;
+                    continue;
+                }
+                Object record = readValue(parser, parser.currentToken());
+                skipToRoot();
+                if (record != null) {
+                    return transformItem(record, formatConfig);
                 }
             }
-            
-            return current;
+            return null;
         }
         
-        return parsedJson;
-    }
-    
-    /**
-     * Apply transformations based on format configuration.
-     */
-    private List<Object> applyTransformations(List<Object> data, FileFormatConfig formatConfig) {
-        if (formatConfig == null) {
-            return data;
+        /**
+         * Walk from the start of a top-level value to the value selected by the root path.
+         * 
+         * @return true if the parser is positioned on the selected value
+         */
+        private boolean moveToRootPath() throws IOException {
+            for (String field : rootPath) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    if (parser.currentToken() == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                    return false;
+                }
+                boolean found = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    if (name.equals(field)) {
+                        found = true;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
         }
         
-        List<Object> transformed = new ArrayList<>();
-        
-        for (Object item : data) {
-            Object transformedItem = transformItem(item, formatConfig);
-            if (transformedItem != null) {
-                transformed.add(transformedItem);
+        /**
+         * Skip the rest of the current top-level value.
+         */
+        private void skipToRoot() throws IOException {
+            while (!parser.getParsingContext().inRoot()) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    return;
+                }
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                }
             }
         }
         
-        return transformed;
+        /**
+         * Start a parser on the next non-blank line of a JSON lines file.
+         * 
+         * @return false at the end of the file
+         */
+        private boolean nextLine() throws IOException {
+            if (parser != null) {
+                parser.close();
+                parser = null;
+            }
+            String line;
+            while ((line = lineReader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    parser = JSON_FACTORY.createParser(line);
+                    return true;
+                }
+            }
+            return false;
+        }
     }
     
     /**
      * Transform a single data item.
      */
     private Object transformItem(Object item, FileFormatConfig formatConfig) {
-        if (!(item instanceof Map)) {
+        if (formatConfig == null || !(item instanceof Map)) {
+            return item;
+        }
+        
+        boolean hasMappings = formatConfig.getColumnMappings() != null && !formatConfig.getColumnMappings().isEmpty();
+        if (!hasMappings && !formatConfig.shouldFlattenArrays()) {
             return item;
         }
         
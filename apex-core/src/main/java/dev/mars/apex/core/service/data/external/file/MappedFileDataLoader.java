@@ -0,0 +1,348 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.mars.apex.core.config.datasource.FileFormatConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Memory-mapped, parallel loader for large CSV and JSON lines files.
+ *
+ * The file is memory-mapped with {@link FileChannel#map} and split into chunks that end on
+ * line boundaries. The chunks are decoded and parsed in parallel on a {@link ForkJoinPool},
+ * and the rows are returned in file order. CSV rows are parsed exactly as by
+ * {@link CsvDataLoader}, and JSON lines files hold one JSON value per line.
+ *
+ * The loader is selected for CSV and JSON lines files when parallel loading is enabled in the
+ * {@link FileFormatConfig}. The parallelism setting gives the number of threads of a pool
+ * created for the load; without it the common pool is used.
+ *
+ * Limitations:
+ * - Lines must end with \n or \r\n; quoted CSV values cannot contain line breaks
+ * - Splitting at line breaks needs an ASCII-compatible encoding such as UTF-8 or ISO-8859-1;
+ *   files in other encodings are read into memory and parsed on the calling thread
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class MappedFileDataLoader implements DataLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedFileDataLoader.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final long DEFAULT_MIN_CHUNK_BYTES = 1L << 20;
+    // Each chunk is mapped separately, and a mapping cannot exceed 2 GB
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+    // Several chunks per thread even out the work when rows vary in cost
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final CsvDataLoader csvDataLoader = new CsvDataLoader();
+    private final long minChunkBytes;
+
+    public MappedFileDataLoader() {
+        this(DEFAULT_MIN_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructor with a minimum chunk size, so that tests can split small files.
+     */
+    MappedFileDataLoader(long minChunkBytes) {
+        this.minChunkBytes = Math.max(1, minChunkBytes);
+    }
+
+    @Override
+    public List<Object> loadData(Path filePath, FileFormatConfig formatConfig) throws IOException {
+        long startTime = System.currentTimeMillis();
+        boolean jsonLines = JsonDataLoader.isJsonLines(filePath, formatConfig);
+        Charset charset = Charset.forName(formatConfig != null && formatConfig.getEncoding() != null ?
+            formatConfig.getEncoding() : "UTF-8");
+        int skipLines = formatConfig != null && formatConfig.getSkipLines() != null ?
+            formatConfig.getSkipLines() : 0;
+        boolean headerRow = !jsonLines && formatConfig != null && formatConfig.hasHeaderRow();
+
+        if (!isAsciiCompatible(charset)) {
+            LOGGER.debug("Encoding {} cannot be split at byte level, parsing {} on one thread", charset, filePath);
+            return loadUnmapped(filePath, formatConfig, charset, jsonLines, skipLines);
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Skip lines and read the header row before splitting the rest of the file
+            long dataStart = 0;
+            for (int i = 0; i < skipLines && dataStart < size; i++) {
+                dataStart = nextLineStart(channel, dataStart, size);
+            }
+            String[] headers = null;
+            if (headerRow) {
+                if (dataStart < size) {
+                    long headerEnd = nextLineStart(channel, dataStart, size);
+                    CharBuffer headerLine = decode(channel, dataStart, headerEnd, charset);
+                    headers = csvDataLoader.rowParser(formatConfig, null)
+                        .parseValues(stripLineEnding(headerLine)).toArray(new String[0]);
+                    LOGGER.debug("CSV headers parsed: {}", Arrays.toString(headers));
+                    dataStart = headerEnd;
+                } else {
+                    LOGGER.warn("Expected header row but got null from file: {}", filePath);
+                }
+            }
+
+            int parallelism = getParallelism(formatConfig);
+            List<long[]> chunks = splitIntoChunks(channel, dataStart, size, parallelism);
+            List<List<Object>> parts = parseChunks(channel, chunks, parallelism, formatConfig, charset,
+                                                   jsonLines, headers, filePath);
+
+            int total = 0;
+            for (List<Object> part : parts) {
+                total += part.size();
+            }
+            List<Object> results = new ArrayList<>(total);
+            for (List<Object> part : parts) {
+                results.addAll(part);
+            }
+
+            LOGGER.info("Loaded {} rows from file {} in {} chunks with parallelism {} in {}ms",
+                results.size(), filePath, chunks.size(), parallelism, System.currentTimeMillis() - startTime);
+            return results;
+
+        } catch (IOException e) {
+            LOGGER.error("Failed to load file: {}", filePath, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean supportsFormat(FileFormatConfig formatConfig) {
+        return formatConfig != null && formatConfig.isParallelLoading() &&
+               (JsonDataLoader.isJsonLinesType(formatConfig.getType()) || csvDataLoader.supportsFormat(formatConfig));
+    }
+
+    @Override
+    public String[] getSupportedExtensions() {
+        return new String[]{"csv", "tsv", "jsonl", "ndjson"};
+    }
+
+    /**
+     * Split the data section of the file into chunks that end on line boundaries.
+     */
+    private List<long[]> splitIntoChunks(FileChannel channel, long dataStart, long size, int parallelism)
+            throws IOException {
+        long targetSize = (size - dataStart) / ((long) parallelism * CHUNKS_PER_THREAD);
+        targetSize = Math.min(MAX_CHUNK_BYTES, Math.max(minChunkBytes, targetSize));
+
+        List<long[]> chunks = new ArrayList<>();
+        long start = dataStart;
+        while (start < size) {
+            long end = size - start <= targetSize ? size : nextLineStart(channel, start + targetSize - 1, size);
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Parse the chunks, in parallel if more than one thread is configured, returning the
+     * rows of each chunk in file order.
+     */
+    private List<List<Object>> parseChunks(FileChannel channel, List<long[]> chunks, int parallelism,
+                                           FileFormatConfig formatConfig, Charset charset, boolean jsonLines,
+                                           String[] headers, Path filePath) throws IOException {
+        List<List<Object>> parts = new ArrayList<>(chunks.size());
+        if (parallelism <= 1 || chunks.size() <= 1) {
+            for (long[] chunk : chunks) {
+                parts.add(parseChunk(decode(channel, chunk[0], chunk[1], charset), chunk[0],
+                                     formatConfig, jsonLines, headers, filePath));
+            }
+            return parts;
+        }
+
+        boolean ownPool = formatConfig.getParallelism() != null;
+        ForkJoinPool pool = ownPool ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+        try {
+            List<ForkJoinTask<List<Object>>> tasks = new ArrayList<>(chunks.size());
+            for (long[] chunk : chunks) {
+                tasks.add(pool.submit(() -> parseChunk(decode(channel, chunk[0], chunk[1], charset), chunk[0],
+                                                       formatConfig, jsonLines, headers, filePath)));
+            }
+            for (ForkJoinTask<List<Object>> task : tasks) {
+                parts.add(task.get());
+            }
+            return parts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading file: " + filePath);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to load file: " + filePath, cause);
+        } finally {
+            if (ownPool) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Parse the lines of one decoded chunk.
+     */
+    private List<Object> parseChunk(CharSequence text, long chunkStart, FileFormatConfig formatConfig,
+                                    boolean jsonLines, String[] headers, Path filePath) {
+        CsvDataLoader.RowParser parser = jsonLines ? null : csvDataLoader.rowParser(formatConfig, headers);
+        List<Object> rows = new ArrayList<>();
+        int lineNumber = 0;
+        int lineStart = 0;
+        int length = text.length();
+
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lineNumber++;
+            CharSequence line = stripLineEnding(text.subSequence(lineStart, lineEnd));
+            lineStart = lineEnd + 1;
+
+            if (isBlank(line)) {
+                continue; // Skip empty lines
+            }
+
+            try {
+                rows.add(jsonLines ? OBJECT_MAPPER.readValue(line.toString(), Object.class) : parser.parseRow(line));
+            } catch (Exception e) {
+                LOGGER.warn("Failed to parse line {} of the chunk at byte {} in file {}: {}",
+                    lineNumber, chunkStart, filePath, e.getMessage());
+                // Continue processing other lines
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Load a file whose encoding cannot be split at byte level on the calling thread.
+     */
+    private List<Object> loadUnmapped(Path filePath, FileFormatConfig formatConfig, Charset charset,
+                                      boolean jsonLines, int skipLines) throws IOException {
+        if (!jsonLines) {
+            return csvDataLoader.loadData(filePath, formatConfig);
+        }
+        String content = Files.readString(filePath, charset);
+        int dataStart = 0;
+        for (int i = 0; i < skipLines && dataStart < content.length(); i++) {
+            int lineEnd = content.indexOf('\n', dataStart);
+            dataStart = lineEnd < 0 ? content.length() : lineEnd + 1;
+        }
+        return parseChunk(content.substring(dataStart), 0, formatConfig, true, null, filePath);
+    }
+
+    /**
+     * Map a region of the file and decode it.
+     */
+    private static CharBuffer decode(FileChannel channel, long start, long end, Charset charset) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Line too long to map at byte " + start);
+        }
+        ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        return charset.newDecoder().decode(mapped);
+    }
+
+    /**
+     * Find the start of the line after the one containing the given position.
+     *
+     * @return The position after the next line feed, or the file size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long offset = position;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static CharSequence stripLineEnding(CharSequence line) {
+        int end = line.length();
+        while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return end == line.length() ? line : line.subSequence(0, end);
+    }
+
+    private static boolean isBlank(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getParallelism(FileFormatConfig formatConfig) {
+        if (formatConfig == null || !formatConfig.isParallelLoading()) {
+            return 1;
+        }
+        if (formatConfig.getParallelism() != null) {
+            return Math.max(1, formatConfig.getParallelism());
+        }
+        return Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Check whether line feeds can be found by byte, which holds for UTF-8 and single-byte
+     * ASCII-based encodings.
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset) ||
+               StandardCharsets.ISO_8859_1.equals(charset) ||
+               (charset.newEncoder().maxBytesPerChar() == 1.0f &&
+                Arrays.equals("\n,\"".getBytes(charset), "\n,\"".getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -21,13 +21,19 @@ import dev.mars.apex.core.config.datasource.FileFormatConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * XML data loader implementation.
@@ -36,14 +42,18 @@ import java.util.regex.Pattern;
  * namespace handling, and attribute extraction.
  * 
  * Features:
- * - Root and record element selection
- * - Namespace support
+ * - Record element selection by name or by path (orders/order)
+ * - Namespace support (elements are matched by local name)
  * - Attribute and text content extraction
+ * - Streaming reads with a StAX parser
  * - Custom encoding support
  * - Field mapping
  * 
- * Note: This is a basic XML parser implementation using regex patterns.
- * In production, you would typically use a proper XML parser like DOM or SAX.
+ * Each record element becomes a map: attributes of the record are stored as "@name", child
+ * elements with only text as converted values, child elements with children as nested maps,
+ * repeated elements as lists, and text directly inside the record as "_text". Only one record
+ * is held in memory at a time, so files of any size can be read. DTDs and external entities
+ * are not processed.
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
@@ -53,40 +63,45 @@ public class XmlDataLoader implements DataLoader {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(XmlDataLoader.class);
     
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    
     @Override
     public List<Object> loadData(Path filePath, FileFormatConfig formatConfig) throws IOException {
         List<Object> results = new ArrayList<>();
         
-        // Determine encoding
-        String encoding = formatConfig != null && formatConfig.getEncoding() != null ? 
-            formatConfig.getEncoding() : "UTF-8";
+        try (Stream<Object> records = streamData(filePath, formatConfig)) {
+            records.forEach(results::add);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Failed to parse XML file: {}", filePath, e.getCause());
+            throw e.getCause();
+        }
         
+        LOGGER.debug("Loaded {} objects from XML file: {}", results.size(), filePath);
+        return results;
+    }
+    
+    /**
+     * Stream the record elements of an XML file.
+     * 
+     * The file is closed when the last record has been read or when the stream is closed.
+     * Malformed XML ends the stream with an {@link UncheckedIOException}.
+     */
+    @Override
+    public Stream<Object> streamData(Path filePath, FileFormatConfig formatConfig) throws IOException {
+        XmlRecordReader recordReader;
         try {
-            // Read the entire file content
-            String xmlContent = Files.readString(filePath, Charset.forName(encoding));
-            
-            // Parse XML content
-            List<Map<String, Object>> parsedData = parseXml(xmlContent, formatConfig);
-            
-            // Apply transformations
-            for (Map<String, Object> item : parsedData) {
-                Object transformedItem = applyTransformations(item, formatConfig);
-                if (transformedItem != null) {
-                    results.add(transformedItem);
-                }
-            }
-            
-            LOGGER.debug("Loaded {} objects from XML file: {}", results.size(), filePath);
-            
+            recordReader = new XmlRecordReader(filePath, formatConfig);
         } catch (IOException e) {
             LOGGER.error("Failed to load XML file: {}", filePath, e);
             throw e;
         } catch (Exception e) {
-            LOGGER.error("Failed to parse XML file: {}", filePath, e);
+            LOGGER.error("Failed to load XML file: {}", filePath, e);
             throw new IOException("XML parsing failed", e);
         }
         
-        return results;
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(recordReader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(recordReader::close);
     }
     
     @Override
@@ -101,177 +116,66 @@ public class XmlDataLoader implements DataLoader {
         return new String[]{"xml"};
     }
     
-    /**
-     * Parse XML content into a list of data objects.
-     */
-    private List<Map<String, Object>> parseXml(String xmlContent, FileFormatConfig formatConfig) {
-        List<Map<String, Object>> results = new ArrayList<>();
-        
-        // Get record element name
-        String recordElement = getRecordElement(formatConfig);
-        if (recordElement == null) {
-            LOGGER.warn("No record element specified for XML parsing");
-            return results;
-        }
-        
-        // Find all record elements
-        Pattern recordPattern = Pattern.compile(
-            "<" + recordElement + "(?:\\s[^>]*)?>([\\s\\S]*?)</" + recordElement + ">",
-            Pattern.CASE_INSENSITIVE
-        );
-        
-        Matcher recordMatcher = recordPattern.matcher(xmlContent);
-        
-        while (recordMatcher.find()) {
-            String recordXml = recordMatcher.group(0);
-            Map<String, Object> recordData = parseXmlElement(recordXml, recordElement);
-            if (!recordData.isEmpty()) {
-                results.add(recordData);
-            }
-        }
-        
-        return results;
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
     }
     
     /**
-     * Parse a single XML element into a data map.
+     * Read the content of the element the reader is positioned on, up to its end tag.
+     * 
+     * @return The converted text of an element without children, otherwise a map of its children
      */
-    private Map<String, Object> parseXmlElement(String elementXml, String elementName) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        
-        // Extract attributes from the opening tag
-        Pattern attributePattern = Pattern.compile(
-            "<" + elementName + "(?:\\s([^>]*?))?>[\\s\\S]*",
-            Pattern.CASE_INSENSITIVE
-        );
+    private Object readElement(XMLStreamReader reader, Map<String, Object> result) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean hasChildren = !result.isEmpty();
         
-        Matcher attributeMatcher = attributePattern.matcher(elementXml);
-        if (attributeMatcher.find()) {
-            String attributesString = attributeMatcher.group(1);
-            if (attributesString != null) {
-                Map<String, String> attributes = parseAttributes(attributesString);
-                for (Map.Entry<String, String> attr : attributes.entrySet()) {
-                    result.put("@" + attr.getKey(), attr.getValue());
-                }
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                hasChildren = true;
+                String childName = reader.getLocalName();
+                Object childValue = readElement(reader, new LinkedHashMap<>());
+                addValue(result, childName, childValue);
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                       event == XMLStreamConstants.SPACE) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
             }
         }
         
-        // Extract child elements and text content
-        String innerXml = extractInnerXml(elementXml, elementName);
-        if (innerXml != null) {
-            parseInnerXml(innerXml, result);
-        }
-        
-        return result;
-    }
-    
-    /**
-     * Parse attributes from an attribute string.
-     */
-    private Map<String, String> parseAttributes(String attributesString) {
-        Map<String, String> attributes = new LinkedHashMap<>();
-        
-        Pattern attrPattern = Pattern.compile("(\\w+)\\s*=\\s*[\"']([^\"']*)[\"']");
-        Matcher attrMatcher = attrPattern.matcher(attributesString);
-        
-        while (attrMatcher.find()) {
-            String attrName = attrMatcher.group(1);
-            String attrValue = attrMatcher.group(2);
-            attributes.put(attrName, attrValue);
+        if (!hasChildren) {
+            return convertValue(text.toString().trim());
         }
-        
-        return attributes;
-    }
-    
-    /**
-     * Extract inner XML content from an element.
-     */
-    private String extractInnerXml(String elementXml, String elementName) {
-        Pattern innerPattern = Pattern.compile(
-            "<" + elementName + "(?:\\s[^>]*)?>([\\s\\S]*?)</" + elementName + ">",
-            Pattern.CASE_INSENSITIVE
-        );
-        
-        Matcher innerMatcher = innerPattern.matcher(elementXml);
-        if (innerMatcher.find()) {
-            return innerMatcher.group(1);
+        String remainingText = text.toString().trim();
+        if (!remainingText.isEmpty()) {
+            result.put("_text", convertValue(remainingText));
         }
-        
-        return null;
+        return result;
     }
     
     /**
-     * Parse inner XML content and populate the result map.
+     * Add a child value, collecting repeated elements into a list.
      */
-    private void parseInnerXml(String innerXml, Map<String, Object> result) {
-        // Find all child elements
-        Pattern elementPattern = Pattern.compile("<(\\w+)(?:\\s[^>]*)?>([\\s\\S]*?)</\\1>");
-        Matcher elementMatcher = elementPattern.matcher(innerXml);
-        
-        Set<String> processedElements = new HashSet<>();
-        
-        while (elementMatcher.find()) {
-            String childElementName = elementMatcher.group(1);
-            String childElementContent = elementMatcher.group(2);
-            
-            processedElements.add(childElementName);
-            
-            // Check if this child element contains other elements or just text
-            if (childElementContent.contains("<")) {
-                // Contains child elements - parse recursively
-                Map<String, Object> childData = new LinkedHashMap<>();
-                parseInnerXml(childElementContent, childData);
-                
-                // Handle multiple elements with the same name
-                if (result.containsKey(childElementName)) {
-                    Object existing = result.get(childElementName);
-                    if (existing instanceof List) {
-                        @SuppressWarnings("unchecked")
-                        List<Object> list = (List<Object>) existing;
-                        list.add(childData);
-                    } else {
-                        List<Object> list = new ArrayList<>();
-                        list.add(existing);
-                        list.add(childData);
-                        result.put(childElementName, list);
-                    }
-                } else {
-                    result.put(childElementName, childData);
-                }
+    private void addValue(Map<String, Object> result, String name, Object value) {
+        if (result.containsKey(name)) {
+            Object existing = result.get(name);
+            if (existing instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<Object> list = (List<Object>) existing;
+                list.add(value);
             } else {
-                // Just text content
-                String textValue = childElementContent.trim();
-                Object convertedValue = convertValue(textValue);
-                
-                // Handle multiple elements with the same name
-                if (result.containsKey(childElementName)) {
-                    Object existing = result.get(childElementName);
-                    if (existing instanceof List) {
-                        @SuppressWarnings("unchecked")
-                        List<Object> list = (List<Object>) existing;
-                        list.add(convertedValue);
-                    } else {
-                        List<Object> list = new ArrayList<>();
-                        list.add(existing);
-                        list.add(convertedValue);
-                        result.put(childElementName, list);
-                    }
-                } else {
-                    result.put(childElementName, convertedValue);
-                }
+                List<Object> list = new ArrayList<>();
+                list.add(existing);
+                list.add(value);
+                result.put(name, list);
             }
-        }
-        
-        // Check for text content that's not in child elements
-        String remainingText = innerXml;
-        for (String processedElement : processedElements) {
-            remainingText = remainingText.replaceAll(
-                "<" + processedElement + "(?:\\s[^>]*)?>([\\s\\S]*?)</" + processedElement + ">", "");
-        }
-        
-        remainingText = remainingText.trim();
-        if (!remainingText.isEmpty() && !remainingText.matches("\\s*")) {
-            result.put("_text", convertValue(remainingText));
+        } else {
+            result.put(name, value);
         }
     }
     
@@ -324,7 +228,7 @@ public class XmlDataLoader implements DataLoader {
      * Apply transformations based on format configuration.
      */
     private Object applyTransformations(Map<String, Object> item, FileFormatConfig formatConfig) {
-        if (formatConfig == null || formatConfig.getColumnMappings() == null) {
+        if (formatConfig == null || formatConfig.getColumnMappings() == null || formatConfig.getColumnMappings().isEmpty()) {
             return item;
         }
         
@@ -339,4 +243,133 @@ public class XmlDataLoader implements DataLoader {
         
         return transformedMap;
     }
+    /**
+     * Iterator over the record elements of one XML file.
+     */
+    private final class XmlRecordReader implements Iterator<Object> {
+        
+        private final Path filePath;
+        private final FileFormatConfig formatConfig;
+        private final String[] recordPath;
+        private final InputStream input;
+        private final XMLStreamReader reader;
+        
+        // Local names of the open elements outside the current record
+        private final Deque<String> elementPath = new ArrayDeque<>();
+        private Object nextRecord;
+        private boolean closed;
+        
+        XmlRecordReader(Path filePath, FileFormatConfig formatConfig) throws IOException, XMLStreamException {
+            this.filePath = filePath;
+            this.formatConfig = formatConfig;
+            this.recordPath = getRecordElement(formatConfig).split("/");
+            
+            // Determine encoding
+            String encoding = formatConfig != null && formatConfig.getEncoding() != null ? 
+                formatConfig.getEncoding() : "UTF-8";
+            Charset.forName(encoding); // Fail fast on an unknown encoding, before opening the file
+            
+            this.input = Files.newInputStream(filePath);
+            try {
+                this.reader = XML_INPUT_FACTORY.createXMLStreamReader(input, encoding);
+            } catch (XMLStreamException | RuntimeException e) {
+                input.close();
+                throw e;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (nextRecord == null && !closed) {
+                try {
+                    nextRecord = readRecord();
+                } catch (XMLStreamException e) {
+                    close();
+                    throw new UncheckedIOException(new IOException("XML parsing failed for file: " + filePath, e));
+                }
+            }
+            return nextRecord != null;
+        }
+        
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object record = nextRecord;
+            nextRecord = null;
+            return record;
+        }
+        
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                LOGGER.warn("Failed to close XML reader for {}: {}", filePath, e.getMessage());
+            }
+            try {
+                input.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close XML file {}: {}", filePath, e.getMessage());
+            }
+        }
+        
+        private Object readRecord() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    elementPath.pollLast();
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (!isRecord(name)) {
+                        elementPath.addLast(name);
+                        continue;
+                    }
+                    
+                    Map<String, Object> record = new LinkedHashMap<>();
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        record.put("@" + reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                    }
+                    Object content = readElement(reader, record);
+                    if (!(content instanceof Map)) {
+                        // A record holding only text
+                        if (content == null) {
+                            continue;
+                        }
+                        record.put("_text", content);
+                    }
+                    return applyTransformations(record, formatConfig);
+                }
+            }
+            close();
+            return null;
+        }
+        
+        /**
+         * Check whether an element is a record: its name must match the last part of the
+         * record path, and the enclosing elements the parts before it.
+         */
+        private boolean isRecord(String name) {
+            if (!recordPath[recordPath.length - 1].equalsIgnoreCase(name)) {
+                return false;
+            }
+            if (recordPath.length == 1) {
+                return true;
+            }
+            if (elementPath.size() < recordPath.length - 1) {
+                return false;
+            }
+            Iterator<String> enclosing = elementPath.descendingIterator();
+            for (int i = recordPath.length - 2; i >= 0; i--) {
+                if (!recordPath[i].equalsIgnoreCase(enclosing.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
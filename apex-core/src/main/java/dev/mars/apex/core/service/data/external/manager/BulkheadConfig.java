@@ -0,0 +1,97 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Limits on the asynchronous queries {@link DataSourceManager} runs against one data source.
+ *
+ * Queries beyond the concurrency limit wait in a queue; queries beyond the queue bound are
+ * rejected straight away, so that a stalled data source cannot tie up an unbounded number of
+ * callers. Each query is cancelled if it has not finished within the timeout, including the
+ * time it spent queued.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class BulkheadConfig {
+
+    private int maxConcurrentQueries = 16;
+    private int maxQueuedQueries = 100;
+    private long timeoutMs = 30_000L;
+
+    /**
+     * Default constructor.
+     */
+    public BulkheadConfig() {
+    }
+
+    /**
+     * Constructor with limits.
+     *
+     * @param maxConcurrentQueries The number of queries that may run at once
+     * @param maxQueuedQueries The number of queries that may wait to run
+     * @param timeoutMs The time a query may take, or 0 for no timeout
+     */
+    public BulkheadConfig(int maxConcurrentQueries, int maxQueuedQueries, long timeoutMs) {
+        setMaxConcurrentQueries(maxConcurrentQueries);
+        setMaxQueuedQueries(maxQueuedQueries);
+        setTimeoutMs(timeoutMs);
+    }
+
+    public int getMaxConcurrentQueries() {
+        return maxConcurrentQueries;
+    }
+
+    public void setMaxConcurrentQueries(int maxConcurrentQueries) {
+        if (maxConcurrentQueries <= 0) {
+            throw new IllegalArgumentException("Max concurrent queries must be positive: " + maxConcurrentQueries);
+        }
+        this.maxConcurrentQueries = maxConcurrentQueries;
+    }
+
+    public int getMaxQueuedQueries() {
+        return maxQueuedQueries;
+    }
+
+    public void setMaxQueuedQueries(int maxQueuedQueries) {
+        if (maxQueuedQueries < 0) {
+            throw new IllegalArgumentException("Max queued queries cannot be negative: " + maxQueuedQueries);
+        }
+        this.maxQueuedQueries = maxQueuedQueries;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        if (timeoutMs < 0) {
+            throw new IllegalArgumentException("Timeout cannot be negative: " + timeoutMs);
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadConfig{" +
+               "maxConcurrentQueries=" + maxConcurrentQueries +
+               ", maxQueuedQueries=" + maxQueuedQueries +
+               ", timeoutMs=" + timeoutMs +
+               '}';
+    }
+}
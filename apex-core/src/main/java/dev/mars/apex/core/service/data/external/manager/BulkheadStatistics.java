@@ -0,0 +1,108 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * A snapshot of the asynchronous queries of one data source, see {@link BulkheadConfig}.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class BulkheadStatistics {
+
+    private final String dataSourceName;
+    private final int activeQueries;
+    private final int queuedQueries;
+    private final long completedQueries;
+    private final long rejectedQueries;
+    private final long timedOutQueries;
+    private final int maxConcurrentQueries;
+    private final int maxQueuedQueries;
+
+    public BulkheadStatistics(String dataSourceName, int activeQueries, int queuedQueries,
+                              long completedQueries, long rejectedQueries, long timedOutQueries,
+                              int maxConcurrentQueries, int maxQueuedQueries) {
+        this.dataSourceName = dataSourceName;
+        this.activeQueries = activeQueries;
+        this.queuedQueries = queuedQueries;
+        this.completedQueries = completedQueries;
+        this.rejectedQueries = rejectedQueries;
+        this.timedOutQueries = timedOutQueries;
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        this.maxQueuedQueries = maxQueuedQueries;
+    }
+
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * Get the number of queries running.
+     */
+    public int getActiveQueries() {
+        return activeQueries;
+    }
+
+    /**
+     * Get the number of queries waiting to run.
+     */
+    public int getQueuedQueries() {
+        return queuedQueries;
+    }
+
+    /**
+     * Get the number of queries that finished, successfully or not, excluding timeouts.
+     */
+    public long getCompletedQueries() {
+        return completedQueries;
+    }
+
+    /**
+     * Get the number of queries rejected because the queue was full.
+     */
+    public long getRejectedQueries() {
+        return rejectedQueries;
+    }
+
+    /**
+     * Get the number of queries cancelled because they exceeded the timeout.
+     */
+    public long getTimedOutQueries() {
+        return timedOutQueries;
+    }
+
+    public int getMaxConcurrentQueries() {
+        return maxConcurrentQueries;
+    }
+
+    public int getMaxQueuedQueries() {
+        return maxQueuedQueries;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkheadStatistics{" +
+               "dataSourceName='" + dataSourceName + '\'' +
+               ", activeQueries=" + activeQueries + "/" + maxConcurrentQueries +
+               ", queuedQueries=" + queuedQueries + "/" + maxQueuedQueries +
+               ", completedQueries=" + completedQueries +
+               ", rejectedQueries=" + rejectedQueries +
+               ", timedOutQueries=" + timedOutQueries +
+               '}';
+    }
+}
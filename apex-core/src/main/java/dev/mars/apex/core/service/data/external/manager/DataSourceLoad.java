@@ -0,0 +1,172 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.ConnectionStatus;
+import dev.mars.apex.core.service.data.external.ExternalDataSource;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The load on one data source, as seen by the queries that {@link DataSourceManager} runs
+ * against it.
+ *
+ * Tracks the number of queries in flight, an exponentially weighted moving average (EWMA) of
+ * query latency, and the latencies of the most recent queries, from which percentiles are
+ * taken. Until the manager has run a query against the data source, its latency is taken from
+ * the data source's own {@link dev.mars.apex.core.service.data.external.DataSourceMetrics}.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class DataSourceLoad {
+
+    // Weight of the newest sample in the moving average
+    private static final double EWMA_ALPHA = 0.2;
+
+    // A failed query counts as at least this many times the current average, so that a data
+    // source failing fast does not look like the quickest one
+    private static final double FAILURE_PENALTY = 2.0;
+
+    private static final int LATENCY_WINDOW = 128;
+
+    private final ExternalDataSource dataSource;
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToLongBits(Double.NaN));
+    private volatile boolean healthy = true;
+
+    // Recent latencies in nanoseconds, guarded by this
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int nextLatency;
+
+    DataSourceLoad(ExternalDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public ExternalDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public String getName() {
+        return dataSource.getName();
+    }
+
+    /**
+     * Get the number of queries the manager is running against the data source.
+     */
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * Get the moving average query latency in milliseconds, or the data source's own average
+     * response time if the manager has not run a query against it yet.
+     */
+    public double getEwmaLatencyMillis() {
+        double ewma = Double.longBitsToDouble(ewmaLatencyBits.get());
+        if (Double.isNaN(ewma)) {
+            return dataSource.getMetrics().getAverageResponseTime();
+        }
+        return ewma;
+    }
+
+    /**
+     * Get a latency percentile over the most recent successful queries.
+     *
+     * @param percentile The percentile, between 0 and 1
+     * @param minSamples The number of samples required for a meaningful result
+     * @return The latency in milliseconds, or -1 if there are fewer than minSamples samples
+     */
+    public double getLatencyPercentileMillis(double percentile, int minSamples) {
+        long[] samples;
+        synchronized (this) {
+            if (latencyCount < Math.max(1, minSamples)) {
+                return -1;
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile * samples.length) - 1;
+        return samples[Math.max(0, Math.min(index, samples.length - 1))] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Get the expected cost of sending one more query: the average latency scaled by the
+     * number of queries already waiting on the data source.
+     */
+    public double getCost() {
+        return getEwmaLatencyMillis() * (getOutstandingRequests() + 1);
+    }
+
+    /**
+     * Check whether the data source can take queries: the registry's last health check passed
+     * and its connection status is operational. Unlike {@link ExternalDataSource#isHealthy()},
+     * this does not contact the data source.
+     */
+    public boolean isAvailable() {
+        if (!healthy) {
+            return false;
+        }
+        ConnectionStatus status = dataSource.getConnectionStatus();
+        return status == null || (status.isOperational() && !status.hasError());
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void requestStarted() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    void requestFinished(long latencyNanos, boolean success) {
+        outstandingRequests.decrementAndGet();
+
+        double sampleMillis = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        long currentBits;
+        double updated;
+        do {
+            currentBits = ewmaLatencyBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double sample = success || Double.isNaN(current) ? sampleMillis : Math.max(sampleMillis, current * FAILURE_PENALTY);
+            updated = Double.isNaN(current) ? sample : current + EWMA_ALPHA * (sample - current);
+        } while (!ewmaLatencyBits.compareAndSet(currentBits, Double.doubleToLongBits(updated)));
+
+        if (success) {
+            synchronized (this) {
+                latencies[nextLatency] = latencyNanos;
+                nextLatency = (nextLatency + 1) % LATENCY_WINDOW;
+                latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DataSourceLoad{" +
+               "name='" + getName() + '\'' +
+               ", outstandingRequests=" + getOutstandingRequests() +
+               ", ewmaLatencyMillis=" + String.format("%.2f", getEwmaLatencyMillis()) +
+               ", healthy=" + healthy +
+               '}';
+    }
+}
@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -42,7 +44,8 @@ import java.util.stream.Collectors;
  * Features:
  * - Centralized data source lifecycle management
  * - Health monitoring and automatic recovery
- * - Load balancing and failover capabilities
+ * - Latency-aware load balancing, failover and hedged queries
+ * - Bounded asynchronous queries on virtual threads, with per data source bulkheads
  * - Resource pooling and optimization
  * - Event-driven notifications
  * - Performance monitoring and metrics
@@ -68,10 +71,23 @@ public class DataSourceManager implements DataSourceRegistryListener {
     // Background tasks
     private ScheduledExecutorService managementExecutor;
     private final ExecutorService queryExecutor;
+    private final ScheduledExecutorService timeoutScheduler;
     
-    // Load balancing and failover
-    private final Map<DataSourceType, List<String>> typeGroups = new ConcurrentHashMap<>();
-    private final Map<String, Integer> loadBalancingCounters = new ConcurrentHashMap<>();
+    // Asynchronous query limits per data source
+    private final Map<String, QueryBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, BulkheadConfig> bulkheadConfigs = new ConcurrentHashMap<>();
+    private volatile BulkheadConfig defaultBulkheadConfig = new BulkheadConfig();
+    
+    // Load balancing and failover; type groups are replaced, never modified, so readers
+    // need no locking
+    private volatile Map<DataSourceType, List<DataSourceLoad>> typeGroups = Collections.emptyMap();
+    private final Map<String, DataSourceLoad> loads = new ConcurrentHashMap<>();
+    private volatile LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategies.roundRobin();
+
+    // Hedged queries; a percentile of zero means hedging is disabled
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private volatile double hedgePercentile;
+    private final AtomicLong hedgedRequests = new AtomicLong();
     
     // Event listeners
     private final List<DataSourceManagerListener> listeners = new ArrayList<>();
@@ -92,11 +108,16 @@ public class DataSourceManager implements DataSourceRegistryListener {
     public DataSourceManager(DataSourceRegistry registry, DataSourceFactory factory) {
         this.registry = registry;
         this.factory = factory;
-        this.queryExecutor = Executors.newCachedThreadPool(r -> {
-            Thread thread = new Thread(r, "DataSourceManager-Query");
+        // Queries block on I/O, so each gets a virtual thread; the bulkheads bound how many
+        this.queryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("DataSourceManager-Query-", 0).factory());
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "DataSourceManager-Timeout");
             thread.setDaemon(true);
             return thread;
         });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.timeoutScheduler = scheduler;
         
         // Register as a registry listener
         registry.addListener(this);
@@ -176,6 +197,7 @@ public class DataSourceManager implements DataSourceRegistryListener {
         if (removed) {
             configurations.remove(name);
             metricsCache.remove(name);
+            bulkheads.remove(name);
             
             // Update type groups
             updateTypeGroups();
@@ -225,45 +247,24 @@ public class DataSourceManager implements DataSourceRegistryListener {
      * @return A data source instance, or null if none available
      */
     public ExternalDataSource getDataSourceWithLoadBalancing(DataSourceType type) {
-        List<String> typeGroup = typeGroups.get(type);
+        List<DataSourceLoad> typeGroup = typeGroups.get(type);
         if (typeGroup == null || typeGroup.isEmpty()) {
             return null;
         }
 
-        // Create a snapshot of the list to avoid concurrent modification issues
-        List<String> snapshot;
-        synchronized (typeGroup) {
-            snapshot = new ArrayList<>(typeGroup);
-        }
-
-        if (snapshot.isEmpty()) {
-            return null;
-        }
-
-        // Simple round-robin load balancing
-        String typeKey = type.name();
-        int counter = loadBalancingCounters.compute(typeKey, (k, v) -> (v == null ? 0 : v + 1));
-        int index = counter % snapshot.size();
-
-        String selectedName = snapshot.get(index);
-        ExternalDataSource dataSource = registry.getDataSource(selectedName);
-
-        // If the selected data source is unhealthy, try to find a healthy one
-        if (dataSource == null || !dataSource.isHealthy()) {
-            for (String name : snapshot) {
-                ExternalDataSource candidate = registry.getDataSource(name);
-                if (candidate != null && candidate.isHealthy()) {
-                    return candidate;
-                }
-            }
-        }
-
-        return dataSource;
+        // If no data source is healthy, choose between all of them as before
+        List<DataSourceLoad> candidates = getAvailableLoads(typeGroup);
+        return loadBalancingStrategy.select(candidates.isEmpty() ? typeGroup : candidates).getDataSource();
     }
     
     /**
      * Execute a query with automatic failover.
      * 
+     * The load balancing strategy chooses the first data source to query; if it fails, the
+     * others are tried in order of their expected cost. When hedged queries are enabled and
+     * the first query takes longer than the chosen percentile of its recent latencies, the
+     * same query is sent to the next data source and the first successful result is used.
+     * 
      * @param type The data source type
      * @param query The query to execute
      * @param parameters Query parameters
@@ -274,21 +275,42 @@ public class DataSourceManager implements DataSourceRegistryListener {
     public <T> List<T> queryWithFailover(DataSourceType type, String query, 
                                         Map<String, Object> parameters) throws DataSourceException {
         
-        List<ExternalDataSource> dataSources = getHealthyDataSourcesByType(type);
-        if (dataSources.isEmpty()) {
+        List<DataSourceLoad> candidates = getAvailableLoads(typeGroups.getOrDefault(type, Collections.emptyList()));
+        if (candidates.isEmpty()) {
             throw new DataSourceException(DataSourceException.ErrorType.CONNECTION_ERROR,
                 "No healthy data sources available for type: " + type);
         }
         
+        DataSourceLoad first = loadBalancingStrategy.select(candidates);
+        List<DataSourceLoad> ordered = new ArrayList<>(candidates.size());
+        ordered.add(first);
+        candidates.stream()
+            .filter(load -> load != first)
+            .sorted(Comparator.comparingDouble(DataSourceLoad::getCost))
+            .forEach(ordered::add);
+        
         DataSourceException lastException = null;
         
-        for (ExternalDataSource dataSource : dataSources) {
+        for (int i = 0; i < ordered.size(); i++) {
+            DataSourceLoad load = ordered.get(i);
             try {
-                return dataSource.query(query, parameters);
+                if (i == 0 && ordered.size() > 1 && hedgePercentile > 0) {
+                    HedgedResult<T> hedged = queryHedged(load, ordered.get(1), query, parameters);
+                    if (hedged.backupUsed) {
+                        // The backup has been tried already
+                        i++;
+                    }
+                    if (hedged.exception == null) {
+                        return hedged.results;
+                    }
+                    lastException = hedged.exception;
+                    continue;
+                }
+                return executeTracked(load, query, parameters);
             } catch (DataSourceException e) {
                 lastException = e;
                 LOGGER.warn("Query failed on data source '{}', trying next: {}", 
-                    dataSource.getName(), e.getMessage());
+                    load.getName(), e.getMessage());
             }
         }
         
@@ -296,9 +318,86 @@ public class DataSourceManager implements DataSourceRegistryListener {
             "All data sources failed for type: " + type, lastException);
     }
     
+    /**
+     * Set the strategy that chooses between data sources of the same type.
+     * 
+     * @param strategy The strategy, see {@link LoadBalancingStrategies}
+     */
+    public void setLoadBalancingStrategy(LoadBalancingStrategy strategy) {
+        this.loadBalancingStrategy = Objects.requireNonNull(strategy, "strategy");
+    }
+    
+    /**
+     * Get the strategy that chooses between data sources of the same type.
+     * 
+     * @return The load balancing strategy, round robin by default
+     */
+    public LoadBalancingStrategy getLoadBalancingStrategy() {
+        return loadBalancingStrategy;
+    }
+    
+    /**
+     * Send a second query to another data source of the same type when the first query of
+     * {@link #queryWithFailover} is slower than usual.
+     * 
+     * A query is hedged once it has run for longer than the given percentile of the recent
+     * latencies of its data source; until a data source has enough recent queries, queries to
+     * it are not hedged. Hedging trades extra load for a shorter tail latency, so percentiles
+     * such as 0.95 or 0.99 keep the extra queries to a few percent.
+     * 
+     * @param percentile The latency percentile, greater than 0 and less than 1
+     */
+    public void enableHedgedRequests(double percentile) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1: " + percentile);
+        }
+        this.hedgePercentile = percentile;
+    }
+    
+    /**
+     * Stop hedging queries.
+     */
+    public void disableHedgedRequests() {
+        this.hedgePercentile = 0;
+    }
+    
+    /**
+     * Check whether queries are hedged.
+     * 
+     * @return true if hedged queries are enabled
+     */
+    public boolean isHedgedRequestsEnabled() {
+        return hedgePercentile > 0;
+    }
+    
+    /**
+     * Get the number of queries that were sent to a second data source because the first was
+     * slow.
+     * 
+     * @return The number of hedged queries
+     */
+    public long getHedgedRequestCount() {
+        return hedgedRequests.get();
+    }
+    
+    /**
+     * Get the load the manager has placed on a data source.
+     * 
+     * @param name The name of the data source
+     * @return The load, or null if the data source is not registered
+     */
+    public DataSourceLoad getDataSourceLoad(String name) {
+        return loads.get(name);
+    }
+    
     /**
      * Execute a query asynchronously.
      * 
+     * The query runs on a virtual thread within the bulkhead of the data source, see
+     * {@link #setBulkheadConfig(String, BulkheadConfig)}. The future fails with a
+     * {@link DataSourceException} if the bulkhead is full or the query times out, and
+     * cancelling it cancels the query.
+     * 
      * @param dataSourceName The name of the data source
      * @param query The query to execute
      * @param parameters Query parameters
@@ -308,18 +407,58 @@ public class DataSourceManager implements DataSourceRegistryListener {
     public <T> CompletableFuture<List<T>> queryAsync(String dataSourceName, String query, 
                                                     Map<String, Object> parameters) {
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ExternalDataSource dataSource = registry.getDataSource(dataSourceName);
-                if (dataSource == null) {
-                    throw new RuntimeException("Data source not found: " + dataSourceName);
-                }
-                
-                return dataSource.query(query, parameters);
-            } catch (Exception e) {
-                throw new RuntimeException("Async query failed", e);
+        ExternalDataSource dataSource = registry.getDataSource(dataSourceName);
+        if (dataSource == null) {
+            return CompletableFuture.failedFuture(new DataSourceException(DataSourceException.ErrorType.NOT_FOUND_ERROR,
+                "Data source not found: " + dataSourceName));
+        }
+        
+        QueryBulkhead bulkhead = bulkheads.computeIfAbsent(dataSourceName, name ->
+            new QueryBulkhead(name, bulkheadConfigs.getOrDefault(name, defaultBulkheadConfig), queryExecutor, timeoutScheduler));
+        return bulkhead.submit(() -> {
+            DataSourceLoad load = loads.get(dataSourceName);
+            if (load != null && load.getDataSource() == dataSource) {
+                return executeTracked(load, query, parameters);
             }
-        }, queryExecutor);
+            return dataSource.query(query, parameters);
+        });
+    }
+    
+    /**
+     * Set the limits on asynchronous queries against data sources without limits of their own.
+     * Statistics of the data sources affected start again from zero.
+     * 
+     * @param config The limits
+     */
+    public void setDefaultBulkheadConfig(BulkheadConfig config) {
+        this.defaultBulkheadConfig = Objects.requireNonNull(config, "config");
+        bulkheads.keySet().removeIf(name -> !bulkheadConfigs.containsKey(name));
+    }
+    
+    /**
+     * Get the limits on asynchronous queries against data sources without limits of their own.
+     * 
+     * @return The default limits
+     */
+    public BulkheadConfig getDefaultBulkheadConfig() {
+        return defaultBulkheadConfig;
+    }
+    
+    /**
+     * Set the limits on asynchronous queries against one data source. Queries already
+     * submitted keep the previous limits, and the statistics of the data source start again
+     * from zero.
+     * 
+     * @param dataSourceName The name of the data source
+     * @param config The limits, or null to use the default limits
+     */
+    public void setBulkheadConfig(String dataSourceName, BulkheadConfig config) {
+        if (config == null) {
+            bulkheadConfigs.remove(dataSourceName);
+        } else {
+            bulkheadConfigs.put(dataSourceName, config);
+        }
+        bulkheads.remove(dataSourceName);
     }
     
     /**
@@ -383,11 +522,18 @@ public class DataSourceManager implements DataSourceRegistryListener {
             }
         }
         
+        Map<String, BulkheadStatistics> bulkheadStats = new HashMap<>();
+        for (QueryBulkhead bulkhead : bulkheads.values()) {
+            BulkheadStatistics stats = bulkhead.getStatistics();
+            bulkheadStats.put(stats.getDataSourceName(), stats);
+        }
+        
         return new DataSourceManagerStatistics(
             registryStats,
             currentMetrics,
             typeGroups.size(),
-            LocalDateTime.now()
+            LocalDateTime.now(),
+            bulkheadStats
         );
     }
     
@@ -456,6 +602,7 @@ public class DataSourceManager implements DataSourceRegistryListener {
             queryExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
+        timeoutScheduler.shutdownNow();
         
         // Shutdown registry (which will shutdown all data sources)
         registry.shutdown();
@@ -463,8 +610,9 @@ public class DataSourceManager implements DataSourceRegistryListener {
         // Clear state
         configurations.clear();
         metricsCache.clear();
-        typeGroups.clear();
-        loadBalancingCounters.clear();
+        typeGroups = Collections.emptyMap();
+        loads.clear();
+        bulkheads.clear();
         
         synchronized (listeners) {
             listeners.clear();
@@ -486,15 +634,18 @@ public class DataSourceManager implements DataSourceRegistryListener {
                 break;
 
             case UNREGISTERED:
+                bulkheads.remove(event.getDataSourceName());
                 updateTypeGroups();
                 notifyListeners(DataSourceManagerEvent.dataSourceRemoved(event.getDataSourceName()));
                 break;
 
             case HEALTH_RESTORED:
+                setHealthy(event.getDataSourceName(), true);
                 notifyListeners(DataSourceManagerEvent.healthRestored(event.getDataSourceName()));
                 break;
 
             case HEALTH_LOST:
+                setHealthy(event.getDataSourceName(), false);
                 notifyListeners(DataSourceManagerEvent.healthLost(event.getDataSourceName()));
                 break;
         }
@@ -531,16 +682,154 @@ public class DataSourceManager implements DataSourceRegistryListener {
     /**
      * Update type groups for load balancing.
      */
-    private void updateTypeGroups() {
-        typeGroups.clear();
+    private synchronized void updateTypeGroups() {
+        Map<DataSourceType, List<DataSourceLoad>> groups = new EnumMap<>(DataSourceType.class);
+        Set<String> names = new TreeSet<>(registry.getDataSourceNames());
 
-        for (String name : registry.getDataSourceNames()) {
+        for (String name : names) {
             ExternalDataSource dataSource = registry.getDataSource(name);
             if (dataSource != null) {
-                DataSourceType type = dataSource.getSourceType();
-                typeGroups.computeIfAbsent(type, k -> Collections.synchronizedList(new ArrayList<>())).add(name);
+                // Keep the load of a data source across updates, unless it was replaced
+                DataSourceLoad load = loads.compute(name, (key, existing) ->
+                    existing != null && existing.getDataSource() == dataSource ? existing : new DataSourceLoad(dataSource));
+                groups.computeIfAbsent(dataSource.getSourceType(), k -> new ArrayList<>()).add(load);
             }
         }
+        loads.keySet().retainAll(names);
+
+        groups.replaceAll((type, group) -> Collections.unmodifiableList(group));
+        typeGroups = Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * Get the data sources of a group that can take queries.
+     *
+     * Health comes from the registry's health events rather than from probing each data
+     * source, which for some types is a network call or a new connection.
+     */
+    private List<DataSourceLoad> getAvailableLoads(List<DataSourceLoad> group) {
+        List<DataSourceLoad> available = new ArrayList<>(group.size());
+        for (DataSourceLoad load : group) {
+            if (load.isAvailable()) {
+                available.add(load);
+            }
+        }
+        return available;
+    }
+
+    private void setHealthy(String name, boolean healthy) {
+        DataSourceLoad load = loads.get(name);
+        if (load != null) {
+            load.setHealthy(healthy);
+        }
+    }
+
+    /**
+     * Run a query on the calling thread, recording its latency against the data source.
+     */
+    private <T> List<T> executeTracked(DataSourceLoad load, String query,
+                                       Map<String, Object> parameters) throws DataSourceException {
+        long start = System.nanoTime();
+        load.requestStarted();
+        boolean success = false;
+        try {
+            List<T> results = load.getDataSource().query(query, parameters);
+            success = true;
+            return results;
+        } finally {
+            load.requestFinished(System.nanoTime() - start, success);
+        }
+    }
+
+    private <T> CompletableFuture<List<T>> submitTracked(DataSourceLoad load, String query,
+                                                         Map<String, Object> parameters) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return executeTracked(load, query, parameters);
+            } catch (DataSourceException e) {
+                throw new CompletionException(e);
+            }
+        }, queryExecutor);
+    }
+
+    /**
+     * Query the primary data source, and the backup as well if the primary is slower than the
+     * hedge percentile of its recent latencies. The slower of two queries is left to finish in
+     * the background, so that its latency is still recorded.
+     */
+    private <T> HedgedResult<T> queryHedged(DataSourceLoad primary, DataSourceLoad backup, String query,
+                                            Map<String, Object> parameters) throws DataSourceException {
+        double thresholdMillis = primary.getLatencyPercentileMillis(hedgePercentile, MIN_HEDGE_SAMPLES);
+        if (thresholdMillis < 0) {
+            return new HedgedResult<>(executeTracked(primary, query, parameters), null, false);
+        }
+
+        CompletableFuture<List<T>> primaryQuery = submitTracked(primary, query, parameters);
+        try {
+            return new HedgedResult<>(primaryQuery.get((long) (thresholdMillis * 1_000_000), TimeUnit.NANOSECONDS), null, false);
+        } catch (TimeoutException e) {
+            // Slower than usual, hedge below
+        } catch (ExecutionException e) {
+            throw toDataSourceException(primary, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+                "Interrupted while querying data source: " + primary.getName(), e);
+        }
+
+        hedgedRequests.incrementAndGet();
+        LOGGER.debug("Query on data source '{}' exceeded {}ms, hedging on '{}'",
+            primary.getName(), String.format("%.1f", thresholdMillis), backup.getName());
+        CompletableFuture<List<T>> backupQuery = submitTracked(backup, query, parameters);
+
+        // Complete with the first success, or with the last failure if both fail
+        CompletableFuture<List<T>> firstSuccess = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<List<T>> attempt : List.of(primaryQuery, backupQuery)) {
+            attempt.whenComplete((results, error) -> {
+                if (error == null) {
+                    firstSuccess.complete(results);
+                } else if (failures.incrementAndGet() == 2) {
+                    firstSuccess.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            return new HedgedResult<>(firstSuccess.get(), null, true);
+        } catch (ExecutionException e) {
+            LOGGER.warn("Hedged query failed on data sources '{}' and '{}': {}",
+                primary.getName(), backup.getName(), e.getCause().getMessage());
+            return new HedgedResult<>(null, toDataSourceException(backup, e.getCause()), true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+                "Interrupted while querying data source: " + primary.getName(), e);
+        }
+    }
+
+    private static DataSourceException toDataSourceException(DataSourceLoad load, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DataSourceException) {
+            return (DataSourceException) cause;
+        }
+        return new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+            "Query failed on data source: " + load.getName(), cause);
+    }
+
+    /**
+     * The outcome of a possibly hedged query.
+     */
+    private static final class HedgedResult<T> {
+        private final List<T> results;
+        private final DataSourceException exception;
+        private final boolean backupUsed;
+
+        HedgedResult(List<T> results, DataSourceException exception, boolean backupUsed) {
+            this.results = results;
+            this.exception = exception;
+            this.backupUsed = backupUsed;
+        }
     }
 
     /**
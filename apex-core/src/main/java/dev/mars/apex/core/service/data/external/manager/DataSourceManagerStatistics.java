@@ -42,6 +42,7 @@ public class DataSourceManagerStatistics {
     private final Map<String, DataSourceMetrics> dataSourceMetrics;
     private final int typeGroupCount;
     private final LocalDateTime snapshotTime;
+    private final Map<String, BulkheadStatistics> bulkheadStatistics;
     
     /**
      * Constructor for manager statistics.
@@ -55,10 +56,28 @@ public class DataSourceManagerStatistics {
                                       Map<String, DataSourceMetrics> dataSourceMetrics,
                                       int typeGroupCount,
                                       LocalDateTime snapshotTime) {
+        this(registryStatistics, dataSourceMetrics, typeGroupCount, snapshotTime, Collections.emptyMap());
+    }
+    
+    /**
+     * Constructor for manager statistics including asynchronous queries.
+     * 
+     * @param registryStatistics Statistics from the registry
+     * @param dataSourceMetrics Metrics from individual data sources
+     * @param typeGroupCount Number of type groups for load balancing
+     * @param snapshotTime Time when the statistics were captured
+     * @param bulkheadStatistics Asynchronous query statistics by data source name
+     */
+    public DataSourceManagerStatistics(RegistryStatistics registryStatistics,
+                                      Map<String, DataSourceMetrics> dataSourceMetrics,
+                                      int typeGroupCount,
+                                      LocalDateTime snapshotTime,
+                                      Map<String, BulkheadStatistics> bulkheadStatistics) {
         this.registryStatistics = registryStatistics;
         this.dataSourceMetrics = new HashMap<>(dataSourceMetrics);
         this.typeGroupCount = typeGroupCount;
         this.snapshotTime = snapshotTime;
+        this.bulkheadStatistics = new HashMap<>(bulkheadStatistics);
     }
     
     /**
@@ -216,6 +235,48 @@ public class DataSourceManagerStatistics {
             .sum();
     }
     
+    /**
+     * Get the asynchronous query statistics of all data sources that have run asynchronous
+     * queries.
+     * 
+     * @return Bulkhead statistics by data source name
+     */
+    public Map<String, BulkheadStatistics> getBulkheadStatistics() {
+        return Collections.unmodifiableMap(bulkheadStatistics);
+    }
+    
+    /**
+     * Get the asynchronous query statistics of a data source.
+     * 
+     * @param dataSourceName The name of the data source
+     * @return Bulkhead statistics, or null if the data source has not run asynchronous queries
+     */
+    public BulkheadStatistics getBulkheadStatistics(String dataSourceName) {
+        return bulkheadStatistics.get(dataSourceName);
+    }
+    
+    /**
+     * Get the number of asynchronous queries waiting to run across all data sources.
+     * 
+     * @return Total queued queries
+     */
+    public int getTotalQueuedQueries() {
+        return bulkheadStatistics.values().stream()
+            .mapToInt(BulkheadStatistics::getQueuedQueries)
+            .sum();
+    }
+    
+    /**
+     * Get the number of asynchronous queries rejected across all data sources.
+     * 
+     * @return Total rejected queries
+     */
+    public long getTotalRejectedQueries() {
+        return bulkheadStatistics.values().stream()
+            .mapToLong(BulkheadStatistics::getRejectedQueries)
+            .sum();
+    }
+    
     /**
      * Get a summary string of the statistics.
      * 
@@ -243,6 +304,8 @@ public class DataSourceManagerStatistics {
                ", successRate=" + String.format("%.1f%%", getOverallSuccessRate()) +
                ", cacheHitRate=" + String.format("%.1f%%", getOverallCacheHitRate()) +
                ", avgResponseTime=" + String.format("%.2fms", getAverageResponseTime()) +
+               ", queuedQueries=" + getTotalQueuedQueries() +
+               ", rejectedQueries=" + getTotalRejectedQueries() +
                ", snapshotTime=" + snapshotTime +
                '}';
     }
@@ -0,0 +1,110 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The built-in load balancing strategies of {@link DataSourceManager}.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class LoadBalancingStrategies {
+
+    private LoadBalancingStrategies() {
+    }
+
+    /**
+     * Choose the data sources in turn, regardless of their load.
+     */
+    public static LoadBalancingStrategy roundRobin() {
+        AtomicInteger counter = new AtomicInteger();
+        return candidates -> candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Choose the data source with the fewest queries in flight, preferring the lower average
+     * latency between data sources that are equally busy.
+     */
+    public static LoadBalancingStrategy leastOutstandingRequests() {
+        return candidates -> {
+            // Start at a random candidate so that ties do not all go to the first data source
+            int start = ThreadLocalRandom.current().nextInt(candidates.size());
+            DataSourceLoad best = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                DataSourceLoad candidate = candidates.get((start + i) % candidates.size());
+                if (best == null
+                    || candidate.getOutstandingRequests() < best.getOutstandingRequests()
+                    || (candidate.getOutstandingRequests() == best.getOutstandingRequests()
+                        && candidate.getEwmaLatencyMillis() < best.getEwmaLatencyMillis())) {
+                    best = candidate;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Choose the data source with the lowest {@link DataSourceLoad#getCost() cost}, its moving
+     * average latency scaled by its queries in flight. Scaling by the queries in flight keeps
+     * the fastest data source from receiving every query until its latency rises.
+     */
+    public static LoadBalancingStrategy ewmaLatency() {
+        return candidates -> {
+            int start = ThreadLocalRandom.current().nextInt(candidates.size());
+            DataSourceLoad best = null;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < candidates.size(); i++) {
+                DataSourceLoad candidate = candidates.get((start + i) % candidates.size());
+                double cost = candidate.getCost();
+                if (best == null || cost < bestCost) {
+                    best = candidate;
+                    bestCost = cost;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Pick two data sources at random and choose the one with the lower
+     * {@link DataSourceLoad#getCost() cost}. This avoids the herding of always choosing the
+     * least loaded data source when the load figures are slightly out of date, while still
+     * steering queries away from slow data sources.
+     */
+    public static LoadBalancingStrategy powerOfTwoChoices() {
+        return candidates -> {
+            int size = candidates.size();
+            if (size == 1) {
+                return candidates.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            DataSourceLoad a = candidates.get(first);
+            DataSourceLoad b = candidates.get(second);
+            return b.getCost() < a.getCost() ? b : a;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+
+/**
+ * Chooses which of several data sources of the same type receives a query.
+ *
+ * Built-in strategies are created by {@link LoadBalancingStrategies}. Strategies are called
+ * concurrently and must be thread-safe.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface LoadBalancingStrategy {
+
+    /**
+     * Choose a data source.
+     *
+     * @param candidates The data sources to choose from, never empty
+     * @return The chosen data source, one of the candidates
+     */
+    DataSourceLoad select(List<DataSourceLoad> candidates);
+}
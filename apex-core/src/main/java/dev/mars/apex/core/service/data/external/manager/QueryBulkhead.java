@@ -0,0 +1,167 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.QueryContext;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the asynchronous queries {@link DataSourceManager} runs against one data source.
+ *
+ * Every admitted query gets its own thread from the executor, which is cheap with virtual
+ * threads, and waits on a semaphore for one of the concurrency permits. Admission is bounded
+ * by the concurrency limit plus the queue bound, so a stalled data source holds at most that
+ * many threads. Queries run inside a {@link QueryContext}, so that a timeout or a cancelled
+ * future reaches the blocking call of the data source.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class QueryBulkhead {
+
+    private final String name;
+    private final BulkheadConfig config;
+    private final Executor executor;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final Semaphore permits;
+
+    // Queries admitted and not yet finished, running or queued
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    QueryBulkhead(String name, BulkheadConfig config, Executor executor, ScheduledExecutorService timeoutScheduler) {
+        this.name = name;
+        this.config = config;
+        this.executor = executor;
+        this.timeoutScheduler = timeoutScheduler;
+        this.permits = new Semaphore(config.getMaxConcurrentQueries(), true);
+    }
+
+    /**
+     * Run a query once a permit is free.
+     *
+     * @param task The query
+     * @return A future completed with the result of the query, or failed with a
+     *         {@link DataSourceException} if the query was rejected or timed out. Cancelling
+     *         the future cancels the query.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task) {
+        int limit = config.getMaxConcurrentQueries() + config.getMaxQueuedQueries();
+        if (pending.incrementAndGet() > limit) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new DataSourceException(DataSourceException.ErrorType.CONNECTION_ERROR,
+                "Too many queries waiting for data source '" + name + "', limit is " + limit));
+        }
+
+        queued.incrementAndGet();
+        QueryContext context = new QueryContext(config.getTimeoutMs());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Set by whichever of the query and its timeout finishes first, which counts the outcome
+        // before completing the future so that statistics are current once the caller sees it
+        AtomicBoolean settled = new AtomicBoolean();
+        ScheduledFuture<?> timeout = null;
+        if (config.getTimeoutMs() > 0) {
+            timeout = timeoutScheduler.schedule(() -> {
+                if (settled.compareAndSet(false, true)) {
+                    timedOut.incrementAndGet();
+                    result.completeExceptionally(new DataSourceException(DataSourceException.ErrorType.TIMEOUT_ERROR,
+                        "Query on data source '" + name + "' timed out after " + config.getTimeoutMs() + "ms"));
+                }
+            }, config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        }
+        ScheduledFuture<?> pendingTimeout = timeout;
+        result.whenComplete((value, error) -> {
+            if (pendingTimeout != null) {
+                pendingTimeout.cancel(false);
+            }
+            if (error != null) {
+                // Timed out or cancelled by the caller; a no-op once the query has finished
+                context.cancel();
+            }
+        });
+
+        try {
+            executor.execute(() -> run(task, context, settled, result));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            pending.decrementAndGet();
+            result.completeExceptionally(new DataSourceException(DataSourceException.ErrorType.CONNECTION_ERROR,
+                "Query executor is shut down", e));
+        }
+        return result;
+    }
+
+    private <T> void run(Callable<T> task, QueryContext context, AtomicBoolean settled, CompletableFuture<T> result) {
+        T value = null;
+        Exception failure = null;
+        try {
+            value = QueryContext.run(context, () -> {
+                try {
+                    permits.acquire();
+                } finally {
+                    queued.decrementAndGet();
+                }
+                running.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    running.decrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            pending.decrementAndGet();
+            // Clear an interrupt left by cancellation in case the thread is reused
+            Thread.interrupted();
+        }
+
+        if (settled.compareAndSet(false, true)) {
+            completed.incrementAndGet();
+            if (failure == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        }
+    }
+
+    BulkheadStatistics getStatistics() {
+        return new BulkheadStatistics(name, running.get(), queued.get(),
+            completed.get(), rejected.get(), timedOut.get(),
+            config.getMaxConcurrentQueries(), config.getMaxQueuedQueries());
+    }
+}
@@ -0,0 +1,255 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-process message broker with partitioned topics and consumer group offsets.
+ *
+ * Topics are created on first use with the broker's partition count. A message is written to
+ * the partition chosen by the hash of its key, or to the partitions in turn if it has no key,
+ * and is kept for the life of the broker. Each consumer reads every partition of its topic,
+ * starting from its group's committed offsets; the broker does not divide partitions between
+ * the consumers of a group.
+ *
+ * The broker is used when no consumer factory is registered for a message queue data source's
+ * type, and in tests of code that consumes messages.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class InMemoryMessageBroker implements MessageConsumerFactory {
+
+    private final int partitionCount;
+    private final Map<String, List<List<QueueMessage>>> topics = new ConcurrentHashMap<>();
+    private final Map<String, Long> committedOffsets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    // Guards the partition logs; consumers wait on the condition for new messages
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition messagesArrived = lock.newCondition();
+
+    /**
+     * Create a broker with one partition per available processor.
+     */
+    public InMemoryMessageBroker() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a broker whose topics have the given number of partitions.
+     *
+     * @param partitionCount The number of partitions of each topic
+     */
+    public InMemoryMessageBroker(int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Partition count must be positive");
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Publish a message.
+     *
+     * @param topic The topic
+     * @param key The message key, or null to spread keyless messages across partitions
+     * @param payload The message payload
+     * @return The published message, with its partition and offset
+     */
+    public QueueMessage publish(String topic, String key, Object payload) {
+        int partition = key != null
+            ? Math.floorMod(key.hashCode(), partitionCount)
+            : Math.floorMod(nextPartition.getAndIncrement(), partitionCount);
+
+        lock.lock();
+        try {
+            List<QueueMessage> log = getPartitions(topic).get(partition);
+            QueueMessage message = new QueueMessage(topic, partition, log.size(), key, payload, System.currentTimeMillis());
+            log.add(message);
+            messagesArrived.signalAll();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the offset the next message of a partition will be given.
+     */
+    public long getEndOffset(String topic, int partition) {
+        lock.lock();
+        try {
+            return getPartitions(topic).get(partition).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a consumer group's committed offset for a partition, which is 0 if the group has not
+     * committed the partition.
+     */
+    public long getCommittedOffset(String group, String topic, int partition) {
+        return committedOffsets.getOrDefault(offsetKey(group, topic, partition), 0L);
+    }
+
+    /**
+     * Create a consumer in a consumer group.
+     *
+     * @param group The consumer group
+     * @param topic The topic to consume
+     * @return The consumer, positioned at the group's committed offsets
+     */
+    public MessageConsumer createConsumer(String group, String topic) {
+        return new InMemoryConsumer(group, topic);
+    }
+
+    /**
+     * Create a consumer in the configured consumer group, or in a group named after the data
+     * source if none is configured.
+     */
+    @Override
+    public MessageConsumer createConsumer(DataSourceConfiguration configuration, String topic) {
+        String group = configuration.getConnection() != null ? configuration.getConnection().getConsumerGroup() : null;
+        return createConsumer(group != null ? group : configuration.getName(), topic);
+    }
+
+    private List<List<QueueMessage>> getPartitions(String topic) {
+        return topics.computeIfAbsent(topic, name -> {
+            List<List<QueueMessage>> partitions = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                partitions.add(new ArrayList<>());
+            }
+            return partitions;
+        });
+    }
+
+    private static String offsetKey(String group, String topic, int partition) {
+        return group + "/" + topic + "/" + partition;
+    }
+
+    /**
+     * A consumer reading every partition of a topic from its own positions.
+     */
+    private final class InMemoryConsumer implements MessageConsumer {
+        private final String group;
+        private final String topic;
+        private final long[] positions;
+        private int firstPartition;
+        private volatile boolean closed;
+
+        InMemoryConsumer(String group, String topic) {
+            this.group = group;
+            this.topic = topic;
+            this.positions = new long[partitionCount];
+            for (int partition = 0; partition < partitionCount; partition++) {
+                positions[partition] = getCommittedOffset(group, topic, partition);
+            }
+        }
+
+        @Override
+        public String getTopic() {
+            return topic;
+        }
+
+        @Override
+        public List<QueueMessage> poll(int maxMessages, long timeoutMs) throws DataSourceException, InterruptedException {
+            ensureOpen("poll");
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            lock.lockInterruptibly();
+            try {
+                List<List<QueueMessage>> partitions = getPartitions(topic);
+                while (true) {
+                    List<QueueMessage> messages = take(partitions, maxMessages);
+                    if (!messages.isEmpty() || remainingNanos <= 0 || closed) {
+                        return messages;
+                    }
+                    remainingNanos = messagesArrived.awaitNanos(remainingNanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void commit(Map<Integer, Long> offsets) throws DataSourceException {
+            ensureOpen("commit");
+            for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                committedOffsets.put(offsetKey(group, topic, entry.getKey()), entry.getValue());
+            }
+        }
+
+        @Override
+        public void seekToCommitted(Collection<Integer> partitions) throws DataSourceException {
+            ensureOpen("seekToCommitted");
+            for (int partition : partitions) {
+                positions[partition] = getCommittedOffset(group, topic, partition);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        // Called with the lock held; starts from a different partition each time so that a
+        // busy partition cannot starve the others
+        private List<QueueMessage> take(List<List<QueueMessage>> partitions, int maxMessages) {
+            List<QueueMessage> messages = Collections.emptyList();
+            for (int i = 0; i < partitionCount && messages.size() < maxMessages; i++) {
+                int partition = (firstPartition + i) % partitionCount;
+                List<QueueMessage> log = partitions.get(partition);
+                int from = (int) positions[partition];
+                int to = Math.min(log.size(), from + maxMessages - messages.size());
+                if (from < to) {
+                    if (messages.isEmpty()) {
+                        messages = new ArrayList<>();
+                    }
+                    messages.addAll(log.subList(from, to));
+                    positions[partition] = to;
+                }
+            }
+            firstPartition = (firstPartition + 1) % partitionCount;
+            return messages;
+        }
+
+        private void ensureOpen(String operation) throws DataSourceException {
+            if (closed) {
+                throw DataSourceException.executionError("Message consumer for topic '" + topic + "' is closed",
+                    null, operation);
+            }
+        }
+    }
+}
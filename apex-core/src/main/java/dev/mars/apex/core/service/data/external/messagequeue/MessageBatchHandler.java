@@ -0,0 +1,43 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+
+/**
+ * Processes the messages of one partition polled by a {@link MessageBatchProcessor}.
+ *
+ * Handlers are called concurrently for different partitions of a batch, but never for the
+ * same partition at the same time.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface MessageBatchHandler {
+
+    /**
+     * Process messages of one partition. If this throws, none of the messages are committed
+     * and all of them are polled again.
+     *
+     * @param partition The partition the messages were read from
+     * @param messages The messages, in offset order
+     * @throws Exception if the messages cannot be processed
+     */
+    void handle(int partition, List<QueueMessage> messages) throws Exception;
+}
@@ -0,0 +1,266 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes a topic in batches, processing the partitions of each batch in parallel.
+ *
+ * Each batch is polled from the consumer, split by partition and handed to a pool of worker
+ * threads, one task per partition. The messages of a partition are processed in offset order
+ * by a single task, and since a key always maps to the same partition, messages with the same
+ * key are processed in the order they were published. Once every partition of the batch has
+ * been processed, the offsets of the partitions that succeeded are committed, and partitions
+ * that failed are rewound to their committed offsets to be polled again. Messages are
+ * therefore processed at least once.
+ *
+ * The processor runs on its own polling thread once started, or can be driven one batch at a
+ * time with {@link #processNextBatch()}. It owns its consumer and closes it when closed.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class MessageBatchProcessor implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageBatchProcessor.class);
+
+    // Bounds how long stopping waits for a poll that finds no messages
+    private static final long POLL_TIMEOUT_MS = 500L;
+
+    private final String name;
+    private final MessageConsumer consumer;
+    private final MessageBatchHandler handler;
+    private final int maxBatchSize;
+    private final long retryDelayMs;
+    private final ExecutorService workers;
+
+    private final AtomicLong batchesProcessed = new AtomicLong();
+    private final AtomicLong messagesProcessed = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread pollingThread;
+
+    /**
+     * Create a batch processor.
+     *
+     * @param name The name used for the processor's threads and in log messages
+     * @param consumer The consumer to poll
+     * @param handler The handler for the messages of each partition
+     * @param maxBatchSize The maximum number of messages polled per batch
+     * @param workerThreads The number of partitions processed at the same time
+     * @param retryDelayMs The pause after a failed batch before polling again, in milliseconds
+     */
+    public MessageBatchProcessor(String name, MessageConsumer consumer, MessageBatchHandler handler,
+                                 int maxBatchSize, int workerThreads, long retryDelayMs) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Worker threads must be positive");
+        }
+        this.name = name;
+        this.consumer = consumer;
+        this.handler = handler;
+        this.maxBatchSize = maxBatchSize;
+        this.retryDelayMs = Math.max(0L, retryDelayMs);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread thread = new Thread(r, "apex-mq-" + name + "-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start polling and processing batches on a background thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Message batch processor '" + name + "' is already running");
+        }
+        running = true;
+        pollingThread = new Thread(this::run, "apex-mq-" + name + "-poller");
+        pollingThread.setDaemon(true);
+        pollingThread.start();
+        LOGGER.info("Started message batch processor '{}' for topic '{}'", name, consumer.getTopic());
+    }
+
+    /**
+     * Stop polling, letting the batch in progress finish and commit.
+     *
+     * @param timeoutMs The time to wait for the batch in progress, in milliseconds
+     * @return true if the processor stopped within the timeout
+     */
+    public boolean stop(long timeoutMs) throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = pollingThread;
+            pollingThread = null;
+        }
+        if (thread == null) {
+            return true;
+        }
+        thread.join(timeoutMs);
+        if (thread.isAlive()) {
+            // The interrupted batch is rewound and polled again by the next consumer of the group
+            thread.interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Poll one batch and process it.
+     *
+     * @return The number of messages polled, 0 if none arrived before the poll timed out
+     * @throws DataSourceException if the batch could not be polled or a partition failed; the
+     *                             partitions that succeeded are still committed
+     * @throws InterruptedException if the thread is interrupted; the batch is then rewound
+     */
+    public int processNextBatch() throws DataSourceException, InterruptedException {
+        List<QueueMessage> batch = consumer.poll(maxBatchSize, POLL_TIMEOUT_MS);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<QueueMessage>> partitions = new LinkedHashMap<>();
+        for (QueueMessage message : batch) {
+            partitions.computeIfAbsent(message.getPartition(), partition -> new ArrayList<>()).add(message);
+        }
+
+        Map<Integer, Future<?>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<QueueMessage>> entry : partitions.entrySet()) {
+            int partition = entry.getKey();
+            List<QueueMessage> messages = entry.getValue();
+            tasks.put(partition, workers.submit(() -> {
+                handler.handle(partition, messages);
+                return null;
+            }));
+        }
+
+        Map<Integer, Long> offsets = new HashMap<>();
+        List<Integer> failedPartitions = new ArrayList<>();
+        Throwable failure = null;
+        long processed = 0;
+        try {
+            for (Map.Entry<Integer, Future<?>> task : tasks.entrySet()) {
+                int partition = task.getKey();
+                try {
+                    task.getValue().get();
+                    List<QueueMessage> messages = partitions.get(partition);
+                    offsets.put(partition, messages.get(messages.size() - 1).getOffset() + 1);
+                    processed += messages.size();
+                } catch (ExecutionException e) {
+                    failedPartitions.add(partition);
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            tasks.values().forEach(task -> task.cancel(true));
+            consumer.seekToCommitted(partitions.keySet());
+            throw e;
+        }
+
+        if (!offsets.isEmpty()) {
+            consumer.commit(offsets);
+        }
+        messagesProcessed.addAndGet(processed);
+
+        if (failure != null) {
+            consumer.seekToCommitted(failedPartitions);
+            failedBatches.incrementAndGet();
+            throw new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+                "Failed to process messages of partitions " + failedPartitions + ": " + failure.getMessage(),
+                failure, name, "processNextBatch", true);
+        }
+
+        batchesProcessed.incrementAndGet();
+        return batch.size();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getBatchesProcessed() {
+        return batchesProcessed.get();
+    }
+
+    public long getMessagesProcessed() {
+        return messagesProcessed.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Stop the processor, shut down its workers and close its consumer.
+     */
+    @Override
+    public void close() {
+        try {
+            stop(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+        consumer.close();
+        LOGGER.info("Closed message batch processor '{}'", name);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                processNextBatch();
+            } catch (InterruptedException e) {
+                break;
+            } catch (DataSourceException | RuntimeException e) {
+                LOGGER.error("Message batch processor '{}' failed, polling again in {} ms: {}",
+                    name, retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+            }
+        }
+        running = false;
+    }
+}
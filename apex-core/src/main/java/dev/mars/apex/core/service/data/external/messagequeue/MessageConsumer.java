@@ -0,0 +1,79 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.DataSourceException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A consumer of one message queue topic, implemented for each message broker.
+ *
+ * A consumer belongs to a consumer group, whose committed offsets record how far the group has
+ * processed each partition. Polling advances the consumer's position past the returned messages
+ * but does not commit them, so that messages are only marked as processed once the caller has
+ * finished with them. Consumers are used by one thread at a time.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public interface MessageConsumer extends AutoCloseable {
+
+    /**
+     * Get the topic this consumer reads.
+     */
+    String getTopic();
+
+    /**
+     * Get the messages after the consumer's current position, waiting until at least one
+     * message is available or the timeout expires. Messages of each partition are returned in
+     * offset order.
+     *
+     * @param maxMessages The maximum number of messages to return
+     * @param timeoutMs The maximum time to wait for a message, in milliseconds
+     * @return The messages, empty if none arrived before the timeout
+     * @throws DataSourceException if the broker cannot be read
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    List<QueueMessage> poll(int maxMessages, long timeoutMs) throws DataSourceException, InterruptedException;
+
+    /**
+     * Commit the consumer group's offsets.
+     *
+     * @param offsets The offset of the next message to process, by partition
+     * @throws DataSourceException if the offsets cannot be committed
+     */
+    void commit(Map<Integer, Long> offsets) throws DataSourceException;
+
+    /**
+     * Move the consumer's position on the given partitions back to the committed offsets, so
+     * that messages that were polled but not committed are returned again.
+     *
+     * @param partitions The partitions to rewind
+     * @throws DataSourceException if the committed offsets cannot be read
+     */
+    void seekToCommitted(Collection<Integer> partitions) throws DataSourceException;
+
+    /**
+     * Close the consumer. Uncommitted messages are returned to the next consumer of the group.
+     */
+    @Override
+    void close();
+}
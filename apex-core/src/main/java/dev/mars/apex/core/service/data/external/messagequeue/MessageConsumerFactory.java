@@ -0,0 +1,43 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+
+/**
+ * Creates consumers for a message broker, so that {@link MessageQueueDataSource} can read from
+ * any broker for which a factory is registered with the data source factory.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface MessageConsumerFactory {
+
+    /**
+     * Create a consumer of a topic.
+     *
+     * @param configuration The data source configuration, with the broker connection and
+     *                      consumer group
+     * @param topic The topic to consume
+     * @return The consumer
+     * @throws DataSourceException if the consumer cannot be created
+     */
+    MessageConsumer createConsumer(DataSourceConfiguration configuration, String topic) throws DataSourceException;
+}
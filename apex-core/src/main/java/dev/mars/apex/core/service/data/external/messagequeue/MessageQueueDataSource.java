@@ -17,6 +17,7 @@ package dev.mars.apex.core.service.data.external.messagequeue;
  */
 
 
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
 import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
 import dev.mars.apex.core.service.data.external.*;
 import org.slf4j.Logger;
@@ -28,20 +29,22 @@ import java.util.concurrent.*;
 /**
  * Message queue implementation of ExternalDataSource.
  * 
- * This class provides message queue-based data access with support for multiple
- * message queue backends including Kafka, RabbitMQ, ActiveMQ, and others.
+ * This class provides message queue-based data access through a pluggable
+ * {@link MessageConsumerFactory}, which creates the consumers for a particular broker.
+ * Factories for brokers such as Kafka, RabbitMQ or ActiveMQ are registered with the
+ * data source factory; without one, an {@link InMemoryMessageBroker} is used.
  * 
  * Supported message queue types:
  * - Kafka (default)
  * - RabbitMQ
  * - ActiveMQ
- * - Custom message queue implementations
+ * - Any type with a registered consumer factory
  * 
  * Features:
- * - Asynchronous message consumption
+ * - Pull-based consumption through getData and query
  * - Topic/queue-based messaging
- * - Message buffering and batching
- * - Producer and consumer capabilities
+ * - Batched, multi-threaded processing through {@link MessageBatchProcessor}
+ * - Offsets committed only after messages are processed
  * - Health monitoring and metrics
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
@@ -52,18 +55,32 @@ public class MessageQueueDataSource implements ExternalDataSource {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(MessageQueueDataSource.class);
     
+    private static final Set<String> BUILT_IN_TYPES = Set.of("kafka", "rabbitmq", "activemq");
+    
     private DataSourceConfiguration configuration;
     private ConnectionStatus connectionStatus;
     private DataSourceMetrics metrics;
-    private final BlockingQueue<Object> messageBuffer;
+    private MessageConsumerFactory consumerFactory;
     private volatile boolean running;
-    private ExecutorService consumerExecutor;
+    
+    // Consumers for getData and query, by topic; each is used by one caller at a time
+    private final Map<String, MessageConsumer> consumers = new ConcurrentHashMap<>();
+    private final List<MessageBatchProcessor> batchProcessors = new CopyOnWriteArrayList<>();
     
     /**
-     * Constructor for message queue data source.
+     * Constructor for message queue data source using an in-process broker.
      */
     public MessageQueueDataSource() {
-        this.messageBuffer = new LinkedBlockingQueue<>();
+        this(null);
+    }
+    
+    /**
+     * Constructor for message queue data source using a broker's consumer factory.
+     * 
+     * @param consumerFactory The consumer factory, or null to use an in-process broker
+     */
+    public MessageQueueDataSource(MessageConsumerFactory consumerFactory) {
+        this.consumerFactory = consumerFactory;
         this.metrics = new DataSourceMetrics();
         this.connectionStatus = ConnectionStatus.disconnected("Not initialized");
         this.running = false;
@@ -80,21 +97,19 @@ public class MessageQueueDataSource implements ExternalDataSource {
                 sourceType = "kafka"; // Default to Kafka
             }
             
-            switch (sourceType.toLowerCase()) {
-                case "kafka":
-                    initializeKafka();
-                    break;
-                case "rabbitmq":
-                    initializeRabbitMQ();
-                    break;
-                case "activemq":
-                    initializeActiveMQ();
-                    break;
-                default:
+            if (consumerFactory == null) {
+                if (!BUILT_IN_TYPES.contains(sourceType.toLowerCase())) {
                     throw new DataSourceException(DataSourceException.ErrorType.CONFIGURATION_ERROR,
                         "Unsupported message queue type: " + sourceType);
+                }
+                LOGGER.warn("No consumer factory registered for message queue type '{}', " +
+                    "data source '{}' uses an in-process broker", sourceType, config.getName());
+                consumerFactory = new InMemoryMessageBroker();
             }
             
+            // Connect the default topic's consumer up front so that configuration errors surface here
+            getConsumer(getDefaultTopic());
+            
             this.running = true;
             this.connectionStatus = ConnectionStatus.connected("Message queue connection established");
             LOGGER.info("Message queue data source '{}' initialized successfully", config.getName());
@@ -148,6 +163,11 @@ public class MessageQueueDataSource implements ExternalDataSource {
         return running && connectionStatus.isConnected();
     }
     
+    /**
+     * Get the payload of the next message. The data type names a topic from the
+     * configuration's topics, and any other data type reads the default topic. An optional
+     * Long parameter gives the time to wait for a message, in milliseconds.
+     */
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getData(String dataType, Object... parameters) {
@@ -158,12 +178,12 @@ public class MessageQueueDataSource implements ExternalDataSource {
                 return null;
             }
             
-            // For message queues, we typically consume messages rather than query
-            // The dataType parameter can specify the topic or queue to consume from
-            Object message = consumeMessage(dataType, parameters);
+            long timeoutMs = parameters.length > 0 && parameters[0] instanceof Long ? 
+                (Long) parameters[0] : 1000L;
+            List<Object> payloads = consume(resolveTopic(dataType), 1, timeoutMs);
             
             metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
-            return (T) message;
+            return payloads.isEmpty() ? null : (T) payloads.get(0);
             
         } catch (Exception e) {
             metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
@@ -172,24 +192,24 @@ public class MessageQueueDataSource implements ExternalDataSource {
         }
     }
     
+    /**
+     * Get the payloads of up to {@code maxMessages} messages (default 10), waiting up to
+     * {@code timeout} milliseconds (default 5000) for the first. The query names the topic,
+     * as the data type does for {@link #getData(String, Object...)}. Messages are committed
+     * as soon as they are returned; use {@link #createBatchProcessor} to commit them only
+     * after they are processed.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException {
         // For message queues, "query" typically means consuming multiple messages
         try {
-            List<T> results = new ArrayList<>();
-            int maxMessages = parameters.containsKey("maxMessages") ? 
-                (Integer) parameters.get("maxMessages") : 10;
-            long timeoutMs = parameters.containsKey("timeout") ? 
-                (Long) parameters.get("timeout") : 5000L;
+            int maxMessages = parameters.get("maxMessages") instanceof Number ? 
+                ((Number) parameters.get("maxMessages")).intValue() : 10;
+            long timeoutMs = parameters.get("timeout") instanceof Number ? 
+                ((Number) parameters.get("timeout")).longValue() : 5000L;
             
-            for (int i = 0; i < maxMessages; i++) {
-                @SuppressWarnings("unchecked")
-                T message = (T) messageBuffer.poll(timeoutMs, TimeUnit.MILLISECONDS);
-                if (message == null) {
-                    break; // No more messages available
-                }
-                results.add(message);
-            }
+            List<T> results = (List<T>) consume(resolveTopic(query), maxMessages, timeoutMs);
             
             metrics.recordRecordsProcessed(results.size());
             return results;
@@ -218,16 +238,62 @@ public class MessageQueueDataSource implements ExternalDataSource {
         return results;
     }
     
+    /**
+     * Publish each update as a message to the default topic. Only the in-process broker
+     * supports publishing; consumer factories for other brokers only consume.
+     */
     @Override
     public void batchUpdate(List<String> updates) throws DataSourceException {
         // For message queues, updates typically mean publishing messages
+        if (!(consumerFactory instanceof InMemoryMessageBroker)) {
+            throw new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+                "Publishing is not supported by the consumer factory of message queue data source", null,
+                getName(), "batchUpdate", false);
+        }
+        
+        InMemoryMessageBroker broker = (InMemoryMessageBroker) consumerFactory;
+        String topic = getDefaultTopic();
         for (String update : updates) {
-            try {
-                publishMessage(update, Collections.emptyMap());
-            } catch (Exception e) {
-                throw DataSourceException.executionError("Message queue batch update failed", e, "batchUpdate");
-            }
+            broker.publish(topic, null, update);
+            LOGGER.debug("Published message to topic '{}': {}", topic, update);
+        }
+    }
+    
+    /**
+     * Create a processor that consumes a topic in batches with its own consumer. The batch
+     * size, worker threads and retry delay come from the connection's max-poll-records,
+     * consumer-threads and retry-delay settings. The processor is not started, and is closed
+     * when this data source shuts down.
+     * 
+     * @param topic The topic to consume, or null for the default topic
+     * @param handler The handler for the messages of each partition
+     * @return The batch processor
+     * @throws DataSourceException if the consumer cannot be created
+     */
+    public MessageBatchProcessor createBatchProcessor(String topic, MessageBatchHandler handler) throws DataSourceException {
+        if (!running) {
+            throw new DataSourceException(DataSourceException.ErrorType.CONNECTION_ERROR,
+                "Message queue data source is not running", null, getName(), "createBatchProcessor", false);
         }
+        
+        String resolvedTopic = topic != null ? resolveTopic(topic) : getDefaultTopic();
+        ConnectionConfig connection = configuration.getConnection() != null ? configuration.getConnection() : new ConnectionConfig();
+        int batchSize = connection.getMaxPollRecords() != null ? connection.getMaxPollRecords() : 500;
+        int threads = connection.getConsumerThreads() != null ? 
+            connection.getConsumerThreads() : Runtime.getRuntime().availableProcessors();
+        long retryDelayMs = connection.getRetryDelay() != null ? connection.getRetryDelay() : 1000L;
+        
+        MessageBatchProcessor processor = new MessageBatchProcessor(getName() + "-" + resolvedTopic,
+            consumerFactory.createConsumer(configuration, resolvedTopic), handler, batchSize, threads, retryDelayMs);
+        batchProcessors.add(processor);
+        return processor;
+    }
+    
+    /**
+     * Get the consumer factory, which is the in-process broker if no factory was given.
+     */
+    public MessageConsumerFactory getConsumerFactory() {
+        return consumerFactory;
     }
     
     @Override
@@ -237,9 +303,14 @@ public class MessageQueueDataSource implements ExternalDataSource {
     
     @Override
     public void refresh() throws DataSourceException {
-        // For message queues, refresh might mean reconnecting or clearing buffers
+        // For message queues, refresh means returning uncommitted messages to the consumers
         if (running) {
-            messageBuffer.clear();
+            for (MessageConsumer consumer : consumers.values()) {
+                synchronized (consumer) {
+                    consumer.close();
+                }
+            }
+            consumers.clear();
             LOGGER.info("Message queue data source '{}' refreshed", getName());
         }
     }
@@ -247,18 +318,14 @@ public class MessageQueueDataSource implements ExternalDataSource {
     @Override
     public void shutdown() {
         running = false;
-        if (consumerExecutor != null && !consumerExecutor.isShutdown()) {
-            consumerExecutor.shutdown();
-            try {
-                if (!consumerExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    consumerExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                consumerExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        for (MessageBatchProcessor processor : batchProcessors) {
+            processor.close();
+        }
+        batchProcessors.clear();
+        for (MessageConsumer consumer : consumers.values()) {
+            consumer.close();
         }
-        messageBuffer.clear();
+        consumers.clear();
         connectionStatus = ConnectionStatus.shutdown();
         LOGGER.info("Message queue data source '{}' shut down", getName());
     }
@@ -269,95 +336,68 @@ public class MessageQueueDataSource implements ExternalDataSource {
     }
     
     /**
-     * Initialize Kafka connection.
-     */
-    private void initializeKafka() throws DataSourceException {
-        // Basic Kafka initialization - would need actual Kafka dependencies in production
-        LOGGER.info("Initializing Kafka message queue connection");
-        
-        // For now, create a mock implementation that simulates Kafka behavior
-        // In a real implementation, this would create KafkaProducer and KafkaConsumer
-        this.consumerExecutor = Executors.newSingleThreadExecutor();
-        
-        // Start a background consumer simulation
-        consumerExecutor.submit(this::simulateMessageConsumption);
-    }
-    
-    /**
-     * Initialize RabbitMQ connection.
+     * Poll messages from a topic and commit them.
      */
-    private void initializeRabbitMQ() throws DataSourceException {
-        LOGGER.info("Initializing RabbitMQ message queue connection");
-
-        // Basic RabbitMQ initialization - would need actual RabbitMQ dependencies in production
-        // For now, create a mock implementation that simulates RabbitMQ behavior
-        this.consumerExecutor = Executors.newSingleThreadExecutor();
-
-        // Start a background consumer simulation
-        consumerExecutor.submit(this::simulateMessageConsumption);
-
-        LOGGER.info("RabbitMQ message queue connection initialized (simulation mode)");
-    }
-    
-    /**
-     * Initialize ActiveMQ connection.
-     */
-    private void initializeActiveMQ() throws DataSourceException {
-        LOGGER.info("Initializing ActiveMQ message queue connection");
-
-        // Basic ActiveMQ initialization - would need actual ActiveMQ dependencies in production
-        // For now, create a mock implementation that simulates ActiveMQ behavior
-        this.consumerExecutor = Executors.newSingleThreadExecutor();
-
-        // Start a background consumer simulation
-        consumerExecutor.submit(this::simulateMessageConsumption);
-
-        LOGGER.info("ActiveMQ message queue connection initialized (simulation mode)");
+    private List<Object> consume(String topic, int maxMessages, long timeoutMs) 
+            throws DataSourceException, InterruptedException {
+        MessageConsumer consumer = getConsumer(topic);
+        synchronized (consumer) {
+            List<QueueMessage> messages = consumer.poll(maxMessages, timeoutMs);
+            if (messages.isEmpty()) {
+                return new ArrayList<>();
+            }
+            
+            Map<Integer, Long> offsets = new HashMap<>();
+            List<Object> payloads = new ArrayList<>(messages.size());
+            for (QueueMessage message : messages) {
+                offsets.merge(message.getPartition(), message.getOffset() + 1, Math::max);
+                payloads.add(message.getPayload());
+            }
+            consumer.commit(offsets);
+            return payloads;
+        }
     }
     
-    /**
-     * Consume a message from the specified topic/queue.
-     */
-    private Object consumeMessage(String topic, Object... parameters) throws InterruptedException {
-        // In a real implementation, this would consume from the specific topic
-        long timeoutMs = parameters.length > 0 && parameters[0] instanceof Long ? 
-            (Long) parameters[0] : 1000L;
-        
-        return messageBuffer.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    private MessageConsumer getConsumer(String topic) throws DataSourceException {
+        MessageConsumer consumer = consumers.get(topic);
+        if (consumer == null) {
+            MessageConsumer created = consumerFactory.createConsumer(configuration, topic);
+            consumer = consumers.putIfAbsent(topic, created);
+            if (consumer == null) {
+                consumer = created;
+            } else {
+                created.close();
+            }
+        }
+        return consumer;
     }
     
     /**
-     * Publish a message to the specified topic/queue.
+     * Resolve a data type or query to a topic: a name from the configuration's topics, or
+     * the default topic.
      */
-    private void publishMessage(String topic, Map<String, Object> parameters) {
-        // In a real implementation, this would publish to the specific topic
-        Object message = parameters.get("message");
-        if (message != null) {
-            messageBuffer.offer(message);
-            LOGGER.debug("Published message to topic '{}': {}", topic, message);
+    private String resolveTopic(String name) {
+        Map<String, String> topics = configuration.getTopics();
+        if (name != null && topics != null && topics.containsKey(name)) {
+            return topics.get(name);
         }
+        return getDefaultTopic();
     }
     
     /**
-     * Simulate message consumption for demo purposes.
+     * Get the configuration's "default" topic, its only topic, or a topic named after the
+     * data source.
      */
-    private void simulateMessageConsumption() {
-        while (running && !Thread.currentThread().isInterrupted()) {
-            try {
-                // Simulate receiving messages periodically
-                Thread.sleep(2000);
-                if (running) {
-                    Map<String, Object> simulatedMessage = Map.of(
-                        "timestamp", System.currentTimeMillis(),
-                        "messageId", UUID.randomUUID().toString(),
-                        "data", "Simulated message data"
-                    );
-                    messageBuffer.offer(simulatedMessage);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+    private String getDefaultTopic() {
+        Map<String, String> topics = configuration.getTopics();
+        if (topics != null) {
+            if (topics.containsKey("default")) {
+                return topics.get("default");
+            }
+            if (topics.size() == 1) {
+                return topics.values().iterator().next();
             }
         }
+        return getName();
     }
 }
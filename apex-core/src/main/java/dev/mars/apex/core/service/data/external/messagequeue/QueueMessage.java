@@ -0,0 +1,80 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * A message read from a partition of a message queue topic.
+ *
+ * Messages with the same key are always written to the same partition, and the offset gives
+ * the position of the message within its partition.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public final class QueueMessage {
+
+    private final String topic;
+    private final int partition;
+    private final long offset;
+    private final String key;
+    private final Object payload;
+    private final long timestamp;
+
+    public QueueMessage(String topic, int partition, long offset, String key, Object payload, long timestamp) {
+        this.topic = topic;
+        this.partition = partition;
+        this.offset = offset;
+        this.key = key;
+        this.payload = payload;
+        this.timestamp = timestamp;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueMessage{" +
+               "topic='" + topic + '\'' +
+               ", partition=" + partition +
+               ", offset=" + offset +
+               ", key='" + key + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,128 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.yaml.YamlRuleConfiguration;
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
+import dev.mars.apex.core.engine.model.RuleBase;
+import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message batch handler that applies YAML enrichments to the payloads of each batch and
+ * then evaluates rules against the enriched payloads.
+ *
+ * Enrichments are applied with {@link YamlEnrichmentProcessor#processEnrichmentsBatch}, so that
+ * lookups are resolved once per batch rather than once per message, and rules are evaluated
+ * with {@link RulesEngine#executeRulesBatch}. Map payloads are used as the facts for the rules;
+ * any other payload is available to them as the {@code payload} fact. The results are passed to
+ * a listener, which runs before the batch is committed, so a listener that throws causes the
+ * batch to be polled again.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class RulesMessageBatchHandler implements MessageBatchHandler {
+
+    /**
+     * Receives the outcome of each processed batch.
+     */
+    @FunctionalInterface
+    public interface ResultListener {
+
+        /**
+         * Called with the results of the messages of one partition.
+         *
+         * @param partition The partition the messages were read from
+         * @param messages The messages, in offset order
+         * @param enrichedPayloads The enriched payloads, in the same order as the messages
+         * @param results The rule results, in the same order as the messages
+         * @throws Exception if the results cannot be handled
+         */
+        void onResults(int partition, List<QueueMessage> messages, List<Object> enrichedPayloads,
+                       BatchRuleResult results) throws Exception;
+    }
+
+    private final RulesEngine rulesEngine;
+    private final List<RuleBase> rules;
+    private final YamlEnrichmentProcessor enrichmentProcessor;
+    private final YamlRuleConfiguration configuration;
+    private final ResultListener listener;
+
+    /**
+     * Create a handler.
+     *
+     * @param rulesEngine The rules engine that evaluates the rules
+     * @param category The category of rules to evaluate, or null for all of the engine's rules;
+     *                 the rules are resolved when the handler is created
+     * @param enrichmentProcessor The processor for the configuration's enrichments, or null to
+     *                            evaluate rules against the payloads as they are
+     * @param configuration The YAML configuration with the enrichments, or null for none
+     * @param listener The listener for the results
+     */
+    public RulesMessageBatchHandler(RulesEngine rulesEngine, String category,
+                                    YamlEnrichmentProcessor enrichmentProcessor,
+                                    YamlRuleConfiguration configuration, ResultListener listener) {
+        this.rulesEngine = rulesEngine;
+        this.rules = category != null
+            ? rulesEngine.getConfiguration().getRulesForCategory(category)
+            // A rule in several categories is listed once per category
+            : new ArrayList<>(new LinkedHashSet<>(rulesEngine.getConfiguration().getAllRuleBases()));
+        this.enrichmentProcessor = enrichmentProcessor;
+        this.configuration = configuration;
+        this.listener = listener;
+    }
+
+    @Override
+    public void handle(int partition, List<QueueMessage> messages) throws Exception {
+        List<Object> payloads = new ArrayList<>(messages.size());
+        for (QueueMessage message : messages) {
+            payloads.add(message.getPayload());
+        }
+
+        List<Object> enriched = payloads;
+        if (enrichmentProcessor != null && configuration != null && configuration.getEnrichments() != null) {
+            enriched = enrichmentProcessor.processEnrichmentsBatch(configuration.getEnrichments(), payloads, configuration);
+        }
+
+        List<Map<String, Object>> factsList = new ArrayList<>(enriched.size());
+        for (Object payload : enriched) {
+            factsList.add(toFacts(payload));
+        }
+
+        BatchRuleResult results = rulesEngine.executeRulesBatch(rules, factsList);
+        listener.onResults(partition, messages, Collections.unmodifiableList(enriched), results);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toFacts(Object payload) {
+        if (payload instanceof Map) {
+            return (Map<String, Object>) payload;
+        }
+        Map<String, Object> facts = new HashMap<>();
+        facts.put("payload", payload);
+        return facts;
+    }
+}
@@ -24,9 +24,11 @@ import org.slf4j.LoggerFactory;
 
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Circuit breaker implementation for external data sources.
@@ -93,13 +95,9 @@ public class CircuitBreaker {
      */
     public <T> T execute(Callable<T> callable) throws Exception {
         // Check if circuit is open
-        if (state.get() == State.OPEN) {
-            if (shouldAttemptReset()) {
-                transitionToHalfOpen();
-            } else {
-                throw new DataSourceException(DataSourceException.ErrorType.CIRCUIT_BREAKER_ERROR,
-                    "Circuit breaker is OPEN", null, null, "execute", true);
-            }
+        if (!allowRequest()) {
+            throw new DataSourceException(DataSourceException.ErrorType.CIRCUIT_BREAKER_ERROR,
+                "Circuit breaker is OPEN", null, null, "execute", true);
         }
         
         long startTime = System.currentTimeMillis();
@@ -115,6 +113,53 @@ public class CircuitBreaker {
         }
     }
     
+    /**
+     * Execute an asynchronous operation with circuit breaker protection. The outcome is
+     * recorded when the operation's future completes, so the calling thread is not blocked.
+     * 
+     * @param operation Starts the operation and returns its future
+     * @param <T> The return type
+     * @return The future of the operation, or a failed future if the circuit is open
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> operation) {
+        if (!allowRequest()) {
+            return CompletableFuture.failedFuture(new DataSourceException(DataSourceException.ErrorType.CIRCUIT_BREAKER_ERROR,
+                "Circuit breaker is OPEN", null, null, "executeAsync", true));
+        }
+        
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            onFailure(System.currentTimeMillis() - startTime);
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                onSuccess(System.currentTimeMillis() - startTime);
+            } else {
+                onFailure(System.currentTimeMillis() - startTime);
+            }
+        });
+    }
+    
+    /**
+     * Check whether a request may go through, moving an open circuit to half-open once the
+     * wait duration has passed.
+     */
+    private boolean allowRequest() {
+        if (state.get() == State.OPEN) {
+            if (shouldAttemptReset()) {
+                transitionToHalfOpen();
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * Handle successful operation.
      */
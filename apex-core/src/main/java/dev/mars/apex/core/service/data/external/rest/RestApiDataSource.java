@@ -29,7 +29,16 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 
 /**
  * REST API implementation of ExternalDataSource.
@@ -44,6 +53,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Configurable timeouts and retries
  * - JSON response parsing
  * - Health monitoring
+ * - Non-blocking queries, with identical requests in flight at the same time sharing one call
  * 
  * @author Mark Andrew Ray-Smith Cityline Ltd
  * @since 1.0.0
@@ -62,6 +72,10 @@ public class RestApiDataSource implements ExternalDataSource {
     // Simple in-memory cache for API responses
     private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
     
+    // GET requests in flight by URL; callers asking for the same URL share the pending response
+    private final Map<String, CompletableFuture<HttpResponse<String>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+    
     /**
      * Constructor with HttpClient and configuration.
      * 
@@ -170,80 +184,111 @@ public class RestApiDataSource implements ExternalDataSource {
     }
     
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T getData(String dataType, Object... parameters) {
+        CompletableFuture<T> future = getDataAsync(dataType, parameters);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted while getting data from REST API", e);
+            return null;
+        } catch (ExecutionException e) {
+            // getDataAsync reports failures as null results, so this is not expected
+            LOGGER.error("Failed to get data from REST API", e.getCause());
+            return null;
+        }
+    }
+    
+    /**
+     * Get data without blocking the calling thread. Cached results are returned as completed
+     * futures; otherwise the call goes through the circuit breaker, if one is configured.
+     * 
+     * @param <T> The type of data to return
+     * @param dataType The type of data to retrieve
+     * @param parameters Parameters for the endpoint template
+     * @return Future of the data, completed with null if the call fails
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getDataAsync(String dataType, Object... parameters) {
         long startTime = System.currentTimeMillis();
         
-        try {
-            // Check cache first if enabled
-            if (isCacheEnabled()) {
-                String cacheKey = generateCacheKey(dataType, parameters);
-                CachedResponse cached = responseCache.get(cacheKey);
-                if (cached != null && !cached.isExpired()) {
-                    metrics.recordCacheHit();
-                    metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
-                    return (T) cached.getData();
-                }
-                metrics.recordCacheMiss();
+        // Check cache first if enabled
+        String cacheKey = null;
+        if (isCacheEnabled()) {
+            cacheKey = generateCacheKey(dataType, parameters);
+            CachedResponse cached = responseCache.get(cacheKey);
+            if (cached != null && !cached.isExpired()) {
+                metrics.recordCacheHit();
+                metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
+                return CompletableFuture.completedFuture((T) cached.getData());
             }
-            
-            // Execute API call with circuit breaker if enabled
-            Object result;
-            if (circuitBreaker != null) {
-                result = circuitBreaker.execute(() -> executeApiCall(dataType, parameters));
-            } else {
-                result = executeApiCall(dataType, parameters);
+            metrics.recordCacheMiss();
+        }
+        
+        // Execute API call with circuit breaker if enabled
+        Supplier<CompletableFuture<Object>> call = () -> executeApiCall(dataType, parameters);
+        CompletableFuture<Object> result = circuitBreaker != null ? circuitBreaker.executeAsync(call) : call.get();
+        
+        String resultCacheKey = cacheKey;
+        return result.handle((value, error) -> {
+            if (error != null) {
+                metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
+                LOGGER.error("Failed to get data from REST API", unwrap(error));
+                return null;
             }
             
             // Cache the result if caching is enabled
-            if (isCacheEnabled() && result != null) {
-                String cacheKey = generateCacheKey(dataType, parameters);
+            if (resultCacheKey != null && value != null) {
                 long ttl = configuration.getCache().getTtlSeconds() * 1000L;
-                responseCache.put(cacheKey, new CachedResponse(result, System.currentTimeMillis() + ttl));
+                responseCache.put(resultCacheKey, new CachedResponse(value, System.currentTimeMillis() + ttl));
             }
             
             metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
-            return (T) result;
-            
-        } catch (Exception e) {
-            metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
-            LOGGER.error("Failed to get data from REST API", e);
-            return null;
-        }
+            return (T) value;
+        });
     }
     
     @Override
     public <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException {
+        return await(this.<T>queryAsync(query, parameters), "query");
+    }
+    
+    /**
+     * Execute a query without blocking the calling thread. The query is a named query or an
+     * endpoint path, and a GET for the same URL that is already in flight is shared rather
+     * than sent again.
+     */
+    @Override
+    public <T> CompletableFuture<List<T>> queryAsync(String query, Map<String, Object> parameters) {
         // For REST APIs, the "query" is typically an endpoint path
         long startTime = System.currentTimeMillis();
-
+        
+        CompletableFuture<HttpResponse<String>> pending;
         try {
             // First, resolve named query from configuration
             String actualQuery = resolveNamedQuery(query);
             String endpoint = buildEndpoint(actualQuery, parameters);
-            HttpRequest request = buildHttpRequest(endpoint, "GET", null);
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+            pending = sendGet(endpoint);
+        } catch (RuntimeException e) {
+            metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
+            return CompletableFuture.failedFuture(DataSourceException.executionError("REST API call failed", e, "query"));
+        }
+        
+        return pending.handle((response, error) -> {
+            if (error != null) {
+                metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
+                throw new CompletionException(DataSourceException.executionError("REST API call failed", unwrap(error), "query"));
+            }
             if (response.statusCode() >= 200 && response.statusCode() < 300) {
                 List<T> result = parseResponseToList(response.body());
                 metrics.recordSuccessfulRequest(System.currentTimeMillis() - startTime);
                 return result;
-            } else {
-                metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
-                throw new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
-                    "API call failed with status: " + response.statusCode(), null,
-                    configuration.getName(), "query", true);
             }
-
-        } catch (IOException | InterruptedException e) {
-            metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
-            throw DataSourceException.executionError("REST API call failed", e, "query");
-        } catch (DataSourceException e) {
-            // Re-throw DataSourceException but ensure metrics are recorded
             metrics.recordFailedRequest(System.currentTimeMillis() - startTime);
-            throw e;
-        }
+            throw new CompletionException(new DataSourceException(DataSourceException.ErrorType.EXECUTION_ERROR,
+                "API call failed with status: " + response.statusCode(), null,
+                configuration.getName(), "query", true));
+        });
     }
     
     @Override
@@ -252,16 +297,58 @@ public class RestApiDataSource implements ExternalDataSource {
         return results.isEmpty() ? null : results.get(0);
     }
     
+    /**
+     * Execute a query for a single result without blocking the calling thread.
+     * 
+     * @param <T> The type of object to return
+     * @param query The named query or endpoint path
+     * @param parameters Parameters for the endpoint template
+     * @return Future of the first result, or of null if there are no results
+     */
+    public <T> CompletableFuture<T> queryForObjectAsync(String query, Map<String, Object> parameters) {
+        return this.<T>queryAsync(query, parameters)
+            .thenApply(results -> results.isEmpty() ? null : results.get(0));
+    }
+    
     @Override
     public <T> List<List<T>> batchQuery(List<String> queries) throws DataSourceException {
-        List<List<T>> results = new ArrayList<>();
-        
-        for (String query : queries) {
-            List<T> queryResult = query(query, Collections.emptyMap());
-            results.add(queryResult);
+        return await(this.<T>batchQueryAsync(queries), "batchQuery");
+    }
+    
+    /**
+     * Execute several queries concurrently without blocking the calling thread. At most the
+     * connection's max-concurrent-requests queries are in flight at once, and the results are
+     * in the order of the queries. The batch fails with the first query that fails, and no
+     * further queries are started once it has.
+     * 
+     * @param <T> The type of objects to return
+     * @param queries The named queries or endpoint paths
+     * @return Future of the results of each query
+     */
+    public <T> CompletableFuture<List<List<T>>> batchQueryAsync(List<String> queries) {
+        CompletableFuture<List<List<T>>> batch = new CompletableFuture<>();
+        if (queries.isEmpty()) {
+            batch.complete(new ArrayList<>());
+            return batch;
         }
         
-        return results;
+        AtomicReferenceArray<List<T>> results = new AtomicReferenceArray<>(queries.size());
+        AtomicInteger nextQuery = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(queries.size());
+        int lanes = Math.min(getMaxConcurrentRequests(), queries.size());
+        for (int i = 0; i < lanes; i++) {
+            startNextQuery(queries, results, nextQuery, remaining, batch);
+        }
+        return batch;
+    }
+    
+    /**
+     * Get the number of requests that were answered by sharing a request already in flight.
+     * 
+     * @return The number of coalesced requests
+     */
+    public long getCoalescedRequestCount() {
+        return coalescedRequests.get();
     }
     
     @Override
@@ -310,6 +397,7 @@ public class RestApiDataSource implements ExternalDataSource {
     @Override
     public void shutdown() {
         responseCache.clear();
+        inFlightRequests.clear();
         if (circuitBreaker != null) {
             circuitBreaker.shutdown();
         }
@@ -320,19 +408,122 @@ public class RestApiDataSource implements ExternalDataSource {
     /**
      * Execute API call for the given data type and parameters.
      */
-    private Object executeApiCall(String dataType, Object... parameters) throws Exception {
-        String endpoint = buildEndpoint(dataType, parameters);
-        HttpRequest request = buildHttpRequest(endpoint, "GET", null);
+    private CompletableFuture<Object> executeApiCall(String dataType, Object... parameters) {
+        CompletableFuture<HttpResponse<String>> pending;
+        try {
+            pending = sendGet(buildEndpoint(dataType, parameters));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
         
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return pending.thenApply(response -> {
+            if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                return parseResponse(response.body());
+            } else {
+                throw new RuntimeException("API call failed with status: " + response.statusCode());
+            }
+        });
+    }
+    
+    /**
+     * Send a GET request, or join the identical request if one is already in flight. The
+     * request leaves the in-flight map before its future completes, so a caller arriving
+     * after the response always sends a new request.
+     */
+    private CompletableFuture<HttpResponse<String>> sendGet(String url) {
+        CompletableFuture<HttpResponse<String>> pending = inFlightRequests.get(url);
+        if (pending == null) {
+            CompletableFuture<HttpResponse<String>> created = new CompletableFuture<>();
+            pending = inFlightRequests.putIfAbsent(url, created);
+            if (pending == null) {
+                try {
+                    HttpRequest request = buildHttpRequest(url, "GET", null);
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            inFlightRequests.remove(url, created);
+                            if (error != null) {
+                                created.completeExceptionally(unwrap(error));
+                            } else {
+                                created.complete(response);
+                            }
+                        });
+                } catch (RuntimeException e) {
+                    inFlightRequests.remove(url, created);
+                    created.completeExceptionally(e);
+                }
+                return created;
+            }
+        }
+        coalescedRequests.incrementAndGet();
+        return pending;
+    }
+    
+    /**
+     * Start the next query of a batch, and start another each time one completes.
+     */
+    private <T> void startNextQuery(List<String> queries, AtomicReferenceArray<List<T>> results,
+                                    AtomicInteger nextQuery, AtomicInteger remaining,
+                                    CompletableFuture<List<List<T>>> batch) {
+        int index = nextQuery.getAndIncrement();
+        if (index >= queries.size() || batch.isDone()) {
+            return;
+        }
         
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-            return parseResponse(response.body());
-        } else {
-            throw new RuntimeException("API call failed with status: " + response.statusCode());
+        this.<T>queryAsync(queries.get(index), Collections.emptyMap()).whenComplete((result, error) -> {
+            if (error != null) {
+                batch.completeExceptionally(unwrap(error));
+                return;
+            }
+            results.set(index, result);
+            if (remaining.decrementAndGet() == 0) {
+                List<List<T>> ordered = new ArrayList<>(queries.size());
+                for (int i = 0; i < queries.size(); i++) {
+                    ordered.add(results.get(i));
+                }
+                batch.complete(ordered);
+            } else {
+                startNextQuery(queries, results, nextQuery, remaining, batch);
+            }
+        });
+    }
+    
+    /**
+     * Wait for an asynchronous call, rethrowing its failure as a DataSourceException.
+     */
+    private <T> T await(CompletableFuture<T> future, String operation) throws DataSourceException {
+        // Bound the wait by the deadline of the calling query. The request itself is not
+        // cancelled, as concurrent callers may share it; it is bounded by the request timeout.
+        QueryContext context = QueryContext.current();
+        try {
+            if (context != null && context.hasDeadline()) {
+                return future.get(context.getRemainingMillis(), TimeUnit.MILLISECONDS);
+            }
+            return future.get();
+        } catch (TimeoutException e) {
+            throw new DataSourceException(DataSourceException.ErrorType.TIMEOUT_ERROR,
+                "REST API call timed out", e, getName(), operation, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DataSourceException.executionError("REST API call failed", e, operation);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DataSourceException) {
+                throw (DataSourceException) cause;
+            }
+            throw DataSourceException.executionError("REST API call failed", cause, operation);
         }
     }
     
+    /**
+     * Get the cause of a failure reported through a dependent future.
+     */
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+    
     /**
      * Build endpoint URL from data type and parameters.
      */
@@ -575,6 +766,15 @@ public class RestApiDataSource implements ExternalDataSource {
         return key.toString();
     }
     
+    /**
+     * Get the maximum number of requests a batch keeps in flight, at least one so that a
+     * misconfigured limit cannot leave a batch waiting on queries that are never started.
+     */
+    private int getMaxConcurrentRequests() {
+        Integer maxConcurrentRequests = configuration.getConnection().getMaxConcurrentRequests();
+        return maxConcurrentRequests != null ? Math.max(1, maxConcurrentRequests) : 64;
+    }
+    
     /**
      * Get timeout in milliseconds.
      */
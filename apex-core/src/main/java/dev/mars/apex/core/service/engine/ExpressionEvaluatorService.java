@@ -1,9 +1,13 @@
 package dev.mars.apex.core.service.engine;
 
+import dev.mars.apex.core.engine.config.ExpressionCompilationStatus;
+import dev.mars.apex.core.engine.config.ExpressionParserFactory;
+import dev.mars.apex.core.engine.config.RuleExpressionCache;
 import dev.mars.apex.core.engine.model.RuleResult;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import java.util.logging.Level;
@@ -37,10 +41,13 @@ import java.util.logging.Logger;
 /**
  * Service for evaluating SpEL expressions.
  * This class centralizes expression parsing and evaluation.
+ * Parsed expressions are cached by expression string, so that repeated evaluations
+ * skip parsing and, with a SpEL compiler mode, can run as compiled bytecode.
  */
 public class ExpressionEvaluatorService {
     private static final Logger LOGGER = Logger.getLogger(ExpressionEvaluatorService.class.getName());
     private final ExpressionParser parser;
+    private final RuleExpressionCache expressionCache;
 
     /**
      * Create a new ExpressionEvaluatorService with the default parser.
@@ -55,9 +62,24 @@ public class ExpressionEvaluatorService {
      * @param parser The expression parser to use
      */
     public ExpressionEvaluatorService(ExpressionParser parser) {
+        this(parser, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * Create a new ExpressionEvaluatorService whose expressions are compiled by the SpEL compiler.
+     * Expressions that cannot be compiled are evaluated by the interpreter.
+     *
+     * @param compilerMode The SpEL compiler mode, typically {@link SpelCompilerMode#MIXED}
+     */
+    public ExpressionEvaluatorService(SpelCompilerMode compilerMode) {
+        this(ExpressionParserFactory.createParser(compilerMode), compilerMode);
+    }
+
+    private ExpressionEvaluatorService(ExpressionParser parser, SpelCompilerMode compilerMode) {
         LOGGER.info("Initializing ExpressionEvaluatorService");
         this.parser = parser;
-        LOGGER.fine("Using parser: " + this.parser.getClass().getSimpleName());
+        this.expressionCache = new RuleExpressionCache(parser, RuleExpressionCache.DEFAULT_MAX_SIZE, compilerMode);
+        LOGGER.fine("Using parser: " + this.parser.getClass().getSimpleName() + " (compiler mode: " + compilerMode + ")");
     }
 
     /**
@@ -75,7 +97,7 @@ public class ExpressionEvaluatorService {
 
         try {
             LOGGER.fine("Parsing expression");
-            Expression exp = parser.parseExpression(expression);
+            Expression exp = expressionCache.getExpression(expression);
 
             LOGGER.fine("Evaluating expression against context");
             T result = exp.getValue(context, resultType);
@@ -110,7 +132,7 @@ public class ExpressionEvaluatorService {
             }
 
             LOGGER.fine("Parsing expression");
-            Expression exp = parser.parseExpression(expression);
+            Expression exp = expressionCache.getExpression(expression);
 
             LOGGER.fine("Evaluating expression against context");
             T result = exp.getValue(context, resultType);
@@ -153,7 +175,7 @@ public class ExpressionEvaluatorService {
         LOGGER.finest("Expected result type: " + resultType.getSimpleName());
 
         try {
-            Expression exp = parser.parseExpression(expression);
+            Expression exp = expressionCache.getExpression(expression);
             T result = exp.getValue(context, resultType);
             LOGGER.finest("Expression evaluated successfully");
             return result;
@@ -172,6 +194,25 @@ public class ExpressionEvaluatorService {
         }
     }
 
+    /**
+     * Gets the compilation status of an expression evaluated by this service.
+     *
+     * @param expression The SpEL expression
+     * @return The compilation status of the expression
+     */
+    public ExpressionCompilationStatus getCompilationStatus(String expression) {
+        return expressionCache.getCompilationStatus(expression);
+    }
+
+    /**
+     * Gets the cache of parsed expressions used by this service.
+     *
+     * @return The expression cache
+     */
+    public RuleExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
     /**
      * Gets the expression parser.
      * 
@@ -0,0 +1,225 @@
+package dev.mars.apex.core.service.enrichment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Bounded cache of lookup results, partitioned by lookup service.
+ *
+ * Each lookup service gets its own partition, keyed directly by the lookup key object, so no
+ * composite string keys are built. Every partition holds at most its configured number of
+ * entries; a lookup service shared by enrichments with different limits keeps the largest, so
+ * that the bound does not change with whichever enrichment cached a result last. Because all entries of a lookup share the same TTL, insertion order is also expiry
+ * order, so when a partition is full the oldest entry is evicted in O(1). Expired entries are
+ * removed when they are read.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class LookupResultCache {
+
+    /** Default maximum number of cached results per lookup service. */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Look up a cached result.
+     *
+     * @param serviceName The lookup service name
+     * @param lookupKey The lookup key
+     * @return The cached entry, or null if there is no live entry for the key
+     */
+    public CachedResult get(String serviceName, Object lookupKey) {
+        Partition partition = partitions.get(serviceName);
+        CachedResult cached = partition != null ? partition.entries.get(lookupKey) : null;
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            if (partition.entries.remove(lookupKey, cached)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    /**
+     * Cache a lookup result, evicting the oldest entries of the service's partition if it is full.
+     *
+     * @param serviceName The lookup service name
+     * @param lookupKey The lookup key
+     * @param result The lookup result, which may be null
+     * @param ttlSeconds The time to live of the entry in seconds
+     * @param maxEntries The maximum number of entries to keep for this service; the largest limit
+     *                   given for a service applies
+     */
+    public void put(String serviceName, Object lookupKey, Object result, int ttlSeconds, int maxEntries) {
+        int limit = Math.max(1, maxEntries);
+        Partition partition = partitions.computeIfAbsent(serviceName, name -> new Partition(limit));
+        int bound = partition.maxEntries.get();
+        if (limit > bound) {
+            bound = partition.maxEntries.accumulateAndGet(limit, Math::max);
+        }
+
+        CachedResult cached = new CachedResult(lookupKey, result,
+            System.currentTimeMillis() + (ttlSeconds * 1000L));
+        partition.entries.put(lookupKey, cached);
+        partition.insertionOrder.offer(cached);
+
+        // Every cached entry has one node in the queue, so bounding the queue bounds the partition.
+        // Nodes of replaced entries no longer match the map and are dropped without evicting.
+        int queued = partition.queued.incrementAndGet();
+        while (queued > bound) {
+            CachedResult oldest = partition.insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued = partition.queued.decrementAndGet();
+            if (partition.entries.remove(oldest.lookupKey, oldest)) {
+                if (oldest.isExpired(System.currentTimeMillis())) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all cached results. Statistics are kept.
+     */
+    public void clear() {
+        partitions.clear();
+    }
+
+    /**
+     * Get the total number of cached results across all lookup services.
+     *
+     * @return The number of cached results
+     */
+    public int size() {
+        int size = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.entries.size();
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of cached results per lookup service.
+     *
+     * @return Map of lookup service name to number of cached results
+     */
+    public Map<String, Integer> getSizeByService() {
+        Map<String, Integer> sizes = new HashMap<>();
+        partitions.forEach((name, partition) -> sizes.put(name, partition.entries.size()));
+        return sizes;
+    }
+
+    /**
+     * Count the cached results that have expired but have not been read since.
+     *
+     * @return The number of expired entries still held
+     */
+    public long countExpired() {
+        long now = System.currentTimeMillis();
+        long expired = 0;
+        for (Partition partition : partitions.values()) {
+            for (CachedResult cached : partition.entries.values()) {
+                if (cached.isExpired(now)) {
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Cached results of one lookup service.
+     */
+    private static final class Partition {
+        private final ConcurrentHashMap<Object, CachedResult> entries = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<CachedResult> insertionOrder = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxEntries;
+
+        private Partition(int maxEntries) {
+            this.maxEntries = new AtomicInteger(maxEntries);
+        }
+    }
+
+    /**
+     * Cached lookup result with TTL support.
+     */
+    public static final class CachedResult {
+        private final Object lookupKey;
+        private final Object result;
+        private final long expirationTime;
+
+        private CachedResult(Object lookupKey, Object result, long expirationTime) {
+            this.lookupKey = lookupKey;
+            this.result = result;
+            this.expirationTime = expirationTime;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+
+        boolean isExpired(long currentTime) {
+            return currentTime > expirationTime;
+        }
+    }
+}
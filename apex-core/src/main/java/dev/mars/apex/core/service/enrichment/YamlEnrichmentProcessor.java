@@ -1,21 +1,30 @@
 package dev.mars.apex.core.service.enrichment;
 
 import dev.mars.apex.core.config.yaml.YamlEnrichment;
+import dev.mars.apex.core.engine.config.ExpressionCompilationStatus;
+import dev.mars.apex.core.engine.config.ExpressionParserFactory;
+import dev.mars.apex.core.engine.config.RuleExpressionCache;
+import dev.mars.apex.core.engine.context.EvaluationContextTemplate;
 import dev.mars.apex.core.service.engine.ExpressionEvaluatorService;
 import dev.mars.apex.core.service.lookup.DatasetLookupService;
 import dev.mars.apex.core.service.lookup.DatasetLookupServiceFactory;
 import dev.mars.apex.core.service.lookup.LookupService;
 import dev.mars.apex.core.service.lookup.LookupServiceRegistry;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,6 +60,10 @@ import java.util.logging.Logger;
 public class YamlEnrichmentProcessor {
     
     private static final Logger LOGGER = Logger.getLogger(YamlEnrichmentProcessor.class.getName());
+
+    // Lower priority numbers are processed first; enrichments without a priority default to 100
+    private static final Comparator<YamlEnrichment> ENRICHMENT_PRIORITY = Comparator.comparingInt(
+        enrichment -> enrichment.getPriority() != null ? enrichment.getPriority() : 100);
     
     private final LookupServiceRegistry serviceRegistry;
     @SuppressWarnings("unused") // Reserved for future expression evaluation enhancements
@@ -58,19 +71,40 @@ public class YamlEnrichmentProcessor {
     private final SpelExpressionParser parser;
 
     // Cache for compiled expressions to improve performance
-    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+    private final RuleExpressionCache expressionCache;
+
+    // Shared evaluation context configuration (accessors, resolvers, common variables)
+    private final EvaluationContextTemplate contextTemplate;
 
-    // Cache for lookup results (if caching is enabled)
-    private final Map<String, CachedLookupResult> lookupCache = new ConcurrentHashMap<>();
+    // Bounded cache for lookup results (if caching is enabled), partitioned by lookup service
+    private final LookupResultCache lookupCache = new LookupResultCache();
 
     // Current configuration context for database lookups
     private dev.mars.apex.core.config.yaml.YamlRuleConfiguration currentConfiguration;
     
     public YamlEnrichmentProcessor(LookupServiceRegistry serviceRegistry,
                                    ExpressionEvaluatorService evaluatorService) {
+        this(serviceRegistry, evaluatorService, SpelCompilerMode.OFF);
+    }
+
+    /**
+     * Create a processor whose enrichment expressions are compiled by the SpEL compiler.
+     * Expressions that cannot be compiled are evaluated by the interpreter.
+     *
+     * @param serviceRegistry The lookup service registry
+     * @param evaluatorService The expression evaluator service
+     * @param compilerMode The SpEL compiler mode, typically {@link SpelCompilerMode#MIXED}
+     */
+    public YamlEnrichmentProcessor(LookupServiceRegistry serviceRegistry,
+                                   ExpressionEvaluatorService evaluatorService,
+                                   SpelCompilerMode compilerMode) {
         this.serviceRegistry = serviceRegistry;
         this.evaluatorService = evaluatorService;
-        this.parser = new SpelExpressionParser();
+        this.parser = ExpressionParserFactory.createParser(compilerMode);
+        this.expressionCache = new RuleExpressionCache(parser, RuleExpressionCache.DEFAULT_MAX_SIZE, compilerMode);
+        this.contextTemplate = EvaluationContextTemplate.builder()
+            .withVariable("serviceRegistry", serviceRegistry)
+            .build();
 
         LOGGER.info("YamlEnrichmentProcessor initialized with service registry and expression evaluator");
     }
@@ -109,11 +143,7 @@ public class YamlEnrichmentProcessor {
                    targetObject.getClass().getSimpleName());
         
         // Sort enrichments by priority (lower numbers = higher priority)
-        enrichments.sort((e1, e2) -> {
-            int priority1 = e1.getPriority() != null ? e1.getPriority() : 100;
-            int priority2 = e2.getPriority() != null ? e2.getPriority() : 100;
-            return Integer.compare(priority1, priority2);
-        });
+        enrichments.sort(ENRICHMENT_PRIORITY);
         
         Object enrichedObject = targetObject;
         int processedCount = 0;
@@ -140,6 +170,57 @@ public class YamlEnrichmentProcessor {
         return enrichedObject;
     }
     
+    /**
+     * Process a list of enrichments on a batch of target objects.
+     *
+     * Each object receives the same enrichments, in the same order, as it would from
+     * {@link #processEnrichments(List, Object, dev.mars.apex.core.config.yaml.YamlRuleConfiguration)}.
+     * Lookup enrichments are applied across the whole batch at once: the lookup service is
+     * resolved once, the distinct lookup keys of all objects are collected, and the keys that
+     * are not cached are resolved with a single {@link LookupService#transformAll} call, which
+     * database lookups turn into one IN-list query instead of one query per object.
+     *
+     * @param enrichments The list of enrichments to apply
+     * @param targetObjects The objects to enrich
+     * @param configuration The full YAML configuration (required for database lookups)
+     * @return The enriched objects, in the same order as the targets
+     */
+    public List<Object> processEnrichmentsBatch(List<YamlEnrichment> enrichments, List<?> targetObjects,
+                                                dev.mars.apex.core.config.yaml.YamlRuleConfiguration configuration) {
+        // Set current configuration for database lookups
+        this.currentConfiguration = configuration;
+
+        List<Object> enrichedObjects = new ArrayList<>(targetObjects);
+        if (enrichments == null || enrichments.isEmpty() || enrichedObjects.isEmpty()) {
+            LOGGER.fine("No enrichments or targets to process");
+            return enrichedObjects;
+        }
+
+        LOGGER.info("Processing " + enrichments.size() + " enrichments for a batch of " +
+                   enrichedObjects.size() + " objects");
+
+        List<YamlEnrichment> orderedEnrichments = new ArrayList<>(enrichments);
+        orderedEnrichments.sort(ENRICHMENT_PRIORITY);
+
+        for (YamlEnrichment enrichment : orderedEnrichments) {
+            if ("lookup-enrichment".equals(enrichment.getType())) {
+                processLookupEnrichmentBatch(enrichment, enrichedObjects);
+                continue;
+            }
+
+            for (int i = 0; i < enrichedObjects.size(); i++) {
+                try {
+                    enrichedObjects.set(i, processEnrichment(enrichment, enrichedObjects.get(i)));
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Failed to process enrichment '" + enrichment.getId() +
+                              "': " + e.getMessage(), e);
+                }
+            }
+        }
+
+        return enrichedObjects;
+    }
+
     /**
      * Process a single enrichment on a target object.
      * 
@@ -283,6 +364,74 @@ public class YamlEnrichmentProcessor {
         return applyFieldMappings(enrichment.getFieldMappings(), lookupResult, targetObject);
     }
     
+    /**
+     * Process a lookup-based enrichment on every object of a batch, resolving all lookup keys together.
+     *
+     * @param enrichment The enrichment configuration
+     * @param targetObjects The objects to enrich; enriched objects are written back in place
+     */
+    private void processLookupEnrichmentBatch(YamlEnrichment enrichment, List<Object> targetObjects) {
+        YamlEnrichment.LookupConfig lookupConfig = enrichment.getLookupConfig();
+        if (lookupConfig == null) {
+            LOGGER.warning("Lookup enrichment '" + enrichment.getId() + "' has no lookup configuration");
+            return;
+        }
+
+        LookupService lookupService;
+        try {
+            lookupService = resolveLookupService(enrichment.getId(), lookupConfig);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to process enrichment '" + enrichment.getId() +
+                      "': " + e.getMessage(), e);
+            return;
+        }
+
+        // 1. Extract the lookup key of every object the enrichment applies to
+        Object[] lookupKeys = new Object[targetObjects.size()];
+        Set<Object> distinctKeys = new LinkedHashSet<>();
+        for (int i = 0; i < targetObjects.size(); i++) {
+            Object targetObject = targetObjects.get(i);
+            if (!shouldProcessEnrichment(enrichment, targetObject)) {
+                continue;
+            }
+            try {
+                StandardEvaluationContext context = createEvaluationContext(targetObject);
+                Object lookupKey = getOrCompileExpression(lookupConfig.getLookupKey()).getValue(context);
+                if (lookupKey != null) {
+                    lookupKeys[i] = lookupKey;
+                    distinctKeys.add(lookupKey);
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to extract lookup key using expression '" +
+                          lookupConfig.getLookupKey() + "' for enrichment '" + enrichment.getId() +
+                          "': " + e.getMessage(), e);
+            }
+        }
+
+        if (distinctKeys.isEmpty()) {
+            return;
+        }
+
+        // 2. Resolve all distinct keys at once
+        Map<Object, Object> lookupResults = performBatchLookup(lookupService, distinctKeys, lookupConfig);
+        LOGGER.fine("Resolved " + distinctKeys.size() + " distinct lookup keys for " +
+                   targetObjects.size() + " objects with service: " + lookupService.getName());
+
+        // 3. Fan the results back out to the objects
+        for (int i = 0; i < targetObjects.size(); i++) {
+            if (lookupKeys[i] == null) {
+                continue;
+            }
+            try {
+                targetObjects.set(i, applyFieldMappings(enrichment.getFieldMappings(),
+                                                        lookupResults.get(lookupKeys[i]), targetObjects.get(i)));
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to process enrichment '" + enrichment.getId() +
+                          "': " + e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * Process a calculation-based enrichment.
      * 
@@ -338,12 +487,12 @@ public class YamlEnrichmentProcessor {
     private Object performLookup(LookupService lookupService, Object lookupKey, 
                                 YamlEnrichment.LookupConfig lookupConfig) {
         
-        String cacheKey = lookupService.getName() + ":" + lookupKey.toString();
+        boolean cacheEnabled = lookupConfig.getCacheEnabled() != null && lookupConfig.getCacheEnabled();
         
         // Check cache if enabled
-        if (lookupConfig.getCacheEnabled() != null && lookupConfig.getCacheEnabled()) {
-            CachedLookupResult cached = lookupCache.get(cacheKey);
-            if (cached != null && !cached.isExpired()) {
+        if (cacheEnabled) {
+            LookupResultCache.CachedResult cached = lookupCache.get(lookupService.getName(), lookupKey);
+            if (cached != null) {
                 LOGGER.finest("Cache hit for lookup key: " + lookupKey);
                 return cached.getResult();
             }
@@ -353,16 +502,64 @@ public class YamlEnrichmentProcessor {
         Object result = lookupService.transform(lookupKey);
         
         // Cache result if caching is enabled
-        if (lookupConfig.getCacheEnabled() != null && lookupConfig.getCacheEnabled()) {
+        if (cacheEnabled) {
             int ttlSeconds = lookupConfig.getCacheTtlSeconds() != null ? 
                            lookupConfig.getCacheTtlSeconds() : 300;
-            lookupCache.put(cacheKey, new CachedLookupResult(result, ttlSeconds));
+            int maxEntries = lookupConfig.getCacheMaxSize() != null ?
+                           lookupConfig.getCacheMaxSize() : LookupResultCache.DEFAULT_MAX_ENTRIES;
+            lookupCache.put(lookupService.getName(), lookupKey, result, ttlSeconds, maxEntries);
             LOGGER.finest("Cached lookup result for key: " + lookupKey);
         }
         
         return result;
     }
 
+    /**
+     * Perform lookups for several keys, serving cached keys from the cache and resolving
+     * the remaining keys with a single {@link LookupService#transformAll} call.
+     *
+     * @param lookupService The lookup service
+     * @param lookupKeys The distinct lookup keys
+     * @param lookupConfig The lookup configuration
+     * @return The lookup result for each key
+     */
+    private Map<Object, Object> performBatchLookup(LookupService lookupService, Collection<Object> lookupKeys,
+                                                   YamlEnrichment.LookupConfig lookupConfig) {
+
+        boolean cacheEnabled = lookupConfig.getCacheEnabled() != null && lookupConfig.getCacheEnabled();
+        if (!cacheEnabled) {
+            return lookupService.transformAll(lookupKeys);
+        }
+
+        Map<Object, Object> results = new HashMap<>();
+        List<Object> missingKeys = new ArrayList<>();
+        for (Object lookupKey : lookupKeys) {
+            LookupResultCache.CachedResult cached = lookupCache.get(lookupService.getName(), lookupKey);
+            if (cached != null) {
+                results.put(lookupKey, cached.getResult());
+            } else {
+                missingKeys.add(lookupKey);
+            }
+        }
+
+        if (!missingKeys.isEmpty()) {
+            int ttlSeconds = lookupConfig.getCacheTtlSeconds() != null ?
+                           lookupConfig.getCacheTtlSeconds() : 300;
+            int maxEntries = lookupConfig.getCacheMaxSize() != null ?
+                           lookupConfig.getCacheMaxSize() : LookupResultCache.DEFAULT_MAX_ENTRIES;
+            Map<Object, Object> fetched = lookupService.transformAll(missingKeys);
+            for (Object lookupKey : missingKeys) {
+                Object result = fetched.get(lookupKey);
+                lookupCache.put(lookupService.getName(), lookupKey, result, ttlSeconds, maxEntries);
+                results.put(lookupKey, result);
+            }
+        }
+
+        LOGGER.finest("Batch lookup served " + (lookupKeys.size() - missingKeys.size()) + " of " +
+                     lookupKeys.size() + " keys from cache");
+        return results;
+    }
+
     /**
      * Apply field mappings from lookup result to target object.
      *
@@ -565,27 +762,15 @@ public class YamlEnrichmentProcessor {
 
     /**
      * Create evaluation context for SpEL expressions.
+     * If the root object is a Map, its entries are exposed as variables for easier access
+     * without being copied into the context.
      *
      * @param rootObject The root object for the context
      * @return The evaluation context
      */
     private StandardEvaluationContext createEvaluationContext(Object rootObject) {
-        StandardEvaluationContext context = new StandardEvaluationContext(rootObject);
-
-        // Add common variables and functions
-        context.setVariable("serviceRegistry", serviceRegistry);
-
-        // If the root object is a Map, add its entries as variables for easier access
-        if (rootObject instanceof Map) {
-            Map<?, ?> rootMap = (Map<?, ?>) rootObject;
-            for (Map.Entry<?, ?> entry : rootMap.entrySet()) {
-                if (entry.getKey() instanceof String) {
-                    context.setVariable((String) entry.getKey(), entry.getValue());
-                }
-            }
-        }
-
-        return context;
+        Map<?, ?> facts = rootObject instanceof Map ? (Map<?, ?>) rootObject : null;
+        return contextTemplate.createContext(rootObject, facts);
     }
 
     /**
@@ -595,7 +780,18 @@ public class YamlEnrichmentProcessor {
      * @return The compiled expression
      */
     private Expression getOrCompileExpression(String expressionString) {
-        return expressionCache.computeIfAbsent(expressionString, parser::parseExpression);
+        return expressionCache.getExpression(expressionString);
+    }
+
+    /**
+     * Get the compilation status of an enrichment expression (condition, lookup key,
+     * calculation or transformation) that this processor has evaluated.
+     *
+     * @param expressionString The expression string
+     * @return The compilation status of the expression
+     */
+    public ExpressionCompilationStatus getCompilationStatus(String expressionString) {
+        return expressionCache.getCompilationStatus(expressionString);
     }
 
     /**
@@ -614,12 +810,14 @@ public class YamlEnrichmentProcessor {
     public Map<String, Object> getCacheStatistics() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("cacheSize", lookupCache.size());
+        stats.put("cacheSizeByService", lookupCache.getSizeByService());
         stats.put("expressionCacheSize", expressionCache.size());
-
-        long expiredEntries = lookupCache.values().stream()
-            .mapToLong(entry -> entry.isExpired() ? 1 : 0)
-            .sum();
-        stats.put("expiredEntries", expiredEntries);
+        stats.put("expiredEntries", lookupCache.countExpired());
+        stats.put("hits", lookupCache.getHitCount());
+        stats.put("misses", lookupCache.getMissCount());
+        stats.put("hitRate", lookupCache.getHitRate());
+        stats.put("evictions", lookupCache.getEvictionCount());
+        stats.put("expirations", lookupCache.getExpirationCount());
 
         return stats;
     }
@@ -670,25 +868,4 @@ public class YamlEnrichmentProcessor {
 
         throw new EnrichmentException("No lookup service or dataset configured for enrichment: " + enrichmentId);
     }
-
-    /**
-     * Cached lookup result with TTL support.
-     */
-    private static class CachedLookupResult {
-        private final Object result;
-        private final long expirationTime;
-
-        public CachedLookupResult(Object result, int ttlSeconds) {
-            this.result = result;
-            this.expirationTime = System.currentTimeMillis() + (ttlSeconds * 1000L);
-        }
-
-        public Object getResult() {
-            return result;
-        }
-
-        public boolean isExpired() {
-            return System.currentTimeMillis() > expirationTime;
-        }
-    }
 }
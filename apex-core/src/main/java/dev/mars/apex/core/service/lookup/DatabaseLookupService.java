@@ -22,7 +22,10 @@ import dev.mars.apex.core.service.data.external.DataSourceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Database-backed lookup service implementation.
@@ -34,11 +37,24 @@ import java.util.*;
 public class DatabaseLookupService extends LookupService {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseLookupService.class);
+
+    /** Maximum number of keys bound into a single IN list by {@link #transformAll(Collection)}. */
+    public static final int MAX_KEYS_PER_QUERY = 500;
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<![:\\w]):(\\w+)");
+    private static final Pattern KEY_PREDICATE = Pattern.compile("([A-Za-z_][\\w.]*)\\s*=\\s*:(\\w+)");
+    private static final Pattern ROW_LIMIT = Pattern.compile("\\b(LIMIT|TOP|FETCH\\s+FIRST|ROWNUM)\\b",
+                                                             Pattern.CASE_INSENSITIVE);
     
     private final ExternalDataSource dataSource;
     private final String query;
     private final List<String> parameterFields;
     private final Map<String, Object> defaultValues;
+
+    // IN-list form of the query used for batched lookups, or null if the query cannot be batched
+    private final String batchQuery;
+    private final String keyColumn;
+    private final String keyParameter;
     
     /**
      * Create a database lookup service.
@@ -59,6 +75,19 @@ public class DatabaseLookupService extends LookupService {
         this.query = query;
         this.parameterFields = parameterFields != null ? parameterFields : Collections.emptyList();
         this.defaultValues = defaultValues != null ? defaultValues : Collections.emptyMap();
+
+        Matcher predicate = findBatchableKeyPredicate(query, this.parameterFields);
+        if (predicate != null) {
+            String column = predicate.group(1);
+            this.keyColumn = column.substring(column.lastIndexOf('.') + 1);
+            this.keyParameter = predicate.group(2);
+            this.batchQuery = query.substring(0, predicate.start()) + column + " IN (:" + keyParameter + ")" +
+                             query.substring(predicate.end());
+        } else {
+            this.keyColumn = null;
+            this.keyParameter = null;
+            this.batchQuery = null;
+        }
         
         LOGGER.info("Created DatabaseLookupService '{}' with query: {}", name, query);
     }
@@ -71,7 +100,6 @@ public class DatabaseLookupService extends LookupService {
      */
     @Override
     public Object transform(Object key) {
-        LOGGER.info("TRACE: DatabaseLookupService.transform called with key: {}", key);
         if (key == null) {
             LOGGER.debug("Lookup key is null, returning default values");
             return defaultValues.isEmpty() ? null : new HashMap<>(defaultValues);
@@ -81,8 +109,7 @@ public class DatabaseLookupService extends LookupService {
             // Build parameters map from lookup key
             Map<String, Object> parameters = buildParametersMap(key);
 
-            LOGGER.info("Executing database lookup with parameters: {} for query: {}", parameters, query);
-            LOGGER.info("TRACE: DatabaseLookupService calling dataSource.queryForObject - dataSource type: {}", dataSource.getClass().getName());
+            LOGGER.debug("Executing database lookup with parameters: {} for query: {}", parameters, query);
 
             // Execute database query
             Object result = dataSource.queryForObject(query, parameters);
@@ -114,6 +141,190 @@ public class DatabaseLookupService extends LookupService {
         }
     }
     
+    /**
+     * Perform database lookups for several keys with one query per {@link #MAX_KEYS_PER_QUERY} keys.
+     *
+     * The configured query is rewritten from "column = :param" to "column IN (:param)" and the
+     * returned rows are matched back to the keys through that column, so the query must select
+     * the key column. Numbers are matched by value, so a DECIMAL column value of 1.00 matches the
+     * key 1, and trailing CHAR padding is ignored. Keys left unmatched while the query returned
+     * rows that matched no key are looked up one at a time. Queries with more than one parameter,
+     * a row limit, or Map keys cannot be batched and fall back to one query per key.
+     *
+     * @param keys The lookup keys
+     * @return The query result (merged with default values) for each distinct key
+     */
+    @Override
+    public Map<Object, Object> transformAll(Collection<?> keys) {
+        if (batchQuery == null) {
+            return super.transformAll(keys);
+        }
+
+        List<Object> distinctKeys = new ArrayList<>();
+        Set<Object> seen = new HashSet<>();
+        boolean hasNullKey = false;
+        for (Object key : keys) {
+            if (key instanceof Map) {
+                return super.transformAll(keys);
+            }
+            if (key == null) {
+                hasNullKey = true;
+            } else if (seen.add(key)) {
+                distinctKeys.add(key);
+            }
+        }
+
+        Map<Object, Object> results = new LinkedHashMap<>();
+        if (hasNullKey) {
+            results.put(null, transform(null));
+        }
+
+        for (int start = 0; start < distinctKeys.size(); start += MAX_KEYS_PER_QUERY) {
+            List<Object> chunk = distinctKeys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, distinctKeys.size()));
+            Map<String, Map<String, Object>> rowsByKey = queryChunk(chunk);
+
+            if (rowsByKey == null) {
+                // Rows could not be matched back to keys, resolve this chunk one key at a time
+                for (Object key : chunk) {
+                    results.put(key, transform(key));
+                }
+                continue;
+            }
+
+            Set<String> matchedRows = new HashSet<>();
+            List<Object> unmatchedKeys = new ArrayList<>();
+            for (Object key : chunk) {
+                String matchKey = matchKey(key);
+                Map<String, Object> row = rowsByKey.get(matchKey);
+                if (row == null) {
+                    unmatchedKeys.add(key);
+                    results.put(key, defaultValues.isEmpty() ? null : new HashMap<>(defaultValues));
+                } else if (defaultValues.isEmpty()) {
+                    matchedRows.add(matchKey);
+                    results.put(key, row);
+                } else {
+                    matchedRows.add(matchKey);
+                    Map<String, Object> mergedResult = new HashMap<>(defaultValues);
+                    mergedResult.putAll(row);
+                    results.put(key, mergedResult);
+                }
+            }
+
+            if (!unmatchedKeys.isEmpty() && matchedRows.size() < rowsByKey.size()) {
+                // The database matched keys that compare differently here, e.g. through a case-insensitive collation
+                for (Object key : unmatchedKeys) {
+                    results.put(key, transform(key));
+                }
+            }
+        }
+
+        LOGGER.debug("Batched database lookup resolved {} keys with {} queries",
+                    distinctKeys.size(), (distinctKeys.size() + MAX_KEYS_PER_QUERY - 1) / MAX_KEYS_PER_QUERY);
+        return results;
+    }
+
+    /**
+     * Run the batched query for one chunk of keys and index the rows by key column value.
+     *
+     * @param chunk The keys to query
+     * @return Rows indexed by the {@link #matchKey} of their key, or null if the rows do not contain the key column
+     */
+    private Map<String, Map<String, Object>> queryChunk(List<Object> chunk) {
+        List<Object> rows;
+        try {
+            rows = dataSource.query(batchQuery, Collections.singletonMap(keyParameter, chunk));
+        } catch (Exception e) {
+            LOGGER.error("Batched database lookup failed for {} keys: {}", chunk.size(), e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<String, Object>> rowsByKey = new HashMap<>();
+        for (Object row : rows) {
+            if (!(row instanceof Map)) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> rowMap = (Map<String, Object>) row;
+            Object keyValue = null;
+            boolean found = false;
+            for (Map.Entry<String, Object> column : rowMap.entrySet()) {
+                if (keyColumn.equalsIgnoreCase(column.getKey())) {
+                    keyValue = column.getValue();
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                LOGGER.debug("Batched lookup rows do not contain key column '{}', falling back to single lookups", keyColumn);
+                return null;
+            }
+            // First row wins, as with single lookups
+            rowsByKey.putIfAbsent(matchKey(keyValue), rowMap);
+        }
+        return rowsByKey;
+    }
+
+    /**
+     * Get the form in which a key and a key column value are compared.
+     * Numbers compare by value whatever their type and scale, and strings without the trailing
+     * spaces that CHAR columns are padded with.
+     */
+    static String matchKey(Object value) {
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                // NaN and infinite values
+                return value.toString();
+            }
+        }
+        if (value instanceof CharSequence) {
+            return value.toString().stripTrailing();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Find the "column = :param" predicate of a query that can be rewritten to an IN list.
+     *
+     * @return The matched predicate, or null if the query cannot be batched
+     */
+    private static Matcher findBatchableKeyPredicate(String query, List<String> parameterFields) {
+        if (query == null || parameterFields.size() > 1 || ROW_LIMIT.matcher(query).find()) {
+            return null;
+        }
+
+        Matcher parameters = NAMED_PARAMETER.matcher(query);
+        if (!parameters.find()) {
+            return null;
+        }
+        String parameterName = parameters.group(1);
+        if (parameters.find()) {
+            return null;
+        }
+        String expectedName = parameterFields.isEmpty() ? "key" : parameterFields.get(0);
+        if (!parameterName.equals(expectedName)) {
+            return null;
+        }
+
+        Matcher predicate = KEY_PREDICATE.matcher(query);
+        while (predicate.find()) {
+            if (predicate.group(2).equals(parameterName)) {
+                return predicate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether {@link #transformAll(Collection)} resolves keys with a single IN-list query.
+     *
+     * @return true if the configured query can be batched
+     */
+    public boolean isBatchable() {
+        return batchQuery != null;
+    }
+
     /**
      * Build parameters map from lookup key.
      * 
@@ -686,6 +686,12 @@ public class DatasetLookupServiceFactory {
             return databaseService.transform(key);
         }
 
+        @Override
+        public java.util.Map<Object, Object> transformAll(java.util.Collection<?> keys) {
+            // Delegate so that database lookups are batched into IN-list queries
+            return databaseService.transformAll(keys);
+        }
+
         @Override
         public java.util.Map<String, java.util.Map<String, Object>> getAllRecords() {
             // Database services don't preload all records
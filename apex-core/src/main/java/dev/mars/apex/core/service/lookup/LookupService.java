@@ -1,6 +1,8 @@
 package dev.mars.apex.core.service.lookup;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -80,6 +82,24 @@ public class LookupService implements IDataLookup {
         this.transformationFunction = transformationFunction;
     }
 
+    /**
+     * Transform several keys at once.
+     * The default implementation calls {@link #transform(Object)} once per distinct key;
+     * services backed by a remote store override it to resolve all keys in one round trip.
+     *
+     * @param keys The keys to transform
+     * @return The transformed value of each distinct key, keyed by the original key
+     */
+    public Map<Object, Object> transformAll(Collection<?> keys) {
+        Map<Object, Object> results = new LinkedHashMap<>();
+        for (Object key : keys) {
+            if (!results.containsKey(key)) {
+                results.put(key, transform(key));
+            }
+        }
+        return results;
+    }
+
     // Existing methods
     public List<String> getLookupValues() {
         return lookupValues;
@@ -0,0 +1,48 @@
+package dev.mars.apex.core.service.monitoring;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * How much work {@link RulePerformanceMonitor} does for each monitored evaluation.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public enum MonitoringMode {
+    /** Wall-clock timestamps, memory sampling, and a history entry and snapshot update per evaluation */
+    DETAILED("Detailed", "Full metrics, history and snapshots for every evaluation"),
+
+    /** Monotonic timing into per-rule counters and latency histograms, with optional sampled detail */
+    LOW_OVERHEAD("Low overhead", "Per-rule counters and latency histograms; detailed metrics are only sampled");
+
+    private final String displayName;
+    private final String description;
+
+    MonitoringMode(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
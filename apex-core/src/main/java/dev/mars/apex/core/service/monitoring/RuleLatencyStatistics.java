@@ -0,0 +1,122 @@
+package dev.mars.apex.core.service.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Running evaluation statistics for a single rule, as collected by
+ * {@link RulePerformanceMonitor} in {@link MonitoringMode#LOW_OVERHEAD} mode.
+ *
+ * All counters are striped and the latency histogram has a fixed size, so recording an
+ * evaluation is lock-free and does not allocate. The expression complexity is computed once
+ * when the statistics are created.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+public class RuleLatencyStatistics {
+
+    private final String ruleName;
+    private final int expressionComplexity;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder failedEvaluations = new LongAdder();
+
+    RuleLatencyStatistics(String ruleName, int expressionComplexity) {
+        this.ruleName = ruleName;
+        this.expressionComplexity = expressionComplexity;
+    }
+
+    void record(long elapsedNanos, boolean failed) {
+        histogram.record(elapsedNanos);
+        if (failed) {
+            failedEvaluations.increment();
+        }
+    }
+
+    void reset() {
+        histogram.reset();
+        failedEvaluations.reset();
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public int getExpressionComplexity() {
+        return expressionComplexity;
+    }
+
+    public long getEvaluationCount() {
+        return histogram.getCount();
+    }
+
+    public long getFailedEvaluations() {
+        return failedEvaluations.sum();
+    }
+
+    public double getSuccessRate() {
+        long count = histogram.getCount();
+        return count == 0 ? 0.0 : 1.0 - (double) failedEvaluations.sum() / count;
+    }
+
+    public long getTotalEvaluationTimeNanos() {
+        return histogram.getTotalNanos();
+    }
+
+    public double getAverageEvaluationTimeNanos() {
+        return histogram.getMeanNanos();
+    }
+
+    public long getMaxEvaluationTimeNanos() {
+        return histogram.getMaxNanos();
+    }
+
+    /**
+     * Get the evaluation time below which the given percentage of evaluations completed.
+     *
+     * @param percentile The percentile, between 0.0 and 100.0
+     * @return The evaluation time in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public String getPerformanceSummary() {
+        return String.format(
+            "Rule: %s | Evaluations: %d | Avg Time: %.3fms | p99: %.3fms | Success Rate: %.1f%% | Complexity: %d",
+            ruleName, getEvaluationCount(), getAverageEvaluationTimeNanos() / 1_000_000.0,
+            getPercentileNanos(99.0) / 1_000_000.0, getSuccessRate() * 100, expressionComplexity
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "RuleLatencyStatistics{" +
+                "ruleName='" + ruleName + '\'' +
+                ", evaluationCount=" + getEvaluationCount() +
+                ", failedEvaluations=" + getFailedEvaluations() +
+                ", histogram=" + histogram +
+                ", expressionComplexity=" + expressionComplexity +
+                '}';
+    }
+}
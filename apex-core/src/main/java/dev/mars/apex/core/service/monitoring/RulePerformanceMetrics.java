@@ -264,11 +264,35 @@ public class RulePerformanceMetrics implements Serializable {
         private boolean cacheHit;
         private String evaluationPhase = "evaluation";
         private Exception evaluationException;
+        private long startNanos;
+        private boolean hasStartNanos;
 
         public Builder(String ruleName) {
             this.ruleName = ruleName;
         }
 
+        /**
+         * Record the start of the evaluation as a {@link System#nanoTime()} reading.
+         * Used by the low-overhead monitoring mode instead of wall-clock timestamps.
+         */
+        public Builder startNanos(long startNanos) {
+            this.startNanos = startNanos;
+            this.hasStartNanos = true;
+            return this;
+        }
+
+        String getRuleName() {
+            return ruleName;
+        }
+
+        long getStartNanos() {
+            return startNanos;
+        }
+
+        boolean hasStartNanos() {
+            return hasStartNanos;
+        }
+
         public Builder startTime(Instant startTime) {
             this.startTime = startTime;
             return this;
@@ -1,9 +1,11 @@
 package dev.mars.apex.core.service.monitoring;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,9 +39,19 @@ import java.util.regex.Pattern;
  * Service for monitoring and tracking rule evaluation performance.
  * This class provides utilities for timing rule evaluations, collecting metrics,
  * and analyzing performance patterns.
+ *
+ * In {@link MonitoringMode#DETAILED} mode (the default) every evaluation is timed with
+ * wall-clock timestamps, optionally samples heap usage, and is added to the rule's history
+ * and snapshot. In {@link MonitoringMode#LOW_OVERHEAD} mode evaluations are timed with
+ * {@link System#nanoTime()} and recorded into per-rule striped counters and fixed-size
+ * latency histograms (see {@link #getRuleStatistics(String)}); history and snapshots are
+ * only updated for a sampled subset of evaluations, if sampling is configured.
+ * Expression complexity is computed once per condition in both modes.
  */
 public class RulePerformanceMonitor {
     private static final Logger LOGGER = Logger.getLogger(RulePerformanceMonitor.class.getName());
+    private static final Pattern METHOD_CALL_PATTERN = Pattern.compile("\\w+\\s*\\(");
+    private static final Pattern VARIABLE_REFERENCE_PATTERN = Pattern.compile("#\\w+");
     
     // Thread-local storage for current evaluation context (per instance)
     private final ThreadLocal<EvaluationContext> currentContext = new ThreadLocal<>();
@@ -47,11 +59,21 @@ public class RulePerformanceMonitor {
     // Global metrics storage
     private final Map<String, List<RulePerformanceMetrics>> ruleMetricsHistory = new ConcurrentHashMap<>();
     private final Map<String, PerformanceSnapshot> ruleSnapshots = new ConcurrentHashMap<>();
-    private final AtomicLong totalEvaluations = new AtomicLong(0);
-    private final AtomicLong totalEvaluationTime = new AtomicLong(0);
+    private final Map<String, RuleLatencyStatistics> ruleStatistics = new ConcurrentHashMap<>();
+    private final Map<String, Integer> complexityByCondition = new ConcurrentHashMap<>();
+    private final LongAdder totalEvaluations = new LongAdder();
+    private final LongAdder totalEvaluationTime = new LongAdder();
     
+    // Handed out while monitoring is disabled and never modified, so that a disabled monitor
+    // costs no clock reads, memory sampling, thread-local context or allocation per evaluation
+    private static final RulePerformanceMetrics.Builder DISABLED_BUILDER = new RulePerformanceMetrics.Builder("disabled");
+    private static final RulePerformanceMetrics DISABLED_METRICS =
+        new RulePerformanceMetrics.Builder("disabled").evaluationTime(Duration.ZERO).build();
+
     // Configuration
     private boolean enabled = true;
+    private volatile MonitoringMode mode = MonitoringMode.DETAILED;
+    private volatile int detailSampleInterval = 0;
     private int maxHistorySize = 1000;
     private boolean trackMemory = true;
     private boolean trackComplexity = true;
@@ -96,21 +118,22 @@ public class RulePerformanceMonitor {
      * 
      * @param ruleName The name of the rule being evaluated
      * @param phase The evaluation phase (e.g., "parsing", "evaluation", "recovery")
-     * @return A performance metrics builder for this evaluation
+     * @return A performance metrics builder for this evaluation, or a shared builder that
+     *         records nothing while monitoring is disabled
      */
     public RulePerformanceMetrics.Builder startEvaluation(String ruleName, String phase) {
-        EvaluationContext context = new EvaluationContext(ruleName, phase);
-
-        // Always set the context for proper timing, even when disabled
-        currentContext.set(context);
-
         if (!enabled) {
-            // Even when disabled, provide basic timing for tests
+            return DISABLED_BUILDER;
+        }
+        if (mode == MonitoringMode.LOW_OVERHEAD) {
             return new RulePerformanceMetrics.Builder(ruleName)
-                    .startTime(context.startTime)
+                    .startNanos(System.nanoTime())
                     .evaluationPhase(phase);
         }
 
+        EvaluationContext context = new EvaluationContext(ruleName, phase);
+        currentContext.set(context);
+
         LOGGER.finest("Started monitoring rule evaluation: " + ruleName + " (phase: " + phase + ")");
 
         return new RulePerformanceMetrics.Builder(ruleName)
@@ -139,6 +162,13 @@ public class RulePerformanceMonitor {
      * @return The completed performance metrics
      */
     public RulePerformanceMetrics completeEvaluation(RulePerformanceMetrics.Builder builder, String ruleCondition, Exception exception) {
+        if (builder == DISABLED_BUILDER) {
+            return DISABLED_METRICS;
+        }
+        if (builder.hasStartNanos()) {
+            return completeLowOverheadEvaluation(builder, ruleCondition, exception);
+        }
+
         Instant endTime = Instant.now();
 
         EvaluationContext context = currentContext.get();
@@ -147,19 +177,20 @@ public class RulePerformanceMonitor {
             // Even without context, provide basic timing and update global counters
             RulePerformanceMetrics metrics = builder.endTime(endTime).build();
             storeMetrics(metrics);
-            totalEvaluations.incrementAndGet();
-            totalEvaluationTime.addAndGet(metrics.getEvaluationTimeNanos());
+            totalEvaluations.increment();
+            totalEvaluationTime.add(metrics.getEvaluationTimeNanos());
             return metrics;
         }
 
         if (!enabled) {
-            // Even when disabled, provide basic timing for tests and store metrics
+            // Started before monitoring was disabled; provide basic timing and store metrics
+            currentContext.remove();
             RulePerformanceMetrics metrics = builder.endTime(endTime).build();
             storeMetrics(metrics);
 
             // Update global counters even when disabled
-            totalEvaluations.incrementAndGet();
-            totalEvaluationTime.addAndGet(metrics.getEvaluationTimeNanos());
+            totalEvaluations.increment();
+            totalEvaluationTime.add(metrics.getEvaluationTimeNanos());
 
             return metrics;
         }
@@ -173,8 +204,7 @@ public class RulePerformanceMonitor {
             
             // Add complexity analysis if enabled
             if (trackComplexity && ruleCondition != null) {
-                int complexity = calculateExpressionComplexity(ruleCondition);
-                builder.expressionComplexity(complexity);
+                builder.expressionComplexity(getExpressionComplexity(ruleCondition));
             }
             
             // Add exception if provided
@@ -188,8 +218,8 @@ public class RulePerformanceMonitor {
             storeMetrics(metrics);
             
             // Update global counters
-            totalEvaluations.incrementAndGet();
-            totalEvaluationTime.addAndGet(metrics.getEvaluationTimeNanos());
+            totalEvaluations.increment();
+            totalEvaluationTime.add(metrics.getEvaluationTimeNanos());
             
             LOGGER.finest("Completed monitoring rule evaluation: " + context.ruleName + 
                          " (time: " + metrics.getEvaluationTimeMillis() + "ms)");
@@ -200,6 +230,77 @@ public class RulePerformanceMonitor {
         }
     }
 
+    /**
+     * Complete an evaluation started in low-overhead mode: record the elapsed time into the
+     * rule's counters and histogram, and only build wall-clock timestamps and update history
+     * and snapshots for sampled evaluations.
+     */
+    private RulePerformanceMetrics completeLowOverheadEvaluation(RulePerformanceMetrics.Builder builder,
+                                                                 String ruleCondition, Exception exception) {
+        long elapsedNanos = System.nanoTime() - builder.getStartNanos();
+        RuleLatencyStatistics statistics = statisticsFor(builder.getRuleName(), ruleCondition);
+        statistics.record(elapsedNanos, exception != null);
+        totalEvaluations.increment();
+        totalEvaluationTime.add(elapsedNanos);
+
+        builder.evaluationTime(Duration.ofNanos(elapsedNanos));
+        if (trackComplexity) {
+            builder.expressionComplexity(statistics.getExpressionComplexity());
+        }
+        if (exception != null) {
+            builder.evaluationException(exception);
+        }
+
+        int sampleInterval = detailSampleInterval;
+        if (sampleInterval > 0 && ThreadLocalRandom.current().nextInt(sampleInterval) == 0) {
+            Instant endTime = Instant.now();
+            builder.startTime(endTime.minusNanos(elapsedNanos)).endTime(endTime);
+            RulePerformanceMetrics metrics = builder.build();
+            storeMetrics(metrics);
+            return metrics;
+        }
+        return builder.build();
+    }
+
+    private RuleLatencyStatistics statisticsFor(String ruleName, String ruleCondition) {
+        RuleLatencyStatistics statistics = ruleStatistics.get(ruleName);
+        if (statistics != null) {
+            return statistics;
+        }
+        return ruleStatistics.computeIfAbsent(ruleName,
+            name -> new RuleLatencyStatistics(name, getExpressionComplexity(ruleCondition)));
+    }
+
+    /**
+     * Register a rule ahead of evaluation so that its expression complexity is computed once,
+     * up front, rather than on its first monitored evaluation.
+     *
+     * @param ruleName The rule name
+     * @param ruleCondition The rule condition
+     */
+    public void registerRule(String ruleName, String ruleCondition) {
+        int complexity = getExpressionComplexity(ruleCondition);
+        LOGGER.finest("Registered rule for monitoring: " + ruleName + " (complexity: " + complexity + ")");
+    }
+
+    /**
+     * Get the complexity score of a condition, computing it on first request.
+     *
+     * @param ruleCondition The rule condition
+     * @return The complexity score, or 0 for a null condition
+     */
+    public int getExpressionComplexity(String ruleCondition) {
+        if (ruleCondition == null) {
+            return 0;
+        }
+        Integer complexity = complexityByCondition.get(ruleCondition);
+        if (complexity == null) {
+            complexity = calculateExpressionComplexity(ruleCondition);
+            complexityByCondition.putIfAbsent(ruleCondition, complexity);
+        }
+        return complexity;
+    }
+
     /**
      * Store performance metrics for a rule.
      * 
@@ -289,8 +390,7 @@ public class RulePerformanceMonitor {
      * Count method calls in an expression.
      */
     private int countMethodCalls(String expression) {
-        Pattern methodPattern = Pattern.compile("\\w+\\s*\\(");
-        Matcher matcher = methodPattern.matcher(expression);
+        Matcher matcher = METHOD_CALL_PATTERN.matcher(expression);
         int count = 0;
         while (matcher.find()) {
             count++;
@@ -302,8 +402,7 @@ public class RulePerformanceMonitor {
      * Count variable references in an expression.
      */
     private int countVariableReferences(String expression) {
-        Pattern variablePattern = Pattern.compile("#\\w+");
-        Matcher matcher = variablePattern.matcher(expression);
+        Matcher matcher = VARIABLE_REFERENCE_PATTERN.matcher(expression);
         int count = 0;
         while (matcher.find()) {
             count++;
@@ -340,13 +439,33 @@ public class RulePerformanceMonitor {
         return new HashMap<>(ruleSnapshots);
     }
 
+    /**
+     * Get the low-overhead statistics for a specific rule.
+     * Statistics are only collected in {@link MonitoringMode#LOW_OVERHEAD} mode.
+     *
+     * @param ruleName The rule name
+     * @return The rule statistics, or null if none found
+     */
+    public RuleLatencyStatistics getRuleStatistics(String ruleName) {
+        return ruleStatistics.get(ruleName);
+    }
+
+    /**
+     * Get the low-overhead statistics for all monitored rules.
+     *
+     * @return Map of rule names to rule statistics
+     */
+    public Map<String, RuleLatencyStatistics> getAllRuleStatistics() {
+        return new HashMap<>(ruleStatistics);
+    }
+
     /**
      * Get the total number of rule evaluations monitored.
      * 
      * @return The total evaluation count
      */
     public long getTotalEvaluations() {
-        return totalEvaluations.get();
+        return totalEvaluations.sum();
     }
 
     /**
@@ -355,7 +474,7 @@ public class RulePerformanceMonitor {
      * @return The total evaluation time in nanoseconds
      */
     public long getTotalEvaluationTimeNanos() {
-        return totalEvaluationTime.get();
+        return totalEvaluationTime.sum();
     }
 
     /**
@@ -364,9 +483,9 @@ public class RulePerformanceMonitor {
      * @return The average evaluation time in milliseconds
      */
     public double getAverageEvaluationTimeMillis() {
-        long total = totalEvaluations.get();
+        long total = totalEvaluations.sum();
         if (total == 0) return 0.0;
-        return (double) totalEvaluationTime.get() / total / 1_000_000.0;
+        return (double) totalEvaluationTime.sum() / total / 1_000_000.0;
     }
 
     /**
@@ -375,8 +494,9 @@ public class RulePerformanceMonitor {
     public void clearMetrics() {
         ruleMetricsHistory.clear();
         ruleSnapshots.clear();
-        totalEvaluations.set(0);
-        totalEvaluationTime.set(0);
+        ruleStatistics.values().forEach(RuleLatencyStatistics::reset);
+        totalEvaluations.reset();
+        totalEvaluationTime.reset();
         // Clear the thread-local context to ensure clean state
         currentContext.remove();
         LOGGER.info("Performance metrics cleared");
@@ -401,6 +521,48 @@ public class RulePerformanceMonitor {
         return enabled;
     }
 
+    /**
+     * Set the monitoring mode.
+     *
+     * @param mode The monitoring mode
+     */
+    public void setMode(MonitoringMode mode) {
+        this.mode = mode != null ? mode : MonitoringMode.DETAILED;
+        LOGGER.info("Performance monitoring mode set to " + this.mode.getDisplayName());
+    }
+
+    /**
+     * Get the monitoring mode.
+     *
+     * @return The monitoring mode
+     */
+    public MonitoringMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set how often evaluations in low-overhead mode are also recorded in full, in the rule's
+     * history and snapshot. An interval of N records roughly one in every N evaluations;
+     * 0 disables sampling.
+     *
+     * @param detailSampleInterval The sampling interval, or 0 to disable sampling
+     */
+    public void setDetailSampleInterval(int detailSampleInterval) {
+        if (detailSampleInterval < 0) {
+            throw new IllegalArgumentException("Sample interval cannot be negative");
+        }
+        this.detailSampleInterval = detailSampleInterval;
+    }
+
+    /**
+     * Get how often evaluations in low-overhead mode are also recorded in full.
+     *
+     * @return The sampling interval, or 0 if sampling is disabled
+     */
+    public int getDetailSampleInterval() {
+        return detailSampleInterval;
+    }
+
     /**
      * Set the maximum number of metrics to keep in history for each rule.
      * 
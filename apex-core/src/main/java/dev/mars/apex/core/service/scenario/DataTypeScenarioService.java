@@ -37,6 +37,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Route data records to appropriate scenarios based on type
  * - Provide scenario-specific processing configurations
  * - Cache scenario configurations for performance
+ * - Compile registrations and routing rules into a per-class routing table
  * - Support multiple scenarios per data type for different contexts
  * 
  * USAGE EXAMPLE:
@@ -66,7 +67,10 @@ public class DataTypeScenarioService {
     private final Map<String, List<String>> dataTypeToScenarios = new ConcurrentHashMap<>();
     
     // Routing configuration
-    private RoutingConfiguration routingConfig;
+    private volatile RoutingConfiguration routingConfig;
+    
+    // Compiled routing table, rebuilt on first use after the registrations change
+    private volatile ScenarioRouter router;
     
     // Configuration loader
     private final YamlConfigurationLoader configLoader;
@@ -113,6 +117,7 @@ public class DataTypeScenarioService {
             if (routingData != null) {
                 this.routingConfig = parseRoutingConfiguration(routingData);
             }
+            compileRouter();
 
             logger.info("Successfully loaded {} scenarios from registry", scenarioCache.size());
 
@@ -173,39 +178,37 @@ public class DataTypeScenarioService {
             return null;
         }
         
-        String dataType = determineDataType(data);
-        logger.debug("Determining scenario for data type: {}", dataType);
-        
-        // Try direct data type mapping first
-        List<String> scenarioIds = dataTypeToScenarios.get(dataType);
-        if (scenarioIds != null && !scenarioIds.isEmpty()) {
-            // For now, return the first matching scenario
-            // In future, could implement more sophisticated routing logic
-            String scenarioId = scenarioIds.get(0);
-            ScenarioConfiguration scenario = scenarioCache.get(scenarioId);
-            logger.debug("Found scenario '{}' for data type '{}'", scenarioId, dataType);
-            return scenario;
+        ScenarioRouter.Route route = getRouter().route(data);
+        switch (route.getSource()) {
+            case DATA_TYPE:
+                logger.debug("Found scenario '{}' for data type '{}'", route.getScenarioId(), route.getDataType());
+                break;
+            case ROUTING_RULE:
+                logger.debug("Routed to scenario '{}' via routing rules for data type '{}'", route.getScenarioId(), route.getDataType());
+                break;
+            case DEFAULT:
+                logger.debug("Using default scenario '{}' for data type '{}'", route.getScenarioId(), route.getDataType());
+                break;
+            default:
+                logger.warn("No scenario found for data type: {}", route.getDataType());
+                break;
         }
-        
-        // Try routing rules if direct mapping fails
-        if (routingConfig != null) {
-            String scenarioId = routingConfig.routeData(data, dataType);
-            if (scenarioId != null) {
-                ScenarioConfiguration scenario = scenarioCache.get(scenarioId);
-                logger.debug("Routed to scenario '{}' via routing rules for data type '{}'", scenarioId, dataType);
-                return scenario;
-            }
-        }
-        
-        // Try default scenario
-        if (routingConfig != null && routingConfig.getDefaultScenario() != null) {
-            ScenarioConfiguration defaultScenario = scenarioCache.get(routingConfig.getDefaultScenario());
-            logger.debug("Using default scenario '{}' for data type '{}'", routingConfig.getDefaultScenario(), dataType);
-            return defaultScenario;
+        return route.getScenario();
+    }
+    
+    /**
+     * Gets every scenario configuration for a data record. Where several scenarios are
+     * registered for the record's data type they are returned in registration order, the
+     * first being the one {@link #getScenarioForData(Object)} returns.
+     * 
+     * @param data the data record to route
+     * @return matching scenario configurations, empty if no matching scenario found
+     */
+    public List<ScenarioConfiguration> getScenariosForData(Object data) {
+        if (data == null) {
+            return Collections.emptyList();
         }
-        
-        logger.warn("No scenario found for data type: {}", dataType);
-        return null;
+        return getRouter().route(data).getScenarios();
     }
     
     /**
@@ -241,7 +244,7 @@ public class DataTypeScenarioService {
      * 
      * @param scenario the scenario to register
      */
-    private void registerScenario(ScenarioConfiguration scenario) {
+    private synchronized void registerScenario(ScenarioConfiguration scenario) {
         String scenarioId = scenario.getScenarioId();
         scenarioCache.put(scenarioId, scenario);
         
@@ -249,51 +252,26 @@ public class DataTypeScenarioService {
         for (String dataType : scenario.getDataTypes()) {
             dataTypeToScenarios.computeIfAbsent(dataType, k -> new ArrayList<>()).add(scenarioId);
         }
+        router = null;
         
         logger.debug("Registered scenario '{}' for data types: {}", scenarioId, scenario.getDataTypes());
     }
     
     /**
-     * Determines the data type identifier for a data record.
-     * 
-     * @param data the data record
-     * @return data type identifier
+     * Gets the compiled routing table, compiling it if the registrations have changed.
      */
-    private String determineDataType(Object data) {
-        if (data == null) {
-            return "null";
-        }
-        
-        Class<?> dataClass = data.getClass();
-        
-        // Try full class name first
-        String fullClassName = dataClass.getName();
-        if (dataTypeToScenarios.containsKey(fullClassName)) {
-            return fullClassName;
-        }
-        
-        // Try simple class name
-        String simpleClassName = dataClass.getSimpleName();
-        if (dataTypeToScenarios.containsKey(simpleClassName)) {
-            return simpleClassName;
-        }
-        
-        // Check if data has a type field
-        try {
-            if (data instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> dataMap = (Map<String, Object>) data;
-                Object typeField = dataMap.get("dataType");
-                if (typeField != null) {
-                    return typeField.toString();
-                }
-            }
-        } catch (Exception e) {
-            // Ignore and continue with class-based detection
-        }
-        
-        // Return simple class name as fallback
-        return simpleClassName;
+    private ScenarioRouter getRouter() {
+        ScenarioRouter current = router;
+        return current != null ? current : compileRouter();
+    }
+    
+    /**
+     * Compiles the registered scenarios and routing configuration into a routing table.
+     */
+    private synchronized ScenarioRouter compileRouter() {
+        ScenarioRouter compiled = new ScenarioRouter(dataTypeToScenarios, scenarioCache, routingConfig);
+        router = compiled;
+        return compiled;
     }
     
     /**
@@ -255,24 +255,33 @@ class RoutingRule {
      * @return true if the rule matches
      */
     public boolean matches(Object data, String dataType) {
+        String expectedType = getExpectedDataType();
+        return expectedType != null && expectedType.equals(dataType);
+    }
+    
+    /**
+     * Gets the data type this rule's condition tests for, so that rules can be compiled into
+     * a lookup by data type.
+     * 
+     * @return the expected data type, or null if the condition cannot match any data type
+     */
+    String getExpectedDataType() {
         if (condition == null) {
-            return false;
+            return null;
         }
         
         // Simple condition evaluation - in a real implementation,
         // this would use the SpEL expression evaluator
         if (condition.contains("class.simpleName")) {
-            String expectedType = extractSimpleClassName(condition);
-            return dataType.equals(expectedType);
+            return extractSimpleClassName(condition);
         }
         
         if (condition.contains("dataType")) {
-            String expectedType = extractDataType(condition);
-            return dataType.equals(expectedType);
+            return extractDataType(condition);
         }
         
         // Add more condition evaluation logic as needed
-        return false;
+        return null;
     }
     
     private String extractSimpleClassName(String condition) {
@@ -0,0 +1,213 @@
+package dev.mars.apex.core.service.scenario;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The scenario registrations and routing configuration of {@link DataTypeScenarioService},
+ * compiled into lookups by data type.
+ * 
+ * Direct data type mappings, routing rules and the default scenario are resolved once into a
+ * single table from data type to route, with routing rule conditions parsed when the router
+ * is built. How a record's data type is determined depends only on its class, except for maps
+ * carrying a dataType field, so the route of each class is cached after its first record.
+ * 
+ * A router is immutable apart from its class cache; the service builds a new one when its
+ * registrations change.
+ * 
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+final class ScenarioRouter {
+    
+    /**
+     * Where a route came from, for logging.
+     */
+    enum RouteSource {
+        DATA_TYPE, ROUTING_RULE, DEFAULT, NONE
+    }
+    
+    /**
+     * The scenarios a data type routes to.
+     */
+    static final class Route {
+        private final String dataType;
+        private final RouteSource source;
+        private final String scenarioId;
+        private final ScenarioConfiguration scenario;
+        private final List<ScenarioConfiguration> scenarios;
+        
+        Route(String dataType, RouteSource source, String scenarioId, List<ScenarioConfiguration> scenarios) {
+            this.dataType = dataType;
+            this.source = source;
+            this.scenarioId = scenarioId;
+            this.scenarios = scenarios;
+            this.scenario = scenarios.isEmpty() ? null : scenarios.get(0);
+        }
+        
+        String getDataType() {
+            return dataType;
+        }
+        
+        RouteSource getSource() {
+            return source;
+        }
+        
+        String getScenarioId() {
+            return scenarioId;
+        }
+        
+        /**
+         * Gets the first scenario of the route, or null if the route's scenario is not loaded.
+         */
+        ScenarioConfiguration getScenario() {
+            return scenario;
+        }
+        
+        List<ScenarioConfiguration> getScenarios() {
+            return scenarios;
+        }
+    }
+    
+    /**
+     * The route of every record of one class, or null routes for maps whose dataType field
+     * decides.
+     */
+    private static final class ClassRoute {
+        private final Route fixed;
+        private final Route fallback;
+        
+        ClassRoute(Route fixed, Route fallback) {
+            this.fixed = fixed;
+            this.fallback = fallback;
+        }
+    }
+    
+    // Data types with a direct mapping, the only ones class names are resolved against
+    private final Map<String, Route> directRoutes;
+    
+    // Every data type with a route: direct mappings, then routing rules
+    private final Map<String, Route> routes;
+    private final String defaultScenarioId;
+    private final ScenarioConfiguration defaultScenario;
+    private final Map<Class<?>, ClassRoute> classRoutes = new ConcurrentHashMap<>();
+    
+    ScenarioRouter(Map<String, List<String>> dataTypeToScenarios,
+                   Map<String, ScenarioConfiguration> scenarios,
+                   RoutingConfiguration routingConfig) {
+        Map<String, Route> direct = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : dataTypeToScenarios.entrySet()) {
+            List<String> scenarioIds = entry.getValue();
+            if (scenarioIds == null || scenarioIds.isEmpty()) {
+                continue;
+            }
+            List<ScenarioConfiguration> resolved = new ArrayList<>(scenarioIds.size());
+            for (String scenarioId : scenarioIds) {
+                ScenarioConfiguration scenario = scenarios.get(scenarioId);
+                if (scenario != null) {
+                    resolved.add(scenario);
+                }
+            }
+            direct.put(entry.getKey(), new Route(entry.getKey(), RouteSource.DATA_TYPE, scenarioIds.get(0),
+                Collections.unmodifiableList(resolved)));
+        }
+        
+        Map<String, Route> all = new HashMap<>(direct);
+        if (routingConfig != null && routingConfig.getRules() != null) {
+            for (RoutingRule rule : routingConfig.getRules()) {
+                String expectedType = rule.getExpectedDataType();
+                if (expectedType == null || rule.getTargetScenario() == null) {
+                    continue;
+                }
+                // The first matching rule wins, as when rules are evaluated in order
+                all.putIfAbsent(expectedType, route(expectedType, RouteSource.ROUTING_RULE, rule.getTargetScenario(), scenarios));
+            }
+        }
+        
+        this.directRoutes = direct;
+        this.routes = all;
+        this.defaultScenarioId = routingConfig != null ? routingConfig.getDefaultScenario() : null;
+        this.defaultScenario = defaultScenarioId != null ? scenarios.get(defaultScenarioId) : null;
+    }
+    
+    /**
+     * Routes a data record.
+     * 
+     * @param data the data record, not null
+     * @return the route of the record, with a source of {@link RouteSource#NONE} if no
+     *         scenario applies
+     */
+    Route route(Object data) {
+        Class<?> dataClass = data.getClass();
+        ClassRoute classRoute = classRoutes.computeIfAbsent(dataClass, this::compileClassRoute);
+        if (classRoute.fixed != null) {
+            return classRoute.fixed;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Object typeField = ((Map<String, Object>) data).get("dataType");
+        return typeField != null ? routeDataType(typeField.toString()) : classRoute.fallback;
+    }
+    
+    /**
+     * Routes a data type.
+     * 
+     * @param dataType the data type
+     * @return the route of the data type
+     */
+    Route routeDataType(String dataType) {
+        Route route = routes.get(dataType);
+        if (route != null) {
+            return route;
+        }
+        if (defaultScenarioId != null) {
+            return new Route(dataType, RouteSource.DEFAULT, defaultScenarioId,
+                defaultScenario != null ? List.of(defaultScenario) : List.of());
+        }
+        return new Route(dataType, RouteSource.NONE, null, List.of());
+    }
+    
+    private ClassRoute compileClassRoute(Class<?> dataClass) {
+        // Full class name first, then simple class name, as DataTypeScenarioService resolves them
+        if (directRoutes.containsKey(dataClass.getName())) {
+            return new ClassRoute(directRoutes.get(dataClass.getName()), null);
+        }
+        String simpleName = dataClass.getSimpleName();
+        if (directRoutes.containsKey(simpleName)) {
+            return new ClassRoute(directRoutes.get(simpleName), null);
+        }
+        
+        Route fallback = routeDataType(simpleName);
+        if (Map.class.isAssignableFrom(dataClass)) {
+            return new ClassRoute(null, fallback);
+        }
+        return new ClassRoute(fallback, null);
+    }
+    
+    private static Route route(String dataType, RouteSource source, String scenarioId,
+                               Map<String, ScenarioConfiguration> scenarios) {
+        ScenarioConfiguration scenario = scenarios.get(scenarioId);
+        return new Route(dataType, source, scenarioId, scenario != null ? List.of(scenario) : List.of());
+    }
+}
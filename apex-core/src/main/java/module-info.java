@@ -25,6 +25,7 @@ module dev.mars.apex.core {
     requires java.logging;
     requires java.sql;
     requires java.net.http;
+    requires java.xml;
     requires transitive spring.expression;
     requires spring.context;
 
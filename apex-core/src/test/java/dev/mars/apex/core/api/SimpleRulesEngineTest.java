@@ -21,7 +21,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import dev.mars.apex.core.engine.model.BatchRuleResult;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -166,6 +170,25 @@ class SimpleRulesEngineTest {
         assertNotNull(simpleRulesEngine.getConfiguration());
     }
 
+    @Test
+    @DisplayName("Should evaluate a condition against a batch of data maps in input order")
+    void testEvaluateBatch() {
+        List<Map<String, Object>> dataList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("amount", (double) i);
+            dataList.add(data);
+        }
+
+        BatchRuleResult result = simpleRulesEngine.evaluateBatch("amount >= 900", dataList);
+
+        assertEquals(1000, result.size());
+        assertEquals(100, result.getMatchCount());
+        assertEquals(0, result.getErrorCount());
+        assertFalse(result.getResult(899).isTriggered());
+        assertTrue(result.getResult(900).isTriggered());
+    }
+
     // Test helper class
     public static class TestObject {
         public String name;
@@ -0,0 +1,136 @@
+package dev.mars.apex.core.config.yaml;
+
+import dev.mars.apex.core.engine.model.RuleResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.logging.Logger;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+
+/**
+ * Tests for compiling YAML configurations into rules engine snapshots and swapping them.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class RulesEngineSnapshotHolderTest {
+
+    private final YamlRulesEngineService service = new YamlRulesEngineService();
+
+    @Test
+    @DisplayName("Should index rules by category when building a snapshot")
+    void testSnapshotCategoryIndex() throws Exception {
+        RulesEngineSnapshot snapshot = service.createSnapshot(configuration("#amount > 100", "large-trade"));
+
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(1, snapshot.getRulesForCategory("trades").size());
+        assertTrue(snapshot.getRulesForCategory("unknown").isEmpty());
+        assertTrue(snapshot.getCategoryNames().contains("trades"));
+        assertTrue(snapshot.getEnrichments().isEmpty());
+
+        Map<String, Object> facts = Map.of("amount", 500);
+        assertSame(facts, snapshot.processEnrichments(facts));
+
+        RuleResult result = snapshot.executeRulesForCategory("trades", facts);
+        assertTrue(result.isTriggered());
+        assertEquals("large-trade", result.getRuleName());
+        assertFalse(snapshot.executeRulesForCategory("trades", Map.of("amount", 50)).isTriggered());
+    }
+
+    @Test
+    @DisplayName("Should swap snapshots while evaluations continue on the previous one")
+    void testReloadSwapsSnapshot() throws Exception {
+        RulesEngineSnapshotHolder holder = new RulesEngineSnapshotHolder(service);
+        assertNull(holder.getSnapshot());
+
+        RulesEngineSnapshot first = holder.reload(configuration("#amount > 100", "large-trade"));
+        assertSame(first, holder.getSnapshot());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        List<Future<Integer>> evaluators = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                evaluators.add(executor.submit(() -> {
+                    int evaluations = 0;
+                    started.countDown();
+                    while (running.get()) {
+                        RulesEngineSnapshot snapshot = holder.getSnapshot();
+                        RuleResult result = snapshot.executeRulesForCategory("trades", Map.of("amount", 500));
+                        // Each evaluation sees one whole configuration, never a mix
+                        String expected = snapshot == first ? "large-trade" : "any-trade";
+                        assertEquals(expected, result.getRuleName());
+                        evaluations++;
+                    }
+                    return evaluations;
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            RulesEngineSnapshot second = holder.reload(configuration("#amount > 0", "any-trade"));
+            assertSame(second, holder.getSnapshot());
+            assertTrue(second.getVersion() > first.getVersion());
+            assertEquals(2, holder.getSwapCount());
+
+            // The previous snapshot is unaffected by the swap
+            assertEquals("large-trade", first.executeRulesForCategory("trades", Map.of("amount", 500)).getRuleName());
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+        for (Future<Integer> evaluator : evaluators) {
+            assertTrue(evaluator.get(5, TimeUnit.SECONDS) > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the current snapshot when a reload fails")
+    void testFailedReloadKeepsSnapshot() throws Exception {
+        RulesEngineSnapshotHolder holder = new RulesEngineSnapshotHolder(service);
+        RulesEngineSnapshot current = holder.reload(configuration("#amount > 100", "large-trade"));
+
+        assertThrows(YamlConfigurationException.class, () -> holder.reloadFromString("rules: [unterminated"));
+        assertSame(current, holder.getSnapshot());
+        assertEquals(1, holder.getSwapCount());
+    }
+
+    private static YamlRuleConfiguration configuration(String condition, String ruleName) {
+        YamlRule rule = new YamlRule();
+        rule.setId(ruleName);
+        rule.setName(ruleName);
+        rule.setCategory("trades");
+        rule.setCondition(condition);
+        rule.setMessage(ruleName + " matched");
+
+        YamlRuleConfiguration configuration = new YamlRuleConfiguration();
+        configuration.setRules(List.of(rule));
+        return configuration;
+    }
+}
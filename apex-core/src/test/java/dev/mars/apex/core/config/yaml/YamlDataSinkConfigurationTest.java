@@ -155,6 +155,9 @@ public class YamlDataSinkConfigurationTest {
         batch.put("enabled", true);
         batch.put("batch-size", 100);
         batch.put("timeout-ms", 5000);
+        batch.put("flush-interval-ms", 250);
+        batch.put("parallel-batches", 4);
+        batch.put("max-memory-usage-mb", 64);
         yamlDataSink.setBatch(batch);
         
         // Convert to DataSinkConfiguration
@@ -174,6 +177,15 @@ public class YamlDataSinkConfigurationTest {
         assertEquals("WRITE_CSV", config.getOperations().get("write"));
         assertEquals("APPEND_CSV", config.getOperations().get("append"));
         
+        // Verify batch configuration was converted
+        assertNotNull(config.getBatch());
+        assertEquals(100, config.getBatch().getBatchSize());
+        assertEquals(5000L, config.getBatch().getBatchTimeoutMs());
+        assertEquals(250L, config.getBatch().getFlushIntervalMs());
+        assertEquals(4, config.getBatch().getParallelBatches());
+        assertEquals(64L, config.getBatch().getMaxMemoryUsageMB());
+        assertTrue(config.getBatch().getEnableBuffering());
+        
         // Verify tags were converted
         assertNotNull(config.getTags());
         assertEquals(3, config.getTags().size());
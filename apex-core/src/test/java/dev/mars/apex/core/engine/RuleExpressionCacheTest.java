@@ -0,0 +1,166 @@
+package dev.mars.apex.core.engine;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import dev.mars.apex.core.engine.config.RuleExpressionCache;
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.Rule;
+import dev.mars.apex.core.engine.model.RuleResult;
+import dev.mars.apex.core.engine.model.metadata.RuleStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the parsed-expression cache used by the RulesEngine.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class RuleExpressionCacheTest {
+
+    private RulesEngineConfiguration configuration;
+    private RulesEngine rulesEngine;
+    private Map<String, Object> facts;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new RulesEngineConfiguration();
+        rulesEngine = new RulesEngine(configuration);
+        facts = new HashMap<>();
+        facts.put("amount", 250);
+    }
+
+    @Test
+    @DisplayName("Should parse conditions when rules are registered")
+    void testRegistrationPopulatesCache() {
+        Rule rule = new Rule("R001", "validation", "High value", "#amount > 100",
+                           "HIGH_VALUE", "High value transactions", 1);
+        configuration.registerRule(rule);
+
+        assertTrue(configuration.getExpressionCache().contains("#amount > 100"));
+        assertSame(configuration.getExpressionCache(), rulesEngine.getExpressionCache());
+    }
+
+    @Test
+    @DisplayName("Should reuse parsed expressions across evaluations")
+    void testRepeatedEvaluationHitsCache() {
+        Rule rule = new Rule("R001", "validation", "High value", "#amount > 100",
+                           "HIGH_VALUE", "High value transactions", 1);
+        configuration.registerRule(rule);
+        RuleExpressionCache cache = rulesEngine.getExpressionCache();
+
+        for (int i = 0; i < 5; i++) {
+            RuleResult result = rulesEngine.executeRulesForCategory("validation", facts);
+            assertTrue(result.isTriggered());
+        }
+
+        assertEquals(5, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should parse unregistered rules once and then hit the cache")
+    void testUnregisteredRuleCachedOnFirstUse() {
+        Rule rule = new Rule("adHoc", "#amount < 1000", "SMALL");
+        RuleExpressionCache cache = rulesEngine.getExpressionCache();
+
+        assertTrue(rulesEngine.executeRule(rule, facts).isTriggered());
+        assertTrue(rulesEngine.executeRule(rule, facts).isTriggered());
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should replace a re-registered rule without duplicating it")
+    void testReplacedRuleKeepsExpressionAndCategorySlot() {
+        Rule rule = new Rule("R001", "validation", "High value", "#amount > 100",
+                           "HIGH_VALUE", "High value transactions", 1);
+        configuration.registerRule(rule);
+
+        Rule retired = rule.withStatus(RuleStatus.INACTIVE, "tester");
+        configuration.registerRule(retired);
+
+        List<?> rules = configuration.getRulesForCategory("validation");
+        assertEquals(1, rules.size());
+        assertSame(retired, rules.get(0));
+        assertTrue(configuration.getExpressionCache().contains("#amount > 100"));
+    }
+
+    @Test
+    @DisplayName("Should invalidate the old condition when a rule is replaced with a new one")
+    void testReplacedConditionIsInvalidated() {
+        configuration.registerRule(new Rule("R001", "validation", "Threshold", "#amount > 100",
+                                          "HIGH_VALUE", "Threshold rule", 1));
+        configuration.registerRule(new Rule("R001", "validation", "Threshold", "#amount > 500",
+                                          "HIGH_VALUE", "Threshold rule", 1));
+
+        RuleExpressionCache cache = configuration.getExpressionCache();
+        assertFalse(cache.contains("#amount > 100"));
+        assertTrue(cache.contains("#amount > 500"));
+        assertFalse(rulesEngine.executeRulesForCategory("validation", facts).isTriggered());
+    }
+
+    @Test
+    @DisplayName("Should keep a private cache for engines with a custom parser")
+    void testCustomParserUsesOwnCache() {
+        configuration.registerRule(new Rule("R001", "validation", "High value", "#amount > 100",
+                                          "HIGH_VALUE", "High value transactions", 1));
+
+        RulesEngine customEngine = new RulesEngine(configuration, new SpelExpressionParser());
+
+        assertNotSame(configuration.getExpressionCache(), customEngine.getExpressionCache());
+        assertTrue(customEngine.getExpressionCache().contains("#amount > 100"));
+        assertTrue(customEngine.executeRulesForCategory("validation", facts).isTriggered());
+        assertEquals(1, customEngine.getExpressionCache().getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should propagate parse errors without caching the condition")
+    void testInvalidConditionNotCached() {
+        RuleExpressionCache cache = new RuleExpressionCache(new SpelExpressionParser(), 2);
+
+        assertThrows(Exception.class, () -> cache.getExpression("#amount >"));
+        assertFalse(cache.contains("#amount >"));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should stop caching new conditions once the maximum size is reached")
+    void testMaxSizeIsRespected() {
+        RuleExpressionCache cache = new RuleExpressionCache(new SpelExpressionParser(), 2);
+
+        cache.getExpression("1 > 0");
+        cache.getExpression("2 > 0");
+        assertNotNull(cache.getExpression("3 > 0"));
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.contains("3 > 0"));
+    }
+}
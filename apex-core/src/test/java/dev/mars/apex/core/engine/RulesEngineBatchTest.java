@@ -0,0 +1,139 @@
+package dev.mars.apex.core.engine;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import dev.mars.apex.core.api.RulesService;
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.BatchRuleResult;
+import dev.mars.apex.core.engine.model.Rule;
+import dev.mars.apex.core.engine.model.RuleResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for batch evaluation in the RulesEngine.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class RulesEngineBatchTest {
+
+    private RulesEngineConfiguration configuration;
+    private RulesEngine rulesEngine;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new RulesEngineConfiguration();
+        rulesEngine = new RulesEngine(configuration);
+        configuration.registerRule(new Rule("R001", "validation", "High value", "#amount > 500",
+                                          "HIGH_VALUE", "High value transactions", 1));
+    }
+
+    private static List<Map<String, Object>> amounts(int count) {
+        List<Map<String, Object>> factsList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> facts = new HashMap<>();
+            facts.put("amount", i);
+            factsList.add(facts);
+        }
+        return factsList;
+    }
+
+    @Test
+    @DisplayName("Should return batch results in input order")
+    void testResultsKeepInputOrder() {
+        List<Map<String, Object>> factsList = amounts(1000);
+
+        BatchRuleResult result = rulesEngine.executeRulesForCategoryBatch("validation", factsList);
+
+        assertEquals(1000, result.size());
+        for (int i = 0; i < factsList.size(); i++) {
+            RuleResult expected = rulesEngine.executeRulesForCategory("validation", factsList.get(i));
+            assertEquals(expected.isTriggered(), result.getResult(i).isTriggered(), "index " + i);
+        }
+        assertEquals(499, result.getMatchCount());
+        assertEquals(501, result.getNoMatchCount());
+        assertFalse(result.hasErrors());
+    }
+
+    @Test
+    @DisplayName("Should accept a stream of fact maps")
+    void testStreamInput() {
+        BatchRuleResult result = rulesEngine.executeRulesForCategoryBatch("validation",
+            IntStream.range(0, 10).mapToObj(i -> Map.<String, Object>of("amount", i * 100)));
+
+        assertEquals(10, result.size());
+        assertEquals(4, result.getMatchCount());
+        assertTrue(result.getResult(9).isTriggered());
+    }
+
+    @Test
+    @DisplayName("Should evaluate with chunks smaller than the batch")
+    void testSmallChunks() {
+        BatchRuleResult result = rulesEngine.executeRulesBatch(
+            configuration.getRulesForCategory("validation"), amounts(100), 7);
+
+        assertEquals(100, result.size());
+        assertEquals(0, result.getMatchCount());
+        assertThrows(IllegalArgumentException.class,
+            () -> rulesEngine.executeRulesBatch(configuration.getRulesForCategory("validation"), amounts(1), 0));
+    }
+
+    @Test
+    @DisplayName("Should report errors per entry without failing the batch")
+    void testErrorsAreIsolated() {
+        Rule rule = new Rule("discounted", "#discount > 0", "Has discount");
+        List<Map<String, Object>> factsList = amounts(3);
+
+        BatchRuleResult result = rulesEngine.executeRuleBatch(rule, factsList);
+
+        assertEquals(3, result.size());
+        assertEquals(3, result.getErrorCount());
+        assertTrue(result.hasErrors());
+    }
+
+    @Test
+    @DisplayName("Should return an empty result for an empty batch")
+    void testEmptyBatch() {
+        BatchRuleResult result = rulesEngine.executeRulesForCategoryBatch("validation", List.of());
+
+        assertEquals(0, result.size());
+        assertEquals(0.0, result.getThroughputPerSecond());
+    }
+
+    @Test
+    @DisplayName("Should expose batch checks through RulesService")
+    void testRulesServiceFacade() {
+        RulesService service = new RulesService(rulesEngine);
+        service.define("large", "#amount > 1");
+
+        assertEquals(List.of(false, false, true), service.checkAll("#amount > 1", amounts(3)));
+        assertEquals(List.of(false, false, true), service.testAll("large", amounts(3)));
+    }
+}
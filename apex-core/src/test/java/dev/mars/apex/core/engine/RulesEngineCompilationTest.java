@@ -0,0 +1,104 @@
+package dev.mars.apex.core.engine;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import dev.mars.apex.core.engine.config.ExpressionCompilationStatus;
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.Rule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for running RulesEngine conditions through the SpEL compiler.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class RulesEngineCompilationTest {
+
+    private RulesEngineConfiguration configuration;
+    private Map<String, Object> facts;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new RulesEngineConfiguration();
+        configuration.registerRule(new Rule("R001", "validation", "Variable rule", "#amount > 100",
+                                          "HIGH_VALUE", "Uses a variable reference", 1));
+        configuration.registerRule(new Rule("R002", "mapAccess", "Map rule", "amount > 100",
+                                          "HIGH_VALUE", "Uses Map-root property access", 1));
+        facts = new HashMap<>();
+        facts.put("amount", 250);
+    }
+
+    @Test
+    @DisplayName("Should report compilation as disabled by default")
+    void testCompilationDisabledByDefault() {
+        RulesEngine engine = new RulesEngine(configuration);
+        engine.executeRulesForCategory("validation", facts);
+
+        assertEquals(ExpressionCompilationStatus.DISABLED, engine.getCompilationStatus(configuration.getRuleById("R001")));
+    }
+
+    @Test
+    @DisplayName("Should compile rules that SpEL can compile")
+    void testCompilableRuleIsCompiled() {
+        RulesEngine engine = new RulesEngine(configuration, SpelCompilerMode.MIXED);
+
+        assertEquals(ExpressionCompilationStatus.NOT_EVALUATED, engine.getCompilationStatus(configuration.getRuleById("R001")));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(engine.executeRulesForCategory("validation", facts).isTriggered());
+        }
+
+        assertEquals(ExpressionCompilationStatus.COMPILED, engine.getCompilationStatus(configuration.getRuleById("R001")));
+        assertTrue(engine.executeRulesForCategory("validation", facts).isTriggered());
+    }
+
+    @Test
+    @DisplayName("Should keep Map-root property access on the interpreter")
+    void testMapPropertyAccessStaysInterpreted() {
+        RulesEngine engine = new RulesEngine(configuration, SpelCompilerMode.MIXED);
+
+        assertTrue(engine.executeRulesForCategory("mapAccess", facts).isTriggered());
+
+        assertEquals(ExpressionCompilationStatus.INTERPRETED, engine.getCompilationStatus(configuration.getRuleById("R002")));
+        assertTrue(engine.executeRulesForCategory("mapAccess", facts).isTriggered());
+    }
+
+    @Test
+    @DisplayName("Should report compilation status for every registered rule")
+    void testCompilationReport() {
+        RulesEngine engine = new RulesEngine(configuration, SpelCompilerMode.MIXED);
+        engine.executeRulesForCategory("validation", facts);
+
+        Map<String, ExpressionCompilationStatus> report = engine.getCompilationReport();
+
+        assertEquals(2, report.size());
+        assertEquals(ExpressionCompilationStatus.COMPILED, report.get("R001"));
+        assertEquals(ExpressionCompilationStatus.NOT_EVALUATED, report.get("R002"));
+    }
+}
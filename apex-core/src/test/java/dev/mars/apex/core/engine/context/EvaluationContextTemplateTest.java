@@ -0,0 +1,119 @@
+package dev.mars.apex.core.engine.context;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import dev.mars.apex.core.engine.config.MapPropertyAccessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EvaluationContextTemplate and FactsEvaluationContext.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class EvaluationContextTemplateTest {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private EvaluationContextTemplate template;
+    private Map<String, Object> facts;
+
+    @BeforeEach
+    void setUp() {
+        template = EvaluationContextTemplate.builder()
+            .withPropertyAccessor(new MapPropertyAccessor())
+            .withVariable("currency", "USD")
+            .build();
+        facts = new HashMap<>();
+        facts.put("amount", 250);
+        facts.put("currency", "EUR");
+    }
+
+    @Test
+    @DisplayName("Should expose facts as both root properties and variables")
+    void testFactsAccess() {
+        FactsEvaluationContext context = template.createContext(facts);
+
+        assertEquals(true, parser.parseExpression("amount > 100").getValue(context, Boolean.class));
+        assertEquals(true, parser.parseExpression("#amount > 100").getValue(context, Boolean.class));
+    }
+
+    @Test
+    @DisplayName("Should resolve context variables before facts and facts before template defaults")
+    void testVariablePrecedence() {
+        FactsEvaluationContext context = template.createContext(facts);
+        assertEquals("EUR", parser.parseExpression("#currency").getValue(context));
+
+        context.setVariable("currency", "GBP");
+        assertEquals("GBP", parser.parseExpression("#currency").getValue(context));
+
+        FactsEvaluationContext defaultsOnly = template.createContext(new HashMap<>());
+        assertEquals("USD", parser.parseExpression("#currency").getValue(defaultsOnly));
+    }
+
+    @Test
+    @DisplayName("Should bind facts by reference rather than copying them")
+    void testFactsAreNotCopied() {
+        FactsEvaluationContext context = template.createContext(facts);
+        facts.put("amount", 50);
+
+        assertSame(facts, context.getFacts());
+        assertEquals(false, parser.parseExpression("#amount > 100").getValue(context, Boolean.class));
+    }
+
+    @Test
+    @DisplayName("Should share accessors between contexts and keep them immutable")
+    void testSharedConfiguration() {
+        FactsEvaluationContext first = template.createContext(facts);
+        FactsEvaluationContext second = template.createContext(new HashMap<>());
+
+        assertSame(first.getPropertyAccessors(), second.getPropertyAccessors());
+        assertSame(first.getTypeLocator(), second.getTypeLocator());
+        assertThrows(UnsupportedOperationException.class,
+            () -> template.getPropertyAccessors().add(new MapPropertyAccessor()));
+    }
+
+    @Test
+    @DisplayName("Should keep variables of one context out of another")
+    void testContextVariablesAreIsolated() {
+        FactsEvaluationContext first = template.createContext(facts);
+        first.setVariable("value", 42);
+
+        FactsEvaluationContext second = template.createContext(facts);
+        assertNull(second.lookupVariable("value"));
+    }
+
+    @Test
+    @DisplayName("Should handle null facts")
+    void testNullFacts() {
+        FactsEvaluationContext context = template.createContext(null);
+
+        assertTrue(context.getFacts().isEmpty());
+        assertNull(context.lookupVariable("amount"));
+        assertEquals("USD", context.lookupVariable("currency"));
+    }
+}
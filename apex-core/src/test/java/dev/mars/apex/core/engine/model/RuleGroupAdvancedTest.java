@@ -4,10 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -282,6 +286,74 @@ class RuleGroupAdvancedTest {
             
             assertTrue(result, "Single rule should pass");
         }
+
+        @Test
+        @DisplayName("Parallel execution should run on the supplied executor")
+        void testParallelExecutionUsesSuppliedExecutor() {
+            RuleGroup group = new RuleGroup("parallel-executor", "test", "Parallel Executor",
+                                          "Test Parallel Executor", 10, true, true, true, false);
+            group.addRule(new Rule("rule1", "#age > 18", "Age check"), 1);
+            group.addRule(new Rule("rule2", "#income > 30000", "Income check"), 2);
+            group.addRule(new Rule("rule3", "#score > 80", "Score check"), 3);
+
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+            try {
+                SpelExpressionParser parser = new SpelExpressionParser();
+                boolean result = group.evaluate(context, rule -> parser.parseExpression(rule.getCondition()), executor);
+
+                assertTrue(result, "All rules should pass");
+                assertEquals(3, executor.getTaskCount(), "Each rule should be submitted to the supplied executor");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Parallel AND group should stop waiting once a rule fails")
+        void testParallelAndGroupShortCircuits() {
+            RuleGroup group = new RuleGroup("parallel-short-circuit", "test", "Parallel Short Circuit",
+                                          "Test Parallel Short Circuit", 10, true, true, true, false);
+            group.addRule(new Rule("slow", "T(java.lang.Thread).sleep(5000) == null", "Slow check"), 1);
+            group.addRule(new Rule("failing", "#income > 100000", "High income check"), 2);
+
+            long start = System.nanoTime();
+            boolean result = group.evaluate(context);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertFalse(result, "AND group should fail when any rule fails");
+            assertTrue(elapsedMillis < 4000, "Group should not wait for the slow rule, took " + elapsedMillis + "ms");
+        }
+
+        @Test
+        @DisplayName("Parallel OR group should stop waiting once a rule passes")
+        void testParallelOrGroupShortCircuits() {
+            RuleGroup group = new RuleGroup("parallel-or", "test", "Parallel OR",
+                                          "Test Parallel OR", 10, false, true, true, false);
+            group.addRule(new Rule("slow", "T(java.lang.Thread).sleep(5000) == null", "Slow check"), 1);
+            group.addRule(new Rule("passing", "#age > 18", "Age check"), 2);
+
+            long start = System.nanoTime();
+            boolean result = group.evaluate(context);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(result, "OR group should pass when any rule passes");
+            assertTrue(elapsedMillis < 4000, "Group should not wait for the slow rule, took " + elapsedMillis + "ms");
+        }
+
+        @Test
+        @DisplayName("Parallel execution should fall back to sequential when the executor rejects work")
+        void testParallelExecutionFallsBackWhenRejected() {
+            RuleGroup group = new RuleGroup("parallel-rejected", "test", "Parallel Rejected",
+                                          "Test Parallel Rejected", 10, true, true, true, false);
+            group.addRule(new Rule("rule1", "#age > 18", "Age check"), 1);
+            group.addRule(new Rule("rule2", "#income > 30000", "Income check"), 2);
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            executor.shutdown();
+
+            SpelExpressionParser parser = new SpelExpressionParser();
+            assertTrue(group.evaluate(context, rule -> parser.parseExpression(rule.getCondition()), executor));
+        }
     }
 
     // ========================================
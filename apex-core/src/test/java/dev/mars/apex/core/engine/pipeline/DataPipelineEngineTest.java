@@ -0,0 +1,170 @@
+package dev.mars.apex.core.engine.pipeline;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.config.datasource.FileFormatConfig;
+import dev.mars.apex.core.config.yaml.YamlEnrichment;
+import dev.mars.apex.core.config.yaml.YamlRuleConfiguration;
+import dev.mars.apex.core.service.data.external.DataSink;
+import dev.mars.apex.core.service.data.external.ExternalDataSource;
+import dev.mars.apex.core.service.data.external.file.FileSystemDataSink;
+import dev.mars.apex.core.service.data.external.file.FileSystemDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DataPipelineEngine batch pipelines with enrichments from the YAML configuration.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class DataPipelineEngineTest {
+
+    private Path directory;
+    private FileSystemDataSource dataSource;
+    private final List<Object> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        directory = Files.createTempDirectory("pipeline-engine");
+        Files.writeString(directory.resolve("trades.csv"), "id,currency\n1,EUR\n2,USD\n3,EUR\n");
+
+        DataSourceConfiguration config = new DataSourceConfiguration();
+        config.setName("trades");
+        config.setType("file-system");
+        config.setSourceType("csv");
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setBasePath(directory.toString());
+        connection.setFilePattern("*.csv");
+        config.setConnection(connection);
+        config.setFileFormat(new FileFormatConfig("csv"));
+
+        dataSource = new FileSystemDataSource(config);
+        dataSource.initialize(config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dataSource.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should enrich batches with the configured enrichments without setting a processor")
+    void testExecuteBatchEnrichesFromConfiguration() throws Exception {
+        YamlRuleConfiguration configuration = new YamlRuleConfiguration();
+        configuration.setEnrichments(List.of(currencyEnrichment()));
+
+        DataPipelineEngine engine = engine();
+        engine.initialize(configuration);
+        assertNotNull(engine.getEnrichmentProcessor());
+
+        PipelineExecutionResult result = engine.executeBatch("SELECT *", "trades", "captured", "insert", 2);
+
+        assertTrue(result.isSuccessful(), result.getErrorMessage());
+        assertEquals(3, written.size());
+        for (Object record : written) {
+            Map<?, ?> trade = (Map<?, ?>) record;
+            String expected = "EUR".equals(trade.get("currency")) ? "Euro" : "US Dollar";
+            assertEquals(expected, trade.get("currencyName"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not create an enrichment processor without enrichments")
+    void testNoProcessorWithoutEnrichments() throws Exception {
+        DataPipelineEngine engine = engine();
+        engine.initialize(new YamlRuleConfiguration());
+
+        assertNull(engine.getEnrichmentProcessor());
+        assertTrue(engine.executeBatch("SELECT *", "trades", "captured", "insert", 2).isSuccessful());
+        assertEquals(3, written.size());
+    }
+
+    /**
+     * Engine reading from the test's CSV source and capturing what is written to its sink.
+     */
+    private DataPipelineEngine engine() {
+        DataSink sink = new FileSystemDataSink() {
+            @Override
+            public void writeBatch(String operation, List<Object> data) {
+                written.addAll(data);
+            }
+
+            @Override
+            public void flush() {
+                // Nothing is buffered
+            }
+        };
+        return new DataPipelineEngine() {
+            @Override
+            public ExternalDataSource getDataSource(String name) {
+                return dataSource;
+            }
+
+            @Override
+            public DataSink getDataSink(String name) {
+                return sink;
+            }
+        };
+    }
+
+    private static YamlEnrichment currencyEnrichment() {
+        YamlEnrichment.LookupDataset dataset = new YamlEnrichment.LookupDataset();
+        dataset.setType("inline");
+        dataset.setKeyField("code");
+        dataset.setData(List.of(
+            Map.of("code", "EUR", "name", "Euro"),
+            Map.of("code", "USD", "name", "US Dollar")));
+
+        YamlEnrichment.LookupConfig lookupConfig = new YamlEnrichment.LookupConfig();
+        lookupConfig.setLookupDataset(dataset);
+        lookupConfig.setLookupKey("#currency");
+
+        YamlEnrichment.FieldMapping mapping = new YamlEnrichment.FieldMapping();
+        mapping.setSourceField("name");
+        mapping.setTargetField("currencyName");
+
+        YamlEnrichment enrichment = new YamlEnrichment();
+        enrichment.setId("currency-lookup");
+        enrichment.setType("lookup-enrichment");
+        enrichment.setLookupConfig(lookupConfig);
+        enrichment.setFieldMappings(List.of(mapping));
+        return enrichment;
+    }
+}
@@ -0,0 +1,483 @@
+package dev.mars.apex.core.engine.pipeline;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasink.DataSinkConfiguration;
+import dev.mars.apex.core.config.datasink.OutputFormatConfig;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.config.pipeline.PipelineConfiguration;
+import dev.mars.apex.core.config.pipeline.PipelineStep;
+import dev.mars.apex.core.service.data.external.ConnectionStatus;
+import dev.mars.apex.core.service.data.external.DataSinkException;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.DataSourceMetrics;
+import dev.mars.apex.core.service.data.external.DataSourceType;
+import dev.mars.apex.core.service.data.external.ExternalDataSource;
+import dev.mars.apex.core.service.data.external.file.FileSystemDataSink;
+import dev.mars.apex.core.service.data.external.manager.ExternalDataSourceManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PipelineExecutor step scheduling in sequential, parallel and streaming mode.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class PipelineExecutorTest {
+
+    private final Map<String, ExternalDataSource> dataSources = new ConcurrentHashMap<>();
+    private final AtomicInteger runningQueries = new AtomicInteger();
+    private final AtomicInteger maxRunningQueries = new AtomicInteger();
+    private Path directory;
+    private PipelineExecutor executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("pipeline-executor");
+        executor = new PipelineExecutor(new MapDataSourceManager());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should run independent extract steps at the same time and load each into its own sink")
+    void testParallelExtracts() throws Exception {
+        // Neither query can return until both are running, so the overlap does not depend on timing
+        CyclicBarrier bothStarted = new CyclicBarrier(2);
+        dataSources.put("trades", new TestDataSource("trades", List.of(Map.of("id", "T1")), bothStarted));
+        dataSources.put("prices", new TestDataSource("prices", List.of(Map.of("id", "P1"), Map.of("id", "P2")), bothStarted));
+        addSink("trade-sink", "trades.jsonl");
+        addSink("price-sink", "prices.jsonl");
+
+        PipelineConfiguration pipeline = pipeline("parallel", "stop-on-error", 4,
+            extract("extract-trades", "trades"),
+            extract("extract-prices", "prices"),
+            load("load-trades", "trade-sink", "extract-trades"),
+            load("load-prices", "price-sink", "extract-prices"));
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline);
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(4, result.getSuccessfulSteps());
+        assertEquals(2, maxRunningQueries.get());
+        assertTrue(result.getMaxConcurrentSteps() >= 2);
+        assertEquals(4, result.getStepDurations().size());
+        PipelineStepResult loadTrades = result.getStepResult("load-trades");
+        assertTrue(loadTrades.getStartTimeMs() >= result.getStepResult("extract-trades").getEndTimeMs());
+        assertTrue(loadTrades.getThreadName().startsWith("apex-pipeline-"));
+
+        assertEquals(1, Files.readAllLines(directory.resolve("trades.jsonl")).size());
+        assertEquals(2, Files.readAllLines(directory.resolve("prices.jsonl")).size());
+    }
+
+    @Test
+    @DisplayName("Should not run more steps at once than the concurrency limit")
+    void testConcurrencyLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            dataSources.put("source-" + i, new TestDataSource("source-" + i, List.of(Map.of("id", i)), null));
+        }
+
+        PipelineConfiguration pipeline = pipeline("parallel", "stop-on-error", 1,
+            extract("extract-0", "source-0"), extract("extract-1", "source-1"),
+            extract("extract-2", "source-2"), extract("extract-3", "source-3"));
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline);
+
+        assertTrue(result.isSuccess());
+        assertEquals(4, result.getSuccessfulSteps());
+        assertEquals(1, maxRunningQueries.get());
+        assertEquals(1, result.getMaxConcurrentSteps());
+    }
+
+    @Test
+    @DisplayName("Should keep running independent steps after a failure with continue-on-error")
+    void testContinueOnError() throws Exception {
+        dataSources.put("trades", new TestDataSource("trades", List.of(Map.of("id", "T1")), null));
+        addSink("trade-sink", "trades.jsonl");
+
+        PipelineStep optional = extract("extract-optional", "missing");
+        optional.setOptional(true);
+        PipelineConfiguration pipeline = pipeline("parallel", "continue-on-error", 2,
+            extract("extract-missing", "missing"),
+            optional,
+            extract("extract-trades", "trades"),
+            load("load-trades", "trade-sink", "extract-trades"));
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getError().contains("extract-missing"));
+        assertEquals(2, result.getFailedSteps());
+        assertTrue(result.getStepResult("load-trades").isSuccess());
+        assertEquals(1, Files.readAllLines(directory.resolve("trades.jsonl")).size());
+    }
+
+    @Test
+    @DisplayName("Should stop starting steps after a required step fails with stop-on-error")
+    void testStopOnError() {
+        dataSources.put("trades", new TestDataSource("trades", List.of(Map.of("id", "T1")), null));
+        addSink("trade-sink", "trades.jsonl");
+
+        PipelineConfiguration pipeline = pipeline("parallel", "stop-on-error", 1,
+            extract("extract-missing", "missing"),
+            extract("extract-trades", "trades"),
+            load("load-trades", "trade-sink", "extract-trades"));
+
+        DataPipelineException exception = assertThrows(DataPipelineException.class, () -> executor.execute(pipeline));
+        assertTrue(exception.getMessage().contains("extract-missing"));
+    }
+
+    @Test
+    @DisplayName("Should run sequential steps after the steps they depend on, whatever the declared order")
+    void testSequentialDependencyOrder() throws Exception {
+        dataSources.put("trades", new TestDataSource("trades", List.of(Map.of("id", "T1")), null));
+        dataSources.put("prices", new TestDataSource("prices", List.of(Map.of("id", "P1"), Map.of("id", "P2")), null));
+        addSink("trade-sink", "trades.jsonl");
+
+        PipelineConfiguration pipeline = pipeline("sequential", "stop-on-error", 0,
+            load("load-trades", "trade-sink", "extract-trades"),
+            extract("extract-trades", "trades"),
+            extract("extract-prices", "prices"));
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline);
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(List.of("extract-trades", "load-trades", "extract-prices"),
+            new ArrayList<>(result.getStepDurations().keySet()));
+        assertEquals(1, Files.readAllLines(directory.resolve("trades.jsonl")).size());
+    }
+
+    @Test
+    @DisplayName("Should stream records in chunks through load and audit steps")
+    void testStreamingLoadAndAudit() throws Exception {
+        List<Object> trades = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            trades.add(Map.of("id", i));
+        }
+        dataSources.put("trades", new TestDataSource("trades", trades, null));
+        addSink("trade-sink", "trades.jsonl");
+        addSink("audit-sink", "audit.jsonl");
+
+        PipelineStep audit = new PipelineStep("audit-trades", "audit");
+        audit.setSink("audit-sink");
+        audit.setOperation("append");
+        audit.setDependsOn(List.of("load-trades"));
+        PipelineConfiguration pipeline = pipeline("sequential", "stop-on-error", 0,
+            extract("extract-trades", "trades"),
+            load("load-trades", "trade-sink", "extract-trades"),
+            audit);
+        pipeline.getExecution().setStreaming(true);
+        pipeline.getExecution().setChunkSize(100);
+        pipeline.getExecution().setBufferChunks(2);
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline);
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertEquals(3, result.getSuccessfulSteps());
+        assertEquals(2500, result.getStepResult("load-trades").getRecordsProcessed());
+        assertEquals(2500, result.getStepResult("audit-trades").getRecordsProcessed());
+        assertTrue(result.getStepResult("audit-trades").getThreadName().startsWith("apex-pipeline-stream-"));
+
+        assertEquals(2500, Files.readAllLines(directory.resolve("trades.jsonl")).size());
+        List<String> auditLines = Files.readAllLines(directory.resolve("audit.jsonl"));
+        assertEquals(2500, auditLines.size());
+        assertTrue(auditLines.get(0).contains("\"pipeline_name\":\"test-pipeline\""));
+    }
+
+    @Test
+    @DisplayName("Should stop reading a streamed source once its load step has failed")
+    void testStreamingStopsAfterFailedLoad() {
+        AtomicInteger produced = new AtomicInteger();
+        dataSources.put("trades", new TestDataSource("trades", List.of(), null) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> Stream<T> stream(String query, Map<String, Object> parameters) {
+                return (Stream<T>) Stream.iterate(0, i -> i + 1).limit(1_000_000)
+                    .peek(i -> produced.incrementAndGet())
+                    .map(i -> Map.of("id", i));
+            }
+        });
+
+        PipelineConfiguration pipeline = pipeline("sequential", "stop-on-error", 0,
+            extract("extract-trades", "trades"),
+            load("load-trades", "missing-sink", "extract-trades"));
+        pipeline.getExecution().setStreaming(true);
+        pipeline.getExecution().setChunkSize(100);
+
+        DataPipelineException exception = assertThrows(DataPipelineException.class, () -> executor.execute(pipeline));
+        assertTrue(exception.getMessage().contains("load-trades"));
+        assertTrue(produced.get() < 1_000_000, "Records read: " + produced.get());
+    }
+
+    @Test
+    @DisplayName("Should write the records of a failed batch one at a time, bypassing the sink's buffer")
+    void testFailedBatchIsRetriedRecordByRecord() throws Exception {
+        dataSources.put("trades", new TestDataSource("trades",
+            List.of(Map.of("id", "T1"), Map.of("id", "BAD"), Map.of("id", "T3")), null));
+        List<Object> buffered = new ArrayList<>();
+        addSink("trade-sink", "trades.jsonl", new FileSystemDataSink() {
+            @Override
+            public void write(String operation, Object data) {
+                // Like a buffering database sink, records written one by one only reach the sink on flush
+                buffered.add(data);
+            }
+
+            @Override
+            public void writeBatch(String operation, List<Object> data) throws DataSinkException {
+                if (data.contains(Map.of("id", "BAD"))) {
+                    if (data.size() > 1) {
+                        throw DataSinkException.batchError("Batch failed", 0, data.size());
+                    }
+                    throw DataSinkException.dataIntegrityError("Duplicate key", null, "Operation: " + operation);
+                }
+                super.writeBatch(operation, data);
+            }
+        });
+
+        YamlPipelineExecutionResult result = executor.execute(pipeline("sequential", "stop-on-error", 0,
+            extract("extract-trades", "trades"),
+            load("load-trades", "trade-sink", "extract-trades")));
+
+        assertTrue(result.isSuccess(), result.getError());
+        assertTrue(buffered.isEmpty());
+        assertEquals(2, Files.readAllLines(directory.resolve("trades.jsonl")).size());
+    }
+
+    private PipelineConfiguration pipeline(String mode, String errorHandling, int maxConcurrency, PipelineStep... steps) {
+        PipelineConfiguration pipeline = new PipelineConfiguration();
+        pipeline.setName("test-pipeline");
+        pipeline.setSteps(List.of(steps));
+        PipelineConfiguration.ExecutionConfiguration execution = new PipelineConfiguration.ExecutionConfiguration();
+        execution.setMode(mode);
+        execution.setErrorHandling(errorHandling);
+        execution.setMaxConcurrency(maxConcurrency);
+        pipeline.setExecution(execution);
+        return pipeline;
+    }
+
+    private PipelineStep extract(String name, String source) {
+        PipelineStep step = new PipelineStep(name, "extract");
+        step.setSource(source);
+        step.setOperation("all");
+        step.setParameters(Map.of());
+        return step;
+    }
+
+    private PipelineStep load(String name, String sink, String dependsOn) {
+        PipelineStep step = new PipelineStep(name, "load");
+        step.setSink(sink);
+        step.setOperation("append");
+        step.setDependsOn(List.of(dependsOn));
+        return step;
+    }
+
+    private void addSink(String name, String fileName) {
+        addSink(name, fileName, new FileSystemDataSink());
+    }
+
+    private void addSink(String name, String fileName, FileSystemDataSink sink) {
+        DataSinkConfiguration config = new DataSinkConfiguration(name, "file-system");
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setBasePath(directory.toString());
+        connection.setFilePattern(fileName);
+        config.setConnection(connection);
+        OutputFormatConfig outputFormat = new OutputFormatConfig();
+        outputFormat.setFormat("json");
+        config.setOutputFormat(outputFormat);
+
+        try {
+            sink.initialize(config);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        executor.addDataSink(name, sink);
+    }
+
+    /**
+     * Data source manager over the test's data source map.
+     */
+    private class MapDataSourceManager implements ExternalDataSourceManager {
+        @Override
+        public ExternalDataSource getDataSource(String name) {
+            return dataSources.get(name);
+        }
+
+        @Override
+        public void addDataSource(String name, ExternalDataSource dataSource) {
+            dataSources.put(name, dataSource);
+        }
+
+        @Override
+        public void removeDataSource(String name) {
+            dataSources.remove(name);
+        }
+
+        @Override
+        public boolean hasDataSource(String name) {
+            return dataSources.containsKey(name);
+        }
+    }
+
+    /**
+     * Data source returning fixed records, tracking how many queries run at once. With a barrier,
+     * each query waits until every query sharing the barrier has started.
+     */
+    private class TestDataSource implements ExternalDataSource {
+        private final String name;
+        private final List<Object> records;
+        private final CyclicBarrier started;
+
+        TestDataSource(String name, List<Object> records, CyclicBarrier started) {
+            this.name = name;
+            this.records = records;
+            this.started = started;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException {
+            int running = runningQueries.incrementAndGet();
+            maxRunningQueries.accumulateAndGet(running, Math::max);
+            try {
+                if (started != null) {
+                    started.await(5, TimeUnit.SECONDS);
+                } else {
+                    // Gives steps that the executor wrongly ran together the chance to overlap
+                    Thread.sleep(20);
+                }
+                return (List<T>) new ArrayList<>(records);
+            } catch (BrokenBarrierException | TimeoutException e) {
+                throw DataSourceException.executionError("Queries did not overlap", e, "query");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw DataSourceException.executionError("Interrupted", e, "query");
+            } finally {
+                runningQueries.decrementAndGet();
+            }
+        }
+
+        @Override
+        public <T> T queryForObject(String query, Map<String, Object> parameters) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDataType() {
+            return "test";
+        }
+
+        @Override
+        public boolean supportsDataType(String dataType) {
+            return "test".equals(dataType);
+        }
+
+        @Override
+        public <T> T getData(String dataType, Object... parameters) {
+            return null;
+        }
+
+        @Override
+        public <T> List<List<T>> batchQuery(List<String> queries) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void batchUpdate(List<String> updates) {
+            // No-op for test
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+
+        @Override
+        public boolean testConnection() {
+            return true;
+        }
+
+        @Override
+        public ConnectionStatus getConnectionStatus() {
+            return ConnectionStatus.connected("Test connection");
+        }
+
+        @Override
+        public void shutdown() {
+            // No-op for test
+        }
+
+        @Override
+        public DataSourceType getSourceType() {
+            return DataSourceType.CACHE;
+        }
+
+        @Override
+        public DataSourceMetrics getMetrics() {
+            return new DataSourceMetrics();
+        }
+
+        @Override
+        public void initialize(DataSourceConfiguration config) {
+            // No-op for test
+        }
+
+        @Override
+        public DataSourceConfiguration getConfiguration() {
+            return null;
+        }
+
+        @Override
+        public void refresh() {
+            // No-op for test
+        }
+    }
+}
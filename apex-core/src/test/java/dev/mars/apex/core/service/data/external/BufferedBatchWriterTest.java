@@ -0,0 +1,230 @@
+package dev.mars.apex.core.service.data.external;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasink.BatchConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BufferedBatchWriter.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class BufferedBatchWriterTest {
+
+    @Test
+    @DisplayName("Should flush full batches in order and the remainder on flush")
+    void testSizeTriggeredFlush() throws Exception {
+        List<List<Object>> batches = Collections.synchronizedList(new ArrayList<>());
+        BufferedBatchWriter writer = new BufferedBatchWriter("size", config(3, 0L, 1, 100L),
+                                                             batch -> batches.add(new ArrayList<>(batch)));
+
+        for (int i = 0; i < 7; i++) {
+            writer.add(i);
+        }
+        assertEquals(2, batches.size());
+        assertEquals(1, writer.getBufferedCount());
+
+        writer.flush();
+
+        assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6)), batches);
+        assertEquals(7, writer.getRecordsWritten());
+        assertEquals(3, writer.getFlushCount());
+        assertEquals(3, writer.getFlushLatency().getCount());
+        assertEquals(0, writer.getPendingBytes());
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch when the flush interval elapses")
+    void testIntervalFlush() throws Exception {
+        CountDownLatch flushed = new CountDownLatch(1);
+        BufferedBatchWriter writer = new BufferedBatchWriter("interval", config(100, 20L, 1, 100L),
+                                                             batch -> flushed.countDown());
+        try {
+            writer.add("a");
+            writer.add("b");
+
+            assertTrue(flushed.await(5, TimeUnit.SECONDS));
+            assertEquals(0, writer.getBufferedCount());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep flushing other writers on the interval while one writer's batch is slow")
+    void testSlowIntervalFlushDoesNotDelayOtherWriters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        BufferedBatchWriter slow = new BufferedBatchWriter("slow", config(100, 20L, 1, 100L), batch -> {
+            slowStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CountDownLatch flushed = new CountDownLatch(1);
+        BufferedBatchWriter fast = new BufferedBatchWriter("fast", config(100, 20L, 1, 100L),
+                                                           batch -> flushed.countDown());
+        try {
+            slow.add("a");
+            assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+            fast.add("b");
+            assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            slow.close();
+            fast.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write at most parallelBatches batches concurrently")
+    void testParallelBatches() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        BufferedBatchWriter writer = new BufferedBatchWriter("parallel", config(1, 0L, 3, 100L), batch -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+
+        for (int i = 0; i < 12; i++) {
+            writer.add(i);
+        }
+        writer.close();
+
+        assertEquals(12, writer.getRecordsWritten());
+        assertTrue(maxRunning.get() <= 3, "max concurrent batches: " + maxRunning.get());
+        assertTrue(maxRunning.get() > 1, "batches were not written concurrently");
+        assertTrue(writer.isClosed());
+    }
+
+    @Test
+    @DisplayName("Should block writers while the memory budget is exhausted")
+    void testBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BufferedBatchWriter writer = new BufferedBatchWriter("memory", config(100, 0L, 2, 1L), batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Each record is estimated at roughly 400 KB, so the third exceeds the 1 MB budget
+        String large = "x".repeat(200_000);
+        writer.add(large);
+        writer.add(large);
+
+        Thread producer = new Thread(() -> {
+            try {
+                writer.add(large);
+            } catch (DataSinkException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        producer.start();
+        producer.join(200);
+
+        assertTrue(producer.isAlive());
+        assertEquals(1, writer.getBackpressureWaits());
+        assertEquals(1, writer.getInFlightBatches());
+
+        release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+
+        writer.close();
+        assertEquals(3, writer.getRecordsWritten());
+    }
+
+    @Test
+    @DisplayName("Should report a failed batch on the next flush")
+    void testFailurePropagates() throws Exception {
+        BufferedBatchWriter writer = new BufferedBatchWriter("failing", config(2, 0L, 1, 100L), batch -> {
+            throw DataSinkException.writeError("disk full");
+        });
+
+        writer.add(1);
+        assertThrows(DataSinkException.class, () -> writer.add(2));
+        assertEquals(1, writer.getFailedFlushCount());
+        assertEquals(2, writer.getRecordsFailed());
+
+        writer.add(3);
+        assertThrows(DataSinkException.class, writer::flush);
+        writer.close();
+        assertThrows(DataSinkException.class, () -> writer.add(4));
+    }
+
+    @Test
+    @DisplayName("Should not keep a writer that was never closed reachable through the interval flush")
+    void testUnclosedWriterIsCollected() throws Exception {
+        BufferedBatchWriter writer = new BufferedBatchWriter("unclosed", config(100, 10, 2, 100), batch -> { });
+        writer.add("record");
+        WeakReference<BufferedBatchWriter> reference = new WeakReference<>(writer);
+        writer = null;
+
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    @DisplayName("Should estimate larger records as larger")
+    void testEstimateSize() {
+        long small = BufferedBatchWriter.estimateSize(Map.of("id", 1));
+        long large = BufferedBatchWriter.estimateSize(Map.of("id", 1, "name", "x".repeat(1000)));
+
+        assertTrue(small > 0);
+        assertTrue(large > small + 2000);
+        assertTrue(BufferedBatchWriter.estimateSize(List.of("a", "b")) > BufferedBatchWriter.estimateSize("a"));
+    }
+
+    private static BatchConfig config(int batchSize, long flushIntervalMs, int parallelBatches, long maxMemoryMB) {
+        BatchConfig config = new BatchConfig();
+        config.setBatchSize(batchSize);
+        config.setFlushIntervalMs(flushIntervalMs);
+        config.setParallelBatches(parallelBatches);
+        config.setMaxMemoryUsageMB(maxMemoryMB);
+        return config;
+    }
+}
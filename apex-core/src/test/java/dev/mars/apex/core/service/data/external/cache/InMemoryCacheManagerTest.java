@@ -464,6 +464,127 @@ class InMemoryCacheManagerTest {
         }
     }
 
+    @Test
+    @DisplayName("Should not count evicted entries as removed entries still in the eviction queue")
+    void testEvictionDoesNotGrowRetiredCount() throws Exception {
+        DataSourceConfiguration config = createValidConfiguration();
+        config.getCache().setMaxSize(10);
+        InMemoryCacheManager smallCache = new InMemoryCacheManager(config);
+
+        try {
+            for (int i = 0; i < 1000; i++) {
+                smallCache.put("key" + i, "value" + i);
+            }
+            assertEquals(10, smallCache.size());
+
+            // Evicted entries leave the queue when they are polled, so nothing is left to compact
+            java.lang.reflect.Field field = InMemoryCacheManager.class.getDeclaredField("retiredInQueue");
+            field.setAccessible(true);
+            assertEquals(0, ((java.util.concurrent.atomic.AtomicInteger) field.get(smallCache)).get());
+        } finally {
+            smallCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep frequently used entries under LFU eviction")
+    void testLFUEviction() {
+        DataSourceConfiguration config = createValidConfiguration();
+        config.getCache().setMaxSize(3);
+        config.getCache().setEvictionPolicy(CacheConfig.EvictionPolicy.LFU);
+        InMemoryCacheManager lfuCache = new InMemoryCacheManager(config);
+
+        try {
+            lfuCache.put("key1", "value1");
+            lfuCache.put("key2", "value2");
+            lfuCache.put("key3", "value3");
+            for (int i = 0; i < 5; i++) {
+                lfuCache.get("key1");
+                lfuCache.get("key3");
+            }
+            lfuCache.get("key2");
+
+            lfuCache.put("key4", "value4");
+            lfuCache.put("key5", "value5");
+
+            assertEquals(3, lfuCache.size());
+            assertEquals(CacheConfig.EvictionPolicy.LFU, lfuCache.getEvictionPolicy());
+            assertNotNull(lfuCache.get("key1"));
+            assertNotNull(lfuCache.get("key3"));
+            assertFalse(lfuCache.containsKey("key2"));
+        } finally {
+            lfuCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict in insertion order under FIFO eviction")
+    void testFIFOEviction() {
+        DataSourceConfiguration config = createValidConfiguration();
+        config.getCache().setMaxSize(2);
+        config.getCache().setEvictionPolicy(CacheConfig.EvictionPolicy.FIFO);
+        InMemoryCacheManager fifoCache = new InMemoryCacheManager(config);
+
+        try {
+            fifoCache.put("key1", "value1");
+            fifoCache.put("key2", "value2");
+            fifoCache.get("key1");
+            fifoCache.put("key3", "value3");
+
+            assertFalse(fifoCache.containsKey("key1"));
+            assertTrue(fifoCache.containsKey("key2"));
+            assertTrue(fifoCache.containsKey("key3"));
+        } finally {
+            fifoCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should expire entries that have been idle longer than maxIdleSeconds")
+    void testMaxIdleExpiration() throws InterruptedException {
+        DataSourceConfiguration config = createValidConfiguration();
+        config.getCache().setMaxIdleSeconds(1L);
+        InMemoryCacheManager idleCache = new InMemoryCacheManager(config);
+
+        try {
+            idleCache.put("idle", "value1");
+            idleCache.put("busy", "value2");
+
+            for (int i = 0; i < 3; i++) {
+                Thread.sleep(400);
+                assertNotNull(idleCache.get("busy"));
+            }
+
+            assertNull(idleCache.get("idle"));
+            assertEquals(1, idleCache.size());
+        } finally {
+            idleCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay bounded under sustained inserts and overwrites")
+    void testSustainedInsertsStayBounded() {
+        DataSourceConfiguration config = createValidConfiguration();
+        config.getCache().setMaxSize(1000);
+        InMemoryCacheManager boundedCache = new InMemoryCacheManager(config);
+
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                boundedCache.put("key-" + i, i);
+                boundedCache.put("hot", i);
+                boundedCache.get("hot");
+            }
+
+            assertEquals(1000, boundedCache.size());
+            assertEquals(99_999, boundedCache.get("hot"));
+            assertEquals(99_999, boundedCache.get("key-99999"));
+            assertEquals(99_001, boundedCache.getStatistics().getEvictions());
+        } finally {
+            boundedCache.shutdown();
+        }
+    }
+
     // ========================================
     // Statistics Tests
     // ========================================
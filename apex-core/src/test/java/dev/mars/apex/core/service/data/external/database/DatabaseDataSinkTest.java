@@ -0,0 +1,207 @@
+package dev.mars.apex.core.service.data.external.database;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasink.BatchConfig;
+import dev.mars.apex.core.config.datasink.DataSinkConfiguration;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.service.data.external.DataSinkException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batched write path of DatabaseDataSink against an H2 in-memory database.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class DatabaseDataSinkTest {
+
+    private DatabaseDataSink sink;
+
+    @BeforeEach
+    void setUp() throws DataSinkException {
+        JdbcTemplateFactory.clearCache();
+
+        DataSinkConfiguration config = new DataSinkConfiguration("batch-test-sink", "database");
+        config.setSourceType("h2");
+
+        ConnectionConfig connectionConfig = new ConnectionConfig();
+        connectionConfig.setDatabase("mem:sinktest_" + System.nanoTime());
+        connectionConfig.setUsername("sa");
+        connectionConfig.setPassword("");
+        config.setConnection(connectionConfig);
+
+        Map<String, String> operations = new HashMap<>();
+        operations.put("create", "CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(50) NOT NULL)");
+        operations.put("insert", "INSERT INTO items (id, name) VALUES (:id, :name)");
+        operations.put("count", "SELECT COUNT(*) AS total FROM items");
+        config.setOperations(operations);
+
+        BatchConfig batchConfig = new BatchConfig();
+        batchConfig.setBatchSize(100);
+        config.setBatch(batchConfig);
+
+        sink = new DatabaseDataSink();
+        sink.initialize(config);
+        sink.execute("create", new HashMap<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.shutdown();
+        JdbcTemplateFactory.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should write all rows of a batch across several executeBatch chunks")
+    void testWriteBatchInChunks() throws DataSinkException {
+        sink.writeBatch("insert", items(0, 250));
+
+        assertEquals(250L, countRows());
+        assertEquals(250L, sink.getMetrics().getTotalRecordsWritten());
+        assertTrue(sink.getMetrics().getBatchRowsPerSecond() > 0);
+        assertTrue(sink.getMetrics().getLastBatchRowsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should skip only the rows that violate constraints in a failing chunk")
+    void testFailingChunkFallsBackToSingleRows() throws DataSinkException {
+        List<Object> data = items(0, 150);
+        data.add(row(42, "duplicate"));
+        data.add(row(500, null));
+
+        sink.writeBatch("insert", data);
+
+        assertEquals(150L, countRows());
+        assertEquals(1, sink.getMetrics().getPartialBatches());
+    }
+
+    @Test
+    @DisplayName("Should fail the batch when no row can be written")
+    void testAllRowsFailing() throws DataSinkException {
+        sink.writeBatch("insert", items(0, 10));
+
+        assertThrows(DataSinkException.class, () -> sink.writeBatch("insert", items(0, 10)));
+        assertEquals(10L, countRows());
+    }
+
+    @Test
+    @DisplayName("Should buffer single writes and write them as batches on flush")
+    void testBufferedWrites() throws DataSinkException {
+        for (Object item : items(0, 5)) {
+            sink.write("insert", item);
+        }
+        assertEquals(0L, sink.getMetrics().getTotalRecordsWritten());
+
+        sink.flush();
+
+        assertEquals(5L, countRows());
+        assertEquals(5L, sink.getMetrics().getTotalRecordsWritten());
+        assertEquals(1L, sink.getMetrics().getSuccessfulBatches());
+    }
+
+    @Test
+    @DisplayName("Should fail the next flush with the number of buffered rows that were not written")
+    void testBufferedWritesReportSkippedRows() throws DataSinkException {
+        for (Object item : items(0, 5)) {
+            sink.write("insert", item);
+        }
+        sink.write("insert", row(2, "duplicate"));
+        sink.write("insert", row(9, null));
+
+        DataSinkException e = assertThrows(DataSinkException.class, () -> sink.flush());
+        assertEquals(DataSinkException.ErrorType.BATCH_ERROR, e.getErrorType());
+        assertTrue(e.getMessage().startsWith("2 of 7 buffered rows"), e.getMessage());
+        assertEquals(5L, countRows());
+
+        // Reported once; rows written later are not affected
+        sink.write("insert", row(10, "item-10"));
+        sink.flush();
+        assertEquals(6L, countRows());
+    }
+
+    @Test
+    @DisplayName("Should fail execute when buffered rows were not written")
+    void testExecuteReportsSkippedBufferedRows() throws DataSinkException {
+        sink.writeBatch("insert", items(0, 3));
+        sink.write("insert", row(1, "duplicate"));
+
+        assertThrows(DataSinkException.class, () -> sink.execute("count", new HashMap<>()));
+        assertEquals(3L, countRows());
+    }
+
+    @Test
+    @DisplayName("Should report a batch in which every row violates constraints as a data integrity error")
+    void testAllRowsViolatingConstraints() throws DataSinkException {
+        sink.writeBatch("insert", items(0, 3));
+
+        DataSinkException e = assertThrows(DataSinkException.class, () -> sink.writeBatch("insert", items(0, 3)));
+        assertEquals(DataSinkException.ErrorType.DATA_INTEGRITY_ERROR, e.getErrorType());
+    }
+
+    @Test
+    @DisplayName("Should retry only the rows a driver without savepoints reports as not applied")
+    void testUnappliedRowsWithoutSavepoints() {
+        // A driver that stops at the failing third row reports the first two as applied
+        BatchUpdateException stopped = new BatchUpdateException("duplicate key", "23505", new int[] {1, 1});
+        assertEquals(List.of(2, 3, 4), DatabaseDataSink.unappliedRows(stopped, 5));
+
+        // A driver that continues after errors marks the failed rows
+        BatchUpdateException continued = new BatchUpdateException("duplicate key", "23505",
+            new int[] {1, Statement.EXECUTE_FAILED, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED, 1});
+        assertEquals(List.of(1, 3), DatabaseDataSink.unappliedRows(continued, 5));
+
+        // Without update counts the applied rows are unknown and the batch must fail
+        assertNull(DatabaseDataSink.unappliedRows(new SQLException("connection reset", "08006"), 5));
+        assertNull(DatabaseDataSink.unappliedRows(new BatchUpdateException("failed", "23505", null), 5));
+    }
+
+    private long countRows() throws DataSinkException {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> result = (List<Map<String, Object>>) sink.execute("count", new HashMap<>());
+        return ((Number) result.get(0).get("TOTAL")).longValue();
+    }
+
+    private static List<Object> items(int from, int to) {
+        List<Object> items = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            items.add(row(i, "item-" + i));
+        }
+        return items;
+    }
+
+    private static Map<String, Object> row(int id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+}
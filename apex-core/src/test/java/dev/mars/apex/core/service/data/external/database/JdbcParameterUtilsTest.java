@@ -28,6 +28,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -303,4 +304,45 @@ class JdbcParameterUtilsTest {
         verify(mockConnection).prepareStatement("SELECT * FROM users WHERE name = ? AND description = 'Time: 10:30 AM'");
         verify(mockStatement).setObject(1, "John");
     }
+
+    @Test
+    @DisplayName("Should expand collection parameters into one placeholder per element")
+    void testCollectionParameterExpansion() throws SQLException {
+        // Arrange
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+
+        String sql = "SELECT * FROM currencies WHERE code IN (:codes) AND active = :active";
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("codes", List.of("USD", "EUR", "GBP"));
+        parameters.put("active", true);
+
+        // Act
+        PreparedStatement result = JdbcParameterUtils.prepareStatement(mockConnection, sql, parameters);
+
+        // Assert
+        assertNotNull(result);
+        verify(mockConnection).prepareStatement("SELECT * FROM currencies WHERE code IN (?, ?, ?) AND active = ?");
+        verify(mockStatement).setObject(1, "USD");
+        verify(mockStatement).setObject(2, "EUR");
+        verify(mockStatement).setObject(3, "GBP");
+        verify(mockStatement).setObject(4, true);
+    }
+
+    @Test
+    @DisplayName("Should bind NULL for an empty collection parameter")
+    void testEmptyCollectionParameter() throws SQLException {
+        // Arrange
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+
+        String sql = "SELECT * FROM currencies WHERE code IN (:codes)";
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("codes", List.of());
+
+        // Act
+        JdbcParameterUtils.prepareStatement(mockConnection, sql, parameters);
+
+        // Assert
+        verify(mockConnection).prepareStatement("SELECT * FROM currencies WHERE code IN (?)");
+        verify(mockStatement).setObject(1, null);
+    }
 }
@@ -411,6 +411,38 @@ class JdbcTemplateFactoryTest {
         // so we only test the basic getConnection() method
     }
 
+    // ========================================
+    // Statement Cache Tests
+    // ========================================
+
+    @Test
+    @DisplayName("Should enable prepared statement caching for PostgreSQL and MySQL")
+    void testStatementCacheProperties() {
+        DataSourceConfiguration config = createH2Configuration();
+
+        config.setSourceType("postgresql");
+        assertEquals("250", JdbcTemplateFactory.getStatementCacheProperties(config).get("preparedStatementCacheQueries"));
+
+        config.setSourceType("mysql");
+        assertEquals("true", JdbcTemplateFactory.getStatementCacheProperties(config).get("cachePrepStmts"));
+        assertEquals("250", JdbcTemplateFactory.getStatementCacheProperties(config).get("prepStmtCacheSize"));
+
+        config.setSourceType("h2");
+        assertTrue(JdbcTemplateFactory.getStatementCacheProperties(config).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not set statement cache properties when caching is disabled")
+    void testStatementCacheDisabled() {
+        DataSourceConfiguration config = createH2Configuration();
+        config.setSourceType("postgresql");
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+        poolConfig.setStatementCacheSize(0);
+        config.getConnection().setConnectionPool(poolConfig);
+
+        assertTrue(JdbcTemplateFactory.getStatementCacheProperties(config).isEmpty());
+    }
+
     // ========================================
     // Helper Methods
     // ========================================
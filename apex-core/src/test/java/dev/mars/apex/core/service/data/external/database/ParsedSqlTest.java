@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 APEX Development Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mars.apex.core.service.data.external.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParsedSql.
+ */
+class ParsedSqlTest {
+
+    @Test
+    @DisplayName("Should precompute JDBC SQL and parameter order")
+    void testParseNamedParameters() {
+        ParsedSql parsed = ParsedSql.parse("SELECT * FROM users WHERE id = :userId AND name = :user_name OR id = :userId");
+
+        assertEquals("SELECT * FROM users WHERE id = ? AND name = ? OR id = ?", parsed.getJdbcSql());
+        assertEquals(List.of("userId", "user_name", "userId"), parsed.getParameterNames());
+        assertEquals(3, parsed.getParameterCount());
+        assertFalse(parsed.isUpdateStatement());
+    }
+
+    @Test
+    @DisplayName("Should handle SQL without parameters")
+    void testParseWithoutParameters() {
+        ParsedSql parsed = ParsedSql.parse("SELECT COUNT(*) FROM users");
+
+        assertEquals("SELECT COUNT(*) FROM users", parsed.getJdbcSql());
+        assertEquals(0, parsed.getParameterCount());
+    }
+
+    @Test
+    @DisplayName("Should classify DML and DDL statements as updates")
+    void testStatementClassification() {
+        assertTrue(ParsedSql.parse("  insert into users (id) values (:id)").isUpdateStatement());
+        assertTrue(ParsedSql.parse("UPDATE users SET name = :name").isUpdateStatement());
+        assertTrue(ParsedSql.parse("delete from users").isUpdateStatement());
+        assertTrue(ParsedSql.parse("CREATE TABLE t (id INT)").isUpdateStatement());
+        assertFalse(ParsedSql.parse("INSERT INTO users (id) VALUES (:id) RETURNING id").isUpdateStatement());
+        assertFalse(ParsedSql.parse("select * from users").isUpdateStatement());
+        assertFalse(ParsedSql.parse("WITH x AS (SELECT 1) SELECT * FROM x").isUpdateStatement());
+    }
+
+    @Test
+    @DisplayName("Should ignore lone colons")
+    void testLoneColon() {
+        ParsedSql parsed = ParsedSql.parse("SELECT a : b FROM t WHERE id = :id");
+
+        assertEquals("SELECT a : b FROM t WHERE id = ?", parsed.getJdbcSql());
+        assertEquals(List.of("id"), parsed.getParameterNames());
+    }
+
+    @Test
+    @DisplayName("Should reject null SQL")
+    void testNullSql() {
+        assertThrows(IllegalArgumentException.class, () -> ParsedSql.parse(null));
+    }
+}
@@ -658,6 +658,69 @@ class CsvDataLoaderTest {
         assertEquals(true, firstRow.get("active"));
     }
 
+    // ========================================
+    // Streaming Tests
+    // ========================================
+
+    @Test
+    @DisplayName("Should stream rows lazily with shared column keys")
+    void testStreamData() throws IOException {
+        String csvContent = """
+            id,name
+            1,Alpha
+            2,Beta
+            3,Gamma
+            """;
+
+        Path csvFile = createTempCsvFile(csvContent);
+        List<Object> rows;
+        try (java.util.stream.Stream<Object> stream = csvDataLoader.streamData(csvFile, defaultConfig)) {
+            rows = stream.limit(2).collect(java.util.stream.Collectors.toList());
+        }
+
+        assertEquals(2, rows.size());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> first = (Map<String, Object>) rows.get(0);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> second = (Map<String, Object>) rows.get(1);
+        assertEquals(1L, first.get("id"));
+        assertEquals("Beta", second.get("name"));
+
+        // Rows from the same file share the key instances rather than holding copies
+        assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+    }
+
+    @Test
+    @DisplayName("Should stream the same rows as loadData")
+    void testStreamMatchesLoad() throws IOException {
+        FileFormatConfig config = createDefaultFormatConfig();
+        config.setColumnMappings(Map.of("name", "fullName"));
+        String csvContent = """
+            id,name,note
+            1,"Smith, John",a\\,b
+
+            2,Jane,,extra
+            """;
+
+        Path csvFile = createTempCsvFile(csvContent);
+        List<Object> loaded = csvDataLoader.loadData(csvFile, config);
+        List<Object> streamed;
+        try (java.util.stream.Stream<Object> stream = csvDataLoader.streamData(csvFile, config)) {
+            streamed = stream.collect(java.util.stream.Collectors.toList());
+        }
+
+        assertEquals(loaded, streamed);
+        assertEquals(2, streamed.size());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> first = (Map<String, Object>) streamed.get(0);
+        assertEquals("Smith, John", first.get("fullName"));
+        assertEquals("a,b", first.get("note"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> second = (Map<String, Object>) streamed.get(1);
+        assertNull(second.get("note"));
+        assertEquals("extra", second.get("column_4"));
+    }
+
     // ========================================
     // Helper Methods
     // ========================================
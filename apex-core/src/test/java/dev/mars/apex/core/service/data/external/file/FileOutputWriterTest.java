@@ -0,0 +1,189 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileOutputWriter.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class FileOutputWriterTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-output-writer");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should rotate before a write would exceed the maximum file size")
+    void testSizeRotation() throws IOException {
+        FileOutputWriter writer = new FileOutputWriter("size", settings("out_{sequence}.txt").maxFileSizeBytes(100),
+                                                       () -> bytes("header\n"));
+        for (int i = 0; i < 5; i++) {
+            writer.write(bytes("x".repeat(39) + "\n"));
+        }
+        writer.close();
+
+        List<Path> files = listFiles(directory);
+        assertEquals(3, files.size());
+        for (Path file : files) {
+            assertTrue(Files.size(file) <= 100, file + " has " + Files.size(file) + " bytes");
+            assertTrue(Files.readString(file).startsWith("header\n"));
+        }
+        assertEquals(3, writer.getFilesOpened());
+    }
+
+    @Test
+    @DisplayName("Should write gzip output that decompresses to the written data")
+    void testGzip() throws IOException {
+        FileOutputWriter writer = new FileOutputWriter("gzip", settings("out.jsonl").gzip(true), null);
+        writer.write(bytes("{\"id\":1}\n"));
+        writer.write(bytes("{\"id\":2}\n"));
+        writer.close();
+
+        Path file = directory.resolve("out.jsonl.gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals("{\"id\":1}\n{\"id\":2}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Should rename a fixed-name file on rotation and move it on archive")
+    void testRotateAndArchive() throws IOException {
+        FileOutputWriter writer = new FileOutputWriter("archive", settings("audit.log"), null);
+        writer.write(bytes("first\n"));
+
+        Path rotated = writer.rotate();
+        assertNotNull(rotated);
+        assertTrue(rotated.getFileName().toString().startsWith("audit_"));
+        assertEquals("first\n", Files.readString(rotated));
+        assertFalse(Files.exists(directory.resolve("audit.log")));
+
+        writer.write(bytes("second\n"));
+        Path archived = writer.archive();
+        assertEquals(directory.resolve("archive"), archived.getParent());
+        assertEquals("second\n", Files.readString(archived));
+
+        assertNull(writer.rotate());
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Should overwrite a new file after rotation instead of the rotated one")
+    void testOverwriteAfterRotate() throws IOException {
+        FileOutputWriter writer = new FileOutputWriter("rotate-overwrite", settings("out_{timestamp}.txt"), null);
+        writer.write(bytes("first\n"));
+
+        Path rotated = writer.rotate();
+        assertNull(writer.getCurrentFile());
+        writer.overwrite(bytes("second\n"));
+        writer.close();
+
+        assertEquals("first\n", Files.readString(rotated));
+        assertNotEquals(rotated, writer.getCurrentFile());
+        assertEquals("second\n", Files.readString(writer.getCurrentFile()));
+    }
+
+    @Test
+    @DisplayName("Should share fsyncs between concurrent writers with the batch policy")
+    void testGroupCommit() throws Exception {
+        FileOutputWriter writer = new FileOutputWriter("group",
+            settings("out.txt").fsyncPolicy(FileOutputWriter.FsyncPolicy.BATCH), null);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        writer.write(bytes(thread + ":" + i + "\n"));
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long forcesBeforeClose = writer.getForceCount();
+        writer.close();
+
+        assertEquals(400, Files.readAllLines(directory.resolve("out.txt")).size());
+        assertTrue(forcesBeforeClose <= writer.getGroupCount());
+        assertTrue(forcesBeforeClose > 0);
+    }
+
+    @Test
+    @DisplayName("Should replace the file contents on overwrite and reject writes after close")
+    void testOverwriteAndClose() throws IOException {
+        FileOutputWriter writer = new FileOutputWriter("overwrite", settings("out.txt"), () -> bytes("h\n"));
+        writer.write(bytes("a\nb\n"));
+        writer.overwrite(bytes("c\n"));
+        writer.close();
+
+        assertEquals("h\nc\n", Files.readString(directory.resolve("out.txt")));
+        assertThrows(IOException.class, () -> writer.write(bytes("d\n")));
+    }
+
+    private FileOutputWriter.Settings settings(String pattern) {
+        return new FileOutputWriter.Settings().directory(directory).fileNamePattern(pattern).bufferSize(8192);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+}
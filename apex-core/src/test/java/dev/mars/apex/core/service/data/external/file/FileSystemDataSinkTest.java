@@ -0,0 +1,161 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasink.DataSinkConfiguration;
+import dev.mars.apex.core.config.datasink.OutputFormatConfig;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.service.data.external.DataSinkException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FileSystemDataSink writing to a temporary directory.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class FileSystemDataSinkTest {
+
+    private Path directory;
+    private FileSystemDataSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-sink");
+        sink = new FileSystemDataSink();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sink.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should write buffered records as JSON lines on flush")
+    void testJsonLines() throws Exception {
+        sink.initialize(config("json", "records.jsonl"));
+
+        sink.write("write", record(1, "alpha"));
+        sink.write("append", record(2, "beta"));
+        sink.flush();
+
+        List<String> lines = Files.readAllLines(directory.resolve("records.jsonl"));
+        assertEquals(List.of("{\"id\":1,\"name\":\"alpha\"}", "{\"id\":2,\"name\":\"beta\"}"), lines);
+    }
+
+    @Test
+    @DisplayName("Should write CSV with a header and quoted values")
+    void testCsv() throws Exception {
+        sink.initialize(config("csv", "records.csv"));
+
+        List<Object> batch = new ArrayList<>();
+        batch.add(record(1, "plain"));
+        batch.add(record(2, "with, comma"));
+        batch.add(record(3, "say \"hi\""));
+        sink.writeBatch("write", batch);
+
+        List<String> lines = Files.readAllLines(directory.resolve("records.csv"));
+        assertEquals(List.of("id,name", "1,plain", "2,\"with, comma\"", "3,\"say \"\"hi\"\"\""), lines);
+    }
+
+    @Test
+    @DisplayName("Should rotate the output file through the rotate operation")
+    void testRotateOperation() throws Exception {
+        sink.initialize(config("json", "records.jsonl"));
+        sink.write("write", record(1, "alpha"));
+
+        Object rotated = sink.execute("rotate", new HashMap<>());
+
+        assertNotNull(rotated);
+        assertTrue(Files.exists(Path.of(rotated.toString())));
+        assertFalse(Files.exists(directory.resolve("records.jsonl")));
+        assertEquals(1, Files.readAllLines(Path.of(rotated.toString())).size());
+    }
+
+    @Test
+    @DisplayName("Should close the output file on shutdown when the final flush fails")
+    void testShutdownClosesFileAfterFailedFlush() throws Exception {
+        sink.initialize(config("csv", "records.csv"));
+        sink.write("write", record(1, "alpha"));
+        sink.flush();
+
+        Map<String, Object> unwritable = record(2, "beta");
+        unwritable.put("name", new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("cannot encode");
+            }
+        });
+        sink.write("append", unwritable);
+
+        sink.shutdown();
+
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.getName().equals("apex-file-writer-file-sink-test") && thread.isAlive()));
+        assertEquals(List.of("id,name", "1,alpha"), Files.readAllLines(directory.resolve("records.csv")));
+    }
+
+    @Test
+    @DisplayName("Should reject output formats it cannot write")
+    void testUnsupportedFormat() {
+        assertThrows(DataSinkException.class, () -> sink.initialize(config("parquet", "records.parquet")));
+    }
+
+    private DataSinkConfiguration config(String format, String fileName) {
+        DataSinkConfiguration config = new DataSinkConfiguration("file-sink-test", "file-system");
+
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setBasePath(directory.toString());
+        connection.setFilePattern(fileName);
+        config.setConnection(connection);
+
+        OutputFormatConfig outputFormat = new OutputFormatConfig();
+        outputFormat.setFormat(format);
+        config.setOutputFormat(outputFormat);
+        return config;
+    }
+
+    private static Map<String, Object> record(int id, String name) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", id);
+        record.put("name", name);
+        return record;
+    }
+}
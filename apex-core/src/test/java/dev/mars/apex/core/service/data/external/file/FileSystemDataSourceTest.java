@@ -0,0 +1,241 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.CacheConfig;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.config.datasource.FileFormatConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FileSystemDataSource queries against files in a temporary directory.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class FileSystemDataSourceTest {
+
+    private Path directory;
+    private FileSystemDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-source");
+        Files.writeString(directory.resolve("customers.csv"),
+            "id,name,region\n1,Acme,EU\n2,Globex,US\n3,Initech,EU\n");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (dataSource != null) {
+            dataSource.shutdown();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer JSONPath and SELECT equality queries in file order")
+    void testEqualityQueries() throws Exception {
+        dataSource = initialize(new CacheConfig());
+
+        List<Map<String, Object>> byId = dataSource.query("$[?(@.id == '2')]", Map.of());
+        assertEquals(1, byId.size());
+        assertEquals("Globex", byId.get(0).get("name"));
+
+        List<Map<String, Object>> byRegion = dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU"));
+        assertEquals(List.of("Acme", "Initech"), byRegion.stream().map(row -> row.get("name")).collect(Collectors.toList()));
+
+        // The second lookup on the same field is answered from the index
+        assertEquals(2, dataSource.<Object>query("SELECT * WHERE region = :region", Map.of("region", "EU")).size());
+        assertTrue(dataSource.query("$[?(@.id == '9')]", Map.of()).isEmpty());
+        assertEquals(3, dataSource.query("SELECT *", Map.of()).size());
+    }
+
+    @Test
+    @DisplayName("Should give the same results with caching disabled")
+    void testQueriesWithoutCache() throws Exception {
+        dataSource = initialize(new CacheConfig(false, 60L, 100));
+
+        List<Map<String, Object>> byRegion = dataSource.query("SELECT * WHERE region = :region", Map.of("region", "US"));
+        assertEquals(1, byRegion.size());
+        assertEquals("Globex", byRegion.get(0).get("name"));
+    }
+
+    @Test
+    @DisplayName("Should watch the directory only while caching is enabled")
+    void testDirectoryWatchOnlyWithCache() throws Exception {
+        dataSource = initialize(new CacheConfig(false, 60L, 100));
+        assertFalse(awaitWatchThread(false));
+        dataSource.shutdown();
+
+        dataSource = initialize(new CacheConfig());
+        assertTrue(awaitWatchThread(true));
+
+        dataSource.shutdown();
+        dataSource = null;
+        assertFalse(awaitWatchThread(false));
+    }
+
+    @Test
+    @DisplayName("Should see file changes made through updates and directly on disk")
+    void testChangedFilesAreReloaded() throws Exception {
+        dataSource = initialize(new CacheConfig());
+        assertEquals(2, dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU")).size());
+
+        dataSource.batchUpdate(List.of("write:customers.csv:id,name,region\n1,Acme,US\n"));
+        assertTrue(dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU")).isEmpty());
+
+        Files.writeString(directory.resolve("customers.csv"), "id,name,region\n1,Acme,EU\n4,Umbrella,EU\n");
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<Object> results = dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU"));
+        while (results.size() != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            results = dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU"));
+        }
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    @DisplayName("Should find records by key column")
+    void testGetDataByKeyColumn() throws Exception {
+        dataSource = initialize(new CacheConfig());
+
+        Map<String, Object> customer = dataSource.getData("customers", 3L);
+        assertEquals("Initech", customer.get("name"));
+
+        // A cache hit for the same key finds the same record
+        Map<String, Object> cached = dataSource.getData("customers", 3L);
+        assertEquals("Initech", cached.get("name"));
+    }
+
+    @Test
+    @DisplayName("Should return copies of cached records that callers may modify")
+    void testCachedRecordsAreCopied() throws Exception {
+        dataSource = initialize(new CacheConfig());
+
+        Map<String, Object> byId = dataSource.<Map<String, Object>>query("$[?(@.id == '2')]", Map.of()).get(0);
+        byId.put("name", "Changed");
+        byId.put("id", "9");
+        for (Map<String, Object> row : dataSource.<Map<String, Object>>query("SELECT *", Map.of())) {
+            row.put("region", "APAC");
+        }
+        Map<String, Object> byKey = dataSource.getData("customers", 3L);
+        byKey.put("name", "Changed");
+
+        List<Map<String, Object>> again = dataSource.query("$[?(@.id == '2')]", Map.of());
+        assertEquals(1, again.size());
+        assertEquals("Globex", again.get(0).get("name"));
+        assertTrue(dataSource.query("$[?(@.id == '9')]", Map.of()).isEmpty());
+        assertEquals(2, dataSource.query("SELECT * WHERE region = :region", Map.of("region", "EU")).size());
+        assertEquals("Initech", dataSource.<Map<String, Object>>getData("customers", 3L).get("name"));
+    }
+
+    @Test
+    @DisplayName("Should stream records of each file before the file has been read to the end")
+    void testStreamReadsFilesLazily() throws Exception {
+        dataSource = initialize(new CacheConfig());
+        StringBuilder large = new StringBuilder("id,name,region\n");
+        for (int i = 0; i < 100_000; i++) {
+            large.append(i).append(",name-").append(i).append(",EU\n");
+        }
+        Path largeFile = directory.resolve("large.csv");
+        Files.writeString(largeFile, large);
+
+        int count = 0;
+        try (Stream<Object> records = dataSource.stream("large.csv", Map.of())) {
+            Iterator<Object> iterator = records.iterator();
+            assertTrue(iterator.hasNext());
+            iterator.next();
+            count++;
+
+            // Truncate the file in place: a lazy reader only sees what it had buffered
+            Files.writeString(largeFile, "id,name,region\n");
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        }
+        assertTrue(count < 100_000, "read " + count + " records");
+
+        // Files are read one after the other, in full once untouched
+        Files.writeString(directory.resolve("more.csv"), "id,name,region\n4,Umbrella,US\n");
+        try (Stream<Object> records = dataSource.stream("*.csv", Map.of())) {
+            assertEquals(4, records.count());
+        }
+    }
+
+    /**
+     * Wait for the watch thread of the source to be running or stopped, as threads of sources
+     * shut down by earlier tests may still be exiting.
+     */
+    private static boolean awaitWatchThread(boolean running) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        boolean watching = isWatchThreadRunning();
+        while (watching != running && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            watching = isWatchThreadRunning();
+        }
+        return watching;
+    }
+
+    private static boolean isWatchThreadRunning() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.getName().equals("apex-file-watch-customers") && thread.isAlive());
+    }
+
+    private FileSystemDataSource initialize(CacheConfig cache) throws Exception {
+        DataSourceConfiguration config = new DataSourceConfiguration();
+        config.setName("customers");
+        config.setType("file-system");
+        config.setSourceType("csv");
+
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setBasePath(directory.toString());
+        connection.setFilePattern("*.csv");
+        config.setConnection(connection);
+
+        FileFormatConfig format = new FileFormatConfig("csv");
+        format.setKeyColumn("id");
+        config.setFileFormat(format);
+        config.setCache(cache);
+
+        FileSystemDataSource source = new FileSystemDataSource(config);
+        source.initialize(config);
+        return source;
+    }
+}
@@ -0,0 +1,127 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.FileFormatConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedFileDataLoader.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class MappedFileDataLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should load the same CSV rows in the same order as CsvDataLoader")
+    void testParallelCsvMatchesCsvDataLoader() throws IOException {
+        StringBuilder csv = new StringBuilder("# exported\nid,name,price,active\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append(i).append(",\"Security ").append(i).append(", Inc\",").append(i).append(".25,")
+               .append(i % 2 == 0).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 500 == 0) {
+                csv.append("\n");
+            }
+        }
+        Path file = write("securities.csv", csv.toString());
+
+        FileFormatConfig config = parallelConfig("csv", 4);
+        config.setSkipLines(1);
+
+        List<Object> expected = new CsvDataLoader().loadData(file, config);
+        List<Object> loaded = new MappedFileDataLoader(256).loadData(file, config);
+
+        assertEquals(2000, loaded.size());
+        assertEquals(expected, loaded);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> last = (Map<String, Object>) loaded.get(1999);
+        assertEquals(1999L, last.get("id"));
+        assertEquals("Security 1999, Inc", last.get("name"));
+    }
+
+    @Test
+    @DisplayName("Should load JSON lines in file order and skip invalid lines")
+    void testJsonLines() throws IOException {
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            json.append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}\n");
+            if (i == 100) {
+                json.append("{not json}\n");
+            }
+        }
+        Path file = write("positions.jsonl", json.toString());
+
+        List<Object> loaded = new MappedFileDataLoader(128).loadData(file, parallelConfig("jsonl", 3));
+
+        assertEquals(500, loaded.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, ((Map<?, ?>) loaded.get(i)).get("id"));
+        }
+        assertEquals(List.of("a", "b"), ((Map<?, ?>) loaded.get(0)).get("tags"));
+    }
+
+    @Test
+    @DisplayName("Should parse on the calling thread when parallel loading is off")
+    void testSequentialAndEmptyFiles() throws IOException {
+        Path file = write("small.jsonl", "{\"id\":1}\n{\"id\":2}");
+        Path empty = write("empty.csv", "");
+        MappedFileDataLoader loader = new MappedFileDataLoader();
+
+        assertEquals(2, loader.loadData(file, new FileFormatConfig("json")).size());
+        assertTrue(loader.loadData(empty, parallelConfig("csv", 2)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only support CSV and JSON lines formats with parallel loading enabled")
+    void testSupportsFormat() {
+        MappedFileDataLoader loader = new MappedFileDataLoader();
+
+        assertTrue(loader.supportsFormat(parallelConfig("csv", 2)));
+        assertTrue(loader.supportsFormat(parallelConfig("jsonl", 2)));
+        assertFalse(loader.supportsFormat(parallelConfig("xml", 2)));
+        assertFalse(loader.supportsFormat(new FileFormatConfig("csv")));
+        assertFalse(loader.supportsFormat(null));
+    }
+
+    private FileFormatConfig parallelConfig(String type, int parallelism) {
+        FileFormatConfig config = new FileFormatConfig(type);
+        config.setParallelLoading(true);
+        config.setParallelism(parallelism);
+        return config;
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,126 @@
+package dev.mars.apex.core.service.data.external.file;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.FileFormatConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for XmlDataLoader.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class XmlDataLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final XmlDataLoader xmlDataLoader = new XmlDataLoader();
+
+    @Test
+    @DisplayName("Should read attributes, nested elements and repeated elements of each record")
+    void testRecordStructure() throws IOException {
+        String xml = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <trades xmlns:t="urn:trades">
+                <t:trade id="T1" status="NEW">
+                    <quantity>100</quantity>
+                    <price>99.5</price>
+                    <counterparty><code>CP1</code><name><![CDATA[Acme & Co]]></name></counterparty>
+                    <tag>fx</tag>
+                    <tag>spot</tag>
+                </t:trade>
+                <t:trade id="T2"><quantity>5</quantity><note/></t:trade>
+            </trades>
+            """;
+
+        FileFormatConfig config = config("trade");
+        config.setColumnMappings(Map.of("quantity", "qty"));
+        List<Object> result = xmlDataLoader.loadData(write(xml), config);
+
+        assertEquals(2, result.size());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> first = (Map<String, Object>) result.get(0);
+        assertEquals("T1", first.get("@id"));
+        assertEquals("NEW", first.get("@status"));
+        assertEquals(100L, first.get("qty"));
+        assertEquals(99.5, first.get("price"));
+        assertEquals(Map.of("code", "CP1", "name", "Acme & Co"), first.get("counterparty"));
+        assertEquals(List.of("fx", "spot"), first.get("tag"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> second = (Map<String, Object>) result.get(1);
+        assertEquals(5L, second.get("qty"));
+        assertTrue(second.containsKey("note"));
+        assertNull(second.get("note"));
+    }
+
+    @Test
+    @DisplayName("Should select records by element path and stream them lazily")
+    void testRecordPath() throws IOException {
+        String xml = """
+            <export>
+                <header><item>ignored</item></header>
+                <items><item>1</item><item>2</item><item>3</item></items>
+            </export>
+            """;
+
+        Path file = write(xml);
+        List<Object> firstTwo;
+        try (Stream<Object> records = xmlDataLoader.streamData(file, config("items/item"))) {
+            firstTwo = records.limit(2).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(Map.of("_text", 1L), Map.of("_text", 2L)), firstTwo);
+        assertEquals(3, xmlDataLoader.loadData(file, config("items/item")).size());
+        assertEquals(4, xmlDataLoader.loadData(file, config("item")).size());
+    }
+
+    @Test
+    @DisplayName("Should fail on malformed XML")
+    void testMalformedXml() throws IOException {
+        Path file = write("<records><record><id>1</id></records>");
+
+        assertThrows(IOException.class, () -> xmlDataLoader.loadData(file, config("record")));
+    }
+
+    private FileFormatConfig config(String recordElement) {
+        FileFormatConfig config = new FileFormatConfig("xml");
+        config.setRecordElement(recordElement);
+        return config;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("data.xml");
+        Files.writeString(file, content);
+        return file;
+    }
+}
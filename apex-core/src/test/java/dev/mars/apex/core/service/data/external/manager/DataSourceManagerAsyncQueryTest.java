@@ -0,0 +1,155 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.factory.DataSourceFactory;
+import dev.mars.apex.core.service.data.external.registry.DataSourceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded asynchronous queries of DataSourceManager.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class DataSourceManagerAsyncQueryTest {
+
+    private final DataSourceRegistry registry = DataSourceRegistry.getInstance();
+    private final List<String> registered = new ArrayList<>();
+    private DataSourceManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new DataSourceManager(registry, DataSourceFactory.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The registry is shared, so only remove what this test added
+        registry.removeListener(manager);
+        for (String name : registered) {
+            registry.unregister(name);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run asynchronous queries on virtual threads")
+    void testQueryAsync() throws Exception {
+        register("async-source", 1);
+
+        List<String> results = manager.<String>queryAsync("async-source", "query", Map.of()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("async-source"), results);
+        BulkheadStatistics stats = awaitStatistics("async-source",
+            s -> s.getCompletedQueries() == 1 && s.getActiveQueries() == 0);
+        assertEquals(1, stats.getCompletedQueries());
+        assertEquals(0, stats.getActiveQueries());
+        assertEquals(0, stats.getQueuedQueries());
+    }
+
+    @Test
+    @DisplayName("Should queue queries beyond the concurrency limit and reject them beyond the queue bound")
+    void testBulkheadLimits() throws Exception {
+        TestDataSource slow = register("async-slow", 300);
+        manager.setBulkheadConfig("async-slow", new BulkheadConfig(2, 3, 0));
+
+        List<CompletableFuture<List<String>>> admitted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            admitted.add(manager.queryAsync("async-slow", "query", Map.of()));
+        }
+        CompletableFuture<List<String>> rejected = manager.queryAsync("async-slow", "query", Map.of());
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof DataSourceException);
+
+        // Two queries take the permits while the other three wait for them
+        awaitStatistics("async-slow", s -> s.getActiveQueries() == 2);
+        DataSourceManagerStatistics stats = manager.getStatistics();
+        assertEquals(1, stats.getTotalRejectedQueries());
+        assertEquals(3, stats.getTotalQueuedQueries());
+        assertEquals(2, stats.getBulkheadStatistics("async-slow").getActiveQueries());
+
+        for (CompletableFuture<List<String>> future : admitted) {
+            assertEquals(List.of("async-slow"), future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(5, slow.queries.get());
+    }
+
+    @Test
+    @DisplayName("Should time out and interrupt queries that take too long")
+    void testTimeout() throws Exception {
+        TestDataSource stalled = register("async-stalled", 10_000);
+        manager.setBulkheadConfig("async-stalled", new BulkheadConfig(4, 10, 100));
+
+        CompletableFuture<List<String>> future = manager.queryAsync("async-stalled", "query", Map.of());
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof DataSourceException);
+        assertEquals(DataSourceException.ErrorType.TIMEOUT_ERROR, ((DataSourceException) error.getCause()).getErrorType());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stalled.interrupted.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, stalled.interrupted.get());
+        BulkheadStatistics stats = awaitStatistics("async-stalled", s -> s.getActiveQueries() == 0);
+        assertEquals(1, stats.getTimedOutQueries());
+        assertEquals(0, stats.getCompletedQueries());
+    }
+
+    @Test
+    @DisplayName("Should fail queries against unknown data sources")
+    void testUnknownDataSource() {
+        CompletableFuture<List<Object>> future = manager.queryAsync("async-missing", "query", Map.of());
+
+        ExecutionException error = assertThrows(ExecutionException.class, future::get);
+        assertTrue(error.getCause() instanceof DataSourceException);
+    }
+
+    private BulkheadStatistics awaitStatistics(String name, Predicate<BulkheadStatistics> condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        BulkheadStatistics stats = manager.getStatistics().getBulkheadStatistics(name);
+        while (!condition.test(stats) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            stats = manager.getStatistics().getBulkheadStatistics(name);
+        }
+        return stats;
+    }
+
+    private TestDataSource register(String name, long latencyMs) throws DataSourceException {
+        TestDataSource dataSource = new TestDataSource(name, latencyMs);
+        registry.register(dataSource);
+        registered.add(name);
+        return dataSource;
+    }
+}
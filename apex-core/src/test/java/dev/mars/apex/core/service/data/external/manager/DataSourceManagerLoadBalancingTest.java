@@ -0,0 +1,145 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.service.data.external.ConnectionStatus;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.DataSourceType;
+import dev.mars.apex.core.service.data.external.factory.DataSourceFactory;
+import dev.mars.apex.core.service.data.external.registry.DataSourceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for load balancing, failover and hedged queries in DataSourceManager.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class DataSourceManagerLoadBalancingTest {
+
+    private final DataSourceRegistry registry = DataSourceRegistry.getInstance();
+    private final List<String> registered = new ArrayList<>();
+    private DataSourceManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new DataSourceManager(registry, DataSourceFactory.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The registry is shared, so only remove what this test added
+        registry.removeListener(manager);
+        for (String name : registered) {
+            registry.unregister(name);
+        }
+    }
+
+    @Test
+    @DisplayName("Should send most queries to the faster data source with EWMA latency balancing")
+    void testEwmaLatencyPrefersFasterSource() throws Exception {
+        TestDataSource fast = register("lb-fast", 1);
+        TestDataSource slow = register("lb-slow", 25);
+        manager.setLoadBalancingStrategy(LoadBalancingStrategies.ewmaLatency());
+        int healthChecks = fast.healthChecks.get() + slow.healthChecks.get();
+
+        for (int i = 0; i < 40; i++) {
+            manager.queryWithFailover(DataSourceType.CUSTOM, "query", Map.of());
+        }
+
+        // Selection relies on the registry's health events instead of probing every source per query,
+        // allowing for one background health check of the registry during the loop
+        assertTrue(fast.healthChecks.get() + slow.healthChecks.get() - healthChecks <= 2);
+
+        assertTrue(fast.queries.get() > 30, "fast source answered " + fast.queries.get() + " of 40");
+        assertTrue(slow.queries.get() >= 1);
+        assertTrue(manager.getDataSourceLoad("lb-slow").getEwmaLatencyMillis()
+                   > manager.getDataSourceLoad("lb-fast").getEwmaLatencyMillis());
+        assertEquals(0, manager.getDataSourceLoad("lb-fast").getOutstandingRequests());
+    }
+
+    @Test
+    @DisplayName("Should fail over to the next data source when the chosen one fails")
+    void testFailover() throws Exception {
+        TestDataSource failing = register("lb-failing", 1);
+        failing.failing = true;
+        register("lb-working", 1);
+        manager.setLoadBalancingStrategy(candidates -> manager.getDataSourceLoad("lb-failing"));
+
+        List<String> results = manager.queryWithFailover(DataSourceType.CUSTOM, "query", Map.of());
+
+        assertEquals(List.of("lb-working"), results);
+        assertEquals(1, failing.queries.get());
+        assertEquals(0, manager.getDataSourceLoad("lb-failing").getOutstandingRequests());
+    }
+
+    @Test
+    @DisplayName("Should skip data sources whose connection is not operational")
+    void testUnavailableSourceIsSkipped() throws Exception {
+        TestDataSource broken = register("lb-broken", 1);
+        broken.status = ConnectionStatus.error("Connection refused", null);
+        register("lb-ok", 1);
+        manager.setLoadBalancingStrategy(LoadBalancingStrategies.powerOfTwoChoices());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("lb-ok", manager.getDataSourceWithLoadBalancing(DataSourceType.CUSTOM).getName());
+        }
+        assertFalse(manager.getDataSourceLoad("lb-broken").isAvailable());
+    }
+
+    @Test
+    @DisplayName("Should hedge a slow query on a second data source and use the first result")
+    void testHedgedQuery() throws Exception {
+        TestDataSource primary = register("lb-primary", 2);
+        TestDataSource backup = register("lb-backup", 2);
+        manager.setLoadBalancingStrategy(candidates -> manager.getDataSourceLoad("lb-primary"));
+
+        // Build up a latency history before the primary slows down
+        for (int i = 0; i < 30; i++) {
+            assertEquals(List.of("lb-primary"), manager.queryWithFailover(DataSourceType.CUSTOM, "query", Map.of()));
+        }
+        assertEquals(0, backup.queries.get());
+
+        manager.enableHedgedRequests(0.95);
+        primary.latencyMs = 1000;
+        long start = System.currentTimeMillis();
+        List<String> results = manager.queryWithFailover(DataSourceType.CUSTOM, "query", Map.of());
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(List.of("lb-backup"), results);
+        assertTrue(elapsed < 800, "hedged query took " + elapsed + "ms");
+        assertEquals(1, manager.getHedgedRequestCount());
+        assertEquals(1, backup.queries.get());
+    }
+
+    private TestDataSource register(String name, long latencyMs) throws DataSourceException {
+        TestDataSource dataSource = new TestDataSource(name, latencyMs);
+        registry.register(dataSource);
+        registered.add(name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,150 @@
+package dev.mars.apex.core.service.data.external.manager;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.ConnectionStatus;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.DataSourceMetrics;
+import dev.mars.apex.core.service.data.external.DataSourceType;
+import dev.mars.apex.core.service.data.external.ExternalDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source answering every query with its own name after a configurable delay, for the
+ * DataSourceManager tests.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class TestDataSource implements ExternalDataSource {
+    private final String name;
+    final AtomicInteger queries = new AtomicInteger();
+    final AtomicInteger interrupted = new AtomicInteger();
+    final AtomicInteger healthChecks = new AtomicInteger();
+    volatile long latencyMs;
+    volatile boolean failing;
+    volatile ConnectionStatus status = ConnectionStatus.connected("Test connection");
+
+    TestDataSource(String name, long latencyMs) {
+        this.name = name;
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(String query, Map<String, Object> parameters) throws DataSourceException {
+        queries.incrementAndGet();
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            interrupted.incrementAndGet();
+            Thread.currentThread().interrupt();
+            throw DataSourceException.executionError("Interrupted", e, query);
+        }
+        if (failing) {
+            throw DataSourceException.executionError("Query failed", null, query);
+        }
+        return (List<T>) List.of(name);
+    }
+
+    @Override
+    public <T> T queryForObject(String query, Map<String, Object> parameters) {
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDataType() {
+        return "test";
+    }
+
+    @Override
+    public boolean supportsDataType(String dataType) {
+        return "test".equals(dataType);
+    }
+
+    @Override
+    public <T> T getData(String dataType, Object... parameters) {
+        return null;
+    }
+
+    @Override
+    public <T> List<List<T>> batchQuery(List<String> queries) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void batchUpdate(List<String> updates) {
+        // No-op for test
+    }
+
+    @Override
+    public boolean isHealthy() {
+        healthChecks.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public boolean testConnection() {
+        return true;
+    }
+
+    @Override
+    public ConnectionStatus getConnectionStatus() {
+        return status;
+    }
+
+    @Override
+    public void shutdown() {
+        // No-op for test
+    }
+
+    @Override
+    public DataSourceType getSourceType() {
+        return DataSourceType.CUSTOM;
+    }
+
+    @Override
+    public DataSourceMetrics getMetrics() {
+        return new DataSourceMetrics();
+    }
+
+    @Override
+    public void initialize(DataSourceConfiguration config) {
+        // No-op for test
+    }
+
+    @Override
+    public DataSourceConfiguration getConfiguration() {
+        return null;
+    }
+
+    @Override
+    public void refresh() {
+        // No-op for test
+    }
+}
@@ -0,0 +1,215 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.yaml.YamlEnrichment;
+import dev.mars.apex.core.config.yaml.YamlRuleConfiguration;
+import dev.mars.apex.core.engine.config.RulesEngine;
+import dev.mars.apex.core.engine.config.RulesEngineConfiguration;
+import dev.mars.apex.core.engine.model.Rule;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.engine.ExpressionEvaluatorService;
+import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
+import dev.mars.apex.core.service.lookup.LookupServiceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MessageBatchProcessor and RulesMessageBatchHandler against an in-memory broker.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class MessageBatchProcessorTest {
+
+    private static final String TOPIC = "trades";
+    private static final String GROUP = "trade-processor";
+
+    private final InMemoryMessageBroker broker = new InMemoryMessageBroker(4);
+    private MessageBatchProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        if (processor != null) {
+            processor.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should process messages of each key in order and commit every partition")
+    void testPerKeyOrderingAndCommit() throws Exception {
+        publishSequences(10, 20);
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        processor = new MessageBatchProcessor("ordering", broker.createConsumer(GROUP, TOPIC),
+            (partition, messages) -> record(seen, messages), 50, 4, 0L);
+
+        int polled;
+        int total = 0;
+        while ((polled = processor.processNextBatch()) > 0) {
+            assertTrue(polled <= 50);
+            total += polled;
+        }
+
+        assertEquals(200, total);
+        assertEquals(200, processor.getMessagesProcessed());
+        assertEquals(4, processor.getBatchesProcessed());
+        assertEquals(10, seen.size());
+        for (List<Integer> sequence : seen.values()) {
+            assertEquals(sequence(20), sequence);
+        }
+        for (int partition = 0; partition < broker.getPartitionCount(); partition++) {
+            assertEquals(broker.getEndOffset(TOPIC, partition), broker.getCommittedOffset(GROUP, TOPIC, partition));
+        }
+    }
+
+    @Test
+    @DisplayName("Should commit partitions that succeed and poll a failed partition again")
+    void testFailedPartitionIsRedelivered() throws Exception {
+        publishSequences(10, 5);
+        int failingPartition = broker.publish(TOPIC, "key-0", -1).getPartition();
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        processor = new MessageBatchProcessor("retry", broker.createConsumer(GROUP, TOPIC), (partition, messages) -> {
+            if (partition == failingPartition && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Downstream unavailable");
+            }
+            record(seen, messages);
+        }, 100, 2, 0L);
+
+        DataSourceException e = assertThrows(DataSourceException.class, processor::processNextBatch);
+        assertTrue(e.getMessage().contains("Downstream unavailable"));
+        assertEquals(1, processor.getFailedBatches());
+        assertEquals(0, broker.getCommittedOffset(GROUP, TOPIC, failingPartition));
+        for (int partition = 0; partition < broker.getPartitionCount(); partition++) {
+            if (partition != failingPartition) {
+                assertEquals(broker.getEndOffset(TOPIC, partition), broker.getCommittedOffset(GROUP, TOPIC, partition));
+            }
+        }
+
+        assertTrue(processor.processNextBatch() > 0);
+        assertEquals(0, processor.processNextBatch());
+        List<Integer> expected = new ArrayList<>(sequence(5));
+        expected.add(-1);
+        assertEquals(expected, seen.get("key-0"));
+        assertEquals(broker.getEndOffset(TOPIC, failingPartition), broker.getCommittedOffset(GROUP, TOPIC, failingPartition));
+    }
+
+    @Test
+    @DisplayName("Should consume published messages on the polling thread until stopped")
+    void testBackgroundProcessing() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        processor = new MessageBatchProcessor("background", broker.createConsumer(GROUP, TOPIC),
+            (partition, messages) -> received.addAndGet(messages.size()), 16, 4, 0L);
+        processor.start();
+        assertTrue(processor.isRunning());
+
+        publishSequences(8, 25);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (processor.getMessagesProcessed() < 200 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(processor.stop(5_000));
+        assertFalse(processor.isRunning());
+        assertEquals(200, received.get());
+        assertEquals(200, processor.getMessagesProcessed());
+    }
+
+    @Test
+    @DisplayName("Should enrich each batch and evaluate rules against the enriched payloads")
+    void testRulesMessageBatchHandler() throws Exception {
+        RulesEngineConfiguration rulesConfiguration = new RulesEngineConfiguration();
+        rulesConfiguration.registerRule(new Rule("R001", "trades", "Large trade", "#notional > 1000",
+                                                 "LARGE", "Large trades", 1));
+        RulesEngine rulesEngine = new RulesEngine(rulesConfiguration);
+
+        YamlEnrichment notional = new YamlEnrichment();
+        notional.setId("notional");
+        notional.setType("calculation-enrichment");
+        YamlEnrichment.CalculationConfig calculation = new YamlEnrichment.CalculationConfig();
+        calculation.setExpression("#quantity * #price");
+        calculation.setResultField("notional");
+        notional.setCalculationConfig(calculation);
+        YamlRuleConfiguration yamlConfiguration = new YamlRuleConfiguration();
+        yamlConfiguration.setEnrichments(List.of(notional));
+
+        YamlEnrichmentProcessor enrichmentProcessor =
+            new YamlEnrichmentProcessor(new LookupServiceRegistry(), new ExpressionEvaluatorService());
+        List<Object> enriched = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger matches = new AtomicInteger();
+        RulesMessageBatchHandler handler = new RulesMessageBatchHandler(rulesEngine, "trades", enrichmentProcessor,
+            yamlConfiguration, (partition, messages, payloads, results) -> {
+                assertEquals(messages.size(), results.size());
+                enriched.addAll(payloads);
+                matches.addAndGet(results.getMatchCount());
+            });
+
+        for (int i = 1; i <= 20; i++) {
+            Map<String, Object> trade = new HashMap<>();
+            trade.put("id", "T" + i);
+            trade.put("quantity", i);
+            trade.put("price", 100);
+            broker.publish(TOPIC, "T" + i, trade);
+        }
+        processor = new MessageBatchProcessor("rules", broker.createConsumer(GROUP, TOPIC), handler, 100, 4, 0L);
+
+        assertEquals(20, processor.processNextBatch());
+        assertEquals(20, enriched.size());
+        // Quantities 11 to 20 give a notional above 1000
+        assertEquals(10, matches.get());
+        for (Object payload : enriched) {
+            Map<?, ?> trade = (Map<?, ?>) payload;
+            assertEquals(((Integer) trade.get("quantity")) * 100, trade.get("notional"));
+        }
+    }
+
+    private void publishSequences(int keys, int messagesPerKey) {
+        for (int sequence = 0; sequence < messagesPerKey; sequence++) {
+            for (int key = 0; key < keys; key++) {
+                broker.publish(TOPIC, "key-" + key, sequence);
+            }
+        }
+    }
+
+    private static void record(Map<String, List<Integer>> seen, List<QueueMessage> messages) {
+        for (QueueMessage message : messages) {
+            seen.computeIfAbsent(message.getKey(), key -> Collections.synchronizedList(new ArrayList<>()))
+                .add((Integer) message.getPayload());
+        }
+    }
+
+    private static List<Integer> sequence(int length) {
+        List<Integer> sequence = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            sequence.add(i);
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,106 @@
+package dev.mars.apex.core.service.data.external.messagequeue;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MessageQueueDataSource consuming through consumer factories.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class MessageQueueDataSourceTest {
+
+    private MessageQueueDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should use an in-process broker when no consumer factory is given")
+    void testInProcessBroker() throws Exception {
+        dataSource = new MessageQueueDataSource();
+        dataSource.initialize(configuration("kafka"));
+
+        assertTrue(dataSource.getConsumerFactory() instanceof InMemoryMessageBroker);
+        dataSource.batchUpdate(List.of("first", "second", "third"));
+
+        List<Object> messages = dataSource.query("orders", Map.of("maxMessages", 2, "timeout", 100L));
+        assertEquals(2, messages.size());
+        List<Object> rest = dataSource.query("orders", Map.of("maxMessages", 10, "timeout", 100L));
+        assertEquals(1, rest.size());
+        assertNull(dataSource.getData("orders", 10L));
+    }
+
+    @Test
+    @DisplayName("Should consume from a registered consumer factory and process batches")
+    void testConsumerFactory() throws Exception {
+        InMemoryMessageBroker broker = new InMemoryMessageBroker(2);
+        dataSource = new MessageQueueDataSource(broker);
+        dataSource.initialize(configuration("custom-broker"));
+
+        broker.publish("orders-topic", "A", "a1");
+        assertEquals("a1", dataSource.getData("orders", 100L));
+        assertEquals(1, broker.getCommittedOffset("order-group", "orders-topic",
+            broker.publish("orders-topic", "A", "a2").getPartition()));
+
+        List<Object> processed = Collections.synchronizedList(new ArrayList<>());
+        MessageBatchProcessor processor = dataSource.createBatchProcessor("orders",
+            (partition, messages) -> messages.forEach(message -> processed.add(message.getPayload())));
+        assertEquals(1, processor.processNextBatch());
+        assertEquals(List.of("a2"), processed);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown message queue types without a consumer factory")
+    void testUnsupportedType() {
+        dataSource = new MessageQueueDataSource();
+        assertThrows(DataSourceException.class, () -> dataSource.initialize(configuration("custom-broker")));
+    }
+
+    private static DataSourceConfiguration configuration(String sourceType) {
+        DataSourceConfiguration config = new DataSourceConfiguration();
+        config.setName("orders-source");
+        config.setType("message-queue");
+        config.setSourceType(sourceType);
+        config.setTopics(Map.of("orders", "orders-topic"));
+
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setConsumerGroup("order-group");
+        connection.setConsumerThreads(2);
+        config.setConnection(connection);
+        return config;
+    }
+}
@@ -0,0 +1,327 @@
+package dev.mars.apex.core.service.data.external.rest;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.CacheConfig;
+import dev.mars.apex.core.config.datasource.ConnectionConfig;
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the asynchronous queries of RestApiDataSource, using an HTTP client whose
+ * responses are completed by the test.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class RestApiDataSourceTest {
+
+    private FakeHttpClient httpClient;
+    private RestApiDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSourceConfiguration config = new DataSourceConfiguration();
+        config.setName("prices");
+        config.setType("rest-api");
+        config.setSourceType("rest-api");
+
+        ConnectionConfig connection = new ConnectionConfig();
+        connection.setBaseUrl("http://prices.test/api");
+        connection.setMaxConcurrentRequests(2);
+        config.setConnection(connection);
+        config.setQueries(Map.of("price", "/prices/{symbol}"));
+
+        httpClient = new FakeHttpClient();
+        dataSource = new RestApiDataSource(httpClient, config);
+        dataSource.initialize(config);
+    }
+
+    @Test
+    @DisplayName("Should share one request between identical queries in flight")
+    void testIdenticalRequestsAreCoalesced() throws Exception {
+        CompletableFuture<List<Object>> first = dataSource.queryAsync("price", Map.of("symbol", "ACME"));
+        CompletableFuture<List<Object>> second = dataSource.queryAsync("/prices/ACME", Map.of());
+        CompletableFuture<List<Object>> other = dataSource.queryAsync("price", Map.of("symbol", "GLOBEX"));
+
+        assertEquals(2, httpClient.pending.size());
+        assertEquals(1, dataSource.getCoalescedRequestCount());
+        assertFalse(first.isDone());
+
+        httpClient.respond("http://prices.test/api/prices/ACME", 200, "42.5");
+        assertEquals(List.of("42.5"), first.get());
+        assertEquals(List.of("42.5"), second.get());
+        assertFalse(other.isDone());
+
+        // Once answered, the same query sends a new request
+        dataSource.queryAsync("price", Map.of("symbol", "ACME"));
+        assertEquals(2, httpClient.pending.size());
+        assertEquals(3, httpClient.sent);
+    }
+
+    @Test
+    @DisplayName("Should keep at most the configured number of batch queries in flight")
+    void testBatchQueryConcurrencyLimit() throws Exception {
+        List<String> queries = List.of("/prices/A", "/prices/B", "/prices/C", "/prices/D", "/prices/E");
+        CompletableFuture<List<List<Object>>> batch = dataSource.batchQueryAsync(queries);
+
+        int maxInFlight = 0;
+        while (!httpClient.pending.isEmpty()) {
+            maxInFlight = Math.max(maxInFlight, httpClient.pending.size());
+            // Answer the most recent request first, so results complete out of order
+            String url = httpClient.pending.get(httpClient.pending.size() - 1).url;
+            httpClient.respond(url, 200, url.substring(url.lastIndexOf('/') + 1));
+        }
+
+        assertEquals(2, maxInFlight);
+        assertEquals(5, httpClient.sent);
+        assertEquals(List.of(List.of("A"), List.of("B"), List.of("C"), List.of("D"), List.of("E")), batch.get());
+    }
+
+    @Test
+    @DisplayName("Should run batch queries one at a time when the concurrency limit is not positive")
+    void testNonPositiveConcurrencyLimit() throws Exception {
+        dataSource.getConfiguration().getConnection().setMaxConcurrentRequests(0);
+        CompletableFuture<List<List<Object>>> batch = dataSource.batchQueryAsync(List.of("/prices/A", "/prices/B"));
+
+        assertEquals(1, httpClient.pending.size());
+        httpClient.respond("http://prices.test/api/prices/A", 200, "A");
+        assertEquals(1, httpClient.pending.size());
+        httpClient.respond("http://prices.test/api/prices/B", 200, "B");
+
+        assertEquals(List.of(List.of("A"), List.of("B")), batch.get());
+    }
+
+    @Test
+    @DisplayName("Should fail queries and batches on error responses")
+    void testErrorResponses() {
+        CompletableFuture<List<List<Object>>> batch = dataSource.batchQueryAsync(List.of("/prices/A", "/prices/B", "/prices/C"));
+        httpClient.respond("http://prices.test/api/prices/A", 500, "");
+        httpClient.respond("http://prices.test/api/prices/B", 200, "1");
+
+        assertTrue(batch.isCompletedExceptionally());
+        // No further queries are started once the batch has failed
+        assertEquals(2, httpClient.sent);
+
+        httpClient.respondImmediately("http://prices.test/api/prices/X", 503);
+        DataSourceException e = assertThrows(DataSourceException.class, () -> dataSource.query("/prices/X", Map.of()));
+        assertEquals("API call failed with status: 503", e.getMessage());
+        assertEquals(1, dataSource.getMetrics().getSuccessfulRequests());
+    }
+
+    @Test
+    @DisplayName("Should answer getDataAsync from the response cache after the first call")
+    void testGetDataAsyncUsesCache() throws Exception {
+        DataSourceConfiguration config = dataSource.getConfiguration();
+        config.setEndpoints(Map.of("default", "/prices/{param1}"));
+        config.setCache(new CacheConfig());
+
+        CompletableFuture<Object> first = dataSource.getDataAsync("price", "ACME");
+        httpClient.respond("http://prices.test/api/prices/ACME", 200, "42.5");
+        assertEquals("42.5", first.get());
+
+        CompletableFuture<Object> second = dataSource.getDataAsync("price", "ACME");
+        assertTrue(second.isDone());
+        assertEquals("42.5", second.get());
+        assertEquals(1, httpClient.sent);
+    }
+
+    /**
+     * An HTTP client that records asynchronous requests and completes them when told to.
+     */
+    private static class FakeHttpClient extends HttpClient {
+        private final List<PendingRequest> pending = new ArrayList<>();
+        private final Map<String, Integer> immediateStatus = new HashMap<>();
+        private int sent;
+
+        synchronized void respondImmediately(String url, int status) {
+            immediateStatus.put(url, status);
+        }
+
+        synchronized void respond(String url, int status, String body) {
+            for (PendingRequest request : pending) {
+                if (request.url.equals(url)) {
+                    pending.remove(request);
+                    request.future.complete(new FakeResponse(request.request, status, body));
+                    return;
+                }
+            }
+            throw new IllegalStateException("No request pending for " + url);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                                           HttpResponse.BodyHandler<T> handler) {
+            sent++;
+            CompletableFuture<HttpResponse<String>> future = new CompletableFuture<>();
+            String url = request.uri().toString();
+            if (immediateStatus.containsKey(url)) {
+                future.complete(new FakeResponse(request, immediateStatus.get(url), ""));
+            } else {
+                pending.add(new PendingRequest(url, request, future));
+            }
+            return (CompletableFuture<HttpResponse<T>>) (CompletableFuture<?>) future;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return sendAsync(request, handler);
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            throw new UnsupportedOperationException("Only asynchronous requests are expected");
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return Redirect.NEVER;
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return Optional.empty();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return null;
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return null;
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.empty();
+        }
+    }
+
+    private static class PendingRequest {
+        private final String url;
+        private final HttpRequest request;
+        private final CompletableFuture<HttpResponse<String>> future;
+
+        PendingRequest(String url, HttpRequest request, CompletableFuture<HttpResponse<String>> future) {
+            this.url = url;
+            this.request = request;
+            this.future = future;
+        }
+    }
+
+    private static class FakeResponse implements HttpResponse<String> {
+        private final HttpRequest request;
+        private final int status;
+        private final String body;
+
+        FakeResponse(HttpRequest request, int status, String body) {
+            this.request = request;
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
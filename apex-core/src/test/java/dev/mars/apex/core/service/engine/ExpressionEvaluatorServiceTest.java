@@ -17,11 +17,13 @@ package dev.mars.apex.core.service.engine;
  */
 
 
+import dev.mars.apex.core.engine.config.ExpressionCompilationStatus;
 import dev.mars.apex.core.engine.model.RuleResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 
@@ -192,4 +194,29 @@ class ExpressionEvaluatorServiceTest {
         assertNotNull(result4);
         assertTrue(result4);
     }
+
+    @Test
+    @DisplayName("Should reuse parsed expressions across evaluations")
+    void testExpressionsAreCached() {
+        context.setVariable("age", 25);
+
+        expressionEvaluator.evaluate("#age > 18", context, Boolean.class);
+        expressionEvaluator.evaluate("#age > 18", context, Boolean.class);
+
+        assertEquals(1, expressionEvaluator.getExpressionCache().getMissCount());
+        assertEquals(1, expressionEvaluator.getExpressionCache().getHitCount());
+        assertEquals(ExpressionCompilationStatus.DISABLED, expressionEvaluator.getCompilationStatus("#age > 18"));
+    }
+
+    @Test
+    @DisplayName("Should compile expressions when a compiler mode is configured")
+    void testCompiledExpressions() {
+        ExpressionEvaluatorService compilingEvaluator = new ExpressionEvaluatorService(SpelCompilerMode.MIXED);
+        context.setVariable("age", 25);
+
+        assertTrue(compilingEvaluator.evaluate("#age > 18", context, Boolean.class));
+        assertEquals(ExpressionCompilationStatus.COMPILED, compilingEvaluator.getCompilationStatus("#age > 18"));
+        assertTrue(compilingEvaluator.evaluate("#age > 18", context, Boolean.class));
+        assertEquals(ExpressionCompilationStatus.NOT_EVALUATED, compilingEvaluator.getCompilationStatus("#age < 18"));
+    }
 }
@@ -0,0 +1,142 @@
+package dev.mars.apex.core.service.enrichment;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bounded lookup result cache used by YamlEnrichmentProcessor.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class LookupResultCacheTest {
+
+    private LookupResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LookupResultCache();
+    }
+
+    @Test
+    @DisplayName("Should return cached results and count hits and misses")
+    void testHitsAndMisses() {
+        assertNull(cache.get("currencies", "USD"));
+
+        cache.put("currencies", "USD", Map.of("name", "US Dollar"), 300, 10);
+        LookupResultCache.CachedResult cached = cache.get("currencies", "USD");
+
+        assertNotNull(cached);
+        assertEquals(Map.of("name", "US Dollar"), cached.getResult());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Should keep lookup services apart without composite string keys")
+    void testPartitionsByService() {
+        cache.put("currencies", "GBP", "Pound", 300, 10);
+        cache.put("countries", "GBP", "Great Britain", 300, 10);
+
+        assertEquals("Pound", cache.get("currencies", "GBP").getResult());
+        assertEquals("Great Britain", cache.get("countries", "GBP").getResult());
+        assertEquals(Map.of("currencies", 1, "countries", 1), cache.getSizeByService());
+    }
+
+    @Test
+    @DisplayName("Should cache null results")
+    void testNullResult() {
+        cache.put("counterparties", "UNKNOWN-LEI", null, 300, 10);
+
+        LookupResultCache.CachedResult cached = cache.get("counterparties", "UNKNOWN-LEI");
+        assertNotNull(cached);
+        assertNull(cached.getResult());
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest entries once a service reaches its limit")
+    void testBoundedPerService() {
+        for (int i = 0; i < 1000; i++) {
+            cache.put("counterparties", "LEI-" + i, i, 300, 100);
+        }
+        cache.put("currencies", "USD", "US Dollar", 300, 100);
+
+        assertEquals(100, cache.getSizeByService().get("counterparties"));
+        assertEquals(101, cache.size());
+        assertEquals(900, cache.getEvictionCount());
+        assertNull(cache.get("counterparties", "LEI-0"));
+        assertEquals(999, cache.get("counterparties", "LEI-999").getResult());
+    }
+
+    @Test
+    @DisplayName("Should keep the largest limit of a service shared by several enrichments")
+    void testLimitOfSharedService() {
+        for (int i = 0; i < 100; i++) {
+            cache.put("counterparties", "LEI-" + i, i, 300, 100);
+        }
+        // Another enrichment with a smaller limit must not shrink the partition
+        cache.put("counterparties", "LEI-100", 100, 300, 10);
+
+        assertEquals(100, cache.getSizeByService().get("counterparties"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.get("counterparties", "LEI-1").getResult());
+    }
+
+    @Test
+    @DisplayName("Should not count replaced entries against the limit")
+    void testReplacedEntries() {
+        cache.put("currencies", "USD", "old", 300, 2);
+        cache.put("currencies", "USD", "new", 300, 2);
+        cache.put("currencies", "EUR", "Euro", 300, 2);
+
+        assertEquals("new", cache.get("currencies", "USD").getResult());
+        assertEquals("Euro", cache.get("currencies", "EUR").getResult());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("Should remove expired entries when they are read")
+    void testExpiredEntriesRemoved() throws InterruptedException {
+        cache.put("currencies", "USD", "US Dollar", 0, 10);
+        Thread.sleep(10);
+
+        assertEquals(1, cache.countExpired());
+        assertNull(cache.get("currencies", "USD"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    @DisplayName("Should clear all entries")
+    void testClear() {
+        cache.put("currencies", "USD", "US Dollar", 300, 10);
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("currencies", "USD"));
+    }
+}
@@ -0,0 +1,320 @@
+package dev.mars.apex.core.service.lookup;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import dev.mars.apex.core.config.datasource.DataSourceConfiguration;
+import dev.mars.apex.core.service.data.external.ConnectionStatus;
+import dev.mars.apex.core.service.data.external.DataSourceException;
+import dev.mars.apex.core.service.data.external.DataSourceMetrics;
+import dev.mars.apex.core.service.data.external.DataSourceType;
+import dev.mars.apex.core.service.data.external.ExternalDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for batched lookups in DatabaseLookupService.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class DatabaseLookupServiceTest {
+
+    private static final String QUERY = "SELECT code, name FROM currencies c WHERE c.code = :code";
+
+    @Test
+    @DisplayName("Should resolve all keys with a single IN-list query")
+    void testTransformAllUsesSingleQuery() {
+        RecordingDataSource dataSource = new RecordingDataSource();
+        DatabaseLookupService service = new DatabaseLookupService("currencies", dataSource, QUERY,
+                                                                  List.of("code"), null);
+
+        Map<Object, Object> results = service.transformAll(Arrays.asList("USD", "EUR", "USD", "XXX"));
+
+        assertTrue(service.isBatchable());
+        assertEquals(1, dataSource.queries.size());
+        assertEquals("SELECT code, name FROM currencies c WHERE c.code IN (:code)", dataSource.queries.get(0));
+        assertEquals(List.of("USD", "EUR", "XXX"), dataSource.parameters.get(0).get("code"));
+
+        assertEquals(3, results.size());
+        assertEquals("US Dollar", ((Map<?, ?>) results.get("USD")).get("NAME"));
+        assertEquals("Euro", ((Map<?, ?>) results.get("EUR")).get("NAME"));
+        assertNull(results.get("XXX"));
+    }
+
+    @Test
+    @DisplayName("Should merge default values into batched results")
+    void testTransformAllMergesDefaults() {
+        RecordingDataSource dataSource = new RecordingDataSource();
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("NAME", "Unknown");
+        defaults.put("ACTIVE", true);
+        DatabaseLookupService service = new DatabaseLookupService("currencies", dataSource, QUERY,
+                                                                  List.of("code"), defaults);
+
+        Map<Object, Object> results = service.transformAll(List.of("USD", "XXX"));
+
+        Map<?, ?> usd = (Map<?, ?>) results.get("USD");
+        assertEquals("US Dollar", usd.get("NAME"));
+        assertEquals(true, usd.get("ACTIVE"));
+        assertEquals("Unknown", ((Map<?, ?>) results.get("XXX")).get("NAME"));
+    }
+
+    @Test
+    @DisplayName("Should split large key sets into several queries")
+    void testTransformAllChunksKeys() {
+        RecordingDataSource dataSource = new RecordingDataSource();
+        DatabaseLookupService service = new DatabaseLookupService("currencies", dataSource, QUERY,
+                                                                  List.of("code"), null);
+
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < DatabaseLookupService.MAX_KEYS_PER_QUERY * 2 + 1; i++) {
+            keys.add("K" + i);
+        }
+        Map<Object, Object> results = service.transformAll(keys);
+
+        assertEquals(3, dataSource.queries.size());
+        assertEquals(keys.size(), results.size());
+    }
+
+    @Test
+    @DisplayName("Should fall back to single lookups for queries that cannot be batched")
+    void testNonBatchableQueryFallsBack() {
+        RecordingDataSource dataSource = new RecordingDataSource();
+        DatabaseLookupService service = new DatabaseLookupService("currencies", dataSource,
+            "SELECT code, name FROM currencies WHERE code = :code AND region = :region",
+            List.of("code", "region"), null);
+
+        service.transformAll(List.of("USD", "EUR"));
+
+        assertFalse(service.isBatchable());
+        assertEquals(2, dataSource.queries.size());
+        assertEquals(0, dataSource.listQueryCount);
+    }
+
+    @Test
+    @DisplayName("Should fall back to single lookups when rows do not contain the key column")
+    void testMissingKeyColumnFallsBack() {
+        RecordingDataSource dataSource = new RecordingDataSource();
+        DatabaseLookupService service = new DatabaseLookupService("currencies", dataSource,
+            "SELECT name FROM currencies WHERE code = :code", List.of("code"), null);
+
+        Map<Object, Object> results = service.transformAll(List.of("USD"));
+
+        assertEquals(1, dataSource.listQueryCount);
+        assertEquals(2, dataSource.queries.size());
+        assertNotNull(results.get("USD"));
+    }
+
+    @Test
+    @DisplayName("Should match DECIMAL and padded CHAR key columns to the keys")
+    void testKeyColumnValuesAreNormalized() {
+        RecordingDataSource dataSource = new FixedRowsDataSource(List.of(
+            Map.of("ID", new BigDecimal("1.00"), "NAME", "One"),
+            Map.of("ID", new BigDecimal("20"), "NAME", "Twenty"),
+            Map.of("ID", "EU  ", "NAME", "Europe")));
+        DatabaseLookupService service = new DatabaseLookupService("items", dataSource,
+            "SELECT id, name FROM items WHERE id = :id", List.of("id"), null);
+
+        Map<Object, Object> results = service.transformAll(List.of(1, 20L, new BigDecimal("2E+1"), "EU", 3));
+
+        assertEquals(1, dataSource.queries.size());
+        assertEquals("One", ((Map<?, ?>) results.get(1)).get("NAME"));
+        assertEquals("Twenty", ((Map<?, ?>) results.get(20L)).get("NAME"));
+        assertEquals("Twenty", ((Map<?, ?>) results.get(new BigDecimal("2E+1"))).get("NAME"));
+        assertEquals("Europe", ((Map<?, ?>) results.get("EU")).get("NAME"));
+        assertNull(results.get(3));
+    }
+
+    @Test
+    @DisplayName("Should look up keys singly when returned rows match none of the keys")
+    void testUnmatchedRowsFallBackToSingleLookups() {
+        RecordingDataSource dataSource = new FixedRowsDataSource(List.of(Map.of("ID", "usd", "NAME", "US Dollar")));
+        DatabaseLookupService service = new DatabaseLookupService("items", dataSource,
+            "SELECT id, name FROM items WHERE id = :id", List.of("id"), null);
+
+        Map<Object, Object> results = service.transformAll(List.of("USD"));
+
+        assertEquals(2, dataSource.queries.size());
+        assertEquals("US Dollar", ((Map<?, ?>) results.get("USD")).get("NAME"));
+    }
+
+    /**
+     * Data source that answers every query with the same rows, as a database with
+     * DECIMAL, CHAR or case-insensitive key columns would.
+     */
+    private static class FixedRowsDataSource extends RecordingDataSource {
+        private final List<Map<String, Object>> rows;
+
+        private FixedRowsDataSource(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String query, Map<String, Object> params) {
+            super.queries.add(query);
+            return new ArrayList<>((List<T>) rows);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String query, Map<String, Object> params) {
+            super.queries.add(query);
+            return rows.isEmpty() ? null : (T) new HashMap<>(rows.get(0));
+        }
+    }
+
+    /**
+     * Data source that records queries and answers from a fixed currency table.
+     */
+    private static class RecordingDataSource implements ExternalDataSource {
+        private final List<String> queries = new ArrayList<>();
+        private final List<Map<String, Object>> parameters = new ArrayList<>();
+        private int listQueryCount;
+
+        private static Map<String, Object> row(String code, String name, boolean includeCode) {
+            Map<String, Object> row = new HashMap<>();
+            if (includeCode) {
+                row.put("CODE", code);
+            }
+            row.put("NAME", name);
+            return row;
+        }
+
+        private static String nameOf(Object code) {
+            if ("USD".equals(code)) {
+                return "US Dollar";
+            }
+            if ("EUR".equals(code)) {
+                return "Euro";
+            }
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String query, Map<String, Object> params) {
+            queries.add(query);
+            parameters.add(params);
+            listQueryCount++;
+            boolean includeCode = query.startsWith("SELECT code");
+            List<T> rows = new ArrayList<>();
+            for (Object code : (Collection<?>) params.get("code")) {
+                String name = nameOf(code);
+                if (name != null) {
+                    rows.add((T) row((String) code, name, includeCode));
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String query, Map<String, Object> params) {
+            queries.add(query);
+            parameters.add(params);
+            String name = nameOf(params.get("code"));
+            return name == null ? null : (T) row((String) params.get("code"), name, true);
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public String getDataType() {
+            return "database";
+        }
+
+        @Override
+        public boolean supportsDataType(String dataType) {
+            return "database".equals(dataType);
+        }
+
+        @Override
+        public <T> T getData(String dataType, Object... params) {
+            return null;
+        }
+
+        @Override
+        public <T> List<List<T>> batchQuery(List<String> batch) throws DataSourceException {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public void batchUpdate(List<String> updates) throws DataSourceException {
+            // No-op for test
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+
+        @Override
+        public boolean testConnection() {
+            return true;
+        }
+
+        @Override
+        public ConnectionStatus getConnectionStatus() {
+            return ConnectionStatus.connected("Test connection");
+        }
+
+        @Override
+        public void shutdown() {
+            // No-op for test
+        }
+
+        @Override
+        public DataSourceType getSourceType() {
+            return DataSourceType.DATABASE;
+        }
+
+        @Override
+        public DataSourceMetrics getMetrics() {
+            return new DataSourceMetrics();
+        }
+
+        @Override
+        public void initialize(DataSourceConfiguration config) {
+            // No-op for test
+        }
+
+        @Override
+        public DataSourceConfiguration getConfiguration() {
+            return null;
+        }
+
+        @Override
+        public void refresh() {
+            // No-op for test
+        }
+    }
+}
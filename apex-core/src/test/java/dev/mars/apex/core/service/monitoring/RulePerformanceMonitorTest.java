@@ -161,6 +161,22 @@ class RulePerformanceMonitorTest {
         assertTrue(performanceMonitor.isEnabled());
     }
 
+    @Test
+    @DisplayName("Should record nothing while monitoring is disabled")
+    void testDisabledMonitoringRecordsNothing() {
+        performanceMonitor.setEnabled(false);
+
+        RulePerformanceMetrics.Builder first = performanceMonitor.startEvaluation("disabledRule");
+        RulePerformanceMetrics.Builder second = performanceMonitor.startEvaluation("otherRule");
+        assertSame(first, second);
+
+        RulePerformanceMetrics metrics = performanceMonitor.completeEvaluation(first, "true");
+        assertNotNull(metrics);
+        assertEquals(0, metrics.getEvaluationTimeNanos());
+        assertEquals(0, performanceMonitor.getTotalEvaluations());
+        assertTrue(performanceMonitor.getRuleHistory("disabledRule").isEmpty());
+    }
+
     @Test
     @DisplayName("Should clear metrics")
     void testClearMetrics() {
@@ -255,4 +271,73 @@ class RulePerformanceMonitorTest {
         // Verify total evaluations
         assertTrue(performanceMonitor.getTotalEvaluations() >= threadCount * evaluationsPerThread);
     }
+
+    @Test
+    @DisplayName("Should record per-rule statistics in low-overhead mode")
+    void testLowOverheadModeRecordsStatistics() {
+        performanceMonitor.setMode(MonitoringMode.LOW_OVERHEAD);
+
+        for (int i = 0; i < 10; i++) {
+            RulePerformanceMetrics.Builder builder = performanceMonitor.startEvaluation("fastRule");
+            Exception failure = i == 0 ? new RuntimeException("first") : null;
+            RulePerformanceMetrics metrics = performanceMonitor.completeEvaluation(builder, "#amount > 100", failure);
+            assertTrue(metrics.getEvaluationTimeNanos() >= 0);
+            assertNull(metrics.getStartTime());
+        }
+
+        RuleLatencyStatistics statistics = performanceMonitor.getRuleStatistics("fastRule");
+        assertNotNull(statistics);
+        assertEquals(10, statistics.getEvaluationCount());
+        assertEquals(1, statistics.getFailedEvaluations());
+        assertEquals(0.9, statistics.getSuccessRate(), 0.0001);
+        assertTrue(statistics.getPercentileNanos(50.0) <= statistics.getMaxEvaluationTimeNanos());
+        assertEquals(10, performanceMonitor.getTotalEvaluations());
+
+        // No history or snapshots without sampling
+        assertTrue(performanceMonitor.getRuleHistory("fastRule").isEmpty());
+        assertNull(performanceMonitor.getRuleSnapshot("fastRule"));
+    }
+
+    @Test
+    @DisplayName("Should compute expression complexity once per condition")
+    void testComplexityComputedOnce() {
+        String condition = "#a > 1 && #b.contains('x')";
+        performanceMonitor.registerRule("complexRule", condition);
+        performanceMonitor.setMode(MonitoringMode.LOW_OVERHEAD);
+
+        RulePerformanceMetrics.Builder builder = performanceMonitor.startEvaluation("complexRule");
+        RulePerformanceMetrics metrics = performanceMonitor.completeEvaluation(builder, condition);
+
+        assertEquals(performanceMonitor.getExpressionComplexity(condition), metrics.getExpressionComplexity());
+        assertEquals(metrics.getExpressionComplexity(),
+                     performanceMonitor.getRuleStatistics("complexRule").getExpressionComplexity());
+        assertTrue(metrics.getExpressionComplexity() > 0);
+    }
+
+    @Test
+    @DisplayName("Should record sampled evaluations in history in low-overhead mode")
+    void testLowOverheadSampling() {
+        performanceMonitor.setMode(MonitoringMode.LOW_OVERHEAD);
+        performanceMonitor.setDetailSampleInterval(1);
+
+        RulePerformanceMetrics.Builder builder = performanceMonitor.startEvaluation("sampledRule");
+        RulePerformanceMetrics metrics = performanceMonitor.completeEvaluation(builder, "true");
+
+        assertNotNull(metrics.getStartTime());
+        assertEquals(1, performanceMonitor.getRuleHistory("sampledRule").size());
+        assertNotNull(performanceMonitor.getRuleSnapshot("sampledRule"));
+        assertThrows(IllegalArgumentException.class, () -> performanceMonitor.setDetailSampleInterval(-1));
+    }
+
+    @Test
+    @DisplayName("Should clear low-overhead statistics")
+    void testClearLowOverheadStatistics() {
+        performanceMonitor.setMode(MonitoringMode.LOW_OVERHEAD);
+        performanceMonitor.completeEvaluation(performanceMonitor.startEvaluation("clearedRule"), "true");
+
+        performanceMonitor.clearMetrics();
+
+        assertEquals(0, performanceMonitor.getRuleStatistics("clearedRule").getEvaluationCount());
+        assertEquals(0, performanceMonitor.getTotalEvaluations());
+    }
 }
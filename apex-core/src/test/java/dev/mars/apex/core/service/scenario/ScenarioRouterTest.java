@@ -0,0 +1,134 @@
+package dev.mars.apex.core.service.scenario;
+
+/*
+ * Copyright 2025 Mark Andrew Ray-Smith Cityline Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the compiled routing table of DataTypeScenarioService.
+ *
+ * @author Mark Andrew Ray-Smith Cityline Ltd
+ * @since 2026-10-18
+ * @version 1.0
+ */
+class ScenarioRouterTest {
+
+    private final Map<String, ScenarioConfiguration> scenarios = new HashMap<>();
+    private final Map<String, List<String>> dataTypeToScenarios = new HashMap<>();
+
+    @Test
+    @DisplayName("Should route by class name, then routing rule, then default scenario")
+    void testRoutingOrder() {
+        register("options", "Option");
+        register("options-audit", "Option");
+        register("swaps", "SwapDeal");
+        register("fallback");
+        ScenarioRouter router = new ScenarioRouter(dataTypeToScenarios, scenarios,
+            routing("fallback", rule("#data.class.simpleName == 'Future'", "swaps"),
+                               rule("#dataType == 'Future'", "options")));
+
+        ScenarioRouter.Route option = router.route(new Option());
+        assertEquals(ScenarioRouter.RouteSource.DATA_TYPE, option.getSource());
+        assertEquals("options", option.getScenario().getScenarioId());
+        assertEquals(2, option.getScenarios().size());
+
+        ScenarioRouter.Route future = router.route(new Future());
+        assertEquals(ScenarioRouter.RouteSource.ROUTING_RULE, future.getSource());
+        assertEquals("swaps", future.getScenario().getScenarioId());
+
+        ScenarioRouter.Route other = router.route("not a trade");
+        assertEquals(ScenarioRouter.RouteSource.DEFAULT, other.getSource());
+        assertEquals("fallback", other.getScenario().getScenarioId());
+
+        // Routes are cached per class
+        assertSame(option, router.route(new Option()));
+    }
+
+    @Test
+    @DisplayName("Should route maps by their dataType field on every record")
+    void testMapRouting() {
+        register("options", "Option");
+        register("swaps", "SwapDeal");
+        ScenarioRouter router = new ScenarioRouter(dataTypeToScenarios, scenarios, routing(null));
+
+        Map<String, Object> swap = new HashMap<>();
+        swap.put("dataType", "SwapDeal");
+        Map<String, Object> option = new HashMap<>();
+        option.put("dataType", "Option");
+
+        assertEquals("swaps", router.route(swap).getScenario().getScenarioId());
+        assertEquals("options", router.route(option).getScenario().getScenarioId());
+
+        ScenarioRouter.Route untyped = router.route(new HashMap<String, Object>());
+        assertEquals(ScenarioRouter.RouteSource.NONE, untyped.getSource());
+        assertEquals("HashMap", untyped.getDataType());
+        assertNull(untyped.getScenario());
+    }
+
+    @Test
+    @DisplayName("Should rebuild routes when scenarios are registered with the service")
+    void testServiceRecompilesAfterRegistration() throws Exception {
+        DataTypeScenarioService service = new DataTypeScenarioService();
+        assertNull(service.getScenarioForData(new Option()));
+
+        ScenarioConfiguration scenario = new ScenarioConfiguration("options", "Options", List.of("Option"), List.of());
+        java.lang.reflect.Method registerMethod = DataTypeScenarioService.class
+            .getDeclaredMethod("registerScenario", ScenarioConfiguration.class);
+        registerMethod.setAccessible(true);
+        registerMethod.invoke(service, scenario);
+
+        assertSame(scenario, service.getScenarioForData(new Option()));
+        assertEquals(List.of(scenario), service.getScenariosForData(new Option()));
+        assertTrue(service.getScenariosForData(null).isEmpty());
+    }
+
+    private void register(String scenarioId, String... dataTypes) {
+        ScenarioConfiguration scenario = new ScenarioConfiguration(scenarioId, scenarioId, List.of(dataTypes), List.of());
+        scenarios.put(scenarioId, scenario);
+        for (String dataType : dataTypes) {
+            dataTypeToScenarios.computeIfAbsent(dataType, k -> new ArrayList<>()).add(scenarioId);
+        }
+    }
+
+    private static RoutingConfiguration routing(String defaultScenario, RoutingRule... rules) {
+        RoutingConfiguration routing = new RoutingConfiguration();
+        routing.setDefaultScenario(defaultScenario);
+        routing.setRules(List.of(rules));
+        return routing;
+    }
+
+    private static RoutingRule rule(String condition, String targetScenario) {
+        RoutingRule rule = new RoutingRule();
+        rule.setCondition(condition);
+        rule.setTargetScenario(targetScenario);
+        return rule;
+    }
+
+    private static class Option {
+    }
+
+    private static class Future {
+    }
+}
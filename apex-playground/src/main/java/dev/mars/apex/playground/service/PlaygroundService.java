@@ -17,10 +17,9 @@ package dev.mars.apex.playground.service;
  */
 
 
+import dev.mars.apex.core.config.yaml.RulesEngineSnapshot;
 import dev.mars.apex.core.config.yaml.YamlRulesEngineService;
 import dev.mars.apex.core.config.yaml.YamlRuleConfiguration;
-import dev.mars.apex.core.config.yaml.YamlConfigurationLoader;
-import dev.mars.apex.core.engine.config.RulesEngine;
 import dev.mars.apex.core.engine.model.RuleResult;
 import dev.mars.apex.core.config.yaml.YamlConfigurationException;
 import dev.mars.apex.core.service.enrichment.YamlEnrichmentProcessor;
@@ -34,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -55,6 +55,9 @@ public class PlaygroundService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlaygroundService.class);
 
+    // Number of compiled YAML configurations kept for reuse across requests
+    private static final int MAX_CACHED_SNAPSHOTS = 32;
+
     private final DataProcessingService dataProcessingService;
     private final YamlValidationService yamlValidationService;
     private final YamlRulesEngineService yamlRulesEngineService;
@@ -62,6 +65,15 @@ public class PlaygroundService {
     private final LookupServiceRegistry lookupServiceRegistry;
     private final ExpressionEvaluatorService expressionEvaluatorService;
 
+    // Compiled rules engines by YAML text, least recently used first; guarded by itself
+    private final Map<String, RulesEngineSnapshot> snapshotCache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RulesEngineSnapshot> eldest) {
+                return size() > MAX_CACHED_SNAPSHOTS;
+            }
+        };
+
     @Autowired
     public PlaygroundService(DataProcessingService dataProcessingService,
                            YamlValidationService yamlValidationService) {
@@ -113,16 +125,16 @@ public class PlaygroundService {
             );
             response.getMetrics().setDataParsingTimeMs(System.currentTimeMillis() - dataStartTime);
 
-            // Step 3: Create and execute rules engine
+            // Step 3: Get the compiled rules engine, reused while the YAML is unchanged
             long rulesStartTime = System.currentTimeMillis();
-            RulesEngine rulesEngine = yamlRulesEngineService.createRulesEngineFromString(request.getYamlRules());
+            RulesEngineSnapshot snapshot = getSnapshot(request.getYamlRules());
 
             // Execute rules against the parsed data
-            RuleResult ruleResult = rulesEngine.executeRulesForCategory("default", parsedData);
+            RuleResult ruleResult = snapshot.executeRulesForCategory("default", parsedData);
             response.getMetrics().setRulesExecutionTimeMs(System.currentTimeMillis() - rulesStartTime);
 
             // Step 4: Process results
-            processRuleResults(ruleResult, parsedData, response, request);
+            processRuleResults(ruleResult, parsedData, response, snapshot);
 
             // Step 5: Set final metrics and status
             response.getMetrics().setTotalTimeMs(System.currentTimeMillis() - startTime);
@@ -164,10 +176,29 @@ public class PlaygroundService {
         }
     }
 
+    /**
+     * Get the compiled rules engine for a YAML configuration, compiling it on first use.
+     */
+    private RulesEngineSnapshot getSnapshot(String yamlRules) throws YamlConfigurationException {
+        synchronized (snapshotCache) {
+            RulesEngineSnapshot cached = snapshotCache.get(yamlRules);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        YamlRuleConfiguration yamlConfig = yamlRulesEngineService.getConfigLoader().fromYamlString(yamlRules);
+        RulesEngineSnapshot snapshot = yamlRulesEngineService.createSnapshot(yamlConfig, enrichmentProcessor);
+        synchronized (snapshotCache) {
+            snapshotCache.put(yamlRules, snapshot);
+        }
+        return snapshot;
+    }
+
     /**
      * Process rule execution results and populate the response.
      */
-    private void processRuleResults(RuleResult ruleResult, Map<String, Object> originalData, PlaygroundResponse response, PlaygroundRequest request) {
+    private void processRuleResults(RuleResult ruleResult, Map<String, Object> originalData, PlaygroundResponse response, RulesEngineSnapshot snapshot) {
         // Process validation results
         PlaygroundResponse.ValidationResult validation = response.getValidation();
 
@@ -205,16 +236,13 @@ public class PlaygroundService {
         PlaygroundResponse.EnrichmentResult enrichment = response.getEnrichment();
 
         try {
-            // Parse YAML configuration to get enrichments
-            YamlConfigurationLoader configLoader = new YamlConfigurationLoader();
-            YamlRuleConfiguration yamlConfig = configLoader.fromYamlString(request.getYamlRules());
-
-            if (yamlConfig.getEnrichments() != null && !yamlConfig.getEnrichments().isEmpty()) {
+            // Enrichments come from the compiled configuration
+            if (!snapshot.getEnrichments().isEmpty()) {
                 // Create a copy of original data for enrichment
                 Map<String, Object> dataToEnrich = new HashMap<>(originalData);
 
                 // Apply real enrichments using APEX engine
-                Object enrichedResult = enrichmentProcessor.processEnrichments(yamlConfig.getEnrichments(), dataToEnrich);
+                Object enrichedResult = snapshot.processEnrichments(dataToEnrich);
 
                 // Set the actual enriched data
                 if (enrichedResult instanceof Map) {